@@ -0,0 +1,350 @@
+package com.dealaggregator.dealapi.analytics;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Covariance and correlation matrices over aligned return series, with
+ * optional Ledoit-Wolf shrinkage.
+ *
+ * Full computation centers every series into one symbol-major array and
+ * forms X X^T tile by tile: each task takes a pair of symbol tiles whose
+ * rows stay in cache while their dot products are taken, and tiles run in
+ * parallel. A 500 x 252 panel is ~32M multiply-adds.
+ *
+ * An instance is also a sliding-window engine: onBar() adds one bar's
+ * returns for every symbol and drops the oldest in O(n^2), the same
+ * add/remove scheme as RollingMoments, with a full recompute from the
+ * window every RollingMoments.RESYNC_WINDOWS windows.
+ */
+public final class CovarianceMatrix {
+
+    /** Symbols per tile side; 32 rows of a year of returns is ~64KB */
+    static final int TILE = 32;
+
+    private final int symbols;
+    private final int window;
+    private final double[] bars;  // Ring of bars, time-major: bars[slot * symbols + i]
+    private final double[] sums;  // Raw sum of returns per symbol
+    private final double[] cross; // Raw sum of products, full n x n
+    private int head;
+    private int count;
+    private final long resyncInterval;
+    private long updatesSinceResync;
+
+    public CovarianceMatrix(int symbols, int window) {
+        if (symbols < 1 || window < 2) {
+            throw new IllegalArgumentException("Need at least 1 symbol and a window of 2: " + symbols + ", " + window);
+        }
+        this.symbols = symbols;
+        this.window = window;
+        this.bars = new double[symbols * window];
+        this.sums = new double[symbols];
+        this.cross = new double[symbols * symbols];
+        this.resyncInterval = (long) window * RollingMoments.RESYNC_WINDOWS;
+    }
+
+    /**
+     * Add one bar of returns (one per symbol, in construction order),
+     * evicting the oldest bar once the window is full.
+     */
+    public void onBar(double[] returns) {
+        if (returns.length != symbols) {
+            throw new IllegalArgumentException("Expected " + symbols + " returns, got " + returns.length);
+        }
+        int offset = head * symbols;
+        if (count == window) {
+            addOuter(bars, offset, -1.0);
+        } else {
+            count++;
+        }
+        System.arraycopy(returns, 0, bars, offset, symbols);
+        addOuter(bars, offset, 1.0);
+        head = head + 1 == window ? 0 : head + 1;
+
+        if (++updatesSinceResync >= resyncInterval) {
+            resync();
+        }
+    }
+
+    /**
+     * Replace the window with the last {@code window} returns of each
+     * series (symbol x time, oldest first).
+     */
+    public void load(double[][] returns) {
+        if (returns.length != symbols) {
+            throw new IllegalArgumentException("Expected " + symbols + " series, got " + returns.length);
+        }
+        int length = returns[0].length;
+        int start = Math.max(0, length - window);
+        head = 0;
+        count = 0;
+        for (int t = start; t < length; t++) {
+            int offset = head * symbols;
+            for (int i = 0; i < symbols; i++) {
+                bars[offset + i] = returns[i][t];
+            }
+            head = head + 1 == window ? 0 : head + 1;
+            count++;
+        }
+        resync();
+    }
+
+    public boolean isReady() {
+        return count >= 2;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Current window's matrices. Sample covariance (n - 1) without
+     * shrinkage; Ledoit-Wolf uses the maximum-likelihood covariance as in
+     * the paper.
+     */
+    public Result snapshot(boolean shrink) {
+        if (!isReady()) {
+            throw new IllegalStateException("Need at least 2 bars, have " + count);
+        }
+        double[] centered = centeredWindow();
+        if (shrink) {
+            double[] products = new double[symbols * symbols];
+            crossProducts(centered, symbols, count, products);
+            return ledoitWolf(centered, products, symbols, count);
+        }
+        double[] covariance = new double[symbols * symbols];
+        for (int i = 0; i < symbols; i++) {
+            for (int j = 0; j < symbols; j++) {
+                covariance[i * symbols + j] = (cross[i * symbols + j] - sums[i] * sums[j] / count) / (count - 1);
+            }
+        }
+        return new Result(symbols, covariance, 0.0);
+    }
+
+    /**
+     * One-shot covariance/correlation of aligned series (symbol x time,
+     * equal lengths).
+     */
+    public static Result compute(double[][] returns, boolean shrink) {
+        int n = returns.length;
+        int t = returns[0].length;
+        if (t < 2) {
+            throw new IllegalArgumentException("Need at least 2 observations, got " + t);
+        }
+        double[] centered = new double[n * t];
+        for (int i = 0; i < n; i++) {
+            if (returns[i].length != t) {
+                throw new IllegalArgumentException("Series " + i + " has " + returns[i].length + " returns, expected " + t);
+            }
+            double mean = 0;
+            for (int k = 0; k < t; k++) {
+                mean += returns[i][k];
+            }
+            mean /= t;
+            for (int k = 0; k < t; k++) {
+                centered[i * t + k] = returns[i][k] - mean;
+            }
+        }
+
+        double[] products = new double[n * n];
+        crossProducts(centered, n, t, products);
+        if (shrink) {
+            return ledoitWolf(centered, products, n, t);
+        }
+        for (int k = 0; k < products.length; k++) {
+            products[k] /= t - 1;
+        }
+        return new Result(n, products, 0.0);
+    }
+
+    /**
+     * out = X X^T for symbol-major rows X[i * t + k], by parallel tiles.
+     */
+    static void crossProducts(double[] x, int n, int t, double[] out) {
+        int tiles = (n + TILE - 1) / TILE;
+        int pairs = tiles * (tiles + 1) / 2;
+        IntStream.range(0, pairs).parallel().forEach(p -> {
+            // Unrank p into the upper-triangular tile pair (bi <= bj)
+            int bi = 0;
+            int remaining = p;
+            while (remaining >= tiles - bi) {
+                remaining -= tiles - bi;
+                bi++;
+            }
+            int bj = bi + remaining;
+            multiplyTile(x, n, t, bi * TILE, bj * TILE, out);
+        });
+    }
+
+    private static void multiplyTile(double[] x, int n, int t, int rowStart, int colStart, double[] out) {
+        int rowEnd = Math.min(n, rowStart + TILE);
+        int colEnd = Math.min(n, colStart + TILE);
+        for (int i = rowStart; i < rowEnd; i++) {
+            int a = i * t;
+            for (int j = rowStart == colStart ? i : colStart; j < colEnd; j++) {
+                int b = j * t;
+                // Four accumulators break the add dependency chain
+                double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+                int k = 0;
+                for (; k + 3 < t; k += 4) {
+                    s0 += x[a + k] * x[b + k];
+                    s1 += x[a + k + 1] * x[b + k + 1];
+                    s2 += x[a + k + 2] * x[b + k + 2];
+                    s3 += x[a + k + 3] * x[b + k + 3];
+                }
+                for (; k < t; k++) {
+                    s0 += x[a + k] * x[b + k];
+                }
+                double dot = (s0 + s1) + (s2 + s3);
+                out[i * n + j] = dot;
+                out[j * n + i] = dot;
+            }
+        }
+    }
+
+    /**
+     * Ledoit-Wolf (2004) shrinkage of the MLE covariance toward mu * I,
+     * mu = average variance.
+     */
+    private static Result ledoitWolf(double[] centered, double[] products, int n, int t) {
+        double[] covariance = new double[n * n];
+        double trace = 0;
+        double frobenius = 0;
+        for (int k = 0; k < covariance.length; k++) {
+            covariance[k] = products[k] / t;
+            frobenius += covariance[k] * covariance[k];
+        }
+        for (int i = 0; i < n; i++) {
+            trace += covariance[i * n + i];
+        }
+        double mu = trace / n;
+
+        // sum_t (sum_i x_ti^2)^2 = sum over i, j, t of x_ti^2 x_tj^2
+        double fourth = 0;
+        for (int k = 0; k < t; k++) {
+            double rowNorm = 0;
+            for (int i = 0; i < n; i++) {
+                double v = centered[i * t + k];
+                rowNorm += v * v;
+            }
+            fourth += rowNorm * rowNorm;
+        }
+
+        double delta = (frobenius - 2 * mu * trace + n * mu * mu) / n;
+        double beta = Math.min(delta, (fourth / t - frobenius) / ((double) n * t));
+        double shrinkage = delta > 0 ? Math.max(0, beta) / delta : 0.0;
+
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                covariance[i * n + j] *= 1 - shrinkage;
+            }
+            covariance[i * n + i] += shrinkage * mu;
+        }
+        return new Result(n, covariance, shrinkage);
+    }
+
+    /** Window copied out symbol-major and demeaned */
+    private double[] centeredWindow() {
+        double[] centered = new double[symbols * count];
+        int oldest = count == window ? head : 0;
+        for (int i = 0; i < symbols; i++) {
+            double mean = 0;
+            for (int k = 0; k < count; k++) {
+                int slot = (oldest + k) % window;
+                double v = bars[slot * symbols + i];
+                centered[i * count + k] = v;
+                mean += v;
+            }
+            mean /= count;
+            for (int k = 0; k < count; k++) {
+                centered[i * count + k] -= mean;
+            }
+        }
+        return centered;
+    }
+
+    private void addOuter(double[] data, int offset, double sign) {
+        for (int i = 0; i < symbols; i++) {
+            double xi = sign * data[offset + i];
+            sums[i] += xi;
+            int row = i * symbols;
+            for (int j = 0; j < symbols; j++) {
+                cross[row + j] += xi * data[offset + j];
+            }
+        }
+    }
+
+    /** Rebuild raw sums from the window: exact, via the tiled kernel */
+    private void resync() {
+        if (count == 0) {
+            Arrays.fill(sums, 0);
+            Arrays.fill(cross, 0);
+            updatesSinceResync = 0;
+            return;
+        }
+        double[] raw = new double[symbols * count];
+        int oldest = count == window ? head : 0;
+        for (int i = 0; i < symbols; i++) {
+            double sum = 0;
+            for (int k = 0; k < count; k++) {
+                double v = bars[((oldest + k) % window) * symbols + i];
+                raw[i * count + k] = v;
+                sum += v;
+            }
+            sums[i] = sum;
+        }
+        crossProducts(raw, symbols, count, cross);
+        updatesSinceResync = 0;
+    }
+
+    /**
+     * Covariance and correlation matrices, row-major n x n.
+     */
+    public static class Result {
+        private final int size;
+        private final double[] covariance;
+        private final double[] correlation;
+        private final double shrinkage;
+
+        Result(int size, double[] covariance, double shrinkage) {
+            this.size = size;
+            this.covariance = covariance;
+            this.shrinkage = shrinkage;
+            this.correlation = new double[size * size];
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    double scale = Math.sqrt(covariance[i * size + i] * covariance[j * size + j]);
+                    correlation[i * size + j] = i == j ? 1.0 : scale > 0 ? covariance[i * size + j] / scale : 0.0;
+                }
+            }
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public double getCovariance(int i, int j) {
+            return covariance[i * size + j];
+        }
+
+        public double getCorrelation(int i, int j) {
+            return correlation[i * size + j];
+        }
+
+        /** Row-major n x n covariance */
+        public double[] getCovarianceMatrix() {
+            return covariance;
+        }
+
+        /** Row-major n x n correlation */
+        public double[] getCorrelationMatrix() {
+            return correlation;
+        }
+
+        /** Ledoit-Wolf intensity toward mu * I, 0 when not shrunk */
+        public double getShrinkage() {
+            return shrinkage;
+        }
+    }
+}
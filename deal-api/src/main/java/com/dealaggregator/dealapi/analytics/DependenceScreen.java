@@ -0,0 +1,377 @@
+package com.dealaggregator.dealapi.analytics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Dependence of each symbol's returns on an index: Hoeffding's D with its
+ * Weibull p-value approximation, Pearson and Spearman correlation with
+ * t-test p-values and Fisher-z confidence intervals.
+ *
+ * Ports of "Hoeffding D Screener against Index.pine" and
+ * "Correlation with P-Value &amp; Confidence Interval.pine". Every series is
+ * ranked once (see rank()), the index only once per screen. Hoeffding's
+ * bivariate counts come from a Fenwick tree, so each pair is O(n log n)
+ * instead of the script's O(n^2).
+ */
+public final class DependenceScreen {
+
+    /** Pine Hoeffding screener default */
+    public static final int DEFAULT_LENGTH = 30;
+    /** 95% two-sided normal quantile, the Pine CI multiplier */
+    public static final double DEFAULT_CONFIDENCE_MULTIPLIER = 1.96;
+    /** Symbols per fork-join leaf in screen() */
+    private static final int SCREEN_LEAF_SIZE = 8;
+
+    private DependenceScreen() {
+    }
+
+    /**
+     * A series with its ranks, computed once and reused for every pair.
+     */
+    public static final class RankedSeries {
+        private final double[] values;
+        private final int[] minRanks;    // 1 + count strictly below
+        private final double[] midRanks; // Average rank for ties
+
+        private RankedSeries(double[] values, int[] minRanks, double[] midRanks) {
+            this.values = values;
+            this.minRanks = minRanks;
+            this.midRanks = midRanks;
+        }
+
+        public int length() {
+            return values.length;
+        }
+    }
+
+    /**
+     * Rank the last {@code length} values of a series (oldest first).
+     */
+    public static RankedSeries rank(double[] series, int length) {
+        int n = Math.min(length, series.length);
+        double[] values = Arrays.copyOfRange(series, series.length - n, series.length);
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        int[] minRanks = new int[n];
+        double[] midRanks = new double[n];
+        for (int i = 0; i < n; i++) {
+            int lower = lowerBound(sorted, values[i]);
+            int upper = upperBound(sorted, values[i]);
+            minRanks[i] = lower + 1;
+            midRanks[i] = (lower + upper + 1) / 2.0;
+        }
+        return new RankedSeries(values, minRanks, midRanks);
+    }
+
+    /**
+     * Hoeffding's D (Pine's Dn, ranges -0.5 to 1) for two ranked series of
+     * equal length; NaN below 5 observations.
+     */
+    public static double hoeffdingD(RankedSeries x, RankedSeries y) {
+        int n = x.length();
+        if (n != y.length()) {
+            throw new IllegalArgumentException("Series lengths differ: " + n + " vs " + y.length());
+        }
+        if (n < 5) {
+            return Double.NaN;
+        }
+        int[] both = bivariateCounts(x.minRanks, y.minRanks);
+
+        double q = 0, r = 0, s = 0;
+        for (int i = 0; i < n; i++) {
+            double rx = x.minRanks[i];
+            double ry = y.minRanks[i];
+            double c = both[i];
+            q += (rx - 1) * (rx - 2) * (ry - 1) * (ry - 2);
+            r += (rx - 2) * (ry - 2) * c;
+            s += (c - 1) * c;
+        }
+        return 30 * (q - 2 * (n - 2) * r + (n - 2) * (n - 3) * s)
+                / ((double) n * (n - 1) * (n - 2) * (n - 3) * (n - 4));
+    }
+
+    /**
+     * P-value of Hoeffding's D under independence, from the script's
+     * Weibull approximation. Small values mean dependence.
+     */
+    public static double hoeffdingPValue(double d, int n) {
+        if (Double.isNaN(d)) {
+            return Double.NaN;
+        }
+        double sigma = 0.1435 + 0.38 / Math.exp(0.174 * n) + 0.0385 / Math.exp(0.0019 * n);
+        double lambda = -7.26 / (1 + 2.09 / Math.exp(0.1 * n) - 0.3 / Math.exp(0.0025 * n));
+        double gamma = 0.01266 + 0.023 / Math.exp(0.088 * n) + 0.0037 / Math.exp(0.0114 * n);
+        double mu = -0.1537 * (1 + 2.43 / Math.exp(0.168 * n) + 0.253 / Math.exp(0.002 * n));
+
+        double scaled = Math.max(0, (d - mu) / sigma);
+        double p = Math.pow(1 - lambda * Math.pow(scaled, 1 / gamma), 1 / lambda);
+        return Math.min(1, Math.max(0, p));
+    }
+
+    /**
+     * Pearson correlation of two equal-length arrays.
+     */
+    public static double pearson(double[] x, double[] y) {
+        int n = x.length;
+        double meanX = 0, meanY = 0;
+        for (int i = 0; i < n; i++) {
+            meanX += x[i];
+            meanY += y[i];
+        }
+        meanX /= n;
+        meanY /= n;
+        double sxy = 0, sxx = 0, syy = 0;
+        for (int i = 0; i < n; i++) {
+            double dx = x[i] - meanX;
+            double dy = y[i] - meanY;
+            sxy += dx * dy;
+            sxx += dx * dx;
+            syy += dy * dy;
+        }
+        return sxy / Math.sqrt(sxx * syy);
+    }
+
+    /**
+     * Correlation with t-test p-value and Fisher-z confidence interval.
+     */
+    public static CorrelationResult correlation(double r, int n, double confidenceMultiplier) {
+        double pValue = Double.NaN;
+        double lower = Double.NaN;
+        double upper = Double.NaN;
+        if (!Double.isNaN(r) && n > 3) {
+            double t = r * Math.sqrt((n - 2) / Math.max(1e-300, 1 - r * r));
+            pValue = Distributions.studentTTwoSided(t, n - 2);
+
+            double clamped = Math.max(-0.999999999, Math.min(0.999999999, r));
+            double z = 0.5 * Math.log((1 + clamped) / (1 - clamped));
+            double se = 1.0 / Math.sqrt(n - 3);
+            lower = Math.tanh(z - confidenceMultiplier * se);
+            upper = Math.tanh(z + confidenceMultiplier * se);
+        }
+        return new CorrelationResult(r, pValue, lower, upper);
+    }
+
+    /**
+     * Every symbol against one index, split across the fork-join pool.
+     *
+     * @param symbols Ticker per series
+     * @param returns Returns per ticker, oldest first, aligned with the index
+     * @param index   Index returns, oldest first
+     * @param length  Observations to use (the most recent)
+     */
+    public static DependenceResult[] screen(List<String> symbols, List<double[]> returns, double[] index,
+            int length, double confidenceMultiplier) {
+        RankedSeries rankedIndex = rank(index, length);
+        DependenceResult[] results = new DependenceResult[symbols.size()];
+        ForkJoinPool.commonPool().invoke(new ScreenTask(symbols, returns, rankedIndex, confidenceMultiplier,
+                results, 0, results.length));
+        return results;
+    }
+
+    static DependenceResult evaluate(String symbol, double[] returns, RankedSeries index,
+            double confidenceMultiplier) {
+        RankedSeries x = rank(returns, index.length());
+        if (x.length() != index.length()) {
+            return null;
+        }
+        int n = x.length();
+        double d = hoeffdingD(x, index);
+        return new DependenceResult(symbol, n, d, hoeffdingPValue(d, n),
+                correlation(pearson(x.values, index.values), n, confidenceMultiplier),
+                correlation(pearson(x.midRanks, index.midRanks), n, confidenceMultiplier));
+    }
+
+    /**
+     * c_i = #{j : x_j < x_i and y_j < y_i}. Walks points in x-rank order,
+     * inserting each tie group only after all of it has been queried, and
+     * counts smaller y-ranks with a Fenwick tree.
+     */
+    private static int[] bivariateCounts(int[] rx, int[] ry) {
+        int n = rx.length;
+        // Counting sort of indices by x rank
+        int[] start = new int[n + 2];
+        for (int v : rx) {
+            start[v + 1]++;
+        }
+        for (int v = 1; v < start.length; v++) {
+            start[v] += start[v - 1];
+        }
+        int[] order = new int[n];
+        int[] fill = start.clone();
+        for (int i = 0; i < n; i++) {
+            order[fill[rx[i]]++] = i;
+        }
+
+        int[] tree = new int[n + 1];
+        int[] counts = new int[n];
+        int k = 0;
+        while (k < n) {
+            int groupEnd = k;
+            while (groupEnd < n && rx[order[groupEnd]] == rx[order[k]]) {
+                groupEnd++;
+            }
+            for (int g = k; g < groupEnd; g++) {
+                int i = order[g];
+                int sum = 0;
+                for (int p = ry[i] - 1; p > 0; p -= p & -p) {
+                    sum += tree[p];
+                }
+                counts[i] = sum;
+            }
+            for (int g = k; g < groupEnd; g++) {
+                for (int p = ry[order[g]]; p <= n; p += p & -p) {
+                    tree[p]++;
+                }
+            }
+            k = groupEnd;
+        }
+        return counts;
+    }
+
+    private static int lowerBound(double[] sorted, double value) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int upperBound(double[] sorted, double value) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static class ScreenTask extends RecursiveAction {
+        private final List<String> symbols;
+        private final List<double[]> returns;
+        private final RankedSeries index;
+        private final double confidenceMultiplier;
+        private final DependenceResult[] results;
+        private final int from;
+        private final int to;
+
+        ScreenTask(List<String> symbols, List<double[]> returns, RankedSeries index, double confidenceMultiplier,
+                DependenceResult[] results, int from, int to) {
+            this.symbols = symbols;
+            this.returns = returns;
+            this.index = index;
+            this.confidenceMultiplier = confidenceMultiplier;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SCREEN_LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    results[i] = evaluate(symbols.get(i), returns.get(i), index, confidenceMultiplier);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ScreenTask(symbols, returns, index, confidenceMultiplier, results, from, mid),
+                    new ScreenTask(symbols, returns, index, confidenceMultiplier, results, mid, to));
+        }
+    }
+
+    /**
+     * A correlation coefficient with its p-value and confidence interval.
+     */
+    public static class CorrelationResult {
+        private final double coefficient;
+        private final double pValue;
+        private final double lower;
+        private final double upper;
+
+        public CorrelationResult(double coefficient, double pValue, double lower, double upper) {
+            this.coefficient = coefficient;
+            this.pValue = pValue;
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        public double getCoefficient() {
+            return coefficient;
+        }
+
+        public double getPValue() {
+            return pValue;
+        }
+
+        public double getLower() {
+            return lower;
+        }
+
+        public double getUpper() {
+            return upper;
+        }
+
+        public boolean isSignificant(double alpha) {
+            return pValue < alpha;
+        }
+    }
+
+    /**
+     * All dependence measures for one symbol against the index.
+     */
+    public static class DependenceResult {
+        private final String symbol;
+        private final int observations;
+        private final double hoeffdingD;
+        private final double hoeffdingPValue;
+        private final CorrelationResult pearson;
+        private final CorrelationResult spearman;
+
+        public DependenceResult(String symbol, int observations, double hoeffdingD, double hoeffdingPValue,
+                CorrelationResult pearson, CorrelationResult spearman) {
+            this.symbol = symbol;
+            this.observations = observations;
+            this.hoeffdingD = hoeffdingD;
+            this.hoeffdingPValue = hoeffdingPValue;
+            this.pearson = pearson;
+            this.spearman = spearman;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public int getObservations() {
+            return observations;
+        }
+
+        public double getHoeffdingD() {
+            return hoeffdingD;
+        }
+
+        public double getHoeffdingPValue() {
+            return hoeffdingPValue;
+        }
+
+        public CorrelationResult getPearson() {
+            return pearson;
+        }
+
+        public CorrelationResult getSpearman() {
+            return spearman;
+        }
+    }
+}
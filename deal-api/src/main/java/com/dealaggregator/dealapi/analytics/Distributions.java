@@ -0,0 +1,168 @@
+package com.dealaggregator.dealapi.analytics;
+
+/**
+ * Distribution functions needed for p-values, on primitives only.
+ */
+public final class Distributions {
+
+    private static final int MAX_ITERATIONS = 500;
+    private static final double EPSILON = 1e-15;
+    private static final double TINY = 1e-300;
+
+    private static final double[] LANCZOS = {
+            0.99999999999980993, 676.5203681218851, -1259.1392167224028,
+            771.32342877765313, -176.61502916214059, 12.507343278686905,
+            -0.13857109526572012, 9.9843695780195716e-6, 1.5056327351493116e-7 };
+
+    private Distributions() {
+    }
+
+    /**
+     * ln(Gamma(x)) for x > 0 (Lanczos, g = 7).
+     */
+    public static double lnGamma(double x) {
+        if (x < 0.5) {
+            // Reflection formula
+            return Math.log(Math.PI / Math.abs(Math.sin(Math.PI * x))) - lnGamma(1 - x);
+        }
+        x -= 1;
+        double a = LANCZOS[0];
+        double t = x + 7.5;
+        for (int i = 1; i < LANCZOS.length; i++) {
+            a += LANCZOS[i] / (x + i);
+        }
+        return 0.5 * Math.log(2 * Math.PI) + (x + 0.5) * Math.log(t) - t + Math.log(a);
+    }
+
+    /**
+     * Regularized upper incomplete gamma Q(a, x) = 1 - P(a, x).
+     */
+    public static double regularizedGammaQ(double a, double x) {
+        if (x <= 0) {
+            return 1.0;
+        }
+        if (x < a + 1) {
+            return 1.0 - gammaSeries(a, x);
+        }
+        return gammaContinuedFraction(a, x);
+    }
+
+    /** P(a, x) by its power series */
+    private static double gammaSeries(double a, double x) {
+        double ap = a;
+        double sum = 1.0 / a;
+        double del = sum;
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            ap += 1;
+            del *= x / ap;
+            sum += del;
+            if (Math.abs(del) < Math.abs(sum) * EPSILON) {
+                break;
+            }
+        }
+        return sum * Math.exp(-x + a * Math.log(x) - lnGamma(a));
+    }
+
+    /** Q(a, x) by Lentz's continued fraction */
+    private static double gammaContinuedFraction(double a, double x) {
+        double b = x + 1 - a;
+        double c = 1.0 / TINY;
+        double d = 1.0 / b;
+        double h = d;
+        for (int i = 1; i <= MAX_ITERATIONS; i++) {
+            double an = -i * (i - a);
+            b += 2;
+            d = an * d + b;
+            if (Math.abs(d) < TINY) {
+                d = TINY;
+            }
+            c = b + an / c;
+            if (Math.abs(c) < TINY) {
+                c = TINY;
+            }
+            d = 1.0 / d;
+            double del = d * c;
+            h *= del;
+            if (Math.abs(del - 1) < EPSILON) {
+                break;
+            }
+        }
+        return Math.exp(-x + a * Math.log(x) - lnGamma(a)) * h;
+    }
+
+    /**
+     * P(X > x) for a chi-square variable with {@code dof} degrees of freedom.
+     */
+    public static double chiSquareSurvival(double x, double dof) {
+        return regularizedGammaQ(dof / 2.0, x / 2.0);
+    }
+
+    /**
+     * Regularized incomplete beta I_x(a, b).
+     */
+    public static double regularizedBeta(double x, double a, double b) {
+        if (x <= 0) {
+            return 0.0;
+        }
+        if (x >= 1) {
+            return 1.0;
+        }
+        double front = Math.exp(lnGamma(a + b) - lnGamma(a) - lnGamma(b)
+                + a * Math.log(x) + b * Math.log(1 - x));
+        // The continued fraction converges fastest below the mean
+        if (x < (a + 1) / (a + b + 2)) {
+            return front * betaContinuedFraction(x, a, b) / a;
+        }
+        return 1.0 - front * betaContinuedFraction(1 - x, b, a) / b;
+    }
+
+    /** Continued fraction for I_x(a, b) (modified Lentz) */
+    private static double betaContinuedFraction(double x, double a, double b) {
+        double c = 1.0;
+        double d = 1.0 - (a + b) * x / (a + 1);
+        if (Math.abs(d) < TINY) {
+            d = TINY;
+        }
+        d = 1.0 / d;
+        double h = d;
+        for (int m = 1; m <= MAX_ITERATIONS; m++) {
+            int m2 = 2 * m;
+            double an = m * (b - m) * x / ((a + m2 - 1) * (a + m2));
+            d = 1.0 + an * d;
+            d = Math.abs(d) < TINY ? 1.0 / TINY : 1.0 / d;
+            c = 1.0 + an / c;
+            if (Math.abs(c) < TINY) {
+                c = TINY;
+            }
+            h *= d * c;
+
+            an = -(a + m) * (a + b + m) * x / ((a + m2) * (a + m2 + 1));
+            d = 1.0 + an * d;
+            d = Math.abs(d) < TINY ? 1.0 / TINY : 1.0 / d;
+            c = 1.0 + an / c;
+            if (Math.abs(c) < TINY) {
+                c = TINY;
+            }
+            double del = d * c;
+            h *= del;
+            if (Math.abs(del - 1) < EPSILON) {
+                break;
+            }
+        }
+        return h;
+    }
+
+    /**
+     * Two-sided P(|T| > |t|) for Student's t with {@code dof} degrees of
+     * freedom.
+     */
+    public static double studentTTwoSided(double t, double dof) {
+        if (Double.isNaN(t)) {
+            return Double.NaN;
+        }
+        if (Double.isInfinite(t)) {
+            return 0.0;
+        }
+        return regularizedBeta(dof / (dof + t * t), dof / 2.0, 0.5);
+    }
+}
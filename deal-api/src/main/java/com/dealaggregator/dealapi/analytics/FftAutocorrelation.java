@@ -0,0 +1,301 @@
+package com.dealaggregator.dealapi.analytics;
+
+import java.util.Arrays;
+
+/**
+ * ACF / PACF / Ljung-Box via FFT in O(n log n).
+ *
+ * Autocovariances are the inverse transform of the power spectrum of the
+ * demeaned, zero-padded series (Wiener-Khinchin). The series is padded to
+ * the next power of two >= n + maxLag, so there is no circular wrap-around
+ * for the lags we return. Real input is packed into a half-length complex
+ * transform, halving the FFT work.
+ *
+ * Scratch buffers and twiddle tables are kept and only regrown when a
+ * longer series arrives, so repeated calls don't allocate beyond their
+ * result arrays. One instance per thread: not thread-safe.
+ *
+ * ACF here is the standard estimator used by Fast Autocorrelation
+ * Estimator.pine and statsmodels: r(k) = c(k) / c(0), with c(k) the sum of
+ * lag-k cross products.
+ */
+public final class FftAutocorrelation {
+
+    private double[] re = new double[0];
+    private double[] im = new double[0];
+    private double[] power = new double[0];
+    private double[] cos = new double[0];
+    private double[] sin = new double[0];
+    private int tableSize; // Complex FFT length the twiddles were built for
+
+    /**
+     * Sums of lag-k cross products of the demeaned series,
+     * c(k) = sum_i (x[i] - mean) * (x[i + k] - mean), for k = 0..maxLag.
+     */
+    public double[] autocovarianceSums(double[] x, int maxLag) {
+        double[] out = new double[maxLag + 1];
+        autocovarianceSums(x, x.length, maxLag, out);
+        return out;
+    }
+
+    /**
+     * Allocation-free form: reads x[0..n) and writes c(0..maxLag) into out.
+     * Lags at or beyond n are 0.
+     */
+    public void autocovarianceSums(double[] x, int n, int maxLag, double[] out) {
+        if (n == 0) {
+            Arrays.fill(out, 0, maxLag + 1, 0.0);
+            return;
+        }
+        int padded = Math.max(2, nextPowerOfTwo(n + Math.min(maxLag, n)));
+        int half = padded / 2;
+        ensureCapacity(half);
+
+        double mean = 0;
+        for (int i = 0; i < n; i++) {
+            mean += x[i];
+        }
+        mean /= n;
+
+        // Pack even/odd samples into one half-length complex sequence
+        for (int j = 0; j < half; j++) {
+            int e = 2 * j;
+            re[j] = e < n ? x[e] - mean : 0;
+            im[j] = e + 1 < n ? x[e + 1] - mean : 0;
+        }
+        fft(half, false);
+
+        // Untangle into the spectrum of the real series, keep |X(k)|^2
+        for (int k = 0; k <= half; k++) {
+            int a = k % half;
+            int b = (half - k) % half;
+            double zr = re[a], zi = im[a];
+            double cr = re[b], ci = -im[b];
+            double er = 0.5 * (zr + cr), ei = 0.5 * (zi + ci);
+            double or = 0.5 * (zi - ci), oi = -0.5 * (zr - cr);
+            double wr = twiddleCos(k, half), wi = -twiddleSin(k, half);
+            double xr = er + wr * or - wi * oi;
+            double xi = ei + wr * oi + wi * or;
+            power[k] = xr * xr + xi * xi;
+        }
+
+        // Inverse real transform of the (real, even) power spectrum
+        for (int k = 0; k < half; k++) {
+            double fe = 0.5 * (power[k] + power[half - k]);
+            double d = 0.5 * (power[k] - power[half - k]);
+            double wr = twiddleCos(k, half), wi = twiddleSin(k, half);
+            re[k] = fe - d * wi;
+            im[k] = d * wr;
+        }
+        fft(half, true);
+
+        for (int lag = 0; lag <= maxLag; lag++) {
+            if (lag >= n) {
+                out[lag] = 0;
+                continue;
+            }
+            int j = lag >> 1;
+            out[lag] = ((lag & 1) == 0 ? re[j] : im[j]) / half;
+        }
+    }
+
+    /**
+     * Standard ACF r(0..maxLag), r(0) = 1.
+     */
+    public double[] acf(double[] x, int maxLag) {
+        double[] c = autocovarianceSums(x, maxLag);
+        double c0 = c[0];
+        for (int k = 0; k <= maxLag; k++) {
+            c[k] = c0 != 0 ? c[k] / c0 : 0;
+        }
+        return c;
+    }
+
+    /**
+     * Partial autocorrelations phi(1..maxLag) (index 0 = lag 1) from the ACF
+     * by the Durbin-Levinson recursion.
+     */
+    public double[] pacf(double[] x, int maxLag) {
+        return pacfFromAcf(acf(x, maxLag), maxLag);
+    }
+
+    /**
+     * Durbin-Levinson on an ACF array r(0..maxLag).
+     */
+    public static double[] pacfFromAcf(double[] r, int maxLag) {
+        double[] pacf = new double[maxLag];
+        double[] phi = new double[maxLag + 1];
+        double[] prev = new double[maxLag + 1];
+        double v = 1.0;
+        for (int k = 1; k <= maxLag; k++) {
+            double num = r[k];
+            for (int j = 1; j < k; j++) {
+                num -= prev[j] * r[k - j];
+            }
+            double phiKK = v != 0 ? num / v : 0;
+            phi[k] = phiKK;
+            for (int j = 1; j < k; j++) {
+                phi[j] = prev[j] - phiKK * prev[k - j];
+            }
+            v *= (1 - phiKK * phiKK);
+            pacf[k - 1] = phiKK;
+            System.arraycopy(phi, 1, prev, 1, k);
+        }
+        return pacf;
+    }
+
+    /**
+     * Ljung-Box portmanteau test for autocorrelation up to {@code lags}.
+     */
+    public LjungBoxResult ljungBox(double[] x, int lags) {
+        int n = x.length;
+        double[] r = acf(x, lags);
+        double q = 0;
+        int used = Math.min(lags, n - 1);
+        for (int k = 1; k <= used; k++) {
+            q += r[k] * r[k] / (n - k);
+        }
+        q *= (double) n * (n + 2);
+        return new LjungBoxResult(q, used, Distributions.chiSquareSurvival(q, used));
+    }
+
+    /**
+     * Direct O(n * maxLag) autocovariance sums, the reference the FFT path
+     * is checked and benchmarked against.
+     */
+    public static double[] directAutocovarianceSums(double[] x, int maxLag) {
+        int n = x.length;
+        double mean = 0;
+        for (double v : x) {
+            mean += v;
+        }
+        mean = n > 0 ? mean / n : 0;
+        double[] out = new double[maxLag + 1];
+        for (int lag = 0; lag <= maxLag && lag < n; lag++) {
+            double sum = 0;
+            for (int i = 0; i + lag < n; i++) {
+                sum += (x[i] - mean) * (x[i + lag] - mean);
+            }
+            out[lag] = sum;
+        }
+        return out;
+    }
+
+    // ----- FFT internals -----
+
+    private void ensureCapacity(int half) {
+        if (re.length < half) {
+            re = new double[half];
+            im = new double[half];
+            power = new double[half + 1];
+        }
+        if (tableSize != half) {
+            // Twiddles for the full-length (2 * half) transform; the half-length
+            // FFT uses every other entry
+            if (cos.length < half) {
+                cos = new double[half];
+                sin = new double[half];
+            }
+            for (int k = 0; k < half; k++) {
+                double angle = Math.PI * k / half;
+                cos[k] = Math.cos(angle);
+                sin[k] = Math.sin(angle);
+            }
+            tableSize = half;
+        }
+    }
+
+    /** cos(2 pi k / (2 * half)) for k in 0..half */
+    private double twiddleCos(int k, int half) {
+        return k < half ? cos[k] : -1.0;
+    }
+
+    /** sin(2 pi k / (2 * half)) for k in 0..half */
+    private double twiddleSin(int k, int half) {
+        return k < half ? sin[k] : 0.0;
+    }
+
+    /**
+     * In-place iterative radix-2 complex FFT of re/im[0..m). The inverse
+     * transform is unscaled.
+     */
+    private void fft(int m, boolean inverse) {
+        // Bit-reversal permutation
+        for (int i = 1, j = 0; i < m; i++) {
+            int bit = m >> 1;
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j ^= bit;
+            if (i < j) {
+                double t = re[i];
+                re[i] = re[j];
+                re[j] = t;
+                t = im[i];
+                im[i] = im[j];
+                im[j] = t;
+            }
+        }
+
+        double sign = inverse ? 1.0 : -1.0;
+        for (int len = 2; len <= m; len <<= 1) {
+            int halfLen = len >> 1;
+            // Twiddle stride into the 2m-point table
+            int stride = 2 * m / len;
+            for (int start = 0; start < m; start += len) {
+                for (int k = 0; k < halfLen; k++) {
+                    double wr = cos[k * stride];
+                    double wi = sign * sin[k * stride];
+                    int a = start + k;
+                    int b = a + halfLen;
+                    double tr = re[b] * wr - im[b] * wi;
+                    double ti = re[b] * wi + im[b] * wr;
+                    re[b] = re[a] - tr;
+                    im[b] = im[a] - ti;
+                    re[a] += tr;
+                    im[a] += ti;
+                }
+            }
+        }
+    }
+
+    private static int nextPowerOfTwo(int n) {
+        int p = 1;
+        while (p < n) {
+            p <<= 1;
+        }
+        return p;
+    }
+
+    /**
+     * Ljung-Box Q statistic with its chi-square p-value.
+     */
+    public static class LjungBoxResult {
+        private final double statistic;
+        private final int lags;
+        private final double pValue;
+
+        public LjungBoxResult(double statistic, int lags, double pValue) {
+            this.statistic = statistic;
+            this.lags = lags;
+            this.pValue = pValue;
+        }
+
+        public double getStatistic() {
+            return statistic;
+        }
+
+        public int getLags() {
+            return lags;
+        }
+
+        public double getPValue() {
+            return pValue;
+        }
+
+        /** Reject "no autocorrelation" at the 5% level */
+        public boolean isAutocorrelated() {
+            return pValue < 0.05;
+        }
+    }
+}
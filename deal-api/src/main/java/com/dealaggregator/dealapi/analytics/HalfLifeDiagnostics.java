@@ -0,0 +1,218 @@
+package com.dealaggregator.dealapi.analytics;
+
+/**
+ * Half-life (OU) regression with residual diagnostics, batched over many
+ * symbols.
+ *
+ * Same regression as MeanReversionIndicators.halfLife (delta log price on
+ * lagged log price over the last {@code lookback} prices), plus standard
+ * errors, the beta t-statistic and the Durbin-Watson statistic of the
+ * residuals from "Durbin Watson Test Statistic.pine".
+ *
+ * Everything comes from one pass of sums per symbol. The DW numerator needs
+ * no residuals: e_i - e_(i-1) = dy_i - beta * dx_i (the intercept cancels),
+ * so sum (e_i - e_(i-1))^2 expands into three more running sums. Log prices
+ * are shifted by the first value to keep the raw sums well conditioned.
+ */
+public final class HalfLifeDiagnostics {
+
+    private static final double LN2 = Math.log(2);
+
+    /** 5% lower DW bounds (one regressor) from the Pine table, n = 6..40 */
+    private static final double[] DW_LOWER_SMALL = {
+            0.61, 0.70, 0.76, 0.82, 0.88, 0.93, 0.97, 1.01, 1.05, 1.08, 1.10, 1.13, 1.16, 1.18, 1.20,
+            1.22, 1.24, 1.26, 1.27, 1.29, 1.30, 1.32, 1.33, 1.34, 1.35, 1.36, 1.37, 1.38, 1.39, 1.40,
+            1.41, 1.42, 1.43, 1.43, 1.44 };
+    /** Pine table beyond 40: upper end of each n bucket and its bound */
+    private static final int[] DW_LOWER_LIMITS = { 45, 50, 55, 60, 65, 70, 75, 80, 85, 90, 95, 100, 150, 200, 250, 300 };
+    private static final double[] DW_LOWER_LARGE = {
+            1.48, 1.50, 1.53, 1.55, 1.57, 1.58, 1.60, 1.61, 1.62, 1.63, 1.64, 1.65, 1.72, 1.76, 1.79, 1.80 };
+    private static final double DW_LOWER_MAX = 1.82;
+
+    private HalfLifeDiagnostics() {
+    }
+
+    /**
+     * Diagnostics for every price series in one call.
+     *
+     * @param prices   Price series per symbol, oldest first (may differ in length)
+     * @param lookback Prices used per symbol (the most recent)
+     */
+    public static Diagnostics[] batch(double[][] prices, int lookback) {
+        Diagnostics[] results = new Diagnostics[prices.length];
+        for (int s = 0; s < prices.length; s++) {
+            results[s] = fit(prices[s], lookback);
+        }
+        return results;
+    }
+
+    /**
+     * Diagnostics for one price series.
+     */
+    public static Diagnostics fit(double[] prices, int lookback) {
+        int start = Math.max(0, prices.length - lookback);
+        int m = prices.length - start - 1; // (lag, delta) pairs
+        if (m < 3) {
+            return Diagnostics.empty(Math.max(0, m));
+        }
+
+        double origin = Math.log(prices[start]);
+        double sx = 0, sy = 0, sxx = 0, sxy = 0, syy = 0;
+        double sdx2 = 0, sdxdy = 0, sdy2 = 0;
+        double prevX = 0, prevY = 0;
+        double prevLog = 0; // Shifted log price
+        for (int i = start + 1; i < prices.length; i++) {
+            double log = Math.log(prices[i]) - origin;
+            double x = prevLog;
+            double y = log - prevLog;
+            sx += x;
+            sy += y;
+            sxx += x * x;
+            sxy += x * y;
+            syy += y * y;
+            if (i > start + 1) {
+                double dx = x - prevX;
+                double dy = y - prevY;
+                sdx2 += dx * dx;
+                sdxdy += dx * dy;
+                sdy2 += dy * dy;
+            }
+            prevX = x;
+            prevY = y;
+            prevLog = log;
+        }
+
+        double meanX = sx / m;
+        double meanY = sy / m;
+        double cxx = sxx - sx * meanX;
+        double cxy = sxy - sx * meanY;
+        double cyy = syy - sy * meanY;
+        if (cxx <= 0) {
+            return Diagnostics.empty(m);
+        }
+
+        double beta = cxy / cxx;
+        double alphaShifted = meanY - beta * meanX;
+        double alpha = alphaShifted - beta * origin; // Back to unshifted log prices
+        double sse = Math.max(0, cyy - beta * cxy);
+        double sigma2 = sse / (m - 2);
+        double betaSe = Math.sqrt(sigma2 / cxx);
+        double meanLogX = meanX + origin;
+        double alphaSe = Math.sqrt(sigma2 * (1.0 / m + meanLogX * meanLogX / cxx));
+        double dwNumerator = sdy2 - 2 * beta * sdxdy + beta * beta * sdx2;
+        double durbinWatson = sse > 0 ? dwNumerator / sse : Double.NaN;
+
+        double halfLife;
+        double halfLifeSe;
+        if (beta < 0 && beta > -1) {
+            double log1pBeta = Math.log1p(beta);
+            halfLife = -LN2 / log1pBeta;
+            // Delta method: d(half-life)/d(beta) = ln2 / ((1 + beta) * ln(1 + beta)^2)
+            halfLifeSe = LN2 / ((1 + beta) * log1pBeta * log1pBeta) * betaSe;
+        } else {
+            halfLife = Double.POSITIVE_INFINITY;
+            halfLifeSe = Double.NaN;
+        }
+
+        return new Diagnostics(m, beta, alpha, betaSe, alphaSe,
+                Math.min(halfLife, MeanReversionIndicators.MAX_HALF_LIFE), halfLifeSe, durbinWatson);
+    }
+
+    /**
+     * 5% Durbin-Watson lower bound for n observations, from the Pine table
+     * (the upper bound is 4 minus this). NaN below 6.
+     */
+    public static double durbinWatsonLower(int n) {
+        if (n < 6) {
+            return Double.NaN;
+        }
+        if (n <= 40) {
+            return DW_LOWER_SMALL[n - 6];
+        }
+        for (int i = 0; i < DW_LOWER_LIMITS.length; i++) {
+            if (n <= DW_LOWER_LIMITS[i]) {
+                return DW_LOWER_LARGE[i];
+            }
+        }
+        return DW_LOWER_MAX;
+    }
+
+    /**
+     * Fit and diagnostics for one symbol.
+     */
+    public static class Diagnostics {
+        private final int observations;
+        private final double beta;
+        private final double alpha;
+        private final double betaStdError;
+        private final double alphaStdError;
+        private final double halfLife;
+        private final double halfLifeStdError;
+        private final double durbinWatson;
+
+        public Diagnostics(int observations, double beta, double alpha, double betaStdError, double alphaStdError,
+                double halfLife, double halfLifeStdError, double durbinWatson) {
+            this.observations = observations;
+            this.beta = beta;
+            this.alpha = alpha;
+            this.betaStdError = betaStdError;
+            this.alphaStdError = alphaStdError;
+            this.halfLife = halfLife;
+            this.halfLifeStdError = halfLifeStdError;
+            this.durbinWatson = durbinWatson;
+        }
+
+        static Diagnostics empty(int observations) {
+            return new Diagnostics(observations, 0.0, 0.0, Double.NaN, Double.NaN,
+                    MeanReversionIndicators.MAX_HALF_LIFE, Double.NaN, Double.NaN);
+        }
+
+        public int getObservations() {
+            return observations;
+        }
+
+        public double getBeta() {
+            return beta;
+        }
+
+        public double getAlpha() {
+            return alpha;
+        }
+
+        public double getBetaStdError() {
+            return betaStdError;
+        }
+
+        public double getAlphaStdError() {
+            return alphaStdError;
+        }
+
+        /** beta / se(beta); the Dickey-Fuller t-statistic without lags */
+        public double getBetaTStat() {
+            return beta / betaStdError;
+        }
+
+        public double getHalfLife() {
+            return halfLife;
+        }
+
+        public double getHalfLifeStdError() {
+            return halfLifeStdError;
+        }
+
+        public double getDurbinWatson() {
+            return durbinWatson;
+        }
+
+        /** Residuals autocorrelated at 5%: the half-life fit is suspect */
+        public boolean isResidualAutocorrelated() {
+            double lower = durbinWatsonLower(observations);
+            return durbinWatson < lower || durbinWatson > 4 - lower;
+        }
+
+        /** Same rule as MeanReversionIndicators.HalfLifeResult */
+        public boolean isMeanReverting() {
+            return beta < 0 && halfLife < 50;
+        }
+    }
+}
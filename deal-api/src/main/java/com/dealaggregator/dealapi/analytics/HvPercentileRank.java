@@ -0,0 +1,88 @@
+package com.dealaggregator.dealapi.analytics;
+
+/**
+ * Historical volatility percentile (HVP) and rank (HVR), port of
+ * Historical Volatility Percentile &amp; Rank.pine in closes-only mode.
+ *
+ * HV follows the script's f_sd: sqrt(m(r^2) - m(r)^2) where m is the
+ * recursive average m = ((n-1)/n) * m[1] + x/n over log returns r. That
+ * HV is then fed to a RollingPercentileRank, so each bar costs O(log n)
+ * instead of the script's O(n) rescans.
+ */
+public final class HvPercentileRank {
+
+    public static final int DEFAULT_HV_LENGTH = 30;
+    /** 365 in the Pine script (crypto); one year of equity sessions here */
+    public static final int DEFAULT_LOOKBACK = 252;
+
+    private final int hvLength;
+    private final RollingPercentileRank percentileRank;
+
+    private double meanReturn;
+    private double meanSquare;
+    private double lastClose = Double.NaN;
+    private double hv = Double.NaN;
+
+    public HvPercentileRank() {
+        this(DEFAULT_HV_LENGTH, DEFAULT_LOOKBACK);
+    }
+
+    public HvPercentileRank(int hvLength, int lookback) {
+        if (hvLength < 1) {
+            throw new IllegalArgumentException("HV length must be positive: " + hvLength);
+        }
+        this.hvLength = hvLength;
+        this.percentileRank = new RollingPercentileRank(lookback);
+    }
+
+    /**
+     * Feed one close. Non-positive closes are ignored.
+     */
+    public void onClose(double close) {
+        if (!(close > 0)) {
+            return;
+        }
+        if (!Double.isNaN(lastClose)) {
+            double r = Math.log(close / lastClose);
+            double decay = (hvLength - 1.0) / hvLength;
+            meanReturn = decay * meanReturn + r / hvLength;
+            meanSquare = decay * meanSquare + r * r / hvLength;
+            hv = Math.sqrt(Math.max(0, meanSquare - meanReturn * meanReturn));
+            percentileRank.update(hv);
+        }
+        lastClose = close;
+    }
+
+    public void onCloses(double[] closes) {
+        for (double close : closes) {
+            onClose(close);
+        }
+    }
+
+    public boolean isReady() {
+        return percentileRank.isReady();
+    }
+
+    /** Latest per-bar HV (not annualized) */
+    public double getHv() {
+        return hv;
+    }
+
+    /** HVP: percent of the lookback with lower HV, 0-100 */
+    public double getPercentile() {
+        return percentileRank.getPercentile();
+    }
+
+    /** HVR: where HV sits in the lookback's min-max range, 0-100 */
+    public double getRank() {
+        return percentileRank.getRank();
+    }
+
+    public int getHvLength() {
+        return hvLength;
+    }
+
+    public int getLookback() {
+        return percentileRank.getLookback();
+    }
+}
@@ -0,0 +1,214 @@
+package com.dealaggregator.dealapi.analytics;
+
+/**
+ * Sorted multiset of doubles with O(log n) expected insert, remove, rank
+ * and select, backing the sliding-window order statistics in this package.
+ *
+ * Indexable skip list: every forward link also stores its width (how many
+ * elements it skips), so positions can be counted while searching. Nodes
+ * live in preallocated primitive arrays with a free list, so nothing is
+ * allocated after construction.
+ */
+public final class IndexableSkipList {
+
+    private final int capacity;
+    private final int maxLevel;
+    private final int head;
+    private final int tail; // Sentinel with value +Infinity
+
+    private final double[] values;
+    private final int[] levels;
+    private final int[] next;  // node * maxLevel + level
+    private final int[] width; // node * maxLevel + level
+
+    private final int[] freeNodes;
+    private int freeCount;
+    private int size;
+
+    private final int[] chain; // Scratch: predecessor per level
+    private final int[] steps; // Scratch: widths walked per level
+    private long randomState = 0x9E3779B97F4A7C15L;
+
+    public IndexableSkipList(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Skip list capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.maxLevel = Math.max(1, 33 - Integer.numberOfLeadingZeros(capacity));
+        this.head = capacity;
+        this.tail = capacity + 1;
+
+        int nodes = capacity + 2;
+        this.values = new double[nodes];
+        this.levels = new int[nodes];
+        this.next = new int[nodes * maxLevel];
+        this.width = new int[nodes * maxLevel];
+        this.freeNodes = new int[capacity];
+        this.chain = new int[maxLevel];
+        this.steps = new int[maxLevel];
+
+        values[tail] = Double.POSITIVE_INFINITY;
+        clear();
+    }
+
+    /**
+     * Add a finite value.
+     */
+    public void insert(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("Skip list values must be finite: " + value);
+        }
+        if (size == capacity) {
+            throw new IllegalStateException("Skip list is full (capacity " + capacity + ")");
+        }
+
+        int node = head;
+        for (int level = maxLevel - 1; level >= 0; level--) {
+            steps[level] = 0;
+            int nxt = next[node * maxLevel + level];
+            while (values[nxt] <= value) {
+                steps[level] += width[node * maxLevel + level];
+                node = nxt;
+                nxt = next[node * maxLevel + level];
+            }
+            chain[level] = node;
+        }
+
+        int created = freeNodes[--freeCount];
+        int height = randomLevel();
+        values[created] = value;
+        levels[created] = height;
+
+        int walked = 0;
+        for (int level = 0; level < height; level++) {
+            int prev = chain[level] * maxLevel + level;
+            next[created * maxLevel + level] = next[prev];
+            next[prev] = created;
+            width[created * maxLevel + level] = width[prev] - walked;
+            width[prev] = walked + 1;
+            walked += steps[level];
+        }
+        for (int level = height; level < maxLevel; level++) {
+            width[chain[level] * maxLevel + level]++;
+        }
+        size++;
+    }
+
+    /**
+     * Remove one occurrence of a value.
+     *
+     * @return false if the value was not present
+     */
+    public boolean remove(double value) {
+        int node = head;
+        for (int level = maxLevel - 1; level >= 0; level--) {
+            int nxt = next[node * maxLevel + level];
+            while (values[nxt] < value) {
+                node = nxt;
+                nxt = next[node * maxLevel + level];
+            }
+            chain[level] = node;
+        }
+
+        int target = next[chain[0] * maxLevel];
+        if (target == tail || values[target] != value) {
+            return false;
+        }
+
+        int height = levels[target];
+        for (int level = 0; level < height; level++) {
+            int prev = chain[level] * maxLevel + level;
+            int link = target * maxLevel + level;
+            width[prev] += width[link] - 1;
+            next[prev] = next[link];
+        }
+        for (int level = height; level < maxLevel; level++) {
+            width[chain[level] * maxLevel + level]--;
+        }
+        freeNodes[freeCount++] = target;
+        size--;
+        return true;
+    }
+
+    /**
+     * Number of stored values strictly less than the given value.
+     */
+    public int countLess(double value) {
+        int node = head;
+        int position = 0;
+        for (int level = maxLevel - 1; level >= 0; level--) {
+            int nxt = next[node * maxLevel + level];
+            while (values[nxt] < value) {
+                position += width[node * maxLevel + level];
+                node = nxt;
+                nxt = next[node * maxLevel + level];
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Number of stored values less than or equal to the given value.
+     */
+    public int countLessOrEqual(double value) {
+        int node = head;
+        int position = 0;
+        for (int level = maxLevel - 1; level >= 0; level--) {
+            int nxt = next[node * maxLevel + level];
+            while (values[nxt] <= value) {
+                position += width[node * maxLevel + level];
+                node = nxt;
+                nxt = next[node * maxLevel + level];
+            }
+        }
+        return position;
+    }
+
+    /**
+     * The k-th smallest value (0 = minimum).
+     */
+    public double get(int k) {
+        if (k < 0 || k >= size) {
+            throw new IndexOutOfBoundsException("Index " + k + " out of range for size " + size);
+        }
+        int node = head;
+        int remaining = k + 1;
+        for (int level = maxLevel - 1; level >= 0; level--) {
+            while (width[node * maxLevel + level] <= remaining) {
+                remaining -= width[node * maxLevel + level];
+                node = next[node * maxLevel + level];
+            }
+        }
+        return values[node];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public void clear() {
+        for (int level = 0; level < maxLevel; level++) {
+            next[head * maxLevel + level] = tail;
+            width[head * maxLevel + level] = 1;
+        }
+        for (int i = 0; i < capacity; i++) {
+            freeNodes[i] = capacity - 1 - i;
+        }
+        freeCount = capacity;
+        size = 0;
+    }
+
+    /** Geometric(1/2) height from a xorshift generator, capped at maxLevel */
+    private int randomLevel() {
+        long x = randomState;
+        x ^= x << 13;
+        x ^= x >>> 7;
+        x ^= x << 17;
+        randomState = x;
+        return Math.min(maxLevel, 1 + Long.numberOfTrailingZeros(x | (1L << 62)));
+    }
+}
@@ -0,0 +1,403 @@
+package com.dealaggregator.dealapi.analytics;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming Kalman filter for many symbols at once.
+ *
+ * Port of Kalman Filter.pine (position + velocity state, ATR-scaled
+ * uncertainty bands, signals at +/- signalThreshold sigma). As in the
+ * script, the first observation seeds the estimate and then goes through
+ * the measurement update like every later one; the KalmanFilter class in
+ * indicators.py skips that first update, so its error covariance runs one
+ * step behind.
+ *
+ * Filter state lives in flat primitive arrays indexed by slot, so updating
+ * thousands of symbols per tick is a tight loop with no per-symbol objects.
+ * Symbols are mapped to slots once via {@link #slotOf(String)}; after that
+ * all hot-path calls take the int slot.
+ *
+ * Not thread-safe: drive it from a single thread (like the quote drain).
+ */
+public final class KalmanFilterEngine {
+
+    public static final int SIGNAL_OVERSOLD = -1;
+    public static final int SIGNAL_NEUTRAL = 0;
+    public static final int SIGNAL_OVERBOUGHT = 1;
+
+    private static final int SNAPSHOT_MAGIC = 0x4B414C31; // "KAL1"
+
+    private final Config config;
+    private final Map<String, Integer> slots = new HashMap<>();
+    private String[] symbols;
+    private int size;
+
+    // State per slot
+    private double[] estimate;
+    private double[] errorCov;
+    private double[] velocity;
+    private double[] gain;
+    private double[] lastPrice;
+    private double[] atr;
+    private int[] atrCount;
+
+    public KalmanFilterEngine(Config config, int initialCapacity) {
+        this.config = config;
+        int capacity = Math.max(1, initialCapacity);
+        symbols = new String[capacity];
+        estimate = new double[capacity];
+        errorCov = new double[capacity];
+        velocity = new double[capacity];
+        gain = new double[capacity];
+        lastPrice = new double[capacity];
+        atr = new double[capacity];
+        atrCount = new int[capacity];
+    }
+
+    /**
+     * Slot for a symbol, registering it on first use.
+     */
+    public int slotOf(String symbol) {
+        Integer slot = slots.get(symbol);
+        if (slot != null) {
+            return slot;
+        }
+        if (size == symbols.length) {
+            grow(size * 2);
+        }
+        int created = size++;
+        symbols[created] = symbol;
+        reset(created);
+        slots.put(symbol, created);
+        return created;
+    }
+
+    /** Existing slot for a symbol, or -1 */
+    public int findSlot(String symbol) {
+        Integer slot = slots.get(symbol);
+        return slot != null ? slot : -1;
+    }
+
+    private void reset(int slot) {
+        estimate[slot] = Double.NaN;
+        errorCov[slot] = 1.0;
+        velocity[slot] = 0.0;
+        gain[slot] = Double.NaN;
+        lastPrice[slot] = Double.NaN;
+        atr[slot] = Double.NaN;
+        atrCount[slot] = 0;
+    }
+
+    private void grow(int capacity) {
+        symbols = Arrays.copyOf(symbols, capacity);
+        estimate = Arrays.copyOf(estimate, capacity);
+        errorCov = Arrays.copyOf(errorCov, capacity);
+        velocity = Arrays.copyOf(velocity, capacity);
+        gain = Arrays.copyOf(gain, capacity);
+        lastPrice = Arrays.copyOf(lastPrice, capacity);
+        atr = Arrays.copyOf(atr, capacity);
+        atrCount = Arrays.copyOf(atrCount, capacity);
+    }
+
+    /**
+     * Update one slot with a tick (no high/low: the true range is the move
+     * from the previous price).
+     */
+    public void update(int slot, double price) {
+        update(slot, price, price, price);
+    }
+
+    /**
+     * Update one slot with a bar.
+     */
+    public void update(int slot, double high, double low, double close) {
+        double prev = lastPrice[slot];
+
+        // Wilder ATR, seeded with the simple mean of the first atrLength ranges
+        double trueRange = Double.isNaN(prev)
+                ? high - low
+                : Math.max(high - low, Math.max(Math.abs(high - prev), Math.abs(low - prev)));
+        int count = atrCount[slot];
+        int length = config.atrLength;
+        if (count < length) {
+            atr[slot] = count == 0 ? trueRange : (atr[slot] * count + trueRange) / (count + 1);
+            atrCount[slot] = count + 1;
+        } else {
+            atr[slot] = (atr[slot] * (length - 1) + trueRange) / length;
+        }
+
+        if (Double.isNaN(estimate[slot])) {
+            // First observation seeds the estimate, then is filtered like any other
+            estimate[slot] = close;
+        }
+
+        // Predict
+        double predictedEstimate = estimate[slot] + velocity[slot];
+        double predictedErrorCov = errorCov[slot] + config.processNoise;
+
+        // Update
+        double k = predictedErrorCov / (predictedErrorCov + config.measurementNoise);
+        estimate[slot] = predictedEstimate + k * (close - predictedEstimate);
+        errorCov[slot] = (1 - k) * predictedErrorCov;
+        gain[slot] = k;
+
+        // Velocity tracks the smoothed price change (none yet on the first bar)
+        if (!Double.isNaN(prev)) {
+            velocity[slot] += config.velocityGain * (close - prev - velocity[slot]);
+        }
+        lastPrice[slot] = close;
+    }
+
+    /**
+     * Batch tick update: prices[i] goes to slots[i]. NaN prices are skipped.
+     */
+    public void update(int[] slotIndexes, double[] prices, int count) {
+        for (int i = 0; i < count; i++) {
+            double price = prices[i];
+            if (!Double.isNaN(price)) {
+                update(slotIndexes[i], price);
+            }
+        }
+    }
+
+    /**
+     * Batch tick update for every registered slot: prices[slot], NaN = no tick.
+     */
+    public void updateAll(double[] prices) {
+        int n = Math.min(size, prices.length);
+        for (int slot = 0; slot < n; slot++) {
+            double price = prices[slot];
+            if (!Double.isNaN(price)) {
+                update(slot, price);
+            }
+        }
+    }
+
+    public double getEstimate(int slot) {
+        return estimate[slot];
+    }
+
+    public double getVelocity(int slot) {
+        return velocity[slot];
+    }
+
+    public double getKalmanGain(int slot) {
+        return gain[slot];
+    }
+
+    public double getLastPrice(int slot) {
+        return lastPrice[slot];
+    }
+
+    /** One-sigma band half-width: sqrt(P) * ATR */
+    private double sigma(int slot) {
+        return Math.sqrt(errorCov[slot]) * atr[slot];
+    }
+
+    public double getUpperBand(int slot) {
+        return estimate[slot] + config.bandWidth * sigma(slot);
+    }
+
+    public double getLowerBand(int slot) {
+        return estimate[slot] - config.bandWidth * sigma(slot);
+    }
+
+    /**
+     * Deviation of the last price from the estimate, in band sigmas.
+     */
+    public double getDeviation(int slot) {
+        double sigma = sigma(slot);
+        return sigma > 0 ? (lastPrice[slot] - estimate[slot]) / sigma : 0;
+    }
+
+    /** SIGNAL_OVERBOUGHT / SIGNAL_OVERSOLD / SIGNAL_NEUTRAL */
+    public int getSignal(int slot) {
+        double deviation = getDeviation(slot);
+        if (deviation > config.signalThreshold) {
+            return SIGNAL_OVERBOUGHT;
+        } else if (deviation < -config.signalThreshold) {
+            return SIGNAL_OVERSOLD;
+        }
+        return SIGNAL_NEUTRAL;
+    }
+
+    public static String signalName(int signal) {
+        return signal == SIGNAL_OVERBOUGHT ? "OVERBOUGHT" : signal == SIGNAL_OVERSOLD ? "OVERSOLD" : "NEUTRAL";
+    }
+
+    /**
+     * Write every slot's deviation into {@code out} (length >= size).
+     */
+    public void getDeviations(double[] out) {
+        for (int slot = 0; slot < size; slot++) {
+            out[slot] = getDeviation(slot);
+        }
+    }
+
+    public String getSymbol(int slot) {
+        return symbols[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    /**
+     * Copy of the full filter state.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(Arrays.copyOf(symbols, size), Arrays.copyOf(estimate, size),
+                Arrays.copyOf(errorCov, size), Arrays.copyOf(velocity, size), Arrays.copyOf(gain, size),
+                Arrays.copyOf(lastPrice, size), Arrays.copyOf(atr, size), Arrays.copyOf(atrCount, size));
+    }
+
+    /**
+     * Replace the filter state with a snapshot (slots are renumbered in
+     * snapshot order).
+     */
+    public void restore(Snapshot snapshot) {
+        int n = snapshot.symbols.length;
+        if (n > symbols.length) {
+            grow(n);
+        }
+        slots.clear();
+        size = n;
+        for (int i = 0; i < n; i++) {
+            symbols[i] = snapshot.symbols[i];
+            slots.put(symbols[i], i);
+        }
+        System.arraycopy(snapshot.estimate, 0, estimate, 0, n);
+        System.arraycopy(snapshot.errorCov, 0, errorCov, 0, n);
+        System.arraycopy(snapshot.velocity, 0, velocity, 0, n);
+        System.arraycopy(snapshot.gain, 0, gain, 0, n);
+        System.arraycopy(snapshot.lastPrice, 0, lastPrice, 0, n);
+        System.arraycopy(snapshot.atr, 0, atr, 0, n);
+        System.arraycopy(snapshot.atrCount, 0, atrCount, 0, n);
+    }
+
+    /**
+     * Filter parameters, defaults from Kalman Filter.pine.
+     */
+    public static class Config {
+        private final double processNoise;
+        private final double measurementNoise;
+        private final double velocityGain;
+        private final double bandWidth;
+        private final double signalThreshold;
+        private final int atrLength;
+
+        public Config(double processNoise, double measurementNoise, double velocityGain,
+                double bandWidth, double signalThreshold, int atrLength) {
+            this.processNoise = processNoise;
+            this.measurementNoise = measurementNoise;
+            this.velocityGain = velocityGain;
+            this.bandWidth = bandWidth;
+            this.signalThreshold = signalThreshold;
+            this.atrLength = atrLength;
+        }
+
+        /** Q = 0.01, R = 1.0, velocity gain 0.1, 2 sigma bands, 1.5 sigma signals, ATR(14) */
+        public static Config defaults() {
+            return new Config(0.01, 1.0, 0.1, 2.0, 1.5, 14);
+        }
+
+        public double getProcessNoise() {
+            return processNoise;
+        }
+
+        public double getMeasurementNoise() {
+            return measurementNoise;
+        }
+
+        public double getVelocityGain() {
+            return velocityGain;
+        }
+
+        public double getBandWidth() {
+            return bandWidth;
+        }
+
+        public double getSignalThreshold() {
+            return signalThreshold;
+        }
+
+        public int getAtrLength() {
+            return atrLength;
+        }
+    }
+
+    /**
+     * Immutable copy of the engine state; can be persisted with
+     * {@link #writeTo(DataOutputStream)}.
+     */
+    public static class Snapshot {
+        private final String[] symbols;
+        private final double[] estimate;
+        private final double[] errorCov;
+        private final double[] velocity;
+        private final double[] gain;
+        private final double[] lastPrice;
+        private final double[] atr;
+        private final int[] atrCount;
+
+        private Snapshot(String[] symbols, double[] estimate, double[] errorCov, double[] velocity,
+                double[] gain, double[] lastPrice, double[] atr, int[] atrCount) {
+            this.symbols = symbols;
+            this.estimate = estimate;
+            this.errorCov = errorCov;
+            this.velocity = velocity;
+            this.gain = gain;
+            this.lastPrice = lastPrice;
+            this.atr = atr;
+            this.atrCount = atrCount;
+        }
+
+        public int size() {
+            return symbols.length;
+        }
+
+        public void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(symbols.length);
+            for (int i = 0; i < symbols.length; i++) {
+                out.writeUTF(symbols[i]);
+                out.writeDouble(estimate[i]);
+                out.writeDouble(errorCov[i]);
+                out.writeDouble(velocity[i]);
+                out.writeDouble(gain[i]);
+                out.writeDouble(lastPrice[i]);
+                out.writeDouble(atr[i]);
+                out.writeInt(atrCount[i]);
+            }
+        }
+
+        public static Snapshot readFrom(DataInputStream in) throws IOException {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a Kalman filter snapshot");
+            }
+            int n = in.readInt();
+            Snapshot s = new Snapshot(new String[n], new double[n], new double[n], new double[n],
+                    new double[n], new double[n], new double[n], new int[n]);
+            for (int i = 0; i < n; i++) {
+                s.symbols[i] = in.readUTF();
+                s.estimate[i] = in.readDouble();
+                s.errorCov[i] = in.readDouble();
+                s.velocity[i] = in.readDouble();
+                s.gain[i] = in.readDouble();
+                s.lastPrice[i] = in.readDouble();
+                s.atr[i] = in.readDouble();
+                s.atrCount[i] = in.readInt();
+            }
+            return s;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.dealaggregator.dealapi.analytics;
+
+/**
+ * In-process port of python/mean_reversion/indicators.py.
+ *
+ * Each method mirrors its Python counterpart (same windows, same ddof,
+ * same edge cases) and works directly on a primitive price array, oldest
+ * first. Results match the Lambda implementation to floating point noise.
+ *
+ * - zscore    <- calculate_zscore   (pandas rolling mean / std, ddof = 1)
+ * - halfLife  <- calculate_half_life (OU regression of dy on lagged log price)
+ * - acf       <- calculate_acf      (log-return ACF, np.var with ddof = 0)
+ */
+public final class MeanReversionIndicators {
+
+    public static final int DEFAULT_ZSCORE_LOOKBACK = 50;
+    public static final int DEFAULT_HALF_LIFE_LOOKBACK = 100;
+    public static final int DEFAULT_ACF_MAX_LAG = 10;
+
+    /** Z-Score beyond +/- this is OVERBOUGHT / OVERSOLD */
+    public static final double SIGNAL_THRESHOLD = 2.0;
+    /** Above this many lags acfOfSeries switches to the FFT path */
+    static final int FFT_MIN_LAGS = 32;
+    /** Half-life is capped at this many bars (Python: min(half_life, 500)) */
+    public static final double MAX_HALF_LIFE = 500.0;
+
+    private MeanReversionIndicators() {
+    }
+
+    /**
+     * Z-Score of the latest price against the trailing {@code lookback} window.
+     * Returns NaN values if there are fewer than {@code lookback} prices,
+     * just like pandas' rolling window.
+     */
+    public static ZScoreResult zscore(double[] prices, int lookback) {
+        int n = prices.length;
+        if (n < lookback || lookback < 1) {
+            return new ZScoreResult(Double.NaN, Double.NaN, Double.NaN);
+        }
+
+        int start = n - lookback;
+        double sum = 0;
+        for (int i = start; i < n; i++) {
+            sum += prices[i];
+        }
+        double mean = sum / lookback;
+
+        double ss = 0;
+        for (int i = start; i < n; i++) {
+            double d = prices[i] - mean;
+            ss += d * d;
+        }
+        double std = lookback > 1 ? Math.sqrt(ss / (lookback - 1)) : Double.NaN;
+
+        return new ZScoreResult((prices[n - 1] - mean) / std, mean, std);
+    }
+
+    /**
+     * Half-life of mean reversion from an Ornstein-Uhlenbeck regression on
+     * the last {@code lookback} log prices.
+     */
+    public static HalfLifeResult halfLife(double[] prices, int lookback) {
+        int start = Math.max(0, prices.length - lookback);
+        int m = prices.length - start - 1; // number of (lag, delta) pairs
+        if (m < 1) {
+            return new HalfLifeResult(MAX_HALF_LIFE, 0.0, false);
+        }
+
+        // Means of delta_y and lag_y
+        double sumDelta = 0;
+        double sumLag = 0;
+        double prevLog = Math.log(prices[start]);
+        for (int i = start + 1; i < prices.length; i++) {
+            double log = Math.log(prices[i]);
+            sumDelta += log - prevLog;
+            sumLag += prevLog;
+            prevLog = log;
+        }
+        double meanDelta = sumDelta / m;
+        double meanLag = sumLag / m;
+
+        // beta = Cov(delta_y, lag_y) / Var(lag_y)
+        double covariance = 0;
+        double variance = 0;
+        prevLog = Math.log(prices[start]);
+        for (int i = start + 1; i < prices.length; i++) {
+            double log = Math.log(prices[i]);
+            double dLag = prevLog - meanLag;
+            covariance += (log - prevLog - meanDelta) * dLag;
+            variance += dLag * dLag;
+            prevLog = log;
+        }
+        double beta = variance != 0 ? covariance / variance : 0;
+
+        double halfLife = (beta < 0 && beta > -1)
+                ? -Math.log(2) / Math.log(1 + beta)
+                : Double.POSITIVE_INFINITY; // Not mean reverting
+
+        return new HalfLifeResult(Math.min(halfLife, MAX_HALF_LIFE), beta, beta < 0 && halfLife < 50);
+    }
+
+    /**
+     * Autocorrelation of log returns for lags 1..maxLag.
+     */
+    public static AcfResult acf(double[] prices, int maxLag) {
+        int n = Math.max(0, prices.length - 1);
+        double[] returns = new double[n];
+        for (int i = 0; i < n; i++) {
+            returns[i] = Math.log(prices[i + 1]) - Math.log(prices[i]);
+        }
+        return new AcfResult(acfOfSeries(returns, maxLag));
+    }
+
+    /**
+     * Lag 1..maxLag autocorrelation of an arbitrary series (numerator is the
+     * mean over the overlapping pairs, denominator the population variance).
+     * Lags at or beyond the series length are 0.
+     */
+    public static double[] acfOfSeries(double[] x, int maxLag) {
+        int n = x.length;
+        if (maxLag > FFT_MIN_LAGS && n > maxLag) {
+            return acfOfSeriesFft(x, maxLag);
+        }
+        double mean = 0;
+        for (double v : x) {
+            mean += v;
+        }
+        mean = n > 0 ? mean / n : Double.NaN;
+
+        double var = 0;
+        for (double v : x) {
+            double d = v - mean;
+            var += d * d;
+        }
+        var = n > 0 ? var / n : Double.NaN;
+
+        double[] acf = new double[Math.max(0, maxLag)];
+        for (int lag = 1; lag <= maxLag; lag++) {
+            if (lag >= n) {
+                acf[lag - 1] = 0;
+                continue;
+            }
+            double cov = 0;
+            for (int i = lag; i < n; i++) {
+                cov += (x[i] - mean) * (x[i - lag] - mean);
+            }
+            cov /= (n - lag);
+            acf[lag - 1] = var != 0 ? cov / var : 0;
+        }
+        return acf;
+    }
+
+    /**
+     * Same estimator as acfOfSeries, from FFT autocovariance sums.
+     */
+    private static double[] acfOfSeriesFft(double[] x, int maxLag) {
+        int n = x.length;
+        double[] c = new FftAutocorrelation().autocovarianceSums(x, maxLag);
+        double var = c[0] / n;
+        double[] acf = new double[maxLag];
+        for (int lag = 1; lag <= maxLag; lag++) {
+            acf[lag - 1] = var != 0 ? (c[lag] / (n - lag)) / var : 0;
+        }
+        return acf;
+    }
+
+    /**
+     * OVERBOUGHT / OVERSOLD / NEUTRAL for a z-score.
+     */
+    public static String signal(double zscore) {
+        if (zscore > SIGNAL_THRESHOLD) {
+            return "OVERBOUGHT";
+        } else if (zscore < -SIGNAL_THRESHOLD) {
+            return "OVERSOLD";
+        }
+        return "NEUTRAL";
+    }
+
+    /**
+     * Result of {@link #zscore(double[], int)}.
+     */
+    public static class ZScoreResult {
+        private final double zscore;
+        private final double mean;
+        private final double std;
+
+        public ZScoreResult(double zscore, double mean, double std) {
+            this.zscore = zscore;
+            this.mean = mean;
+            this.std = std;
+        }
+
+        public double getZscore() {
+            return zscore;
+        }
+
+        public String getSignal() {
+            return signal(zscore);
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public double getStd() {
+            return std;
+        }
+    }
+
+    /**
+     * Result of {@link #halfLife(double[], int)}.
+     */
+    public static class HalfLifeResult {
+        private final double halfLife;
+        private final double beta;
+        private final boolean meanReverting;
+
+        public HalfLifeResult(double halfLife, double beta, boolean meanReverting) {
+            this.halfLife = halfLife;
+            this.beta = beta;
+            this.meanReverting = meanReverting;
+        }
+
+        /** Bars until a deviation halves, capped at {@link #MAX_HALF_LIFE} */
+        public double getHalfLife() {
+            return halfLife;
+        }
+
+        public double getBeta() {
+            return beta;
+        }
+
+        public boolean isMeanReverting() {
+            return meanReverting;
+        }
+    }
+
+    /**
+     * Result of {@link #acf(double[], int)}.
+     */
+    public static class AcfResult {
+        private final double[] values;
+
+        public AcfResult(double[] values) {
+            this.values = values;
+        }
+
+        /** ACF at lags 1..maxLag (index 0 = lag 1) */
+        public double[] getValues() {
+            return values.clone();
+        }
+
+        public double getLag1() {
+            return values.length > 0 ? values[0] : 0;
+        }
+
+        public boolean isMeanReverting() {
+            return getLag1() < -0.05;
+        }
+
+        public boolean isTrending() {
+            return getLag1() > 0.05;
+        }
+    }
+}
@@ -0,0 +1,683 @@
+package com.dealaggregator.dealapi.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Pairs scanner: Engle-Granger cointegration over every pair in a
+ * universe, with Kalman-filtered hedge ratios for the pairs that pass.
+ *
+ * A scan prunes the n(n-1)/2 pair space with a return-correlation
+ * prefilter (one tiled CovarianceMatrix pass), then runs the two-step
+ * Engle-Granger test on the survivors in parallel: OLS of one log price on
+ * the other, then an augmented Dickey-Fuller test on the residuals against
+ * MacKinnon's (2010) two-variable critical values. Both orderings are
+ * tried and the one with the stronger statistic kept.
+ *
+ * An instance is also an incremental engine: onBar() pushes one bar of
+ * log prices into a sliding window and steps the Kalman filter of every
+ * tracked pair in O(pairs); the cointegration scan is rerun over the window
+ * every {@code rescanInterval} bars. Pairs that keep passing in the same
+ * ordering keep their filter state. Not thread-safe: drive an instance from one thread.
+ */
+public final class PairsScanner {
+
+    /** Candidate pairs per fork-join leaf (one OLS + ADF over the window each) */
+    private static final int PAIR_LEAF_SIZE = 64;
+    private static final double LN2 = Math.log(2);
+
+    /** MacKinnon (2010) response surface, N = 2, constant: tau = b0 + b1/T + b2/T^2 */
+    private static final double[] SIGNIFICANCE = { 0.01, 0.05, 0.10 };
+    private static final double[][] MACKINNON_2 = {
+            { -3.89644, -10.9519, -22.527 },
+            { -3.33613, -6.1101, -6.823 },
+            { -3.04445, -4.2412, -2.720 },
+    };
+
+    private final String[] symbols;
+    private final Params params;
+    private final double[][] window; // Ring of log prices, [symbol][slot]
+    private int head; // Next slot to write
+    private int count;
+    private long barsSinceScan;
+    private final Map<Long, PairState> tracked = new HashMap<>();
+    private int candidatesLastScan;
+
+    public PairsScanner(String[] symbols, Params params) {
+        this.symbols = symbols.clone();
+        this.params = params;
+        this.window = new double[symbols.length][params.window];
+    }
+
+    /**
+     * Replace the window with the tail of aligned log price history
+     * (oldest first) and scan. Every pair that passes gets a Kalman
+     * filter run over the window.
+     */
+    public void load(double[][] logPrices) {
+        int length = logPrices[0].length;
+        int start = Math.max(0, length - params.window);
+        head = 0;
+        count = 0;
+        for (int t = start; t < length; t++) {
+            for (int s = 0; s < symbols.length; s++) {
+                window[s][head] = logPrices[s][t];
+            }
+            advance();
+        }
+        tracked.clear();
+        rescan();
+    }
+
+    /**
+     * Add one bar of log prices (one per symbol, in constructor order).
+     */
+    public void onBar(double[] logPrices) {
+        for (int s = 0; s < symbols.length; s++) {
+            window[s][head] = logPrices[s];
+        }
+        advance();
+        for (PairState pair : tracked.values()) {
+            pair.filter.update(logPrices[pair.x], logPrices[pair.y]);
+        }
+        if (++barsSinceScan >= params.rescanInterval && count == params.window) {
+            rescan();
+        }
+    }
+
+    public boolean isReady() {
+        return count == params.window;
+    }
+
+    /**
+     * Tracked pairs, widest spread (largest |z|) first.
+     */
+    public List<PairSnapshot> getPairs() {
+        List<PairSnapshot> pairs = new ArrayList<>();
+        for (PairState pair : tracked.values()) {
+            pairs.add(new PairSnapshot(symbols[pair.y], symbols[pair.x], pair.test, pair.filter.hedgeRatio(),
+                    pair.filter.intercept(), pair.filter.spread(), pair.filter.zscore()));
+        }
+        pairs.sort(Comparator.comparingDouble((PairSnapshot p) -> Math.abs(p.getZscore())).reversed());
+        return pairs;
+    }
+
+    /** Pairs that cleared the correlation prefilter on the last scan */
+    public int getCandidatesLastScan() {
+        return candidatesLastScan;
+    }
+
+    private void advance() {
+        head = (head + 1) % params.window;
+        count = Math.min(count + 1, params.window);
+    }
+
+    /**
+     * Re-test every pair over the current window and reconcile the tracked set.
+     */
+    private void rescan() {
+        barsSinceScan = 0;
+        double[][] logPrices = windowCopy();
+        List<CointegrationResult> passing = new ArrayList<>();
+        int[] candidates = new int[1];
+        for (CointegrationResult result : scan(logPrices, params, candidates)) {
+            if (result.isCointegrated()) {
+                passing.add(result);
+            }
+        }
+        candidatesLastScan = candidates[0];
+        reconcile(passing, logPrices);
+    }
+
+    /**
+     * Make the passing pairs the tracked set. A pair keeps its filter only
+     * if its regression ordering is unchanged; if the stronger ordering
+     * flipped, the old filter estimates the inverse regression, so the pair
+     * gets a fresh filter run over the window.
+     *
+     * @param logPrices The window the results were computed on, oldest first
+     */
+    void reconcile(List<CointegrationResult> passing, double[][] logPrices) {
+        Map<Long, PairState> next = new HashMap<>();
+        for (CointegrationResult result : passing) {
+            long key = key(result.getY(), result.getX());
+            PairState pair = tracked.get(key);
+            if (pair == null || pair.y != result.getY()) {
+                KalmanHedge filter = new KalmanHedge(result.getBeta(), result.getAlpha(), params.kalmanDelta,
+                        params.kalmanObservationVariance);
+                double[] y = logPrices[result.getY()];
+                double[] x = logPrices[result.getX()];
+                for (int t = 0; t < x.length; t++) {
+                    filter.update(x[t], y[t]);
+                }
+                pair = new PairState(result.getY(), result.getX(), filter);
+            }
+            pair.test = result;
+            next.put(key, pair);
+        }
+        tracked.clear();
+        tracked.putAll(next);
+    }
+
+    /** Window copied out oldest first, symbol-major */
+    private double[][] windowCopy() {
+        double[][] copy = new double[symbols.length][count];
+        int oldest = count < params.window ? 0 : head;
+        for (int s = 0; s < symbols.length; s++) {
+            int first = params.window - oldest;
+            if (first >= count) {
+                System.arraycopy(window[s], oldest, copy[s], 0, count);
+            } else {
+                System.arraycopy(window[s], oldest, copy[s], 0, first);
+                System.arraycopy(window[s], 0, copy[s], first, count - first);
+            }
+        }
+        return copy;
+    }
+
+    private long key(int a, int b) {
+        return (long) Math.min(a, b) * symbols.length + Math.max(a, b);
+    }
+
+    /**
+     * Engle-Granger test of every pair whose return correlation clears the
+     * prefilter, in parallel.
+     *
+     * @param logPrices  Aligned log prices, [symbol][t] oldest first
+     * @param candidates Optional; element 0 receives the number of pairs tested
+     * @return One result per tested pair
+     */
+    public static List<CointegrationResult> scan(double[][] logPrices, Params params, int[] candidates) {
+        int n = logPrices.length;
+        int length = logPrices[0].length;
+        double[][] returns = new double[n][Math.max(0, length - 1)];
+        for (int s = 0; s < n; s++) {
+            for (int t = 1; t < length; t++) {
+                returns[s][t - 1] = logPrices[s][t] - logPrices[s][t - 1];
+            }
+        }
+        CovarianceMatrix.Result correlation = CovarianceMatrix.compute(returns, false);
+
+        List<int[]> pairs = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (Math.abs(correlation.getCorrelation(i, j)) >= params.minCorrelation) {
+                    pairs.add(new int[] { i, j });
+                }
+            }
+        }
+        if (candidates != null) {
+            candidates[0] = pairs.size();
+        }
+
+        CointegrationResult[] results = new CointegrationResult[pairs.size()];
+        if (!pairs.isEmpty()) {
+            ForkJoinPool.commonPool().invoke(new PairTask(logPrices, pairs, params, results, 0, pairs.size()));
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Engle-Granger with both orderings, keeping the more negative ADF statistic.
+     */
+    public static CointegrationResult testPair(double[][] logPrices, int a, int b, Params params) {
+        CointegrationResult ab = engleGranger(logPrices[a], logPrices[b], a, b, params);
+        CointegrationResult ba = engleGranger(logPrices[b], logPrices[a], b, a, params);
+        return ab.getAdfStatistic() <= ba.getAdfStatistic() ? ab : ba;
+    }
+
+    /**
+     * Two-step Engle-Granger: y = alpha + beta x + e by OLS, then ADF on e.
+     */
+    public static CointegrationResult engleGranger(double[] y, double[] x, int yIndex, int xIndex, Params params) {
+        int n = x.length;
+        double meanX = 0;
+        double meanY = 0;
+        for (int t = 0; t < n; t++) {
+            meanX += x[t];
+            meanY += y[t];
+        }
+        meanX /= n;
+        meanY /= n;
+        double sxx = 0;
+        double sxy = 0;
+        for (int t = 0; t < n; t++) {
+            double dx = x[t] - meanX;
+            sxx += dx * dx;
+            sxy += dx * (y[t] - meanY);
+        }
+        double beta = sxx > 0 ? sxy / sxx : 0.0;
+        double alpha = meanY - beta * meanX;
+
+        double[] residuals = new double[n];
+        double ss = 0;
+        for (int t = 0; t < n; t++) {
+            residuals[t] = y[t] - alpha - beta * x[t];
+            ss += residuals[t] * residuals[t];
+        }
+        double[] adf = adf(residuals, params.adfLags);
+        double critical = criticalValue(n, params.significance);
+        return new CointegrationResult(yIndex, xIndex, beta, alpha, Math.sqrt(ss / n), adf[0], critical,
+                halfLife(adf[1]), n);
+    }
+
+    /**
+     * ADF regression without constant (the residuals are already demeaned):
+     * de_t = gamma e_{t-1} + sum_k phi_k de_{t-k} + u_t.
+     *
+     * @return { t-statistic of gamma, gamma }; NaNs if too short
+     */
+    public static double[] adf(double[] series, int lags) {
+        int k = lags + 1;
+        int first = lags + 1; // First t with all lagged differences available
+        int m = series.length - first;
+        if (m <= k + 1) {
+            return new double[] { Double.NaN, Double.NaN };
+        }
+
+        double[] xtx = new double[k * k];
+        double[] xty = new double[k];
+        double[] row = new double[k];
+        for (int t = first; t < series.length; t++) {
+            row[0] = series[t - 1];
+            for (int l = 1; l <= lags; l++) {
+                row[l] = series[t - l] - series[t - l - 1];
+            }
+            double dy = series[t] - series[t - 1];
+            for (int r = 0; r < k; r++) {
+                xty[r] += row[r] * dy;
+                for (int c = 0; c <= r; c++) {
+                    xtx[r * k + c] += row[r] * row[c];
+                }
+            }
+        }
+        for (int r = 0; r < k; r++) {
+            for (int c = r + 1; c < k; c++) {
+                xtx[r * k + c] = xtx[c * k + r];
+            }
+        }
+
+        double[] inverse = invert(xtx, k);
+        if (inverse == null) {
+            return new double[] { Double.NaN, Double.NaN };
+        }
+        double[] coef = new double[k];
+        for (int r = 0; r < k; r++) {
+            for (int c = 0; c < k; c++) {
+                coef[r] += inverse[r * k + c] * xty[c];
+            }
+        }
+
+        double ssr = 0;
+        for (int t = first; t < series.length; t++) {
+            double fitted = coef[0] * series[t - 1];
+            for (int l = 1; l <= lags; l++) {
+                fitted += coef[l] * (series[t - l] - series[t - l - 1]);
+            }
+            double u = series[t] - series[t - 1] - fitted;
+            ssr += u * u;
+        }
+        double sigma2 = ssr / (m - k);
+        double se = Math.sqrt(sigma2 * inverse[0]);
+        return new double[] { se > 0 ? coef[0] / se : Double.NaN, coef[0] };
+    }
+
+    /**
+     * MacKinnon two-variable cointegration critical value for a sample of
+     * {@code observations}, at the nearest of 1%, 5% or 10%.
+     */
+    public static double criticalValue(int observations, double significance) {
+        int level = 0;
+        for (int i = 1; i < SIGNIFICANCE.length; i++) {
+            if (Math.abs(SIGNIFICANCE[i] - significance) < Math.abs(SIGNIFICANCE[level] - significance)) {
+                level = i;
+            }
+        }
+        double[] b = MACKINNON_2[level];
+        double inv = 1.0 / observations;
+        return b[0] + b[1] * inv + b[2] * inv * inv;
+    }
+
+    /** AR(1) half-life from the ADF gamma (e_t - e_{t-1} = gamma e_{t-1}) */
+    private static double halfLife(double gamma) {
+        if (!(gamma < 0) || gamma <= -1) {
+            return MeanReversionIndicators.MAX_HALF_LIFE;
+        }
+        return Math.min(-LN2 / Math.log(1 + gamma), MeanReversionIndicators.MAX_HALF_LIFE);
+    }
+
+    /** Gauss-Jordan inverse of a small k x k matrix, null if singular */
+    private static double[] invert(double[] a, int k) {
+        double[] m = a.clone();
+        double[] inv = new double[k * k];
+        for (int i = 0; i < k; i++) {
+            inv[i * k + i] = 1;
+        }
+        for (int col = 0; col < k; col++) {
+            int pivot = col;
+            for (int r = col + 1; r < k; r++) {
+                if (Math.abs(m[r * k + col]) > Math.abs(m[pivot * k + col])) {
+                    pivot = r;
+                }
+            }
+            if (Math.abs(m[pivot * k + col]) < 1e-300) {
+                return null;
+            }
+            if (pivot != col) {
+                swapRows(m, k, pivot, col);
+                swapRows(inv, k, pivot, col);
+            }
+            double p = m[col * k + col];
+            for (int c = 0; c < k; c++) {
+                m[col * k + c] /= p;
+                inv[col * k + c] /= p;
+            }
+            for (int r = 0; r < k; r++) {
+                if (r != col) {
+                    double f = m[r * k + col];
+                    for (int c = 0; c < k; c++) {
+                        m[r * k + c] -= f * m[col * k + c];
+                        inv[r * k + c] -= f * inv[col * k + c];
+                    }
+                }
+            }
+        }
+        return inv;
+    }
+
+    private static void swapRows(double[] m, int k, int a, int b) {
+        for (int c = 0; c < k; c++) {
+            double tmp = m[a * k + c];
+            m[a * k + c] = m[b * k + c];
+            m[b * k + c] = tmp;
+        }
+    }
+
+    private static class PairTask extends RecursiveAction {
+        private final double[][] logPrices;
+        private final List<int[]> pairs;
+        private final Params params;
+        private final CointegrationResult[] results;
+        private final int from;
+        private final int to;
+
+        PairTask(double[][] logPrices, List<int[]> pairs, Params params, CointegrationResult[] results, int from,
+                int to) {
+            this.logPrices = logPrices;
+            this.pairs = pairs;
+            this.params = params;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PAIR_LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    int[] pair = pairs.get(i);
+                    results[i] = testPair(logPrices, pair[0], pair[1], params);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new PairTask(logPrices, pairs, params, results, from, mid),
+                    new PairTask(logPrices, pairs, params, results, mid, to));
+        }
+    }
+
+    /**
+     * Time-varying hedge ratio: y_t = beta_t x_t + alpha_t + e_t with
+     * (beta, alpha) a random walk (covariance delta / (1 - delta) I) and
+     * observation noise variance ve. The z-score is the one-step-ahead
+     * forecast error over its predicted standard deviation.
+     */
+    public static final class KalmanHedge {
+        private final double vw;
+        private final double ve;
+        private double beta;
+        private double alpha;
+        // State covariance [[p00, p01], [p01, p11]]
+        private double p00;
+        private double p01;
+        private double p11;
+        private double spread = Double.NaN;
+        private double zscore = Double.NaN;
+
+        public KalmanHedge(double beta, double alpha, double delta, double ve) {
+            this.beta = beta;
+            this.alpha = alpha;
+            this.vw = delta / (1 - delta);
+            this.ve = ve;
+        }
+
+        public void update(double x, double y) {
+            // Predict: state is a random walk
+            double r00 = p00 + vw;
+            double r01 = p01;
+            double r11 = p11 + vw;
+
+            double forecast = beta * x + alpha;
+            double error = y - forecast;
+            // Q = h R h' + ve with h = [x, 1]
+            double rh0 = r00 * x + r01;
+            double rh1 = r01 * x + r11;
+            double q = x * rh0 + rh1 + ve;
+
+            double k0 = rh0 / q;
+            double k1 = rh1 / q;
+            beta += k0 * error;
+            alpha += k1 * error;
+            // P = R - K h R
+            p00 = r00 - k0 * rh0;
+            p01 = r01 - k0 * rh1;
+            p11 = r11 - k1 * rh1;
+
+            spread = error;
+            zscore = error / Math.sqrt(q);
+        }
+
+        public double hedgeRatio() {
+            return beta;
+        }
+
+        public double intercept() {
+            return alpha;
+        }
+
+        /** Last one-step-ahead forecast error (log spread) */
+        public double spread() {
+            return spread;
+        }
+
+        public double zscore() {
+            return zscore;
+        }
+    }
+
+    private static final class PairState {
+        private final int y;
+        private final int x;
+        private final KalmanHedge filter;
+        private CointegrationResult test;
+
+        PairState(int y, int x, KalmanHedge filter) {
+            this.y = y;
+            this.x = x;
+            this.filter = filter;
+        }
+    }
+
+    /**
+     * Scan settings.
+     */
+    public static class Params {
+        private final int window;
+        private final double minCorrelation;
+        private final int adfLags;
+        private final double significance;
+        private final double kalmanDelta;
+        private final double kalmanObservationVariance;
+        private final int rescanInterval;
+
+        public Params(int window, double minCorrelation, int adfLags, double significance, double kalmanDelta,
+                double kalmanObservationVariance, int rescanInterval) {
+            if (window < adfLags + 10) {
+                throw new IllegalArgumentException("window too short for " + adfLags + " ADF lags");
+            }
+            this.window = window;
+            this.minCorrelation = minCorrelation;
+            this.adfLags = adfLags;
+            this.significance = significance;
+            this.kalmanDelta = kalmanDelta;
+            this.kalmanObservationVariance = kalmanObservationVariance;
+            this.rescanInterval = Math.max(1, rescanInterval);
+        }
+
+        /** One year, |rho| &gt;= 0.6, ADF(1) at 5%, delta 1e-4, ve 1e-4, rescan monthly */
+        public static Params defaults() {
+            return new Params(252, 0.6, 1, 0.05, 1e-4, 1e-4, 21);
+        }
+
+        public int getWindow() {
+            return window;
+        }
+
+        public double getMinCorrelation() {
+            return minCorrelation;
+        }
+
+        public int getRescanInterval() {
+            return rescanInterval;
+        }
+    }
+
+    /**
+     * Engle-Granger result for one ordered pair (y regressed on x).
+     */
+    public static class CointegrationResult {
+        private final int y;
+        private final int x;
+        private final double beta;
+        private final double alpha;
+        private final double residualStd;
+        private final double adfStatistic;
+        private final double criticalValue;
+        private final double halfLife;
+        private final int observations;
+
+        public CointegrationResult(int y, int x, double beta, double alpha, double residualStd,
+                double adfStatistic, double criticalValue, double halfLife, int observations) {
+            this.y = y;
+            this.x = x;
+            this.beta = beta;
+            this.alpha = alpha;
+            this.residualStd = residualStd;
+            this.adfStatistic = adfStatistic;
+            this.criticalValue = criticalValue;
+            this.halfLife = halfLife;
+            this.observations = observations;
+        }
+
+        public int getY() {
+            return y;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        /** OLS hedge ratio of log y on log x */
+        public double getBeta() {
+            return beta;
+        }
+
+        public double getAlpha() {
+            return alpha;
+        }
+
+        public double getResidualStd() {
+            return residualStd;
+        }
+
+        public double getAdfStatistic() {
+            return adfStatistic;
+        }
+
+        public double getCriticalValue() {
+            return criticalValue;
+        }
+
+        /** Spread half-life in bars */
+        public double getHalfLife() {
+            return halfLife;
+        }
+
+        public int getObservations() {
+            return observations;
+        }
+
+        public boolean isCointegrated() {
+            return adfStatistic < criticalValue;
+        }
+    }
+
+    /**
+     * A tracked pair: its last cointegration test and live Kalman state.
+     */
+    public static class PairSnapshot {
+        private final String y;
+        private final String x;
+        private final CointegrationResult test;
+        private final double hedgeRatio;
+        private final double intercept;
+        private final double spread;
+        private final double zscore;
+
+        public PairSnapshot(String y, String x, CointegrationResult test, double hedgeRatio, double intercept,
+                double spread, double zscore) {
+            this.y = y;
+            this.x = x;
+            this.test = test;
+            this.hedgeRatio = hedgeRatio;
+            this.intercept = intercept;
+            this.spread = spread;
+            this.zscore = zscore;
+        }
+
+        /** Dependent leg: long the spread = long y, short hedgeRatio x */
+        public String getY() {
+            return y;
+        }
+
+        public String getX() {
+            return x;
+        }
+
+        public CointegrationResult getTest() {
+            return test;
+        }
+
+        /** Kalman hedge ratio of log y on log x */
+        public double getHedgeRatio() {
+            return hedgeRatio;
+        }
+
+        public double getIntercept() {
+            return intercept;
+        }
+
+        public double getSpread() {
+            return spread;
+        }
+
+        public double getZscore() {
+            return zscore;
+        }
+    }
+}
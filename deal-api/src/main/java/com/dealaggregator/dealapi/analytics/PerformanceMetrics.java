@@ -0,0 +1,236 @@
+package com.dealaggregator.dealapi.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Omega ratio curves and L-moments for return or P&amp;L series.
+ *
+ * Ports of "Omega Ratio.pine" and "Linear Moments.pine". Both only depend
+ * on the sorted sample, so a series is sorted once into a SortedSample
+ * with prefix sums: L-moments are then a single O(n) pass, and each Omega
+ * threshold is a binary search plus two prefix-sum lookups, so a whole
+ * curve costs O(n log n + thresholds * log n) instead of
+ * O(n * thresholds).
+ */
+public final class PerformanceMetrics {
+
+    /** Pine "Increments": thresholds between 0 and the maximum */
+    public static final int DEFAULT_OMEGA_INCREMENTS = 50;
+    /** Pine "Lookback" for L-moments */
+    public static final int DEFAULT_LMOMENT_LOOKBACK = 300;
+
+    /** L-kurtosis of reference distributions, from the script */
+    public static final double NORMAL_L_KURTOSIS = 0.1226;
+    public static final double LAPLACE_L_KURTOSIS = 0.2357;
+    public static final double STUDENT_T2_L_KURTOSIS = 0.375;
+
+    private PerformanceMetrics() {
+    }
+
+    /**
+     * A series sorted ascending with prefix sums: prefix[k] is the sum of
+     * the k smallest values.
+     */
+    public static final class SortedSample {
+        private final double[] sorted;
+        private final double[] prefix;
+
+        private SortedSample(double[] sorted) {
+            this.sorted = sorted;
+            this.prefix = new double[sorted.length + 1];
+            for (int i = 0; i < sorted.length; i++) {
+                prefix[i + 1] = prefix[i] + sorted[i];
+            }
+        }
+
+        public int size() {
+            return sorted.length;
+        }
+
+        public double getSum() {
+            return prefix[sorted.length];
+        }
+
+        public double get(int k) {
+            return sorted[k];
+        }
+    }
+
+    /** Sort a copy of the whole series */
+    public static SortedSample sort(double[] series) {
+        return sort(series, series.length);
+    }
+
+    /** Sort a copy of the last {@code lookback} values */
+    public static SortedSample sort(double[] series, int lookback) {
+        int n = Math.min(lookback, series.length);
+        double[] copy = Arrays.copyOfRange(series, series.length - n, series.length);
+        Arrays.sort(copy);
+        return new SortedSample(copy);
+    }
+
+    /**
+     * Omega ratio at one threshold: sum of gains above it over sum of
+     * shortfalls below it. Infinite if nothing falls below.
+     */
+    public static double omega(SortedSample sample, double threshold) {
+        int n = sample.size();
+        if (n == 0) {
+            return Double.NaN;
+        }
+        int below = upperBound(sample.sorted, threshold);
+        double shortfall = below * threshold - sample.prefix[below];
+        double gains = (sample.getSum() - sample.prefix[below]) - (n - below) * threshold;
+        return gains / shortfall;
+    }
+
+    /**
+     * Omega at each threshold.
+     */
+    public static double[] omegaCurve(SortedSample sample, double[] thresholds) {
+        double[] curve = new double[thresholds.length];
+        for (int i = 0; i < thresholds.length; i++) {
+            curve[i] = omega(sample, thresholds[i]);
+        }
+        return curve;
+    }
+
+    /**
+     * Pine-style curve: increments + 1 thresholds evenly spaced from 0 to
+     * maxThreshold.
+     */
+    public static OmegaCurve omegaCurve(SortedSample sample, double maxThreshold, int increments) {
+        double[] thresholds = new double[increments + 1];
+        for (int i = 0; i <= increments; i++) {
+            thresholds[i] = maxThreshold * i / increments;
+        }
+        return new OmegaCurve(thresholds, omegaCurve(sample, thresholds));
+    }
+
+    /**
+     * The script's top minimal acceptable return: three sample standard
+     * deviations of the low-risk benchmark's returns.
+     */
+    public static double maxAcceptableReturn(double[] benchmarkReturns) {
+        int n = benchmarkReturns.length;
+        if (n < 2) {
+            return Double.NaN;
+        }
+        double mean = 0;
+        for (double r : benchmarkReturns) {
+            mean += r;
+        }
+        mean /= n;
+        double ss = 0;
+        for (double r : benchmarkReturns) {
+            ss += (r - mean) * (r - mean);
+        }
+        return 3.0 * Math.sqrt(ss / (n - 1));
+    }
+
+    /**
+     * Sample L-moments from unbiased probability-weighted moments
+     * (b0..b3), as in the script. Needs at least 4 values.
+     */
+    public static LMoments lMoments(SortedSample sample) {
+        int n = sample.size();
+        if (n < 4) {
+            return new LMoments(Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+        }
+        double s1 = 0, s2 = 0, s3 = 0;
+        for (int i = 1; i < n; i++) {
+            double x = sample.sorted[i];
+            double w1 = i;
+            double w2 = w1 * (i - 1);
+            s1 += x * w1;
+            s2 += x * w2;
+            s3 += x * w2 * (i - 2);
+        }
+        double b0 = sample.getSum() / n;
+        double b1 = s1 / ((double) n * (n - 1));
+        double b2 = s2 / ((double) n * (n - 1) * (n - 2));
+        double b3 = s3 / ((double) n * (n - 1) * (n - 2) * (n - 3));
+
+        double l2 = 2 * b1 - b0;
+        double l3 = 6 * b2 - 6 * b1 + b0;
+        double l4 = 20 * b3 - 30 * b2 + 12 * b1 - b0;
+        return new LMoments(b0, l2, l3 / l2, l4 / l2);
+    }
+
+    private static int upperBound(double[] sorted, double value) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Omega ratio per threshold.
+     */
+    public static class OmegaCurve {
+        private final double[] thresholds;
+        private final double[] omegas;
+
+        public OmegaCurve(double[] thresholds, double[] omegas) {
+            this.thresholds = thresholds;
+            this.omegas = omegas;
+        }
+
+        public double[] getThresholds() {
+            return thresholds;
+        }
+
+        public double[] getOmegas() {
+            return omegas;
+        }
+
+        /** Omega at a zero threshold (gains over losses) */
+        public double getOmegaAtZero() {
+            return omegas[0];
+        }
+    }
+
+    /**
+     * Mean, L-scale, L-skewness (tau3) and L-kurtosis (tau4).
+     */
+    public static class LMoments {
+        private final double mean;
+        private final double lScale;
+        private final double lSkewness;
+        private final double lKurtosis;
+
+        public LMoments(double mean, double lScale, double lSkewness, double lKurtosis) {
+            this.mean = mean;
+            this.lScale = lScale;
+            this.lSkewness = lSkewness;
+            this.lKurtosis = lKurtosis;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public double getLScale() {
+            return lScale;
+        }
+
+        public double getLSkewness() {
+            return lSkewness;
+        }
+
+        public double getLKurtosis() {
+            return lKurtosis;
+        }
+
+        /** Fatter tails than a normal distribution */
+        public boolean isFatTailed() {
+            return lKurtosis > NORMAL_L_KURTOSIS;
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.dealaggregator.dealapi.analytics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+/**
+ * Regime tests: Hurst exponent by detrended fluctuation analysis and the
+ * Lo-MacKinlay variance ratio test.
+ *
+ * Ports of "Hurst Exponent - Detrended Fluctuation Analysis.pine" and
+ * "Variance Ratio Test.pine". Like the Pine scripts, series are indexed
+ * most-recent-first internally; callers pass prices oldest first.
+ *
+ * DFA detrending uses closed-form OLS: with prefix sums of Y, Y^2 and j*Y
+ * over the profile, every segment's residual RMS is O(1), so a full
+ * 10-scale fit is O(len) instead of O(len * scales).
+ */
+public final class RegimeTests {
+
+    /** Pine's 10 log-spaced DFA scales */
+    public static final int SCALE_COUNT = 10;
+    /** Scale-level parallelism only pays off for very long samples */
+    static final int PARALLEL_SCALE_MIN_LENGTH = 50_000;
+    /** Symbols per fork-join leaf in screen() */
+    private static final int SCREEN_LEAF_SIZE = 8;
+
+    private RegimeTests() {
+    }
+
+    /**
+     * DFA Hurst exponent over the last {@code len} log returns.
+     *
+     * @param prices    Prices, oldest first (needs len + 1)
+     * @param len       Sample size (Pine default 100)
+     * @param baseScale Smallest segment size (Pine default 8)
+     * @param maxScale  Largest segment = len / maxScale (Pine default 2)
+     */
+    public static HurstResult dfaHurst(double[] prices, int len, int baseScale, int maxScale) {
+        int n = prices.length;
+        if (n < len + 1 || len < baseScale * maxScale || baseScale < 2) {
+            return new HurstResult(Double.NaN, len);
+        }
+
+        // Profile (cumulative demeaned log returns), most recent first
+        double mean = 0;
+        for (int i = 0; i < len; i++) {
+            mean += Math.log(prices[n - 1 - i] / prices[n - 2 - i]);
+        }
+        mean /= len;
+
+        double[] sumY = new double[len + 1];
+        double[] sumYY = new double[len + 1];
+        double[] sumJY = new double[len + 1];
+        double y = 0;
+        for (int i = 0; i < len; i++) {
+            y += Math.log(prices[n - 1 - i] / prices[n - 2 - i]) - mean;
+            sumY[i + 1] = sumY[i] + y;
+            sumYY[i + 1] = sumYY[i] + y * y;
+            sumJY[i + 1] = sumJY[i] + i * y;
+        }
+
+        double[] logScale = new double[SCALE_COUNT];
+        double[] logFluctuation = new double[SCALE_COUNT];
+        double growth = Math.pow((double) len / (maxScale * baseScale), 0.1111111111);
+        IntStream scales = IntStream.range(0, SCALE_COUNT);
+        if (len >= PARALLEL_SCALE_MIN_LENGTH) {
+            scales = scales.parallel();
+        }
+        scales.forEach(x -> {
+            int scale = (int) Math.round(baseScale * Math.pow(growth, x));
+            logScale[x] = Math.log10(scale);
+            logFluctuation[x] = Math.log10(averageFluctuation(sumY, sumYY, sumJY, len, scale));
+        });
+
+        return new HurstResult(slope(logScale, logFluctuation), len);
+    }
+
+    /** Mean detrended RMS over the floor(len / scale) leading segments */
+    private static double averageFluctuation(double[] sumY, double[] sumYY, double[] sumJY, int len, int scale) {
+        int segments = len / scale;
+        double n = scale;
+        double sx = n * (n + 1) / 2;
+        double sxx = n * (n * n - 1) / 12; // Centered sum of squares of 1..n
+        double total = 0;
+        for (int s = 0; s < segments; s++) {
+            int start = s * scale;
+            int end = start + scale;
+            double sy = sumY[end] - sumY[start];
+            double syy = sumYY[end] - sumYY[start] - sy * sy / n;
+            // x runs 1..n inside the segment: x = j - start + 1
+            double sxyRaw = sumJY[end] - sumJY[start] - (start - 1.0) * sy;
+            double sxy = sxyRaw - sx * sy / n;
+            total += Math.sqrt(Math.max(0, syy - sxy * sxy / sxx) / (n - 1));
+        }
+        return total / segments;
+    }
+
+    private static double slope(double[] x, double[] y) {
+        int n = x.length;
+        double mx = 0, my = 0;
+        for (int i = 0; i < n; i++) {
+            mx += x[i];
+            my += y[i];
+        }
+        mx /= n;
+        my /= n;
+        double cov = 0, var = 0;
+        for (int i = 0; i < n; i++) {
+            cov += (x[i] - mx) * (y[i] - my);
+            var += (x[i] - mx) * (x[i] - mx);
+        }
+        return cov / var;
+    }
+
+    /**
+     * Variance ratio z-score for sampling period {@code k} over the last
+     * {@code lookback} log returns (homoscedastic standard error).
+     *
+     * @param prices Prices, oldest first (needs lookback + 1)
+     */
+    public static VarianceRatioResult varianceRatio(double[] prices, int lookback, int k) {
+        int n = prices.length;
+        if (n < lookback + 1 || k < 2 || k >= lookback) {
+            return new VarianceRatioResult(k, Double.NaN, Double.NaN);
+        }
+
+        // One-period variance
+        double mean = 0;
+        for (int i = 0; i < lookback; i++) {
+            mean += Math.log(prices[n - 1 - i] / prices[n - 2 - i]);
+        }
+        mean /= lookback;
+        double v = 0;
+        for (int i = 0; i < lookback; i++) {
+            double d = Math.log(prices[n - 1 - i] / prices[n - 2 - i]) - mean;
+            v += d * d;
+        }
+        v /= (lookback - 1);
+
+        // Overlapping k-period variance with the unbiased scaling m
+        double vk = 0;
+        for (int i = 0; i <= lookback - 1 - k; i++) {
+            double d = Math.log(prices[n - 1 - i] / prices[n - 1 - i - k]) - mean * k;
+            vk += d * d;
+        }
+        double m = k * (lookback - k + 1) * (1 - (double) k / lookback);
+        vk /= m;
+
+        double ratio = vk / v;
+        double phi = 2.0 * (k - 1) * (2 * k - 1) / (3.0 * k * lookback);
+        return new VarianceRatioResult(k, ratio, (ratio - 1) / Math.sqrt(phi));
+    }
+
+    /**
+     * Hurst + variance ratios for a whole universe, split across the
+     * fork-join pool by symbol.
+     *
+     * @param symbols Ticker per series
+     * @param prices  Price series per ticker, oldest first
+     */
+    public static RegimeResult[] screen(List<String> symbols, List<double[]> prices, ScreenParams params) {
+        RegimeResult[] results = new RegimeResult[symbols.size()];
+        ForkJoinPool.commonPool().invoke(new ScreenTask(symbols, prices, params, results, 0, results.length));
+        return results;
+    }
+
+    static RegimeResult evaluate(String symbol, double[] prices, ScreenParams params) {
+        HurstResult hurst = dfaHurst(prices, params.hurstLength, params.baseScale, params.maxScale);
+        int[] periods = params.varianceRatioPeriods;
+        VarianceRatioResult[] ratios = new VarianceRatioResult[periods.length];
+        for (int i = 0; i < periods.length; i++) {
+            ratios[i] = varianceRatio(prices, params.varianceRatioLookback, periods[i]);
+        }
+        return new RegimeResult(symbol, hurst, ratios, params.criticalValue);
+    }
+
+    private static class ScreenTask extends RecursiveAction {
+        private final List<String> symbols;
+        private final List<double[]> prices;
+        private final ScreenParams params;
+        private final RegimeResult[] results;
+        private final int from;
+        private final int to;
+
+        ScreenTask(List<String> symbols, List<double[]> prices, ScreenParams params, RegimeResult[] results,
+                int from, int to) {
+            this.symbols = symbols;
+            this.prices = prices;
+            this.params = params;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SCREEN_LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    results[i] = evaluate(symbols.get(i), prices.get(i), params);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ScreenTask(symbols, prices, params, results, from, mid),
+                    new ScreenTask(symbols, prices, params, results, mid, to));
+        }
+    }
+
+    /**
+     * Screen settings, defaults from the two Pine scripts.
+     */
+    public static class ScreenParams {
+        private final int hurstLength;
+        private final int baseScale;
+        private final int maxScale;
+        private final int varianceRatioLookback;
+        private final int[] varianceRatioPeriods;
+        private final double criticalValue;
+
+        public ScreenParams(int hurstLength, int baseScale, int maxScale, int varianceRatioLookback,
+                int[] varianceRatioPeriods, double criticalValue) {
+            this.hurstLength = hurstLength;
+            this.baseScale = baseScale;
+            this.maxScale = maxScale;
+            this.varianceRatioLookback = varianceRatioLookback;
+            this.varianceRatioPeriods = varianceRatioPeriods.clone();
+            this.criticalValue = criticalValue;
+        }
+
+        /** DFA(100, 8, 2), VR over 32 bars at k = 2/4/8/16, 5% two-sided */
+        public static ScreenParams defaults() {
+            return new ScreenParams(100, 8, 2, 32, new int[] { 2, 4, 8, 16 }, 1.959964);
+        }
+
+        /** Price history needed per symbol */
+        public int getRequiredBars() {
+            return Math.max(hurstLength, varianceRatioLookback) + 1;
+        }
+    }
+
+    /**
+     * DFA Hurst exponent with its 95% band around 0.5.
+     */
+    public static class HurstResult {
+        private final double hurst;
+        private final double criticalValue;
+
+        public HurstResult(double hurst, int len) {
+            this.hurst = hurst;
+            this.criticalValue = 1.645 * (0.3912 / Math.pow(len, 0.3));
+        }
+
+        public double getHurst() {
+            return hurst;
+        }
+
+        public double getLowerBand() {
+            return 0.5 - criticalValue;
+        }
+
+        public double getUpperBand() {
+            return 0.5 + criticalValue;
+        }
+
+        /** Significantly anti-persistent */
+        public boolean isMeanReverting() {
+            return hurst < getLowerBand();
+        }
+
+        /** Significantly persistent */
+        public boolean isTrending() {
+            return hurst > getUpperBand();
+        }
+    }
+
+    /**
+     * Variance ratio and its z-statistic for one sampling period.
+     */
+    public static class VarianceRatioResult {
+        private final int period;
+        private final double ratio;
+        private final double zscore;
+
+        public VarianceRatioResult(int period, double ratio, double zscore) {
+            this.period = period;
+            this.ratio = ratio;
+            this.zscore = zscore;
+        }
+
+        public int getPeriod() {
+            return period;
+        }
+
+        public double getRatio() {
+            return ratio;
+        }
+
+        public double getZscore() {
+            return zscore;
+        }
+    }
+
+    /**
+     * Screen output for one symbol.
+     */
+    public static class RegimeResult {
+        private final String symbol;
+        private final HurstResult hurst;
+        private final VarianceRatioResult[] varianceRatios;
+        private final double criticalValue;
+
+        public RegimeResult(String symbol, HurstResult hurst, VarianceRatioResult[] varianceRatios,
+                double criticalValue) {
+            this.symbol = symbol;
+            this.hurst = hurst;
+            this.varianceRatios = varianceRatios;
+            this.criticalValue = criticalValue;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public HurstResult getHurst() {
+            return hurst;
+        }
+
+        public VarianceRatioResult[] getVarianceRatios() {
+            return Arrays.copyOf(varianceRatios, varianceRatios.length);
+        }
+
+        /** Most negative variance ratio z-score across periods */
+        public double getMinVarianceRatioZ() {
+            double min = Double.NaN;
+            for (VarianceRatioResult vr : varianceRatios) {
+                if (!Double.isNaN(vr.getZscore()) && (Double.isNaN(min) || vr.getZscore() < min)) {
+                    min = vr.getZscore();
+                }
+            }
+            return min;
+        }
+
+        /**
+         * Mean reverting if the Hurst exponent is below its band or any
+         * variance ratio is significantly below 1.
+         */
+        public boolean isMeanReverting() {
+            return hurst.isMeanReverting() || getMinVarianceRatioZ() < -criticalValue;
+        }
+    }
+}
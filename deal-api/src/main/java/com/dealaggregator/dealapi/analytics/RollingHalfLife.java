@@ -0,0 +1,64 @@
+package com.dealaggregator.dealapi.analytics;
+
+/**
+ * Rolling Ornstein-Uhlenbeck half-life, updated in O(1) per bar.
+ *
+ * Regresses the log price change on the lagged log price over the pairs
+ * formed by the last {@code lookback} prices, exactly like
+ * MeanReversionIndicators.halfLife(prices, lookback).
+ */
+public final class RollingHalfLife {
+
+    private final RollingRegression regression;
+    private double prevLog = Double.NaN;
+
+    public RollingHalfLife(int lookback) {
+        if (lookback < 2) {
+            throw new IllegalArgumentException("Half-life lookback must be at least 2: " + lookback);
+        }
+        this.regression = new RollingRegression(lookback - 1);
+    }
+
+    /**
+     * Push a new price.
+     *
+     * @return The updated (capped) half-life in bars
+     */
+    public double update(double price) {
+        double log = Math.log(price);
+        if (!Double.isNaN(prevLog)) {
+            regression.add(prevLog, log - prevLog);
+        }
+        prevLog = log;
+        return getHalfLife();
+    }
+
+    public double getBeta() {
+        return regression.getBeta();
+    }
+
+    /** Bars until a deviation halves, capped at MeanReversionIndicators.MAX_HALF_LIFE */
+    public double getHalfLife() {
+        return Math.min(uncappedHalfLife(), MeanReversionIndicators.MAX_HALF_LIFE);
+    }
+
+    public boolean isMeanReverting() {
+        return getBeta() < 0 && uncappedHalfLife() < 50;
+    }
+
+    private double uncappedHalfLife() {
+        double beta = getBeta();
+        return (beta < 0 && beta > -1)
+                ? -Math.log(2) / Math.log(1 + beta)
+                : Double.POSITIVE_INFINITY;
+    }
+
+    public boolean isReady() {
+        return regression.isFull();
+    }
+
+    public void clear() {
+        regression.clear();
+        prevLog = Double.NaN;
+    }
+}
@@ -0,0 +1,74 @@
+package com.dealaggregator.dealapi.analytics;
+
+/**
+ * Per-symbol bundle of streaming indicators, fed one close per bar.
+ *
+ * Each update is O(1) regardless of lookback: Z-Score and half-life use the
+ * same windows as the /indicator command, and the log-return moments use
+ * the Z-Score window.
+ */
+public final class RollingIndicatorSet {
+
+    private final RollingZScore zscore;
+    private final RollingHalfLife halfLife;
+    private final RollingMoments returnMoments;
+    private double lastClose = Double.NaN;
+    private long bars;
+
+    public RollingIndicatorSet() {
+        this(MeanReversionIndicators.DEFAULT_ZSCORE_LOOKBACK,
+                MeanReversionIndicators.DEFAULT_HALF_LIFE_LOOKBACK);
+    }
+
+    public RollingIndicatorSet(int zscoreLookback, int halfLifeLookback) {
+        this.zscore = new RollingZScore(zscoreLookback);
+        this.halfLife = new RollingHalfLife(halfLifeLookback);
+        this.returnMoments = new RollingMoments(zscoreLookback);
+    }
+
+    /**
+     * Feed the next bar's close. Non-positive or non-finite closes are
+     * ignored.
+     */
+    public void onBar(double close) {
+        if (!(close > 0) || Double.isInfinite(close)) {
+            return;
+        }
+        zscore.update(close);
+        halfLife.update(close);
+        if (!Double.isNaN(lastClose)) {
+            returnMoments.add(Math.log(close / lastClose));
+        }
+        lastClose = close;
+        bars++;
+    }
+
+    /** Feed a history of closes, oldest first */
+    public void onBars(double[] closes) {
+        for (double close : closes) {
+            onBar(close);
+        }
+    }
+
+    public RollingZScore getZscore() {
+        return zscore;
+    }
+
+    public RollingHalfLife getHalfLife() {
+        return halfLife;
+    }
+
+    /** Mean/variance/skewness/kurtosis of log returns */
+    public RollingMoments getReturnMoments() {
+        return returnMoments;
+    }
+
+    public double getLastClose() {
+        return lastClose;
+    }
+
+    /** Total bars consumed */
+    public long getBars() {
+        return bars;
+    }
+}
@@ -0,0 +1,169 @@
+package com.dealaggregator.dealapi.analytics;
+
+/**
+ * Sliding-window mean, variance, skewness and excess kurtosis with O(1)
+ * updates.
+ *
+ * Central moment sums (M2..M4) are maintained with Welford's update
+ * extended to higher moments (Pebay), and the exact inverse of that update
+ * when a value leaves the window. To keep add/remove round-off from
+ * drifting over very long streams, the sums are rebuilt from the window
+ * with a two-pass scan every {@link #RESYNC_WINDOWS} windows' worth of
+ * updates, which is O(1) amortized.
+ *
+ * Estimators match Moments (Mean,Variance,Skewness,Kurtosis).pine: sample
+ * variance (n - 1), unbiased sample skewness and excess kurtosis.
+ */
+public final class RollingMoments {
+
+    /** Full recompute after this many windows of updates */
+    static final int RESYNC_WINDOWS = 64;
+
+    private final RollingWindow window;
+    private final long resyncInterval;
+    private long updatesSinceResync;
+
+    private double mean;
+    private double m2;
+    private double m3;
+    private double m4;
+
+    public RollingMoments(int windowSize) {
+        this.window = new RollingWindow(windowSize);
+        this.resyncInterval = (long) windowSize * RESYNC_WINDOWS;
+    }
+
+    /**
+     * Push a new observation, evicting the oldest once the window is full.
+     * Values must be finite.
+     */
+    public void add(double x) {
+        double evicted = window.push(x);
+        if (window.size() == window.capacity() && !Double.isNaN(evicted)) {
+            remove(evicted, window.size());
+        }
+        insert(x, window.size());
+
+        if (++updatesSinceResync >= resyncInterval) {
+            resync();
+        }
+    }
+
+    /** Welford/Pebay update for adding x, giving a set of n values */
+    private void insert(double x, int n) {
+        double n1 = n - 1;
+        double delta = x - mean;
+        double deltaN = delta / n;
+        double deltaN2 = deltaN * deltaN;
+        double term1 = delta * deltaN * n1;
+
+        mean += deltaN;
+        m4 += term1 * deltaN2 * ((double) n * n - 3.0 * n + 3) + 6 * deltaN2 * m2 - 4 * deltaN * m3;
+        m3 += term1 * deltaN * (n - 2) - 3 * deltaN * m2;
+        m2 += term1;
+    }
+
+    /** Inverse of insert: remove x from a set of n values (n counts x) */
+    private void remove(double x, int n) {
+        if (n == 1) {
+            mean = m2 = m3 = m4 = 0;
+            return;
+        }
+        double n1 = n - 1;
+        double prevMean = (n * mean - x) / n1;
+        double delta = x - prevMean;
+        double deltaN = delta / n;
+        double deltaN2 = deltaN * deltaN;
+        double term1 = delta * deltaN * n1;
+
+        mean = prevMean;
+        m2 -= term1;
+        m3 -= term1 * deltaN * (n - 2) - 3 * deltaN * m2;
+        m4 -= term1 * deltaN2 * ((double) n * n - 3.0 * n + 3) + 6 * deltaN2 * m2 - 4 * deltaN * m3;
+    }
+
+    /**
+     * Rebuild the moment sums from the window contents (two-pass).
+     */
+    public void resync() {
+        int n = window.size();
+        updatesSinceResync = 0;
+        if (n == 0) {
+            mean = m2 = m3 = m4 = 0;
+            return;
+        }
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += window.get(i);
+        }
+        double mu = sum / n;
+        double s2 = 0, s3 = 0, s4 = 0;
+        for (int i = 0; i < n; i++) {
+            double d = window.get(i) - mu;
+            double d2 = d * d;
+            s2 += d2;
+            s3 += d2 * d;
+            s4 += d2 * d2;
+        }
+        mean = mu;
+        m2 = s2;
+        m3 = s3;
+        m4 = s4;
+    }
+
+    public int getCount() {
+        return window.size();
+    }
+
+    public boolean isFull() {
+        return window.isFull();
+    }
+
+    /** Most recent observation */
+    public double getLast() {
+        return window.last();
+    }
+
+    public double getMean() {
+        return window.size() > 0 ? mean : Double.NaN;
+    }
+
+    /** Sample variance (n - 1) */
+    public double getVariance() {
+        int n = window.size();
+        return n > 1 ? Math.max(m2, 0) / (n - 1) : Double.NaN;
+    }
+
+    /** Sample standard deviation (n - 1) */
+    public double getStd() {
+        return Math.sqrt(getVariance());
+    }
+
+    /** Unbiased sample skewness, NaN below 3 observations */
+    public double getSkewness() {
+        int n = window.size();
+        if (n < 3) {
+            return Double.NaN;
+        }
+        double std = getStd();
+        return m3 * n / ((n - 1.0) * (n - 2.0) * std * std * std);
+    }
+
+    /** Unbiased sample excess kurtosis, NaN below 4 observations */
+    public double getExcessKurtosis() {
+        int n = window.size();
+        if (n < 4) {
+            return Double.NaN;
+        }
+        double var = getVariance();
+        double a = (double) n * (n + 1) * m4;
+        double b = (n - 1.0) * (n - 2.0) * (n - 3.0) * var * var;
+        return a / b - 3.0 * (n - 1.0) * (n - 1.0) / ((n - 2.0) * (n - 3.0));
+    }
+
+    public void clear() {
+        window.clear();
+        mean = m2 = m3 = m4 = 0;
+        updatesSinceResync = 0;
+    }
+}
@@ -0,0 +1,111 @@
+package com.dealaggregator.dealapi.analytics;
+
+/**
+ * Sliding-window percentile and rank of the latest value, O(log n) per
+ * update and query.
+ *
+ * Same definitions as f_percentile and f_rank in
+ * Historical Volatility Percentile &amp; Rank.pine:
+ * - Percentile: share of the previous n values strictly below x, 0-100
+ * - Rank: (x - min) / (max - min) over the last n values including x, 0-100
+ *
+ * The script rescans the lookback every bar; here the last n + 1 values sit
+ * in an indexable skip list, so both come from rank/select queries.
+ */
+public final class RollingPercentileRank {
+
+    private final int lookback;
+    private final RollingWindow window;
+    private final IndexableSkipList sorted;
+    private double latest = Double.NaN;
+
+    public RollingPercentileRank(int lookback) {
+        if (lookback < 1) {
+            throw new IllegalArgumentException("Percentile lookback must be positive: " + lookback);
+        }
+        this.lookback = lookback;
+        this.window = new RollingWindow(lookback + 1);
+        this.sorted = new IndexableSkipList(lookback + 1);
+    }
+
+    /**
+     * Add the newest value. Non-finite values are ignored.
+     */
+    public void update(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        double evicted = window.push(value);
+        if (!Double.isNaN(evicted)) {
+            sorted.remove(evicted);
+        }
+        sorted.insert(value);
+        latest = value;
+    }
+
+    /** True once the previous n values are available */
+    public boolean isReady() {
+        return window.isFull();
+    }
+
+    /**
+     * Percent of the previous n values strictly below the latest value, or
+     * NaN until ready.
+     */
+    public double getPercentile() {
+        if (!isReady()) {
+            return Double.NaN;
+        }
+        // The latest value is never below itself, so counting over all n + 1 is the same
+        return 100.0 * sorted.countLess(latest) / lookback;
+    }
+
+    /**
+     * Position of the latest value between the min and max of the last n
+     * values, 0-100, or NaN until ready (and for a flat window, as in Pine).
+     */
+    public double getRank() {
+        if (!isReady()) {
+            return Double.NaN;
+        }
+        double low = getMin();
+        double high = getMax();
+        return 100.0 * (latest - low) / (high - low);
+    }
+
+    /**
+     * Minimum of the last n values. The oldest of the n + 1 stored values is
+     * outside that range, so skip it if it is the smallest.
+     */
+    public double getMin() {
+        if (!isReady()) {
+            return Double.NaN;
+        }
+        double first = sorted.get(0);
+        return window.get(0) == first ? sorted.get(1) : first;
+    }
+
+    /** Maximum of the last n values */
+    public double getMax() {
+        if (!isReady()) {
+            return Double.NaN;
+        }
+        int last = sorted.size() - 1;
+        double top = sorted.get(last);
+        return window.get(0) == top ? sorted.get(last - 1) : top;
+    }
+
+    public double getLatest() {
+        return latest;
+    }
+
+    public int getLookback() {
+        return lookback;
+    }
+
+    public void clear() {
+        window.clear();
+        sorted.clear();
+        latest = Double.NaN;
+    }
+}
@@ -0,0 +1,157 @@
+package com.dealaggregator.dealapi.analytics;
+
+/**
+ * Sliding-window simple OLS of y on x with O(1) updates.
+ *
+ * Keeps Kahan-compensated sums of x, y, x^2 and xy, taken relative to the
+ * first pair ever seen so that levels such as log prices (around 4-6) do
+ * not swamp the tiny variances we care about. Sums are rebuilt from the
+ * window periodically, like RollingMoments.
+ */
+public final class RollingRegression {
+
+    private final RollingWindow xs;
+    private final RollingWindow ys;
+    private final long resyncInterval;
+    private long updatesSinceResync;
+
+    private boolean hasOrigin;
+    private double x0;
+    private double y0;
+
+    private final KahanSum sumX = new KahanSum();
+    private final KahanSum sumY = new KahanSum();
+    private final KahanSum sumXX = new KahanSum();
+    private final KahanSum sumXY = new KahanSum();
+
+    public RollingRegression(int windowSize) {
+        this.xs = new RollingWindow(windowSize);
+        this.ys = new RollingWindow(windowSize);
+        this.resyncInterval = (long) windowSize * RollingMoments.RESYNC_WINDOWS;
+    }
+
+    /**
+     * Push an (x, y) pair, evicting the oldest pair once the window is full.
+     */
+    public void add(double x, double y) {
+        if (!hasOrigin) {
+            x0 = x;
+            y0 = y;
+            hasOrigin = true;
+        }
+        double oldX = xs.push(x);
+        double oldY = ys.push(y);
+        if (!Double.isNaN(oldX)) {
+            accumulate(oldX - x0, oldY - y0, -1);
+        }
+        accumulate(x - x0, y - y0, 1);
+
+        if (++updatesSinceResync >= resyncInterval) {
+            resync();
+        }
+    }
+
+    private void accumulate(double dx, double dy, double sign) {
+        sumX.add(sign * dx);
+        sumY.add(sign * dy);
+        sumXX.add(sign * dx * dx);
+        sumXY.add(sign * dx * dy);
+    }
+
+    /**
+     * Rebuild the sums from the window, re-centering on the current oldest
+     * pair.
+     */
+    public void resync() {
+        updatesSinceResync = 0;
+        sumX.reset();
+        sumY.reset();
+        sumXX.reset();
+        sumXY.reset();
+        if (xs.size() == 0) {
+            return;
+        }
+        x0 = xs.get(0);
+        y0 = ys.get(0);
+        for (int i = 0; i < xs.size(); i++) {
+            accumulate(xs.get(i) - x0, ys.get(i) - y0, 1);
+        }
+    }
+
+    public int getCount() {
+        return xs.size();
+    }
+
+    public boolean isFull() {
+        return xs.isFull();
+    }
+
+    /** Sum of squared x deviations from the window mean */
+    public double getSxx() {
+        int n = xs.size();
+        double sx = sumX.get();
+        return n > 0 ? Math.max(sumXX.get() - sx * sx / n, 0) : 0;
+    }
+
+    /** Sum of cross deviations from the window means */
+    public double getSxy() {
+        int n = xs.size();
+        return n > 0 ? sumXY.get() - sumX.get() * sumY.get() / n : 0;
+    }
+
+    public double getMeanX() {
+        return xs.size() > 0 ? x0 + sumX.get() / xs.size() : Double.NaN;
+    }
+
+    public double getMeanY() {
+        return ys.size() > 0 ? y0 + sumY.get() / ys.size() : Double.NaN;
+    }
+
+    /** OLS slope, 0 when x has no variance (as in indicators.py) */
+    public double getBeta() {
+        double sxx = getSxx();
+        return sxx != 0 ? getSxy() / sxx : 0;
+    }
+
+    public double getAlpha() {
+        return getMeanY() - getBeta() * getMeanX();
+    }
+
+    public void clear() {
+        xs.clear();
+        ys.clear();
+        hasOrigin = false;
+        updatesSinceResync = 0;
+        sumX.reset();
+        sumY.reset();
+        sumXX.reset();
+        sumXY.reset();
+    }
+
+    /**
+     * Kahan-Babuska (Neumaier) compensated running sum.
+     */
+    private static final class KahanSum {
+        private double sum;
+        private double compensation;
+
+        void add(double value) {
+            double t = sum + value;
+            if (Math.abs(sum) >= Math.abs(value)) {
+                compensation += (sum - t) + value;
+            } else {
+                compensation += (value - t) + sum;
+            }
+            sum = t;
+        }
+
+        double get() {
+            return sum + compensation;
+        }
+
+        void reset() {
+            sum = 0;
+            compensation = 0;
+        }
+    }
+}
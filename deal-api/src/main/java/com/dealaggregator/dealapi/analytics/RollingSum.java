@@ -0,0 +1,69 @@
+package com.dealaggregator.dealapi.analytics;
+
+/**
+ * Sliding-window sum with O(1) updates.
+ *
+ * Uses a Neumaier-compensated running total and rebuilds it from the window
+ * every RollingMoments.RESYNC_WINDOWS windows, like the other rolling
+ * statistics in this package.
+ */
+public final class RollingSum {
+
+    private final RollingWindow window;
+    private final long resyncInterval;
+    private long updatesSinceResync;
+
+    private double sum;
+    private double compensation;
+
+    public RollingSum(int windowSize) {
+        this.window = new RollingWindow(windowSize);
+        this.resyncInterval = (long) windowSize * RollingMoments.RESYNC_WINDOWS;
+    }
+
+    public void add(double value) {
+        double evicted = window.push(value);
+        if (!Double.isNaN(evicted)) {
+            accumulate(-evicted);
+        }
+        accumulate(value);
+
+        if (++updatesSinceResync >= resyncInterval) {
+            sum = 0;
+            compensation = 0;
+            for (int i = 0; i < window.size(); i++) {
+                accumulate(window.get(i));
+            }
+            updatesSinceResync = 0;
+        }
+    }
+
+    private void accumulate(double value) {
+        double t = sum + value;
+        if (Math.abs(sum) >= Math.abs(value)) {
+            compensation += (sum - t) + value;
+        } else {
+            compensation += (value - t) + sum;
+        }
+        sum = t;
+    }
+
+    public double getSum() {
+        return sum + compensation;
+    }
+
+    public int getCount() {
+        return window.size();
+    }
+
+    public boolean isFull() {
+        return window.isFull();
+    }
+
+    public void clear() {
+        window.clear();
+        sum = 0;
+        compensation = 0;
+        updatesSinceResync = 0;
+    }
+}
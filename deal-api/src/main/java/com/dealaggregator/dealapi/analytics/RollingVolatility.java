@@ -0,0 +1,145 @@
+package com.dealaggregator.dealapi.analytics;
+
+/**
+ * Rolling historical volatility estimators over OHLC bars, each updated in
+ * O(1) per bar.
+ *
+ * Port of Historical Volatility Estimators.pine:
+ * - Close to close: sample std of log returns
+ * - Parkinson: high/low range
+ * - Garman-Klass: range plus open/close
+ * - Rogers-Satchell: drift-independent range estimator
+ * - Yang-Zhang: overnight + open-to-close + Rogers-Satchell, weighted by k
+ *
+ * All results are annualized with sqrt(annualPeriods). The Pine script
+ * defaults to 365 (crypto); equities should use 252.
+ */
+public final class RollingVolatility {
+
+    /** Available estimators */
+    public enum Estimator {
+        CLOSE_TO_CLOSE, PARKINSON, GARMAN_KLASS, ROGERS_SATCHELL, YANG_ZHANG
+    }
+
+    public static final int DEFAULT_PERIOD = 30;
+    public static final int EQUITY_ANNUAL_PERIODS = 252;
+    /** Yang-Zhang alpha from the Pine script */
+    public static final double DEFAULT_YZ_ALPHA = 1.34;
+
+    private static final double LOG2 = Math.log(2);
+
+    private final int period;
+    private final double sqrtAnnual;
+    private final double yzK;
+
+    private final RollingMoments returns;
+    private final RollingSum parkinson;
+    private final RollingSum garmanKlass;
+    private final RollingSum rogersSatchell;
+    private final RollingMoments overnight;
+    private final RollingMoments openToClose;
+    private double lastClose = Double.NaN;
+
+    public RollingVolatility() {
+        this(DEFAULT_PERIOD, EQUITY_ANNUAL_PERIODS, DEFAULT_YZ_ALPHA);
+    }
+
+    public RollingVolatility(int period, int annualPeriods, double yzAlpha) {
+        if (period < 2) {
+            throw new IllegalArgumentException("Volatility period must be at least 2: " + period);
+        }
+        this.period = period;
+        this.sqrtAnnual = Math.sqrt(annualPeriods);
+        this.yzK = (yzAlpha - 1.0) / (yzAlpha + (period + 1.0) / (period - 1.0));
+        this.returns = new RollingMoments(period);
+        this.parkinson = new RollingSum(period);
+        this.garmanKlass = new RollingSum(period);
+        this.rogersSatchell = new RollingSum(period);
+        this.overnight = new RollingMoments(period);
+        this.openToClose = new RollingMoments(period);
+    }
+
+    /**
+     * Feed one bar. Bars with non-positive prices are ignored.
+     */
+    public void onBar(double open, double high, double low, double close) {
+        if (!(open > 0 && high > 0 && low > 0 && close > 0)) {
+            return;
+        }
+        double prevClose = Double.isNaN(lastClose) ? close : lastClose; // nz(close[1], close)
+        if (!Double.isNaN(lastClose)) {
+            returns.add(Math.log(close / lastClose));
+        }
+
+        double logHL = Math.log(high / low);
+        double logCO = Math.log(close / open);
+        parkinson.add(logHL * logHL / (4.0 * LOG2));
+        garmanKlass.add(0.5 * logHL * logHL - (2.0 * LOG2 - 1.0) * logCO * logCO);
+
+        double u = Math.log(high / open);
+        double d = Math.log(low / open);
+        rogersSatchell.add(u * (u - logCO) + d * (d - logCO));
+        overnight.add(Math.log(open / prevClose));
+        openToClose.add(logCO);
+
+        lastClose = close;
+    }
+
+    /** Feed bars from parallel column arrays, oldest first */
+    public void onBars(double[] open, double[] high, double[] low, double[] close) {
+        for (int i = 0; i < close.length; i++) {
+            onBar(open[i], high[i], low[i], close[i]);
+        }
+    }
+
+    /** True once every estimator has a full window */
+    public boolean isReady() {
+        return returns.isFull() && parkinson.isFull();
+    }
+
+    public double get(Estimator estimator) {
+        switch (estimator) {
+            case CLOSE_TO_CLOSE:
+                return getCloseToClose();
+            case PARKINSON:
+                return getParkinson();
+            case GARMAN_KLASS:
+                return getGarmanKlass();
+            case ROGERS_SATCHELL:
+                return getRogersSatchell();
+            default:
+                return getYangZhang();
+        }
+    }
+
+    public double getCloseToClose() {
+        return returns.isFull() ? sqrtAnnual * returns.getStd() : Double.NaN;
+    }
+
+    public double getParkinson() {
+        return parkinson.isFull() ? sqrtAnnual * Math.sqrt(Math.max(0, parkinson.getSum()) / period) : Double.NaN;
+    }
+
+    public double getGarmanKlass() {
+        return garmanKlass.isFull() ? sqrtAnnual * Math.sqrt(Math.max(0, garmanKlass.getSum()) / period) : Double.NaN;
+    }
+
+    public double getRogersSatchell() {
+        return rogersSatchell.isFull()
+                ? sqrtAnnual * Math.sqrt(Math.max(0, rogersSatchell.getSum()) / period)
+                : Double.NaN;
+    }
+
+    public double getYangZhang() {
+        if (!overnight.isFull()) {
+            return Double.NaN;
+        }
+        double vrs = rogersSatchell.getSum() / period;
+        double variance = overnight.getVariance() + yzK * openToClose.getVariance() + (1.0 - yzK) * vrs;
+        return sqrtAnnual * Math.sqrt(Math.max(0, variance));
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+}
@@ -0,0 +1,72 @@
+package com.dealaggregator.dealapi.analytics;
+
+/**
+ * Fixed-capacity ring buffer of doubles, the backing store for the
+ * rolling statistics in this package.
+ *
+ * Pushing into a full window overwrites the oldest value and hands it back
+ * so incremental estimators can subtract it. Never allocates after
+ * construction.
+ */
+public final class RollingWindow {
+
+    private final double[] values;
+    private int head; // Next write position
+    private int size;
+
+    public RollingWindow(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Window capacity must be positive: " + capacity);
+        }
+        this.values = new double[capacity];
+    }
+
+    /**
+     * Append a value.
+     *
+     * @return The value that fell out of the window, or NaN if the window
+     *         was not yet full
+     */
+    public double push(double value) {
+        double evicted = size == values.length ? values[head] : Double.NaN;
+        values[head] = value;
+        head = head + 1 == values.length ? 0 : head + 1;
+        if (size < values.length) {
+            size++;
+        }
+        return evicted;
+    }
+
+    /**
+     * Value at {@code index}, where 0 is the oldest value in the window.
+     */
+    public double get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of " + size);
+        }
+        int pos = head - size + index;
+        return values[pos < 0 ? pos + values.length : pos];
+    }
+
+    /** Most recently pushed value */
+    public double last() {
+        return get(size - 1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    public boolean isFull() {
+        return size == values.length;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,51 @@
+package com.dealaggregator.dealapi.analytics;
+
+/**
+ * Rolling Z-Score of the latest value against its trailing window, updated
+ * in O(1) per bar. Matches MeanReversionIndicators.zscore on the same data.
+ */
+public final class RollingZScore {
+
+    private final RollingMoments moments;
+
+    public RollingZScore(int lookback) {
+        this.moments = new RollingMoments(lookback);
+    }
+
+    /**
+     * Push a new price.
+     *
+     * @return The updated Z-Score (NaN until the window is full)
+     */
+    public double update(double price) {
+        moments.add(price);
+        return getZscore();
+    }
+
+    public double getZscore() {
+        if (!moments.isFull()) {
+            return Double.NaN;
+        }
+        return (moments.getLast() - moments.getMean()) / moments.getStd();
+    }
+
+    public String getSignal() {
+        return MeanReversionIndicators.signal(getZscore());
+    }
+
+    public double getMean() {
+        return moments.isFull() ? moments.getMean() : Double.NaN;
+    }
+
+    public double getStd() {
+        return moments.isFull() ? moments.getStd() : Double.NaN;
+    }
+
+    public boolean isReady() {
+        return moments.isFull();
+    }
+
+    public void clear() {
+        moments.clear();
+    }
+}
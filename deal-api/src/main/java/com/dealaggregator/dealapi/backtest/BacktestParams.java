@@ -0,0 +1,73 @@
+package com.dealaggregator.dealapi.backtest;
+
+/**
+ * Settings for one mean reversion backtest run. Defaults match the
+ * MeanReversionBacktester constructor in python/mean_reversion/backtester.py.
+ */
+public class BacktestParams {
+
+    /** Bars after the z-score lookback before trading starts, as in the Python loop */
+    static final int WARMUP_BARS = 10;
+
+    private final double zscoreThreshold;
+    private final int zscoreLookback;
+    private final double stopLossPct;
+    private final double takeProfitPct;
+    private final int maxHoldingBars;
+    private final boolean useHalfLifeFilter;
+    private final double halfLifeMax;
+
+    public BacktestParams(double zscoreThreshold, int zscoreLookback, double stopLossPct, double takeProfitPct,
+            int maxHoldingBars, boolean useHalfLifeFilter, double halfLifeMax) {
+        if (zscoreLookback < 2) {
+            throw new IllegalArgumentException("zscoreLookback must be at least 2");
+        }
+        this.zscoreThreshold = zscoreThreshold;
+        this.zscoreLookback = zscoreLookback;
+        this.stopLossPct = stopLossPct;
+        this.takeProfitPct = takeProfitPct;
+        this.maxHoldingBars = maxHoldingBars;
+        this.useHalfLifeFilter = useHalfLifeFilter;
+        this.halfLifeMax = halfLifeMax;
+    }
+
+    /** |z| > 2 over 50 bars, 5% stop, 10% target, 20 bars max, half-life below 50 */
+    public static BacktestParams defaults() {
+        return new BacktestParams(2.0, 50, 0.05, 0.10, 20, true, 50);
+    }
+
+    public double getZscoreThreshold() {
+        return zscoreThreshold;
+    }
+
+    public int getZscoreLookback() {
+        return zscoreLookback;
+    }
+
+    /** Stop loss as a fraction of the entry price (0.05 = 5%) */
+    public double getStopLossPct() {
+        return stopLossPct;
+    }
+
+    /** Take profit as a fraction of the entry price */
+    public double getTakeProfitPct() {
+        return takeProfitPct;
+    }
+
+    public int getMaxHoldingBars() {
+        return maxHoldingBars;
+    }
+
+    public boolean isUseHalfLifeFilter() {
+        return useHalfLifeFilter;
+    }
+
+    public double getHalfLifeMax() {
+        return halfLifeMax;
+    }
+
+    /** First bar the strategy evaluates */
+    public int getStartBar() {
+        return zscoreLookback + WARMUP_BARS;
+    }
+}
@@ -0,0 +1,274 @@
+package com.dealaggregator.dealapi.backtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary statistics, equity curve and trade list from one backtest run.
+ * Statistics are computed exactly as backtester.py's _calculate_results.
+ *
+ * Trades are held as parallel primitive columns; getTrades() builds
+ * objects on demand.
+ */
+public class BacktestResult {
+
+    /** Why a position was closed; labels match the Python exit_reason strings */
+    public enum ExitReason {
+        Z_CROSSED_ZERO("Z crossed zero"),
+        STOP_LOSS("Stop loss"),
+        TAKE_PROFIT("Take profit"),
+        MAX_HOLDING("Max holding time"),
+        END_OF_DATA("End of data");
+
+        private final String label;
+
+        ExitReason(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final double[] equity;
+    private final int tradeCount;
+    private final int[] entryBars;
+    private final int[] exitBars;
+    private final long[] entryTimes;
+    private final long[] exitTimes;
+    private final double[] entryPrices;
+    private final double[] exitPrices;
+    private final boolean[] longs;
+    private final ExitReason[] exitReasons;
+
+    private final int winningTrades;
+    private final double totalPnl;
+    private final double totalPnlPct;
+    private final double maxDrawdown;
+    private final double sharpeRatio;
+    private final double profitFactor;
+    private final double avgBarsHeld;
+
+    BacktestResult(double[] equity, int tradeCount, int[] entryBars, int[] exitBars, long[] entryTimes,
+            long[] exitTimes, double[] entryPrices, double[] exitPrices, boolean[] longs,
+            ExitReason[] exitReasons) {
+        this.equity = equity;
+        this.tradeCount = tradeCount;
+        this.entryBars = entryBars;
+        this.exitBars = exitBars;
+        this.entryTimes = entryTimes;
+        this.exitTimes = exitTimes;
+        this.entryPrices = entryPrices;
+        this.exitPrices = exitPrices;
+        this.longs = longs;
+        this.exitReasons = exitReasons;
+
+        int winners = 0;
+        double pnlSum = 0, pnlPctSum = 0, grossProfit = 0, losingSum = 0, barsSum = 0;
+        for (int t = 0; t < tradeCount; t++) {
+            double pnl = pnl(t);
+            pnlSum += pnl;
+            pnlPctSum += pnlPct(t);
+            barsSum += exitBars[t] - entryBars[t];
+            if (pnl > 0) {
+                winners++;
+                grossProfit += pnl;
+            } else {
+                losingSum += pnl;
+            }
+        }
+        this.winningTrades = winners;
+        this.totalPnl = pnlSum;
+        this.totalPnlPct = pnlPctSum;
+        this.avgBarsHeld = tradeCount > 0 ? barsSum / tradeCount : 0.0;
+
+        // Python: gross_loss = abs(sum(losing)) if losing else 1
+        double grossLoss = tradeCount - winners > 0 ? Math.abs(losingSum) : 1.0;
+        this.profitFactor = tradeCount > 0 && grossLoss > 0 ? grossProfit / grossLoss : 0.0;
+        this.maxDrawdown = tradeCount > 0 ? maxDrawdown(equity) : 0.0;
+        this.sharpeRatio = tradeCount > 0 ? sharpe(equity) : 0.0;
+    }
+
+    private static double maxDrawdown(double[] equity) {
+        double peak = Double.NEGATIVE_INFINITY;
+        double worst = 0;
+        for (double e : equity) {
+            peak = Math.max(peak, e);
+            worst = Math.max(worst, (peak - e) / peak);
+        }
+        return worst;
+    }
+
+    /** Mean over population std of per-step equity returns, times sqrt(252) */
+    private static double sharpe(double[] equity) {
+        int m = equity.length - 1;
+        if (m < 1) {
+            return 0.0;
+        }
+        double mean = 0;
+        for (int i = 1; i <= m; i++) {
+            mean += (equity[i] - equity[i - 1]) / equity[i - 1];
+        }
+        mean /= m;
+        double ss = 0;
+        for (int i = 1; i <= m; i++) {
+            double d = (equity[i] - equity[i - 1]) / equity[i - 1] - mean;
+            ss += d * d;
+        }
+        double std = Math.sqrt(ss / m);
+        return std > 0 ? mean / std * Math.sqrt(252) : 0.0;
+    }
+
+    private double pnl(int t) {
+        return longs[t] ? exitPrices[t] - entryPrices[t] : entryPrices[t] - exitPrices[t];
+    }
+
+    private double pnlPct(int t) {
+        return pnl(t) / entryPrices[t];
+    }
+
+    public int getTotalTrades() {
+        return tradeCount;
+    }
+
+    public int getWinningTrades() {
+        return winningTrades;
+    }
+
+    public int getLosingTrades() {
+        return tradeCount - winningTrades;
+    }
+
+    public double getWinRate() {
+        return tradeCount > 0 ? (double) winningTrades / tradeCount : 0.0;
+    }
+
+    /** Sum of per-share P&amp;L */
+    public double getTotalPnl() {
+        return totalPnl;
+    }
+
+    /** Sum (not compound) of per-trade returns, as in the Python summary */
+    public double getTotalPnlPct() {
+        return totalPnlPct;
+    }
+
+    public double getAvgPnlPerTrade() {
+        return tradeCount > 0 ? totalPnl / tradeCount : 0.0;
+    }
+
+    public double getMaxDrawdown() {
+        return maxDrawdown;
+    }
+
+    public double getSharpeRatio() {
+        return sharpeRatio;
+    }
+
+    public double getProfitFactor() {
+        return profitFactor;
+    }
+
+    public double getAvgBarsHeld() {
+        return avgBarsHeld;
+    }
+
+    /**
+     * Equity curve starting at 1.0, compounded at each exit. Same length
+     * and values as the Python {@code equity} list (a trade closed at end
+     * of data is not compounded).
+     */
+    public double[] getEquityCurve() {
+        return equity;
+    }
+
+    public List<Trade> getTrades() {
+        List<Trade> trades = new ArrayList<>(tradeCount);
+        for (int t = 0; t < tradeCount; t++) {
+            trades.add(new Trade(entryBars[t], exitBars[t], entryTimes[t], exitTimes[t], entryPrices[t],
+                    exitPrices[t], longs[t], pnl(t), pnlPct(t), exitReasons[t]));
+        }
+        return trades;
+    }
+
+    /**
+     * One completed trade (one share).
+     */
+    public static class Trade {
+        private final int entryBar;
+        private final int exitBar;
+        private final long entryTime;
+        private final long exitTime;
+        private final double entryPrice;
+        private final double exitPrice;
+        private final boolean isLong;
+        private final double pnl;
+        private final double pnlPct;
+        private final ExitReason exitReason;
+
+        public Trade(int entryBar, int exitBar, long entryTime, long exitTime, double entryPrice, double exitPrice,
+                boolean isLong, double pnl, double pnlPct, ExitReason exitReason) {
+            this.entryBar = entryBar;
+            this.exitBar = exitBar;
+            this.entryTime = entryTime;
+            this.exitTime = exitTime;
+            this.entryPrice = entryPrice;
+            this.exitPrice = exitPrice;
+            this.isLong = isLong;
+            this.pnl = pnl;
+            this.pnlPct = pnlPct;
+            this.exitReason = exitReason;
+        }
+
+        public int getEntryBar() {
+            return entryBar;
+        }
+
+        public int getExitBar() {
+            return exitBar;
+        }
+
+        /** Bar timestamp (epoch millis) */
+        public long getEntryTime() {
+            return entryTime;
+        }
+
+        public long getExitTime() {
+            return exitTime;
+        }
+
+        public double getEntryPrice() {
+            return entryPrice;
+        }
+
+        public double getExitPrice() {
+            return exitPrice;
+        }
+
+        public boolean isLong() {
+            return isLong;
+        }
+
+        /** "LONG" or "SHORT" */
+        public String getPosition() {
+            return isLong ? "LONG" : "SHORT";
+        }
+
+        public double getPnl() {
+            return pnl;
+        }
+
+        public double getPnlPct() {
+            return pnlPct;
+        }
+
+        public int getBarsHeld() {
+            return exitBar - entryBar;
+        }
+
+        public ExitReason getExitReason() {
+            return exitReason;
+        }
+    }
+}
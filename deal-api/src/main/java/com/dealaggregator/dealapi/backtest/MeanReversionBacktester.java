@@ -0,0 +1,200 @@
+package com.dealaggregator.dealapi.backtest;
+
+import java.util.Arrays;
+
+import com.dealaggregator.dealapi.analytics.MeanReversionIndicators;
+import com.dealaggregator.dealapi.analytics.RollingZScore;
+import com.dealaggregator.dealapi.marketdata.PriceBars;
+
+/**
+ * Z-score mean reversion backtest, a bar-for-bar port of
+ * MeanReversionBacktester.run() in python/mean_reversion/backtester.py.
+ *
+ * Strategy: long when z &lt; -threshold, short when z &gt; threshold; exit
+ * (checked in this order) when z crosses zero, on the stop loss, on the
+ * take profit, or after the maximum holding time. Entries are allowed only
+ * if the half-life filter passes, and as in the Python script that filter
+ * is evaluated once on the last 100 bars of the whole series.
+ *
+ * The bar loop runs on primitive arrays. Equity and trade columns are
+ * sized up front (at most one trade per two bars), so nothing is
+ * allocated per bar.
+ */
+public final class MeanReversionBacktester {
+
+    private static final int FLAT = 0;
+    private static final int LONG = 1;
+    private static final int SHORT = -1;
+
+    private MeanReversionBacktester() {
+    }
+
+    /**
+     * Backtest on the bars' closes.
+     */
+    public static BacktestResult run(PriceBars bars, BacktestParams params) {
+        double[] prices = bars.getClose();
+        return run(bars.getTimestamps(), prices, zscoreSeries(prices, params.getZscoreLookback()),
+                regimeOk(prices, params), params);
+    }
+
+    /**
+     * Rolling z-score of every bar against its trailing window (pandas
+     * rolling mean / sample std), NaN until the window is full.
+     */
+    public static double[] zscoreSeries(double[] prices, int lookback) {
+        RollingZScore rolling = new RollingZScore(lookback);
+        double[] z = new double[prices.length];
+        for (int i = 0; i < prices.length; i++) {
+            z[i] = rolling.update(prices[i]);
+        }
+        return z;
+    }
+
+    /**
+     * The Python half-life filter: half-life of the last 100 bars below
+     * the maximum (always true when the filter is off).
+     */
+    public static boolean regimeOk(double[] prices, BacktestParams params) {
+        if (!params.isUseHalfLifeFilter()) {
+            return true;
+        }
+        return MeanReversionIndicators.halfLife(prices, MeanReversionIndicators.DEFAULT_HALF_LIFE_LOOKBACK)
+                .getHalfLife() < params.getHalfLifeMax();
+    }
+
+    /**
+     * Backtest on a precomputed z-score series, so parameter sweeps can
+     * share one series per lookback.
+     *
+     * @param timestamps Bar timestamps (epoch millis), same length as prices
+     * @param prices     Closes, oldest first
+     * @param zscores    zscoreSeries(prices, params.getZscoreLookback())
+     * @param regimeOk   regimeOk(prices, params)
+     */
+    public static BacktestResult run(long[] timestamps, double[] prices, double[] zscores, boolean regimeOk,
+            BacktestParams params) {
+        return run(timestamps, prices, zscores, 0, prices.length, regimeOk, params);
+    }
+
+    /**
+     * Backtest bars [from, to) as if they were the whole series: warm-up
+     * starts at {@code from}, open positions close at {@code to - 1}. Bar
+     * indices in the trades stay absolute. Z-scores only look back, so a
+     * series computed once over all bars is valid for any range.
+     */
+    public static BacktestResult run(long[] timestamps, double[] prices, double[] zscores, int from, int to,
+            boolean regimeOk, BacktestParams params) {
+        if (to <= from) {
+            throw new IllegalArgumentException("No price data to backtest");
+        }
+        double threshold = params.getZscoreThreshold();
+        double stopLoss = params.getStopLossPct();
+        double takeProfit = params.getTakeProfitPct();
+        int maxHolding = params.getMaxHoldingBars();
+        int startBar = from + params.getStartBar();
+        int bars = Math.max(0, to - startBar);
+
+        double[] equity = new double[bars + 2];
+        int equitySize = 1;
+        equity[0] = 1.0;
+
+        int capacity = bars / 2 + 1;
+        int[] entryBars = new int[capacity];
+        int[] exitBars = new int[capacity];
+        double[] entryPrices = new double[capacity];
+        double[] exitPrices = new double[capacity];
+        boolean[] longs = new boolean[capacity];
+        BacktestResult.ExitReason[] reasons = new BacktestResult.ExitReason[capacity];
+        int trades = 0;
+
+        int position = FLAT;
+        double entryPrice = 0.0;
+        int entryBar = 0;
+
+        for (int i = startBar; i < to; i++) {
+            double price = prices[i];
+            double z = zscores[i];
+
+            if (Double.isNaN(z)) {
+                equity[equitySize] = equity[equitySize - 1];
+                equitySize++;
+                continue;
+            }
+
+            // Exit logic
+            if (position != FLAT) {
+                int held = i - entryBar;
+                double pnlPct = position == LONG ? (price - entryPrice) / entryPrice
+                        : (entryPrice - price) / entryPrice;
+
+                BacktestResult.ExitReason reason = null;
+                if (position == LONG && z >= 0) {
+                    reason = BacktestResult.ExitReason.Z_CROSSED_ZERO;
+                } else if (position == SHORT && z <= 0) {
+                    reason = BacktestResult.ExitReason.Z_CROSSED_ZERO;
+                } else if (pnlPct <= -stopLoss) {
+                    reason = BacktestResult.ExitReason.STOP_LOSS;
+                } else if (pnlPct >= takeProfit) {
+                    reason = BacktestResult.ExitReason.TAKE_PROFIT;
+                } else if (held >= maxHolding) {
+                    reason = BacktestResult.ExitReason.MAX_HOLDING;
+                }
+
+                if (reason != null) {
+                    entryBars[trades] = entryBar;
+                    exitBars[trades] = i;
+                    entryPrices[trades] = entryPrice;
+                    exitPrices[trades] = price;
+                    longs[trades] = position == LONG;
+                    reasons[trades] = reason;
+                    trades++;
+
+                    equity[equitySize] = equity[equitySize - 1] * (1 + pnlPct);
+                    equitySize++;
+                    position = FLAT;
+                    continue;
+                }
+            }
+
+            // Entry logic
+            if (position == FLAT && regimeOk) {
+                if (z < -threshold) {
+                    position = LONG;
+                    entryPrice = price;
+                    entryBar = i;
+                } else if (z > threshold) {
+                    position = SHORT;
+                    entryPrice = price;
+                    entryBar = i;
+                }
+            }
+
+            // Python: "if len(equity) <= i - start_bar: equity.append(equity[-1])"
+            if (equitySize <= i - startBar) {
+                equity[equitySize] = equity[equitySize - 1];
+                equitySize++;
+            }
+        }
+
+        // Close any open position at the last bar (equity is not updated, as in Python)
+        if (position != FLAT) {
+            entryBars[trades] = entryBar;
+            exitBars[trades] = to - 1;
+            entryPrices[trades] = entryPrice;
+            exitPrices[trades] = prices[to - 1];
+            longs[trades] = position == LONG;
+            reasons[trades] = BacktestResult.ExitReason.END_OF_DATA;
+            trades++;
+        }
+
+        long[] entryTimes = new long[trades];
+        long[] exitTimes = new long[trades];
+        for (int t = 0; t < trades; t++) {
+            entryTimes[t] = timestamps[entryBars[t]];
+            exitTimes[t] = timestamps[exitBars[t]];
+        }
+        return new BacktestResult(Arrays.copyOf(equity, equitySize), trades, entryBars, exitBars, entryTimes,
+                exitTimes, entryPrices, exitPrices, longs, reasons);
+    }
+}
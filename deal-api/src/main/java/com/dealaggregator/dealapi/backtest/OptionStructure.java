@@ -0,0 +1,114 @@
+package com.dealaggregator.dealapi.backtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.dealaggregator.dealapi.entity.StrategyType;
+
+/**
+ * A multi-leg option position described relative to the at-the-money
+ * strike, so one rule can be entered on any day's chain.
+ *
+ * Leg shapes follow the generators behind /vertical, /fly, /straddle and
+ * /ic: quantities are per structure (positive = long, negative = short)
+ * and offsets are in underlying points from the ATM strike.
+ */
+public class OptionStructure {
+
+    private final StrategyType type;
+    private final boolean[] calls;
+    private final double[] offsets;
+    private final int[] quantities;
+
+    private OptionStructure(StrategyType type, List<LegTemplate> legs) {
+        this.type = type;
+        this.calls = new boolean[legs.size()];
+        this.offsets = new double[legs.size()];
+        this.quantities = new int[legs.size()];
+        for (int i = 0; i < legs.size(); i++) {
+            calls[i] = legs.get(i).call;
+            offsets[i] = legs.get(i).offset;
+            quantities[i] = legs.get(i).quantity;
+        }
+    }
+
+    /**
+     * Long (direction 1) or short (-1) ATM call + put.
+     */
+    public static OptionStructure straddle(int direction) {
+        List<LegTemplate> legs = new ArrayList<>();
+        legs.add(new LegTemplate(true, 0, direction));
+        legs.add(new LegTemplate(false, 0, direction));
+        return new OptionStructure(StrategyType.STRADDLE, legs);
+    }
+
+    /**
+     * Debit vertical: buy ATM, sell {@code width} points further out of the
+     * money (a bull call or bear put spread). Direction -1 sells it instead.
+     */
+    public static OptionStructure vertical(boolean call, double width, int direction) {
+        double out = call ? width : -width;
+        List<LegTemplate> legs = new ArrayList<>();
+        legs.add(new LegTemplate(call, 0, direction));
+        legs.add(new LegTemplate(call, out, -direction));
+        return new OptionStructure(StrategyType.VERTICAL, legs);
+    }
+
+    /**
+     * Long butterfly centered at the money: buy the wings, sell two bodies.
+     */
+    public static OptionStructure fly(boolean call, double wing, int direction) {
+        List<LegTemplate> legs = new ArrayList<>();
+        legs.add(new LegTemplate(call, -wing, direction));
+        legs.add(new LegTemplate(call, 0, -2 * direction));
+        legs.add(new LegTemplate(call, wing, direction));
+        return new OptionStructure(StrategyType.FLY, legs);
+    }
+
+    /**
+     * Short iron condor: sell the put and call {@code distance} points from
+     * the money, buy wings {@code wingWidth} further out. Direction 1 is the
+     * usual credit condor.
+     */
+    public static OptionStructure ironCondor(double distance, double wingWidth, int direction) {
+        List<LegTemplate> legs = new ArrayList<>();
+        legs.add(new LegTemplate(false, -distance - wingWidth, direction));
+        legs.add(new LegTemplate(false, -distance, -direction));
+        legs.add(new LegTemplate(true, distance, -direction));
+        legs.add(new LegTemplate(true, distance + wingWidth, direction));
+        return new OptionStructure(StrategyType.IRON_CONDOR, legs);
+    }
+
+    public StrategyType getType() {
+        return type;
+    }
+
+    public int size() {
+        return calls.length;
+    }
+
+    public boolean isCall(int leg) {
+        return calls[leg];
+    }
+
+    /** Points from the ATM strike */
+    public double getOffset(int leg) {
+        return offsets[leg];
+    }
+
+    public int getQuantity(int leg) {
+        return quantities[leg];
+    }
+
+    private static class LegTemplate {
+        private final boolean call;
+        private final double offset;
+        private final int quantity;
+
+        LegTemplate(boolean call, double offset, int quantity) {
+            this.call = call;
+            this.offset = offset;
+            this.quantity = quantity;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.dealaggregator.dealapi.backtest;
+
+import java.time.LocalTime;
+
+/**
+ * Entry/exit rules for one options backtest: when to open the structure,
+ * when to give up on it, and how fills are priced.
+ */
+public class OptionsBacktestParams {
+
+    /** How entries and marks are priced */
+    public enum Fill {
+        /** Every leg at its bid/ask mid */
+        MID,
+        /** Buys at the ask, sells at the bid, on entry and on every mark */
+        BID_ASK
+    }
+
+    private final LocalTime entryTime;
+    private final LocalTime exitTime;
+    private final double profitTarget;
+    private final double stopLoss;
+    private final Fill fill;
+    private final int dte;
+
+    /**
+     * @param entryTime    First snapshot at or after this time opens the position
+     * @param exitTime     Close at the first snapshot at or after this time; null holds to the last snapshot
+     * @param profitTarget Close when P&L reaches this fraction of the entry premium (0 = off)
+     * @param stopLoss     Close when the loss reaches this fraction of the entry premium (0 = off)
+     * @param fill         Fill model
+     * @param dte          Trade the first recorded expiration at least this many days out
+     */
+    public OptionsBacktestParams(LocalTime entryTime, LocalTime exitTime, double profitTarget, double stopLoss,
+            Fill fill, int dte) {
+        if (exitTime != null && !exitTime.isAfter(entryTime)) {
+            throw new IllegalArgumentException("exitTime must be after entryTime");
+        }
+        this.entryTime = entryTime;
+        this.exitTime = exitTime;
+        this.profitTarget = profitTarget;
+        this.stopLoss = stopLoss;
+        this.fill = fill;
+        this.dte = dte;
+    }
+
+    /** 0DTE: open 10:00, 50% target, 100% stop, hold to the close, crossing the spread */
+    public static OptionsBacktestParams defaults() {
+        return new OptionsBacktestParams(LocalTime.of(10, 0), null, 0.5, 1.0, Fill.BID_ASK, 0);
+    }
+
+    public LocalTime getEntryTime() {
+        return entryTime;
+    }
+
+    public LocalTime getExitTime() {
+        return exitTime;
+    }
+
+    public double getProfitTarget() {
+        return profitTarget;
+    }
+
+    public double getStopLoss() {
+        return stopLoss;
+    }
+
+    public Fill getFill() {
+        return fill;
+    }
+
+    public int getDte() {
+        return dte;
+    }
+}
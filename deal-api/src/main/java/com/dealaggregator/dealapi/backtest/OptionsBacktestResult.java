@@ -0,0 +1,256 @@
+package com.dealaggregator.dealapi.backtest;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Per-day trades from one options backtest and the distribution of their
+ * P&L. All dollar figures are per structure (x100 multiplier).
+ */
+public class OptionsBacktestResult {
+
+    /** Why a day's position was closed */
+    public enum ExitReason {
+        PROFIT_TARGET("Profit target"),
+        STOP_LOSS("Stop loss"),
+        TIME("Exit time"),
+        EXPIRATION("Settled at expiration"),
+        END_OF_DAY("Last snapshot");
+
+        private final String label;
+
+        ExitReason(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final List<DayResult> days;
+    private final int skippedDays;
+    private final double[] sortedPnl;
+    private final double totalPnl;
+    private final double meanPnl;
+    private final double stdPnl;
+    private final double winRate;
+    private final double maxDrawdown;
+
+    /**
+     * @param days        Traded days in date order
+     * @param skippedDays Days with snapshots where the structure could not be entered
+     */
+    public OptionsBacktestResult(List<DayResult> days, int skippedDays) {
+        this.days = days;
+        this.skippedDays = skippedDays;
+
+        int n = days.size();
+        double[] pnl = new double[n];
+        double sum = 0;
+        int wins = 0;
+        double cumulative = 0;
+        double peak = 0;
+        double drawdown = 0;
+        for (int i = 0; i < n; i++) {
+            pnl[i] = days.get(i).getPnl();
+            sum += pnl[i];
+            if (pnl[i] > 0) {
+                wins++;
+            }
+            cumulative += pnl[i];
+            peak = Math.max(peak, cumulative);
+            drawdown = Math.max(drawdown, peak - cumulative);
+        }
+        double mean = n > 0 ? sum / n : 0.0;
+        double ss = 0;
+        for (double p : pnl) {
+            ss += (p - mean) * (p - mean);
+        }
+        Arrays.sort(pnl);
+
+        this.sortedPnl = pnl;
+        this.totalPnl = sum;
+        this.meanPnl = mean;
+        this.stdPnl = n > 1 ? Math.sqrt(ss / (n - 1)) : 0.0;
+        this.winRate = n > 0 ? (double) wins / n : 0.0;
+        this.maxDrawdown = drawdown;
+    }
+
+    public List<DayResult> getDays() {
+        return days;
+    }
+
+    public int getTrades() {
+        return days.size();
+    }
+
+    public int getSkippedDays() {
+        return skippedDays;
+    }
+
+    public double getTotalPnl() {
+        return totalPnl;
+    }
+
+    public double getMeanPnl() {
+        return meanPnl;
+    }
+
+    /** Sample standard deviation of daily P&L */
+    public double getStdPnl() {
+        return stdPnl;
+    }
+
+    public double getWinRate() {
+        return winRate;
+    }
+
+    /** Largest peak-to-trough drop of cumulative P&L, in dollars */
+    public double getMaxDrawdown() {
+        return maxDrawdown;
+    }
+
+    public double getWorstPnl() {
+        return sortedPnl.length > 0 ? sortedPnl[0] : Double.NaN;
+    }
+
+    public double getBestPnl() {
+        return sortedPnl.length > 0 ? sortedPnl[sortedPnl.length - 1] : Double.NaN;
+    }
+
+    /**
+     * Linearly interpolated P&L percentile.
+     *
+     * @param q Quantile in [0, 1] (0.05 = 5th percentile)
+     */
+    public double percentile(double q) {
+        if (sortedPnl.length == 0) {
+            return Double.NaN;
+        }
+        double pos = Math.max(0, Math.min(1, q)) * (sortedPnl.length - 1);
+        int lo = (int) Math.floor(pos);
+        int hi = Math.min(lo + 1, sortedPnl.length - 1);
+        return sortedPnl[lo] + (pos - lo) * (sortedPnl[hi] - sortedPnl[lo]);
+    }
+
+    /** Mean of the P&Ls at or below the q percentile (expected shortfall) */
+    public double tailMean(double q) {
+        double cutoff = percentile(q);
+        double sum = 0;
+        int count = 0;
+        for (double p : sortedPnl) {
+            if (p > cutoff) {
+                break;
+            }
+            sum += p;
+            count++;
+        }
+        return count > 0 ? sum / count : Double.NaN;
+    }
+
+    /**
+     * Counts of daily P&L in {@code bins} equal-width buckets from the worst
+     * to the best day.
+     */
+    public int[] histogram(int bins) {
+        int[] counts = new int[bins];
+        if (sortedPnl.length == 0 || bins <= 0) {
+            return counts;
+        }
+        double lo = getWorstPnl();
+        double width = (getBestPnl() - lo) / bins;
+        for (double p : sortedPnl) {
+            int bin = width > 0 ? (int) ((p - lo) / width) : 0;
+            counts[Math.min(bin, bins - 1)]++;
+        }
+        return counts;
+    }
+
+    /**
+     * One day's position from entry to exit.
+     */
+    public static class DayResult {
+        private final LocalDate day;
+        private final LocalDate expiration;
+        private final long entryTime;
+        private final long exitTime;
+        private final double entryUnderlying;
+        private final double exitUnderlying;
+        private final double atmStrike;
+        private final double entryPremium;
+        private final double pnl;
+        private final double maxAdverse;
+        private final double maxFavorable;
+        private final ExitReason exitReason;
+
+        public DayResult(LocalDate day, LocalDate expiration, long entryTime, long exitTime, double entryUnderlying,
+                double exitUnderlying, double atmStrike, double entryPremium, double pnl, double maxAdverse,
+                double maxFavorable, ExitReason exitReason) {
+            this.day = day;
+            this.expiration = expiration;
+            this.entryTime = entryTime;
+            this.exitTime = exitTime;
+            this.entryUnderlying = entryUnderlying;
+            this.exitUnderlying = exitUnderlying;
+            this.atmStrike = atmStrike;
+            this.entryPremium = entryPremium;
+            this.pnl = pnl;
+            this.maxAdverse = maxAdverse;
+            this.maxFavorable = maxFavorable;
+            this.exitReason = exitReason;
+        }
+
+        public LocalDate getDay() {
+            return day;
+        }
+
+        public LocalDate getExpiration() {
+            return expiration;
+        }
+
+        public long getEntryTime() {
+            return entryTime;
+        }
+
+        public long getExitTime() {
+            return exitTime;
+        }
+
+        public double getEntryUnderlying() {
+            return entryUnderlying;
+        }
+
+        public double getExitUnderlying() {
+            return exitUnderlying;
+        }
+
+        public double getAtmStrike() {
+            return atmStrike;
+        }
+
+        /** Net premium per share at entry: positive = debit paid, negative = credit received */
+        public double getEntryPremium() {
+            return entryPremium;
+        }
+
+        public double getPnl() {
+            return pnl;
+        }
+
+        /** Worst mark-to-market P&L while open (zero or negative) */
+        public double getMaxAdverse() {
+            return maxAdverse;
+        }
+
+        /** Best mark-to-market P&L while open (zero or positive) */
+        public double getMaxFavorable() {
+            return maxFavorable;
+        }
+
+        public ExitReason getExitReason() {
+            return exitReason;
+        }
+    }
+}
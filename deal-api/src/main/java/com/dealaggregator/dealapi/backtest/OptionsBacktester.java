@@ -0,0 +1,264 @@
+package com.dealaggregator.dealapi.backtest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.dealaggregator.dealapi.marketdata.ChainSnapshotStore;
+
+/**
+ * Event-driven options backtest over recorded chain snapshots.
+ *
+ * Each trading day is replayed snapshot by snapshot on one thread: the
+ * structure is opened at the first snapshot at or after the entry time
+ * where every leg has a quote, marked to market at every later snapshot,
+ * and closed on the profit target, the stop, the exit time, or at the end
+ * of the day. A position still open on its expiration day settles at
+ * intrinsic value against the last recorded underlying price. Days are
+ * independent, so a run replays them in parallel.
+ *
+ * Strikes are resolved per snapshot from the leg's strike, not its row,
+ * because rows shift as strikes are listed during the day.
+ */
+public class OptionsBacktester {
+
+    /** SPX/equity option contract multiplier */
+    public static final int MULTIPLIER = 100;
+
+    private static final double STRIKE_TOLERANCE = 1e-6;
+
+    private final ChainSnapshotStore store;
+    private final String symbol;
+    private final ZoneId zone;
+
+    public OptionsBacktester(ChainSnapshotStore store, String symbol, ZoneId zone) {
+        this.store = store;
+        this.symbol = symbol;
+        this.zone = zone;
+    }
+
+    /**
+     * Backtest every recorded day in [from, to].
+     */
+    public OptionsBacktestResult run(OptionStructure structure, OptionsBacktestParams params, LocalDate from,
+            LocalDate to) throws IOException {
+        List<LocalDate> days = store.days(symbol, from, to);
+        List<OptionsBacktestResult.DayResult> results;
+        try {
+            results = days.parallelStream()
+                    .map(day -> {
+                        try {
+                            return runDay(structure, params, day);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .toList();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        // Ordered stream, so results are still in date order
+        List<OptionsBacktestResult.DayResult> traded = new ArrayList<>(results.size());
+        for (OptionsBacktestResult.DayResult result : results) {
+            if (result != null) {
+                traded.add(result);
+            }
+        }
+        return new OptionsBacktestResult(traded, results.size() - traded.size());
+    }
+
+    /**
+     * Replay one day.
+     *
+     * @return The day's trade, or null if the structure was never entered
+     */
+    public OptionsBacktestResult.DayResult runDay(OptionStructure structure, OptionsBacktestParams params,
+            LocalDate day) throws IOException {
+        List<ChainSnapshotStore.ChainSnapshotView> views = store.readDay(symbol, day);
+        LocalDate expiration = targetExpiration(views, day.plusDays(params.getDte()));
+        if (expiration == null) {
+            return null;
+        }
+        long entryMillis = ZonedDateTime.of(day.atTime(params.getEntryTime()), zone).toInstant().toEpochMilli();
+        long exitMillis = params.getExitTime() == null ? Long.MAX_VALUE
+                : ZonedDateTime.of(day.atTime(params.getExitTime()), zone).toInstant().toEpochMilli();
+
+        int legs = structure.size();
+        double[] strikes = new double[legs];
+        int[] rows = new int[legs];
+        boolean open = false;
+        long entryTime = 0;
+        double entryUnderlying = 0;
+        double atmStrike = 0;
+        double cost = 0; // Net premium per share, debit positive
+        double threshold = 0; // |cost| x multiplier, what target and stop are fractions of
+        double maxAdverse = 0;
+        double maxFavorable = 0;
+        double lastPnl = 0;
+        long lastTime = 0;
+        double lastUnderlying = 0;
+
+        for (ChainSnapshotStore.ChainSnapshotView view : views) {
+            if (!view.getExpiration().equals(expiration)) {
+                continue;
+            }
+            long t = view.getTimestampMillis();
+
+            if (!open) {
+                if (t < entryMillis || t >= exitMillis) {
+                    continue;
+                }
+                int atmRow = view.nearestRow(view.getUnderlyingPrice());
+                if (atmRow < 0) {
+                    continue;
+                }
+                double atm = view.strikeAt(atmRow);
+                for (int leg = 0; leg < legs; leg++) {
+                    strikes[leg] = atm + structure.getOffset(leg);
+                }
+                double premium = entryCost(view, structure, strikes, rows, params.getFill());
+                if (Double.isNaN(premium)) {
+                    continue; // A leg is missing a quote; try the next snapshot
+                }
+                open = true;
+                entryTime = t;
+                entryUnderlying = view.getUnderlyingPrice();
+                atmStrike = atm;
+                cost = premium;
+                threshold = Math.abs(premium) * MULTIPLIER;
+                lastPnl = (exitValue(view, structure, rows, params.getFill()) - cost) * MULTIPLIER;
+                maxAdverse = Math.min(0, lastPnl);
+                maxFavorable = Math.max(0, lastPnl);
+                lastTime = t;
+                lastUnderlying = entryUnderlying;
+                continue;
+            }
+
+            if (!resolveRows(view, strikes, rows)) {
+                continue;
+            }
+            double value = exitValue(view, structure, rows, params.getFill());
+            if (Double.isNaN(value)) {
+                continue; // Stale or one-sided quote: keep the previous mark
+            }
+            double pnl = (value - cost) * MULTIPLIER;
+            lastPnl = pnl;
+            lastTime = t;
+            lastUnderlying = view.getUnderlyingPrice();
+            maxAdverse = Math.min(maxAdverse, pnl);
+            maxFavorable = Math.max(maxFavorable, pnl);
+
+            OptionsBacktestResult.ExitReason reason = null;
+            if (params.getProfitTarget() > 0 && pnl >= params.getProfitTarget() * threshold) {
+                reason = OptionsBacktestResult.ExitReason.PROFIT_TARGET;
+            } else if (params.getStopLoss() > 0 && pnl <= -params.getStopLoss() * threshold) {
+                reason = OptionsBacktestResult.ExitReason.STOP_LOSS;
+            } else if (t >= exitMillis) {
+                reason = OptionsBacktestResult.ExitReason.TIME;
+            }
+            if (reason != null) {
+                return new OptionsBacktestResult.DayResult(day, expiration, entryTime, t, entryUnderlying,
+                        lastUnderlying, atmStrike, cost, pnl, maxAdverse, maxFavorable, reason);
+            }
+        }
+
+        if (!open) {
+            return null;
+        }
+        if (expiration.equals(day)) {
+            double settle = 0;
+            for (int leg = 0; leg < legs; leg++) {
+                double intrinsic = structure.isCall(leg) ? Math.max(0, lastUnderlying - strikes[leg])
+                        : Math.max(0, strikes[leg] - lastUnderlying);
+                settle += structure.getQuantity(leg) * intrinsic;
+            }
+            double pnl = (settle - cost) * MULTIPLIER;
+            return new OptionsBacktestResult.DayResult(day, expiration, entryTime, lastTime, entryUnderlying,
+                    lastUnderlying, atmStrike, cost, pnl, Math.min(maxAdverse, pnl), Math.max(maxFavorable, pnl),
+                    OptionsBacktestResult.ExitReason.EXPIRATION);
+        }
+        return new OptionsBacktestResult.DayResult(day, expiration, entryTime, lastTime, entryUnderlying,
+                lastUnderlying, atmStrike, cost, lastPnl, maxAdverse, maxFavorable,
+                OptionsBacktestResult.ExitReason.END_OF_DAY);
+    }
+
+    /**
+     * Earliest recorded expiration on or after {@code earliest}, or null.
+     */
+    private static LocalDate targetExpiration(List<ChainSnapshotStore.ChainSnapshotView> views, LocalDate earliest) {
+        LocalDate target = null;
+        for (ChainSnapshotStore.ChainSnapshotView view : views) {
+            LocalDate expiration = view.getExpiration();
+            if (!expiration.isBefore(earliest) && (target == null || expiration.isBefore(target))) {
+                target = expiration;
+            }
+        }
+        return target;
+    }
+
+    /**
+     * Find each strike's row in this snapshot. False if any strike is not listed.
+     */
+    private static boolean resolveRows(ChainSnapshotStore.ChainSnapshotView view, double[] strikes, int[] rows) {
+        for (int leg = 0; leg < strikes.length; leg++) {
+            int row = view.nearestRow(strikes[leg]);
+            if (row < 0 || Math.abs(view.strikeAt(row) - strikes[leg]) > STRIKE_TOLERANCE) {
+                return false;
+            }
+            rows[leg] = row;
+        }
+        return true;
+    }
+
+    /**
+     * Net premium to open, per share: buys at the ask and sells at the bid
+     * (or both at mid). NaN if a strike or quote is missing.
+     */
+    private static double entryCost(ChainSnapshotStore.ChainSnapshotView view, OptionStructure structure,
+            double[] strikes, int[] rows, OptionsBacktestParams.Fill fill) {
+        if (!resolveRows(view, strikes, rows)) {
+            return Double.NaN;
+        }
+        double cost = 0;
+        for (int leg = 0; leg < strikes.length; leg++) {
+            int qty = structure.getQuantity(leg);
+            cost += qty * price(view, rows[leg], structure.isCall(leg), qty > 0, fill);
+        }
+        return cost;
+    }
+
+    /**
+     * Net value if closed now, per share: longs sell at the bid, shorts buy
+     * back at the ask (or both at mid). NaN if a quote is missing.
+     */
+    private static double exitValue(ChainSnapshotStore.ChainSnapshotView view, OptionStructure structure,
+            int[] rows, OptionsBacktestParams.Fill fill) {
+        double value = 0;
+        for (int leg = 0; leg < rows.length; leg++) {
+            int qty = structure.getQuantity(leg);
+            value += qty * price(view, rows[leg], structure.isCall(leg), qty < 0, fill);
+        }
+        return value;
+    }
+
+    private static double price(ChainSnapshotStore.ChainSnapshotView view, int row, boolean call, boolean buying,
+            OptionsBacktestParams.Fill fill) {
+        double bid = view.bid(row, call);
+        double ask = view.ask(row, call);
+        if (Double.isNaN(bid) || Double.isNaN(ask)) {
+            return Double.NaN;
+        }
+        switch (fill) {
+            case MID:
+                return (bid + ask) / 2;
+            case BID_ASK:
+            default:
+                return buying ? ask : bid;
+        }
+    }
+}
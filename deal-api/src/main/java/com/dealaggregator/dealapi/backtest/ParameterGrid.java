@@ -0,0 +1,130 @@
+package com.dealaggregator.dealapi.backtest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Search space for a backtest sweep: candidate values for each of the
+ * Python backtester's tunable parameters.
+ *
+ * The half-life filter is one yes/no decision for the whole series, so it
+ * is fixed for a grid rather than swept.
+ */
+public class ParameterGrid {
+
+    private final double[] thresholds;
+    private final int[] lookbacks;
+    private final double[] stopLosses;
+    private final double[] takeProfits;
+    private final int[] maxHoldings;
+    private final boolean useHalfLifeFilter;
+    private final double halfLifeMax;
+
+    public ParameterGrid(double[] thresholds, int[] lookbacks, double[] stopLosses, double[] takeProfits,
+            int[] maxHoldings, boolean useHalfLifeFilter, double halfLifeMax) {
+        this.thresholds = thresholds.clone();
+        this.lookbacks = lookbacks.clone();
+        this.stopLosses = stopLosses.clone();
+        this.takeProfits = takeProfits.clone();
+        this.maxHoldings = maxHoldings.clone();
+        this.useHalfLifeFilter = useHalfLifeFilter;
+        this.halfLifeMax = halfLifeMax;
+    }
+
+    /**
+     * |z| 1.0-3.0 by 0.25, lookback 10-100 by 5, five stops, five targets,
+     * four holding limits: 17,100 configurations, no half-life filter.
+     */
+    public static ParameterGrid defaults() {
+        double[] thresholds = new double[9];
+        for (int i = 0; i < thresholds.length; i++) {
+            thresholds[i] = 1.0 + 0.25 * i;
+        }
+        int[] lookbacks = new int[19];
+        for (int i = 0; i < lookbacks.length; i++) {
+            lookbacks[i] = 10 + 5 * i;
+        }
+        return new ParameterGrid(thresholds, lookbacks,
+                new double[] { 0.02, 0.03, 0.05, 0.08, 0.10 },
+                new double[] { 0.03, 0.05, 0.10, 0.15, 0.20 },
+                new int[] { 5, 10, 20, 40 },
+                false, 50);
+    }
+
+    public int size() {
+        return thresholds.length * lookbacks.length * stopLosses.length * takeProfits.length * maxHoldings.length;
+    }
+
+    /**
+     * Every combination, grouped by lookback so configurations that share
+     * a z-score series are evaluated together.
+     */
+    public List<BacktestParams> expand() {
+        List<BacktestParams> configs = new ArrayList<>(size());
+        for (int lookback : lookbacks) {
+            for (double threshold : thresholds) {
+                for (double stop : stopLosses) {
+                    for (double target : takeProfits) {
+                        for (int holding : maxHoldings) {
+                            configs.add(new BacktestParams(threshold, lookback, stop, target, holding,
+                                    useHalfLifeFilter, halfLifeMax));
+                        }
+                    }
+                }
+            }
+        }
+        return configs;
+    }
+
+    /**
+     * Random search: {@code count} configurations drawn uniformly between
+     * each parameter's smallest and largest grid value, grouped by lookback.
+     */
+    public List<BacktestParams> sample(int count, long seed) {
+        Random random = new Random(seed);
+        int minLookback = min(lookbacks);
+        int maxLookback = max(lookbacks);
+        int minHolding = min(maxHoldings);
+        int maxHolding = max(maxHoldings);
+        List<BacktestParams> configs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            configs.add(new BacktestParams(
+                    uniform(random, thresholds),
+                    minLookback + random.nextInt(maxLookback - minLookback + 1),
+                    uniform(random, stopLosses),
+                    uniform(random, takeProfits),
+                    minHolding + random.nextInt(maxHolding - minHolding + 1),
+                    useHalfLifeFilter, halfLifeMax));
+        }
+        configs.sort(Comparator.comparingInt(BacktestParams::getZscoreLookback));
+        return configs;
+    }
+
+    private static double uniform(Random random, double[] values) {
+        double lo = Double.POSITIVE_INFINITY;
+        double hi = Double.NEGATIVE_INFINITY;
+        for (double v : values) {
+            lo = Math.min(lo, v);
+            hi = Math.max(hi, v);
+        }
+        return lo + (hi - lo) * random.nextDouble();
+    }
+
+    private static int min(int[] values) {
+        int m = Integer.MAX_VALUE;
+        for (int v : values) {
+            m = Math.min(m, v);
+        }
+        return m;
+    }
+
+    private static int max(int[] values) {
+        int m = Integer.MIN_VALUE;
+        for (int v : values) {
+            m = Math.max(m, v);
+        }
+        return m;
+    }
+}
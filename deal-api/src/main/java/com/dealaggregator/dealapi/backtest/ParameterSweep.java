@@ -0,0 +1,405 @@
+package com.dealaggregator.dealapi.backtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import com.dealaggregator.dealapi.analytics.MeanReversionIndicators;
+
+/**
+ * Parameter sweeps and walk-forward optimization for the mean reversion
+ * backtest.
+ *
+ * A sweep splits its configurations across the fork-join pool. Z-score
+ * series are computed once per lookback for the whole price series and
+ * shared by every configuration (and every walk-forward fold) using that
+ * lookback; each configuration then costs one primitive bar loop. The best
+ * configuration so far is pushed to a listener as results arrive, and the
+ * top K are kept.
+ */
+public final class ParameterSweep {
+
+    /** Configurations per fork-join leaf (one bar loop each, tens of microseconds) */
+    private static final int SWEEP_LEAF_SIZE = 32;
+
+    /** What a sweep maximizes */
+    public enum Objective {
+        SHARPE, TOTAL_RETURN, PROFIT_FACTOR
+    }
+
+    /**
+     * Told about every new best configuration, from pool threads. Called
+     * while the sweep holds its ranking lock, so keep it quick.
+     */
+    public interface Listener {
+        void onNewBest(Ranked best, int evaluated);
+    }
+
+    private ParameterSweep() {
+    }
+
+    /**
+     * Z-score series per lookback over one price series, computed on first
+     * use and shared across sweeps.
+     */
+    public static final class ZScores {
+        private final double[] prices;
+        private final Map<Integer, double[]> byLookback = new ConcurrentHashMap<>();
+
+        public ZScores(double[] prices) {
+            this.prices = prices;
+        }
+
+        public double[] get(int lookback) {
+            return byLookback.computeIfAbsent(lookback,
+                    l -> MeanReversionBacktester.zscoreSeries(prices, l));
+        }
+    }
+
+    /**
+     * Backtest every configuration on bars [from, to) and rank them.
+     * Configurations with fewer than {@code minTrades} trades are not
+     * ranked.
+     *
+     * @param listener Optional; receives each new best as it is found
+     */
+    public static SweepResult sweep(long[] timestamps, double[] prices, ZScores zscores, int from, int to,
+            List<BacktestParams> configs, Objective objective, int minTrades, int topK, Listener listener) {
+        long start = System.nanoTime();
+        // Half-life filter as in Python: last 100 bars of the range being tested
+        double halfLife = MeanReversionIndicators.halfLife(Arrays.copyOfRange(prices, from, to),
+                MeanReversionIndicators.DEFAULT_HALF_LIFE_LOOKBACK).getHalfLife();
+        Ranking ranking = new Ranking(topK, listener);
+        ForkJoinPool.commonPool().invoke(new SweepTask(timestamps, prices, zscores, from, to, halfLife, configs,
+                objective, minTrades, ranking, 0, configs.size()));
+        return new SweepResult(ranking.sorted(), ranking.evaluated.get(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Rolling walk-forward: sweep {@code trainBars} bars, trade the winner
+     * on the following {@code testBars} bars, step forward by testBars and
+     * repeat. Test windows never see their own bars during selection.
+     *
+     * @param onFold Optional; receives each fold as it completes
+     */
+    public static WalkForwardResult walkForward(long[] timestamps, double[] prices, List<BacktestParams> configs,
+            int trainBars, int testBars, Objective objective, int minTrades, Consumer<Fold> onFold) {
+        ZScores zscores = new ZScores(prices);
+        List<Fold> folds = new ArrayList<>();
+        for (int trainFrom = 0; trainFrom + trainBars + testBars <= prices.length; trainFrom += testBars) {
+            int trainTo = trainFrom + trainBars;
+            int testTo = trainTo + testBars;
+            SweepResult train = sweep(timestamps, prices, zscores, trainFrom, trainTo, configs, objective,
+                    minTrades, 1, null);
+            Ranked best = train.getBest();
+            if (best == null) {
+                continue;
+            }
+
+            BacktestParams params = best.getParams();
+            // Warm up inside the training window so trading starts exactly at trainTo
+            int testFrom = Math.max(0, trainTo - params.getStartBar());
+            boolean regimeOk = !params.isUseHalfLifeFilter() || MeanReversionIndicators.halfLife(
+                    Arrays.copyOfRange(prices, trainFrom, trainTo),
+                    MeanReversionIndicators.DEFAULT_HALF_LIFE_LOOKBACK).getHalfLife() < params.getHalfLifeMax();
+            BacktestResult test = MeanReversionBacktester.run(timestamps, prices,
+                    zscores.get(params.getZscoreLookback()), testFrom, testTo, regimeOk, params);
+
+            Fold fold = new Fold(trainFrom, trainTo, testTo, best, test);
+            folds.add(fold);
+            if (onFold != null) {
+                onFold.accept(fold);
+            }
+        }
+        return new WalkForwardResult(folds);
+    }
+
+    static double score(BacktestResult result, Objective objective) {
+        switch (objective) {
+            case TOTAL_RETURN:
+                double[] equity = result.getEquityCurve();
+                return equity[equity.length - 1] - 1;
+            case PROFIT_FACTOR:
+                return result.getProfitFactor();
+            case SHARPE:
+            default:
+                return result.getSharpeRatio();
+        }
+    }
+
+    /**
+     * Thread-safe top-K with a best-so-far callback.
+     */
+    private static final class Ranking {
+        private final int topK;
+        private final Listener listener;
+        private final PriorityQueue<Ranked> top; // Worst of the kept at the head
+        private final AtomicInteger evaluated = new AtomicInteger();
+        private volatile double worstKept = Double.NEGATIVE_INFINITY;
+        private double best = Double.NEGATIVE_INFINITY;
+
+        Ranking(int topK, Listener listener) {
+            this.topK = Math.max(1, topK);
+            this.listener = listener;
+            this.top = new PriorityQueue<>(this.topK + 1, Comparator.comparingDouble(Ranked::getScore));
+        }
+
+        /** Cheap pre-check so most configurations never take the lock */
+        boolean qualifies(double score) {
+            return score > worstKept;
+        }
+
+        synchronized void offer(Ranked ranked) {
+            top.add(ranked);
+            if (top.size() > topK) {
+                top.poll();
+            }
+            if (top.size() == topK) {
+                worstKept = top.peek().getScore();
+            }
+            if (ranked.getScore() > best) {
+                best = ranked.getScore();
+                if (listener != null) {
+                    listener.onNewBest(ranked, evaluated.get());
+                }
+            }
+        }
+
+        synchronized List<Ranked> sorted() {
+            List<Ranked> sorted = new ArrayList<>(top);
+            sorted.sort(Comparator.comparingDouble(Ranked::getScore).reversed());
+            return sorted;
+        }
+    }
+
+    private static class SweepTask extends RecursiveAction {
+        private final long[] timestamps;
+        private final double[] prices;
+        private final ZScores zscores;
+        private final int from;
+        private final int to;
+        private final double halfLife;
+        private final List<BacktestParams> configs;
+        private final Objective objective;
+        private final int minTrades;
+        private final Ranking ranking;
+        private final int lo;
+        private final int hi;
+
+        SweepTask(long[] timestamps, double[] prices, ZScores zscores, int from, int to, double halfLife,
+                List<BacktestParams> configs, Objective objective, int minTrades, Ranking ranking, int lo, int hi) {
+            this.timestamps = timestamps;
+            this.prices = prices;
+            this.zscores = zscores;
+            this.from = from;
+            this.to = to;
+            this.halfLife = halfLife;
+            this.configs = configs;
+            this.objective = objective;
+            this.minTrades = minTrades;
+            this.ranking = ranking;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= SWEEP_LEAF_SIZE) {
+                for (int i = lo; i < hi; i++) {
+                    BacktestParams params = configs.get(i);
+                    boolean regimeOk = !params.isUseHalfLifeFilter() || halfLife < params.getHalfLifeMax();
+                    BacktestResult result = MeanReversionBacktester.run(timestamps, prices,
+                            zscores.get(params.getZscoreLookback()), from, to, regimeOk, params);
+                    ranking.evaluated.incrementAndGet();
+                    double score = score(result, objective);
+                    if (result.getTotalTrades() >= minTrades && !Double.isNaN(score) && ranking.qualifies(score)) {
+                        ranking.offer(new Ranked(params, result, score));
+                    }
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new SweepTask(timestamps, prices, zscores, from, to, halfLife, configs, objective, minTrades,
+                    ranking, lo, mid),
+                    new SweepTask(timestamps, prices, zscores, from, to, halfLife, configs, objective, minTrades,
+                            ranking, mid, hi));
+        }
+    }
+
+    /**
+     * One configuration with its backtest and objective score.
+     */
+    public static class Ranked {
+        private final BacktestParams params;
+        private final BacktestResult result;
+        private final double score;
+
+        public Ranked(BacktestParams params, BacktestResult result, double score) {
+            this.params = params;
+            this.result = result;
+            this.score = score;
+        }
+
+        public BacktestParams getParams() {
+            return params;
+        }
+
+        public BacktestResult getResult() {
+            return result;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    /**
+     * Top configurations of one sweep, best first.
+     */
+    public static class SweepResult {
+        private final List<Ranked> top;
+        private final int evaluated;
+        private final long elapsedMillis;
+
+        public SweepResult(List<Ranked> top, int evaluated, long elapsedMillis) {
+            this.top = top;
+            this.evaluated = evaluated;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public List<Ranked> getTop() {
+            return top;
+        }
+
+        /** Best configuration, or null if none made enough trades */
+        public Ranked getBest() {
+            return top.isEmpty() ? null : top.get(0);
+        }
+
+        public int getEvaluated() {
+            return evaluated;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+
+    /**
+     * One walk-forward step: the configuration picked on the training
+     * window and how it traded on the test window after it.
+     */
+    public static class Fold {
+        private final int trainFrom;
+        private final int trainTo;
+        private final int testTo;
+        private final Ranked train;
+        private final BacktestResult test;
+
+        public Fold(int trainFrom, int trainTo, int testTo, Ranked train, BacktestResult test) {
+            this.trainFrom = trainFrom;
+            this.trainTo = trainTo;
+            this.testTo = testTo;
+            this.train = train;
+            this.test = test;
+        }
+
+        public int getTrainFrom() {
+            return trainFrom;
+        }
+
+        /** First test bar */
+        public int getTrainTo() {
+            return trainTo;
+        }
+
+        public int getTestTo() {
+            return testTo;
+        }
+
+        public Ranked getTrain() {
+            return train;
+        }
+
+        public BacktestResult getTest() {
+            return test;
+        }
+
+        /**
+         * Test-window return with a position still open at the window's end
+         * marked to its last close. The backtester leaves END_OF_DATA exits
+         * out of the equity curve (as the Python does), which on a test
+         * window would silently drop every trade spanning the fold boundary.
+         */
+        public double getTestReturn() {
+            double[] equity = test.getEquityCurve();
+            double growth = equity[equity.length - 1];
+            List<BacktestResult.Trade> trades = test.getTrades();
+            if (!trades.isEmpty()) {
+                BacktestResult.Trade last = trades.get(trades.size() - 1);
+                if (last.getExitReason() == BacktestResult.ExitReason.END_OF_DATA) {
+                    growth *= 1 + last.getPnlPct();
+                }
+            }
+            return growth - 1;
+        }
+    }
+
+    /**
+     * Out-of-sample performance across all folds.
+     */
+    public static class WalkForwardResult {
+        private final List<Fold> folds;
+
+        public WalkForwardResult(List<Fold> folds) {
+            this.folds = folds;
+        }
+
+        public List<Fold> getFolds() {
+            return folds;
+        }
+
+        /** Fold test returns (open positions marked at the fold's end) compounded, minus one */
+        public double getOutOfSampleReturn() {
+            double growth = 1.0;
+            for (Fold fold : folds) {
+                growth *= 1 + fold.getTestReturn();
+            }
+            return growth - 1;
+        }
+
+        public int getOutOfSampleTrades() {
+            int trades = 0;
+            for (Fold fold : folds) {
+                trades += fold.getTest().getTotalTrades();
+            }
+            return trades;
+        }
+
+        public double getOutOfSampleWinRate() {
+            int wins = 0;
+            for (Fold fold : folds) {
+                wins += fold.getTest().getWinningTrades();
+            }
+            int trades = getOutOfSampleTrades();
+            return trades > 0 ? (double) wins / trades : 0.0;
+        }
+
+        /** Mean in-sample score of the chosen configurations, to compare against out-of-sample */
+        public double getMeanTrainScore() {
+            double sum = 0;
+            for (Fold fold : folds) {
+                sum += fold.getTrain().getScore();
+            }
+            return folds.isEmpty() ? Double.NaN : sum / folds.size();
+        }
+    }
+}
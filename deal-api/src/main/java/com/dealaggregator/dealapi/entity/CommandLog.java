@@ -13,8 +13,10 @@ import java.time.LocalDateTime;
 @Table(name = "command_logs")
 public class CommandLog {
 
+    /** Pooled sequence, see Strategy.id */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "command_logs_seq")
+    @SequenceGenerator(name = "command_logs_seq", sequenceName = "command_logs_seq", allocationSize = 50)
     private Long id;
 
     /** Command name (e.g., "spread", "analyze", "portfolio") */
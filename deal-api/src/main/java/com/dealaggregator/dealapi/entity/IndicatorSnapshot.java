@@ -0,0 +1,52 @@
+package com.dealaggregator.dealapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * End-of-day indicators for one ticker, written by the nightly precompute
+ * and reloaded into memory on startup.
+ */
+@Entity
+@Data
+@Table(name = "indicator_snapshots", uniqueConstraints = @UniqueConstraint(columnNames = { "ticker", "bar_date" }))
+public class IndicatorSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String ticker;
+
+    /** Last completed session the indicators were computed from */
+    @Column(name = "bar_date")
+    private LocalDate barDate;
+
+    private Double zscore;
+
+    /** OVERBOUGHT / OVERSOLD / NEUTRAL */
+    private String signal;
+
+    private Double halfLife;
+
+    /** Lag-1 autocorrelation of returns */
+    private Double acf;
+
+    /** Annualized historical volatility */
+    private Double hv;
+
+    /** DFA Hurst exponent */
+    private Double hurst;
+
+    private LocalDateTime computedAt = LocalDateTime.now();
+
+    public IndicatorSnapshot() {
+    }
+
+    public IndicatorSnapshot(String ticker, LocalDate barDate) {
+        this.ticker = ticker;
+        this.barDate = barDate;
+    }
+}
@@ -3,6 +3,8 @@ package com.dealaggregator.dealapi.entity;
 import java.time.LocalDate;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 /**
  * Represents a single options contract leg within a Strategy.
@@ -20,13 +22,17 @@ import lombok.Data;
 @Data
 @Table(name = "legs")
 public class Leg {
+    /** Pooled sequence, see Strategy.id */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "legs_seq")
+    @SequenceGenerator(name = "legs_seq", sequenceName = "legs_seq", allocationSize = 50)
     private Long id;
 
     /** Parent strategy this leg belongs to */
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "strategy_id")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Strategy strategy;
 
     /** Option type: "call" or "put" */
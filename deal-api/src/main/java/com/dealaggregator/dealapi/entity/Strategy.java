@@ -2,6 +2,8 @@ package com.dealaggregator.dealapi.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -21,8 +23,13 @@ import java.util.List;
 @Data
 @Table(name = "strategies")
 public class Strategy {
+    /**
+     * Pooled sequence rather than IDENTITY, so Hibernate can batch inserts
+     * of a strategy and its legs; one nextval reserves 50 IDs.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "strategies_seq")
+    @SequenceGenerator(name = "strategies_seq", sequenceName = "strategies_seq", allocationSize = 50)
     private Long id;
 
     /** Discord username of the strategy owner */
@@ -47,9 +54,14 @@ public class Strategy {
     /**
      * List of option legs in this strategy.
      * Uses cascade to automatically save/delete legs with the strategy.
-     * Eager fetch ensures legs are loaded with the strategy.
+     * Lazy: portfolio reads use StrategyView projections, and queries that
+     * need the entities fetch legs with an entity graph. Excluded from
+     * equals/hashCode/toString so they never trigger a load (or recurse
+     * through Leg.strategy).
      */
-    @OneToMany(mappedBy = "strategy", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "strategy", cascade = CascadeType.ALL, orphanRemoval = true)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private List<Leg> legs = new ArrayList<>();
 
     public Strategy() {
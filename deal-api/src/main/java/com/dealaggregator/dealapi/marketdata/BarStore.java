@@ -0,0 +1,517 @@
+package com.dealaggregator.dealapi.marketdata;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local OHLCV history, one memory-mapped columnar file per symbol and bar
+ * size ({@code SPY-1d.bars}), so indicator and backtest engines can read
+ * years of bars without a network round trip or heap copies.
+ *
+ * File layout (little-endian):
+ *
+ * <pre>
+ * Header  (32 bytes):  magic "BAR1" | version | count | capacity | reserved
+ * Columns capacity x 8 bytes each, in order:
+ *                      timestamp (long), open, high, low, close, volume (long)
+ * </pre>
+ *
+ * Appends write the new rows into every column, then bump count, so readers
+ * never see a partial bar. Rows readers can already see are never written:
+ * revising the last bar, like growing a full file, copies the file (at
+ * double the capacity when full), writes the new rows into the copy and
+ * swaps it in atomically; views over the old mapping stay valid and keep
+ * the old values. replace() swaps in a whole new history the same way.
+ *
+ * A small in-heap index of (trading date, first row) pairs is built when a
+ * file is opened and extended on append, so date-range lookups are a
+ * binary search instead of a scan over the timestamp column.
+ *
+ * Appends for a symbol must come from one thread at a time (they are
+ * synchronized per file); reads are thread-safe.
+ */
+public class BarStore implements Closeable {
+
+    private static final int MAGIC = 0x31524142; // "BAR1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int COUNT_OFFSET = 8;
+    private static final int CAPACITY_OFFSET = 12;
+    private static final int COLUMNS = 6;
+    private static final int TIMESTAMP = 0;
+    private static final int OPEN = 1;
+    private static final int HIGH = 2;
+    private static final int LOW = 3;
+    private static final int CLOSE = 4;
+    private static final int VOLUME = 5;
+
+    /** 16 years of daily bars before the first resize */
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    private final Path directory;
+    private final ZoneId tradingZone;
+    private final int initialCapacity;
+    private final Map<String, BarFile> openFiles = new ConcurrentHashMap<>();
+
+    public BarStore(Path directory, ZoneId tradingZone) {
+        this(directory, tradingZone, DEFAULT_CAPACITY);
+    }
+
+    public BarStore(Path directory, ZoneId tradingZone, int initialCapacity) {
+        this.directory = directory;
+        this.tradingZone = tradingZone;
+        this.initialCapacity = initialCapacity;
+    }
+
+    /**
+     * Append bars newer than the last stored one. A bar with the same
+     * timestamp as the last stored bar replaces it (a revised bar); older
+     * bars are already stored and skipped.
+     *
+     * @return Number of rows appended or replaced
+     */
+    public int append(PriceBars bars, String interval) throws IOException {
+        if (bars.isEmpty()) {
+            return 0;
+        }
+        return file(bars.getSymbol(), interval, true).append(bars);
+    }
+
+    /**
+     * Replace everything stored for a symbol with {@code bars} (e.g. after a
+     * split or dividend re-adjusts the whole history). The new file is
+     * written beside the old one and moved over it, so readers see either
+     * the old history or the new one, never an empty store. Must not run
+     * concurrently with append for the same symbol.
+     *
+     * @return Number of rows stored
+     */
+    public int replace(PriceBars bars, String interval) throws IOException {
+        String key = fileKey(bars.getSymbol(), interval);
+        Path path = directory.resolve(key + ".bars");
+        Path seed = path.resolveSibling(path.getFileName() + ".seed");
+        Files.deleteIfExists(seed);
+        int written;
+        try (BarFile fresh = BarFile.open(seed, initialCapacity, tradingZone)) {
+            written = fresh.append(bars);
+        }
+        synchronized (openFiles) {
+            Files.move(seed, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            // Readers holding the old file keep its mapping; the next lookup opens the new one
+            BarFile old = openFiles.remove(key);
+            if (old != null) {
+                old.close();
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Zero-copy view of the bars whose trading date is in [from, to].
+     */
+    public BarWindow window(String symbol, String interval, LocalDate from, LocalDate to) throws IOException {
+        BarFile file = file(symbol, interval, false);
+        if (file == null) {
+            return BarWindow.empty(symbol);
+        }
+        State state = file.state;
+        int start = state.firstRowOnOrAfter(from.toEpochDay());
+        int end = state.firstRowOnOrAfter(to.toEpochDay() + 1);
+        return new BarWindow(symbol, state.buffer, state.capacity, start, Math.max(start, end));
+    }
+
+    /**
+     * Zero-copy view of the most recent {@code bars} bars (fewer if the
+     * store holds fewer).
+     */
+    public BarWindow last(String symbol, String interval, int bars) throws IOException {
+        BarFile file = file(symbol, interval, false);
+        if (file == null) {
+            return BarWindow.empty(symbol);
+        }
+        State state = file.state;
+        return new BarWindow(symbol, state.buffer, state.capacity, Math.max(0, state.count - bars), state.count);
+    }
+
+    /**
+     * Zero-copy view of everything stored for a symbol.
+     */
+    public BarWindow all(String symbol, String interval) throws IOException {
+        return last(symbol, interval, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Trading date of the last stored bar, or null if nothing is stored.
+     */
+    public LocalDate lastDate(String symbol, String interval) throws IOException {
+        BarFile file = file(symbol, interval, false);
+        if (file == null || file.state.count == 0) {
+            return null;
+        }
+        State state = file.state;
+        return LocalDate.ofEpochDay(state.days[state.dayCount - 1]);
+    }
+
+    /**
+     * Drop everything stored for a symbol (e.g. after a split or dividend
+     * re-adjusts the whole history).
+     */
+    public void delete(String symbol, String interval) throws IOException {
+        String key = fileKey(symbol, interval);
+        BarFile file = openFiles.remove(key);
+        if (file != null) {
+            file.close();
+        }
+        Files.deleteIfExists(directory.resolve(key + ".bars"));
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (BarFile file : openFiles.values()) {
+            file.close();
+        }
+        openFiles.clear();
+    }
+
+    private BarFile file(String symbol, String interval, boolean create) throws IOException {
+        String key = fileKey(symbol, interval);
+        BarFile file = openFiles.get(key);
+        if (file != null) {
+            return file;
+        }
+        synchronized (openFiles) {
+            file = openFiles.get(key);
+            if (file == null) {
+                Path path = directory.resolve(key + ".bars");
+                if (!create && !Files.exists(path)) {
+                    return null;
+                }
+                file = BarFile.open(path, initialCapacity, tradingZone);
+                openFiles.put(key, file);
+            }
+            return file;
+        }
+    }
+
+    private static String fileKey(String symbol, String interval) {
+        // "^GSPC" -> "GSPC", "$SPX" -> "SPX" so the name is filesystem-safe
+        return symbol.toUpperCase().replaceAll("[^A-Z0-9._-]", "") + "-" + interval;
+    }
+
+    private static int columnOffset(int column, int capacity) {
+        return HEADER_BYTES + column * capacity * 8;
+    }
+
+    /**
+     * What readers see: the mapping, the published row count and the date
+     * index up to that count. Replaced (never mutated below count) on append.
+     */
+    private static final class State {
+        private final ByteBuffer buffer;
+        private final int capacity;
+        private final int count;
+        private final int[] days; // Distinct trading dates (epoch day), ascending
+        private final int[] firstRows; // First row of each date
+        private final int dayCount;
+
+        State(ByteBuffer buffer, int capacity, int count, int[] days, int[] firstRows, int dayCount) {
+            this.buffer = buffer;
+            this.capacity = capacity;
+            this.count = count;
+            this.days = days;
+            this.firstRows = firstRows;
+            this.dayCount = dayCount;
+        }
+
+        /** First row whose trading date is >= epochDay, or count if none */
+        int firstRowOnOrAfter(long epochDay) {
+            int lo = 0;
+            int hi = dayCount;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (days[mid] < epochDay) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo == dayCount ? count : firstRows[lo];
+        }
+    }
+
+    /**
+     * Writable mapping of one symbol's file.
+     */
+    private static final class BarFile implements Closeable {
+        private final Path path;
+        private final ZoneId tradingZone;
+        private FileChannel channel;
+        private MappedByteBuffer buffer;
+        private int[] days = new int[64];
+        private int[] firstRows = new int[64];
+        private int dayCount;
+        private volatile State state;
+
+        private BarFile(Path path, ZoneId tradingZone) {
+            this.path = path;
+            this.tradingZone = tradingZone;
+        }
+
+        static BarFile open(Path path, int initialCapacity, ZoneId tradingZone) throws IOException {
+            Files.createDirectories(path.getParent());
+            boolean exists = Files.exists(path) && Files.size(path) > 0;
+            BarFile file = new BarFile(path, tradingZone);
+            if (!exists) {
+                writeEmpty(path, initialCapacity);
+            }
+            file.map();
+            if (file.buffer.getInt(0) != MAGIC) {
+                file.channel.close();
+                throw new IOException("Not a bar store file: " + path);
+            }
+
+            int capacity = file.buffer.getInt(CAPACITY_OFFSET);
+            int count = file.buffer.getInt(COUNT_OFFSET);
+            int timestamps = columnOffset(TIMESTAMP, capacity);
+            for (int row = 0; row < count; row++) {
+                file.indexRow(row, file.buffer.getLong(timestamps + row * 8));
+            }
+            file.publish(count);
+            return file;
+        }
+
+        private static void writeEmpty(Path path, int capacity) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                        columnOffset(COLUMNS, capacity));
+                header.order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(0, MAGIC);
+                header.putInt(4, VERSION);
+                header.putInt(COUNT_OFFSET, 0);
+                header.putInt(CAPACITY_OFFSET, capacity);
+                header.force();
+            }
+        }
+
+        private void map() throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        synchronized int append(PriceBars bars) throws IOException {
+            int count = state.count;
+            long lastTimestamp = count > 0 ? buffer.getLong(columnOffset(TIMESTAMP, state.capacity) + (count - 1) * 8)
+                    : Long.MIN_VALUE;
+            long[] timestamps = bars.getTimestamps();
+
+            // Skip what is already stored; the last stored bar may be revised (in a copy)
+            int from = 0;
+            while (from < timestamps.length && timestamps[from] < lastTimestamp) {
+                from++;
+            }
+            int row = count;
+            if (from < timestamps.length && timestamps[from] == lastTimestamp) {
+                row = count - 1;
+            }
+            int written = timestamps.length - from;
+            if (written == 0) {
+                return 0;
+            }
+            for (int i = from + 1; i < timestamps.length; i++) {
+                if (timestamps[i] <= timestamps[i - 1]) {
+                    throw new IllegalArgumentException("Bars must be in strictly increasing timestamp order");
+                }
+            }
+
+            int newCount = row + written;
+            if (newCount > state.capacity || row < count) {
+                // Only rows past the published count are written in place
+                rewrite(newCount, row);
+            }
+
+            int capacity = buffer.getInt(CAPACITY_OFFSET);
+            for (int i = from; i < timestamps.length; i++, row++) {
+                int at = row * 8;
+                buffer.putLong(columnOffset(TIMESTAMP, capacity) + at, timestamps[i]);
+                buffer.putDouble(columnOffset(OPEN, capacity) + at, bars.getOpen()[i]);
+                buffer.putDouble(columnOffset(HIGH, capacity) + at, bars.getHigh()[i]);
+                buffer.putDouble(columnOffset(LOW, capacity) + at, bars.getLow()[i]);
+                buffer.putDouble(columnOffset(CLOSE, capacity) + at, bars.getClose()[i]);
+                buffer.putLong(columnOffset(VOLUME, capacity) + at, bars.getVolume()[i]);
+                if (row >= count) {
+                    indexRow(row, timestamps[i]);
+                }
+            }
+
+            // Publish last so readers only ever see complete bars
+            buffer.putInt(COUNT_OFFSET, newCount);
+            publish(newCount);
+            return written;
+        }
+
+        /**
+         * Copy the first {@code keepRows} rows into a new file with room for
+         * at least {@code needed} rows and swap it in. Nothing is published:
+         * readers stay on the old mapping until append bumps the count.
+         */
+        private void rewrite(int needed, int keepRows) throws IOException {
+            int oldCapacity = state.capacity;
+            long capacity = oldCapacity;
+            while (capacity < needed) {
+                capacity *= 2;
+            }
+            if (columnOffset(COLUMNS, 0) + capacity * COLUMNS * 8 > Integer.MAX_VALUE) {
+                throw new IOException("Bar store file exceeds 2GB: " + path);
+            }
+
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            writeEmpty(tmp, (int) capacity);
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer target = out.map(FileChannel.MapMode.READ_WRITE, 0, out.size());
+                target.order(ByteOrder.LITTLE_ENDIAN);
+                for (int column = 0; column < COLUMNS; column++) {
+                    ByteBuffer source = buffer.slice(columnOffset(column, oldCapacity), keepRows * 8);
+                    target.put(columnOffset(column, (int) capacity), source, 0, keepRows * 8);
+                }
+                target.putInt(COUNT_OFFSET, keepRows);
+                target.force();
+            }
+
+            buffer.force();
+            channel.close();
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            map();
+        }
+
+        private void indexRow(int row, long timestampMillis) {
+            int day = (int) Instant.ofEpochMilli(timestampMillis).atZone(tradingZone).toLocalDate().toEpochDay();
+            if (dayCount > 0 && days[dayCount - 1] == day) {
+                return;
+            }
+            if (dayCount == days.length) {
+                days = Arrays.copyOf(days, dayCount * 2);
+                firstRows = Arrays.copyOf(firstRows, dayCount * 2);
+            }
+            days[dayCount] = day;
+            firstRows[dayCount] = row;
+            dayCount++;
+        }
+
+        private void publish(int count) {
+            state = new State(buffer, buffer.getInt(CAPACITY_OFFSET), count, days, firstRows, dayCount);
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            buffer.force();
+            channel.close();
+        }
+    }
+
+    /**
+     * Read-only view of rows [start, end) of one symbol's file. Column
+     * accessors return buffers that point directly into the mapping.
+     */
+    public static class BarWindow {
+        private final String symbol;
+        private final ByteBuffer file;
+        private final int capacity;
+        private final int start;
+        private final int end;
+
+        BarWindow(String symbol, ByteBuffer file, int capacity, int start, int end) {
+            this.symbol = symbol;
+            this.file = file;
+            this.capacity = capacity;
+            this.start = start;
+            this.end = end;
+        }
+
+        static BarWindow empty(String symbol) {
+            return new BarWindow(symbol, ByteBuffer.allocate(0), 0, 0, 0);
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public int size() {
+            return end - start;
+        }
+
+        public boolean isEmpty() {
+            return end == start;
+        }
+
+        public LongBuffer timestamps() {
+            return column(TIMESTAMP).asLongBuffer();
+        }
+
+        public DoubleBuffer open() {
+            return column(OPEN).asDoubleBuffer();
+        }
+
+        public DoubleBuffer high() {
+            return column(HIGH).asDoubleBuffer();
+        }
+
+        public DoubleBuffer low() {
+            return column(LOW).asDoubleBuffer();
+        }
+
+        public DoubleBuffer close() {
+            return column(CLOSE).asDoubleBuffer();
+        }
+
+        public LongBuffer volume() {
+            return column(VOLUME).asLongBuffer();
+        }
+
+        /**
+         * Copy onto the heap for engines that take PriceBars.
+         */
+        public PriceBars toPriceBars() {
+            int n = size();
+            long[] timestamps = new long[n];
+            double[] open = new double[n];
+            double[] high = new double[n];
+            double[] low = new double[n];
+            double[] close = new double[n];
+            long[] volume = new long[n];
+            timestamps().get(timestamps);
+            open().get(open);
+            high().get(high);
+            low().get(low);
+            close().get(close);
+            volume().get(volume);
+            return new PriceBars(symbol, timestamps, open, high, low, close, volume);
+        }
+
+        private ByteBuffer column(int column) {
+            if (isEmpty()) {
+                return ByteBuffer.allocate(0).asReadOnlyBuffer();
+            }
+            return file.slice(columnOffset(column, capacity) + start * 8, size() * 8)
+                    .asReadOnlyBuffer()
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+}
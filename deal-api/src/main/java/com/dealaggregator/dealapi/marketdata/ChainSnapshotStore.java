@@ -0,0 +1,556 @@
+package com.dealaggregator.dealapi.marketdata;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only, memory-mapped columnar store for option chain snapshots.
+ *
+ * One segment file per symbol per trading day ({@code SPX-2026-01-05.chain}).
+ * Segment layout (little-endian):
+ *
+ * <pre>
+ * Header  (16 bytes):  magic "CHN1" | version | snapshotCount | indexCapacity
+ * Index   (32 bytes x indexCapacity), one entry per snapshot:
+ *                      timestampMillis (long) | expiryEpochDay (int) | rows (int)
+ *                      dataOffset (long) | underlyingPrice (double)
+ * Data    one block per snapshot, 9 columns of {@code rows} values each:
+ *                      strike, callBid, callAsk, callIv, callOi,
+ *                      putBid, putAsk, putIv, putOi
+ * </pre>
+ *
+ * Rows are the union of call and put strikes, sorted ascending; a side that
+ * does not list a strike has NaN prices and 0 open interest.
+ *
+ * Writes go data block -> index entry -> snapshotCount, and the count is
+ * stored with release semantics (read with acquire), so a reader never sees
+ * a partially written snapshot. The file grows while it is being read, so a
+ * reader only trusts snapshots whose data lies inside its own mapping. Reads
+ * map the segment read-only and hand back DoubleBuffer/LongBuffer views
+ * straight over the mapping (no copying). Appends must come from a single
+ * thread; reads are thread-safe.
+ */
+public class ChainSnapshotStore implements Closeable {
+
+    private static final int MAGIC = 0x314E4843; // "CHN1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int INDEX_ENTRY_BYTES = 32;
+    private static final int COUNT_OFFSET = 8;
+    private static final int COLUMNS = 9;
+    private static final VarHandle INT_VIEW = MethodHandles.byteBufferViewVarHandle(int[].class,
+            ByteOrder.LITTLE_ENDIAN);
+
+    /** Room for one snapshot per minute for a full 24h day, with slack */
+    private static final int DEFAULT_INDEX_CAPACITY = 2048;
+    private static final long INITIAL_DATA_BYTES = 8L * 1024 * 1024;
+
+    private final Path directory;
+    private final ZoneId tradingZone;
+    private final int indexCapacity;
+    private final Map<String, Segment> openSegments = new HashMap<>();
+
+    public ChainSnapshotStore(Path directory, ZoneId tradingZone) {
+        this(directory, tradingZone, DEFAULT_INDEX_CAPACITY);
+    }
+
+    public ChainSnapshotStore(Path directory, ZoneId tradingZone, int indexCapacity) {
+        this.directory = directory;
+        this.tradingZone = tradingZone;
+        this.indexCapacity = indexCapacity;
+    }
+
+    /**
+     * Append every expiration in the chain as its own snapshot.
+     */
+    public synchronized void append(String symbol, long timestampMillis, OptionChain chain) throws IOException {
+        for (OptionChain.Expiry expiry : chain.getExpiries()) {
+            append(symbol, timestampMillis, chain.getUnderlyingPrice(), expiry);
+        }
+    }
+
+    /**
+     * Append one expiration's chain to the segment for its trading day.
+     */
+    public synchronized void append(String symbol, long timestampMillis, double underlyingPrice,
+            OptionChain.Expiry expiry) throws IOException {
+        LocalDate day = tradingDay(timestampMillis);
+        Segment segment = openSegments.get(segmentKey(symbol, day));
+        if (segment == null) {
+            closeSegmentsOtherThan(day);
+            segment = Segment.openForAppend(segmentPath(symbol, day), indexCapacity);
+            openSegments.put(segmentKey(symbol, day), segment);
+        }
+        segment.append(timestampMillis, underlyingPrice, expiry);
+    }
+
+    /**
+     * Zero-copy views of every snapshot with {@code from <= timestamp <= to}
+     * on one trading day. Views stay valid after the store is closed.
+     */
+    public List<ChainSnapshotView> read(String symbol, LocalDate day, long fromMillis, long toMillis)
+            throws IOException {
+        Path path = segmentPath(symbol, day);
+        if (!Files.exists(path)) {
+            return List.of();
+        }
+
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a chain snapshot segment: " + path);
+        }
+        int count = (int) INT_VIEW.getAcquire(buffer, COUNT_OFFSET);
+        // An append may have grown the file and published past the end of this mapping
+        count = Math.min(count, buffer.getInt(12));
+        while (count > 0 && !fits(buffer, count - 1)) {
+            count--;
+        }
+
+        // Timestamps are appended in order, so binary search the index for the first match
+        int lo = 0;
+        int hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (buffer.getLong(indexOffset(mid)) < fromMillis) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+
+        List<ChainSnapshotView> views = new ArrayList<>();
+        for (int i = lo; i < count; i++) {
+            int entry = indexOffset(i);
+            long timestamp = buffer.getLong(entry);
+            if (timestamp > toMillis) {
+                break;
+            }
+            int expiryEpochDay = buffer.getInt(entry + 8);
+            int rows = buffer.getInt(entry + 12);
+            long dataOffset = buffer.getLong(entry + 16);
+            double underlying = buffer.getDouble(entry + 24);
+            views.add(new ChainSnapshotView(timestamp, LocalDate.ofEpochDay(expiryEpochDay), underlying,
+                    rows, buffer, (int) dataOffset));
+        }
+        return views;
+    }
+
+    /**
+     * All snapshots recorded on a trading day.
+     */
+    public List<ChainSnapshotView> readDay(String symbol, LocalDate day) throws IOException {
+        return read(symbol, day, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Trading days in [from, to] with a segment for this symbol, ascending.
+     */
+    public List<LocalDate> days(String symbol, LocalDate from, LocalDate to) throws IOException {
+        List<LocalDate> days = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return days;
+        }
+        String prefix = segmentKey(symbol, from);
+        prefix = prefix.substring(0, prefix.length() - from.toString().length());
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*.chain")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String date = name.substring(prefix.length(), name.length() - ".chain".length());
+                try {
+                    LocalDate day = LocalDate.parse(date);
+                    if (!day.isBefore(from) && !day.isAfter(to)) {
+                        days.add(day);
+                    }
+                } catch (DateTimeParseException e) {
+                    // Another symbol sharing the prefix
+                }
+            }
+        }
+        Collections.sort(days);
+        return days;
+    }
+
+    public LocalDate tradingDay(long timestampMillis) {
+        return Instant.ofEpochMilli(timestampMillis).atZone(tradingZone).toLocalDate();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Segment segment : openSegments.values()) {
+            segment.close();
+        }
+        openSegments.clear();
+    }
+
+    private void closeSegmentsOtherThan(LocalDate day) throws IOException {
+        String suffix = "-" + day;
+        var it = openSegments.entrySet().iterator();
+        while (it.hasNext()) {
+            var entry = it.next();
+            if (!entry.getKey().endsWith(suffix)) {
+                entry.getValue().close();
+                it.remove();
+            }
+        }
+    }
+
+    private Path segmentPath(String symbol, LocalDate day) {
+        return directory.resolve(segmentKey(symbol, day) + ".chain");
+    }
+
+    private static String segmentKey(String symbol, LocalDate day) {
+        // "$SPX" -> "SPX" so the name is filesystem-safe
+        return symbol.replaceAll("[^A-Za-z0-9._-]", "") + "-" + day;
+    }
+
+    private static int indexOffset(int i) {
+        return HEADER_BYTES + i * INDEX_ENTRY_BYTES;
+    }
+
+    /** Whether snapshot i's index entry and data block both lie inside this mapping */
+    private static boolean fits(ByteBuffer buffer, int i) {
+        int entry = indexOffset(i);
+        if (entry + INDEX_ENTRY_BYTES > buffer.capacity()) {
+            return false;
+        }
+        long end = buffer.getLong(entry + 16) + (long) buffer.getInt(entry + 12) * COLUMNS * 8;
+        return end <= buffer.capacity();
+    }
+
+    /**
+     * Writable mapping of one segment file. Grows by remapping at double the size.
+     */
+    private static final class Segment implements Closeable {
+        private final FileChannel channel;
+        private final int indexCapacity;
+        private MappedByteBuffer buffer;
+        private int count;
+        private long writeOffset;
+
+        private Segment(FileChannel channel, int indexCapacity) {
+            this.channel = channel;
+            this.indexCapacity = indexCapacity;
+        }
+
+        static Segment openForAppend(Path path, int indexCapacity) throws IOException {
+            Files.createDirectories(path.getParent());
+            boolean exists = Files.exists(path) && Files.size(path) > 0;
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            Segment segment = new Segment(channel, indexCapacity);
+            long dataStart = HEADER_BYTES + (long) indexCapacity * INDEX_ENTRY_BYTES;
+
+            if (exists) {
+                segment.map(channel.size());
+                if (segment.buffer.getInt(0) != MAGIC) {
+                    channel.close();
+                    throw new IOException("Not a chain snapshot segment: " + path);
+                }
+                int capacity = segment.buffer.getInt(12);
+                if (capacity != indexCapacity) {
+                    channel.close();
+                    throw new IOException("Segment " + path + " has index capacity " + capacity);
+                }
+                segment.count = segment.buffer.getInt(COUNT_OFFSET);
+                segment.writeOffset = dataStart;
+                if (segment.count > 0) {
+                    int last = indexOffset(segment.count - 1);
+                    int rows = segment.buffer.getInt(last + 12);
+                    segment.writeOffset = segment.buffer.getLong(last + 16) + (long) rows * COLUMNS * 8;
+                }
+            } else {
+                segment.map(dataStart + INITIAL_DATA_BYTES);
+                segment.buffer.putInt(0, MAGIC);
+                segment.buffer.putInt(4, VERSION);
+                segment.buffer.putInt(COUNT_OFFSET, 0);
+                segment.buffer.putInt(12, indexCapacity);
+                segment.writeOffset = dataStart;
+            }
+            return segment;
+        }
+
+        private void map(long size) throws IOException {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        void append(long timestampMillis, double underlyingPrice, OptionChain.Expiry expiry) throws IOException {
+            if (count >= indexCapacity) {
+                throw new IOException("Segment index full (" + indexCapacity + " snapshots)");
+            }
+            if (count > 0 && timestampMillis < buffer.getLong(indexOffset(count - 1))) {
+                throw new IllegalArgumentException("Snapshots must be appended in timestamp order");
+            }
+
+            OptionChain.Side calls = expiry.getCalls();
+            OptionChain.Side puts = expiry.getPuts();
+            int rows = unionSize(calls, puts);
+            long blockBytes = (long) rows * COLUMNS * 8;
+
+            if (writeOffset + blockBytes > buffer.capacity()) {
+                long newSize = buffer.capacity();
+                while (writeOffset + blockBytes > newSize) {
+                    newSize *= 2;
+                }
+                if (newSize > Integer.MAX_VALUE) {
+                    throw new IOException("Segment exceeds 2GB");
+                }
+                map(newSize);
+            }
+
+            writeBlock((int) writeOffset, rows, calls, puts);
+
+            int entry = indexOffset(count);
+            buffer.putLong(entry, timestampMillis);
+            buffer.putInt(entry + 8, (int) LocalDate.parse(expiry.getDate()).toEpochDay());
+            buffer.putInt(entry + 12, rows);
+            buffer.putLong(entry + 16, writeOffset);
+            buffer.putDouble(entry + 24, underlyingPrice);
+
+            // Publish last so readers only ever see complete snapshots
+            count++;
+            INT_VIEW.setRelease(buffer, COUNT_OFFSET, count);
+            writeOffset += blockBytes;
+        }
+
+        /**
+         * Merge the two strike-sorted sides into one row per distinct strike.
+         */
+        private void writeBlock(int offset, int rows, OptionChain.Side calls, OptionChain.Side puts) {
+            int col = rows * 8;
+            int c = 0;
+            int p = 0;
+            for (int row = 0; row < rows; row++) {
+                double callStrike = c < calls.size() ? calls.strike(c) : Double.POSITIVE_INFINITY;
+                double putStrike = p < puts.size() ? puts.strike(p) : Double.POSITIVE_INFINITY;
+                double strike = Math.min(callStrike, putStrike);
+                boolean hasCall = callStrike == strike;
+                boolean hasPut = putStrike == strike;
+
+                int at = offset + row * 8;
+                buffer.putDouble(at, strike);
+                buffer.putDouble(at + col, hasCall ? calls.bid(c) : Double.NaN);
+                buffer.putDouble(at + 2 * col, hasCall ? calls.ask(c) : Double.NaN);
+                buffer.putDouble(at + 3 * col, hasCall ? calls.iv(c) : Double.NaN);
+                buffer.putLong(at + 4 * col, hasCall ? calls.openInterest(c) : 0L);
+                buffer.putDouble(at + 5 * col, hasPut ? puts.bid(p) : Double.NaN);
+                buffer.putDouble(at + 6 * col, hasPut ? puts.ask(p) : Double.NaN);
+                buffer.putDouble(at + 7 * col, hasPut ? puts.iv(p) : Double.NaN);
+                buffer.putLong(at + 8 * col, hasPut ? puts.openInterest(p) : 0L);
+
+                if (hasCall) {
+                    c++;
+                }
+                if (hasPut) {
+                    p++;
+                }
+            }
+        }
+
+        private static int unionSize(OptionChain.Side calls, OptionChain.Side puts) {
+            int c = 0;
+            int p = 0;
+            int rows = 0;
+            while (c < calls.size() || p < puts.size()) {
+                double callStrike = c < calls.size() ? calls.strike(c) : Double.POSITIVE_INFINITY;
+                double putStrike = p < puts.size() ? puts.strike(p) : Double.POSITIVE_INFINITY;
+                double strike = Math.min(callStrike, putStrike);
+                if (callStrike == strike) {
+                    c++;
+                }
+                if (putStrike == strike) {
+                    p++;
+                }
+                rows++;
+            }
+            return rows;
+        }
+
+        @Override
+        public void close() throws IOException {
+            buffer.force();
+            channel.close();
+        }
+    }
+
+    /**
+     * Read-only view of one stored snapshot. Column accessors return buffers
+     * that point directly into the memory-mapped segment.
+     */
+    public static class ChainSnapshotView {
+        private final long timestampMillis;
+        private final LocalDate expiration;
+        private final double underlyingPrice;
+        private final int rows;
+        private final ByteBuffer segment;
+        private final int dataOffset;
+
+        ChainSnapshotView(long timestampMillis, LocalDate expiration, double underlyingPrice, int rows,
+                ByteBuffer segment, int dataOffset) {
+            this.timestampMillis = timestampMillis;
+            this.expiration = expiration;
+            this.underlyingPrice = underlyingPrice;
+            this.rows = rows;
+            this.segment = segment;
+            this.dataOffset = dataOffset;
+        }
+
+        public long getTimestampMillis() {
+            return timestampMillis;
+        }
+
+        public LocalDate getExpiration() {
+            return expiration;
+        }
+
+        public double getUnderlyingPrice() {
+            return underlyingPrice;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public DoubleBuffer strikes() {
+            return doubleColumn(0);
+        }
+
+        public DoubleBuffer callBids() {
+            return doubleColumn(1);
+        }
+
+        public DoubleBuffer callAsks() {
+            return doubleColumn(2);
+        }
+
+        public DoubleBuffer callIvs() {
+            return doubleColumn(3);
+        }
+
+        public LongBuffer callOpenInterest() {
+            return longColumn(4);
+        }
+
+        public DoubleBuffer putBids() {
+            return doubleColumn(5);
+        }
+
+        public DoubleBuffer putAsks() {
+            return doubleColumn(6);
+        }
+
+        public DoubleBuffer putIvs() {
+            return doubleColumn(7);
+        }
+
+        public LongBuffer putOpenInterest() {
+            return longColumn(8);
+        }
+
+        /**
+         * Row whose strike is closest to the target (lower strike on ties), or -1 if empty.
+         */
+        public int nearestRow(double target) {
+            if (rows == 0) {
+                return -1;
+            }
+            int lo = 0;
+            int hi = rows;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (strikeAt(mid) < target) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            if (lo == 0) {
+                return 0;
+            }
+            if (lo == rows) {
+                return rows - 1;
+            }
+            return (strikeAt(lo) - target) < (target - strikeAt(lo - 1)) ? lo : lo - 1;
+        }
+
+        /**
+         * Mid price of the call + put at the strike nearest the underlying.
+         */
+        public double atmStraddleMid() {
+            int row = nearestRow(underlyingPrice);
+            if (row < 0) {
+                return Double.NaN;
+            }
+            return (value(1, row) + value(2, row)) / 2 + (value(5, row) + value(6, row)) / 2;
+        }
+
+        /**
+         * Put IV at (1 - moneyness) x spot minus call IV at (1 + moneyness) x spot.
+         * Positive values mean downside protection is bid over upside.
+         */
+        public double skew(double moneyness) {
+            int putRow = nearestRow(underlyingPrice * (1 - moneyness));
+            int callRow = nearestRow(underlyingPrice * (1 + moneyness));
+            if (putRow < 0 || callRow < 0) {
+                return Double.NaN;
+            }
+            return value(7, putRow) - value(3, callRow);
+        }
+
+        /** Strike of a row */
+        public double strikeAt(int row) {
+            return value(0, row);
+        }
+
+        /** Call or put bid at a row (NaN if that side has no quote) */
+        public double bid(int row, boolean call) {
+            return value(call ? 1 : 5, row);
+        }
+
+        /** Call or put ask at a row (NaN if that side has no quote) */
+        public double ask(int row, boolean call) {
+            return value(call ? 2 : 6, row);
+        }
+
+        private double value(int column, int row) {
+            return segment.getDouble(dataOffset + (column * rows + row) * 8);
+        }
+
+        private DoubleBuffer doubleColumn(int column) {
+            return segment.slice(dataOffset + column * rows * 8, rows * 8)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .asDoubleBuffer();
+        }
+
+        private LongBuffer longColumn(int column) {
+            return segment.slice(dataOffset + column * rows * 8, rows * 8)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .asLongBuffer();
+        }
+    }
+}
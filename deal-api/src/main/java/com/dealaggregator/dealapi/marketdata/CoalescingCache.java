@@ -0,0 +1,256 @@
+package com.dealaggregator.dealapi.marketdata;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+/**
+ * TTL cache for slow remote lookups with request coalescing and
+ * stale-while-revalidate.
+ *
+ * Every entry carries a version (e.g. the date of the bar it was computed
+ * from). An entry is fresh while its version matches the caller's and it is
+ * younger than the TTL. On a miss, the first caller for a key and version
+ * registers an in-flight future and loads it; concurrent callers for the same
+ * key and version wait on that future instead of loading again, while a
+ * caller asking for another version starts its own load. Misses from one
+ * getAll call are loaded together in a single batch.
+ *
+ * If an expired entry is still within the maximum staleness, the refresh
+ * runs on the executor and the caller waits at most {@code staleWaitMillis}
+ * for it; a slow or failing refresh returns the stale value instead, and the
+ * entry is replaced when the refresh lands.
+ */
+public class CoalescingCache<K, V> {
+
+    /**
+     * Loads a batch of keys. Keys missing from the returned map count as
+     * failed.
+     */
+    public interface BatchLoader<K, V> {
+        Map<K, V> load(List<K> keys) throws Exception;
+    }
+
+    private final long ttlNanos;
+    private final long maxStaleNanos;
+    private final long staleWaitMillis;
+    private final Executor executor;
+    private final LongSupplier clock;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Map<Flight<K>, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public CoalescingCache(long ttlMillis, long maxStaleMillis, long staleWaitMillis, Executor executor) {
+        this(ttlMillis, maxStaleMillis, staleWaitMillis, executor, System::nanoTime);
+    }
+
+    CoalescingCache(long ttlMillis, long maxStaleMillis, long staleWaitMillis, Executor executor,
+            LongSupplier clock) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxStaleNanos = TimeUnit.MILLISECONDS.toNanos(maxStaleMillis);
+        this.staleWaitMillis = staleWaitMillis;
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    /**
+     * Value for one key, loading it if needed.
+     *
+     * @throws Exception The loader's failure, if there is no stale value to fall back on
+     */
+    public V get(K key, String version, BatchLoader<K, V> loader) throws Exception {
+        Lookup<K, V> lookup = lookup(List.of(key), version, loader);
+        V value = lookup.hits.get(key);
+        return value != null ? value : await(lookup, key);
+    }
+
+    /**
+     * Values for many keys, loading all misses in one batch. Keys that fail
+     * to load (with no stale value to fall back on) are left out.
+     *
+     * @return Values in request order
+     */
+    public Map<K, V> getAll(Collection<K> keys, String version, BatchLoader<K, V> loader) {
+        Lookup<K, V> lookup = lookup(keys, version, loader);
+        Map<K, V> result = new LinkedHashMap<>();
+        for (K key : keys) {
+            V value = lookup.hits.get(key);
+            if (value == null && lookup.pending.containsKey(key)) {
+                try {
+                    value = await(lookup, key);
+                } catch (Exception e) {
+                    continue;
+                }
+            }
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drop a key so the next call reloads it.
+     */
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Sort keys into fresh hits and pending loads, and start the loads this
+     * caller owns.
+     */
+    private Lookup<K, V> lookup(Collection<K> keys, String version, BatchLoader<K, V> loader) {
+        long now = clock.getAsLong();
+        Lookup<K, V> lookup = new Lookup<>();
+        List<K> owned = new ArrayList<>();
+        List<CompletableFuture<V>> ownedFutures = new ArrayList<>();
+        boolean anyStale = false;
+
+        for (K key : keys) {
+            if (lookup.hits.containsKey(key) || lookup.pending.containsKey(key)) {
+                continue;
+            }
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.version.equals(version) && now - entry.loadedNanos < ttlNanos) {
+                lookup.hits.put(key, entry.value);
+                continue;
+            }
+            if (entry != null && now - entry.loadedNanos < maxStaleNanos) {
+                lookup.stale.put(key, entry.value);
+            }
+
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(new Flight<>(key, version), mine);
+            if (existing == null) {
+                owned.add(key);
+                ownedFutures.add(mine);
+                anyStale |= lookup.stale.containsKey(key);
+                lookup.pending.put(key, mine);
+            } else {
+                lookup.pending.put(key, existing);
+            }
+        }
+
+        if (!owned.isEmpty()) {
+            Runnable load = () -> load(owned, ownedFutures, version, loader);
+            if (anyStale) {
+                // Someone may want to bail out to the stale value, so don't block the caller
+                executor.execute(load);
+            } else {
+                load.run();
+            }
+        }
+        return lookup;
+    }
+
+    private void load(List<K> keys, List<CompletableFuture<V>> futures, String version, BatchLoader<K, V> loader) {
+        try {
+            Map<K, V> loaded = loader.load(keys);
+            long now = clock.getAsLong();
+            for (int i = 0; i < keys.size(); i++) {
+                V value = loaded.get(keys.get(i));
+                if (value != null) {
+                    entries.put(keys.get(i), new Entry<>(value, version, now));
+                }
+            }
+            // Unregister before completing, so no caller joins a load that has already landed
+            unregister(keys, futures, version);
+            for (int i = 0; i < keys.size(); i++) {
+                V value = loaded.get(keys.get(i));
+                if (value != null) {
+                    futures.get(i).complete(value);
+                } else {
+                    futures.get(i).completeExceptionally(new IllegalStateException("No value for " + keys.get(i)));
+                }
+            }
+        } catch (Throwable t) {
+            unregister(keys, futures, version);
+            for (CompletableFuture<V> future : futures) {
+                future.completeExceptionally(t);
+            }
+        }
+    }
+
+    private void unregister(List<K> keys, List<CompletableFuture<V>> futures, String version) {
+        for (int i = 0; i < keys.size(); i++) {
+            inFlight.remove(new Flight<>(keys.get(i), version), futures.get(i));
+        }
+    }
+
+    private V await(Lookup<K, V> lookup, K key) throws Exception {
+        CompletableFuture<V> future = lookup.pending.get(key);
+        V stale = lookup.stale.get(key);
+        try {
+            if (stale == null) {
+                return future.get();
+            }
+            return future.get(staleWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return stale;
+        } catch (ExecutionException e) {
+            if (stale != null) {
+                return stale;
+            }
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
+    private static final class Lookup<K, V> {
+        private final Map<K, V> hits = new LinkedHashMap<>();
+        private final Map<K, V> stale = new LinkedHashMap<>();
+        private final Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+    }
+
+    /**
+     * In-flight load key: a load only serves callers asking for its version.
+     */
+    private static final class Flight<K> {
+        private final K key;
+        private final String version;
+
+        Flight(K key, String version) {
+            this.key = key;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Flight)) {
+                return false;
+            }
+            Flight<?> other = (Flight<?>) o;
+            return key.equals(other.key) && version.equals(other.version);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * key.hashCode() + version.hashCode();
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final String version;
+        private final long loadedNanos;
+
+        Entry(V value, String version, long loadedNanos) {
+            this.value = value;
+            this.version = version;
+            this.loadedNanos = loadedNanos;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.dealaggregator.dealapi.marketdata;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable table of precomputed end-of-day indicators, one row per ticker.
+ *
+ * Values are held in primitive columns and a ticker lookup is one hash
+ * probe; rows are materialized only when read. A new table is built for
+ * each precompute run and swapped in whole, so readers never see a
+ * half-updated row.
+ */
+public final class IndicatorSnapshotTable {
+
+    public static final IndicatorSnapshotTable EMPTY = new Builder().build();
+
+    private final Map<String, Integer> index;
+    private final String[] tickers;
+    private final int[] barEpochDays;
+    private final double[] zscores;
+    private final String[] signals;
+    private final double[] halfLives;
+    private final double[] acfs;
+    private final double[] hvs;
+    private final double[] hursts;
+
+    private IndicatorSnapshotTable(List<Row> rows) {
+        int n = rows.size();
+        Map<String, Integer> index = new HashMap<>(n * 2);
+        tickers = new String[n];
+        barEpochDays = new int[n];
+        zscores = new double[n];
+        signals = new String[n];
+        halfLives = new double[n];
+        acfs = new double[n];
+        hvs = new double[n];
+        hursts = new double[n];
+        for (int i = 0; i < n; i++) {
+            Row row = rows.get(i);
+            index.put(row.ticker, i);
+            tickers[i] = row.ticker;
+            barEpochDays[i] = (int) row.barDate.toEpochDay();
+            zscores[i] = row.zscore;
+            signals[i] = row.signal;
+            halfLives[i] = row.halfLife;
+            acfs[i] = row.acf;
+            hvs[i] = row.hv;
+            hursts[i] = row.hurst;
+        }
+        this.index = Collections.unmodifiableMap(index);
+    }
+
+    public Optional<Row> get(String ticker) {
+        Integer i = index.get(ticker);
+        return i == null ? Optional.empty() : Optional.of(row(i));
+    }
+
+    public int size() {
+        return tickers.length;
+    }
+
+    /**
+     * Rows in insertion order.
+     */
+    public List<Row> rows() {
+        Row[] rows = new Row[tickers.length];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = row(i);
+        }
+        return List.of(rows);
+    }
+
+    /**
+     * Builder starting from this table's rows, for replacing some of them.
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        for (int i = 0; i < tickers.length; i++) {
+            builder.put(row(i));
+        }
+        return builder;
+    }
+
+    private Row row(int i) {
+        return new Row(tickers[i], LocalDate.ofEpochDay(barEpochDays[i]), zscores[i], signals[i], halfLives[i],
+                acfs[i], hvs[i], hursts[i]);
+    }
+
+    /**
+     * Collects rows; a later row for the same ticker replaces the earlier one.
+     */
+    public static class Builder {
+        private final Map<String, Row> rows = new LinkedHashMap<>();
+
+        public Builder put(Row row) {
+            rows.put(row.ticker, row);
+            return this;
+        }
+
+        public IndicatorSnapshotTable build() {
+            return new IndicatorSnapshotTable(List.copyOf(rows.values()));
+        }
+    }
+
+    /**
+     * One ticker's indicators as of the close of {@code barDate}.
+     */
+    public static class Row {
+        private final String ticker;
+        private final LocalDate barDate;
+        private final double zscore;
+        private final String signal;
+        private final double halfLife;
+        private final double acf;
+        private final double hv;
+        private final double hurst;
+
+        public Row(String ticker, LocalDate barDate, double zscore, String signal, double halfLife, double acf,
+                double hv, double hurst) {
+            this.ticker = ticker;
+            this.barDate = barDate;
+            this.zscore = zscore;
+            this.signal = signal;
+            this.halfLife = halfLife;
+            this.acf = acf;
+            this.hv = hv;
+            this.hurst = hurst;
+        }
+
+        public String getTicker() {
+            return ticker;
+        }
+
+        /** Last completed session the row was computed from */
+        public LocalDate getBarDate() {
+            return barDate;
+        }
+
+        public double getZscore() {
+            return zscore;
+        }
+
+        public String getSignal() {
+            return signal;
+        }
+
+        public double getHalfLife() {
+            return halfLife;
+        }
+
+        public double getAcf() {
+            return acf;
+        }
+
+        /** Annualized historical volatility */
+        public double getHv() {
+            return hv;
+        }
+
+        /** DFA Hurst exponent */
+        public double getHurst() {
+            return hurst;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.dealaggregator.dealapi.marketdata;
+
+import java.lang.invoke.VarHandle;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latest top-of-book quote per symbol, readable from any thread without locks.
+ *
+ * Each symbol owns a mutable slot guarded by a sequence lock: the single
+ * writer (the ingestion drain thread) bumps the sequence to an odd value,
+ * updates the primitive fields in place, then bumps it back to even.
+ * Readers retry if they observe an odd sequence or the sequence changed
+ * while they were reading. Steady-state updates therefore allocate nothing,
+ * and a read is a hash lookup plus a handful of field loads.
+ *
+ * Updates merge into the slot: NaN prices and negative volume/timestamps
+ * leave the previous value in place, matching streaming APIs that only send
+ * changed fields.
+ */
+public class LatestQuoteTable implements QuoteSink {
+
+    private final ConcurrentHashMap<String, Slot> slots = new ConcurrentHashMap<>();
+
+    /**
+     * Apply an update. Must only be called from a single writer thread.
+     */
+    @Override
+    public void onQuote(String symbol, double bid, double ask, double last, long volume, long timestampMillis) {
+        Slot slot = slots.get(symbol);
+        if (slot == null) {
+            slot = slots.computeIfAbsent(symbol, Slot::new);
+        }
+        slot.write(bid, ask, last, volume, timestampMillis);
+    }
+
+    /**
+     * Consistent snapshot of the latest quote, or empty if the symbol has
+     * never been seen.
+     */
+    public Optional<Quote> get(String symbol) {
+        Slot slot = slots.get(symbol);
+        return slot == null ? Optional.empty() : Optional.of(slot.read());
+    }
+
+    /**
+     * Latest traded price without allocating, or NaN if unknown or older
+     * than {@code maxAgeMillis} (pass a negative age to skip the check).
+     */
+    public double getLast(String symbol, long maxAgeMillis) {
+        Slot slot = slots.get(symbol);
+        if (slot == null) {
+            return Double.NaN;
+        }
+        return slot.readLast(maxAgeMillis, System.currentTimeMillis());
+    }
+
+    public Set<String> getSymbols() {
+        return slots.keySet();
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * Per-symbol quote fields behind a sequence lock.
+     */
+    private static final class Slot {
+        private final String symbol;
+
+        /** Even = stable, odd = write in progress */
+        private volatile long sequence;
+
+        private double bid = Double.NaN;
+        private double ask = Double.NaN;
+        private double last = Double.NaN;
+        private long volume;
+        private long timestampMillis;
+
+        Slot(String symbol) {
+            this.symbol = symbol;
+        }
+
+        void write(double newBid, double newAsk, double newLast, long newVolume, long newTimestamp) {
+            long seq = sequence;
+            sequence = seq + 1;
+            // Keep the field stores below from floating above the odd sequence
+            VarHandle.storeStoreFence();
+
+            if (!Double.isNaN(newBid)) {
+                bid = newBid;
+            }
+            if (!Double.isNaN(newAsk)) {
+                ask = newAsk;
+            }
+            if (!Double.isNaN(newLast)) {
+                last = newLast;
+            }
+            if (newVolume >= 0) {
+                volume = newVolume;
+            }
+            if (newTimestamp >= 0) {
+                timestampMillis = newTimestamp;
+            }
+
+            sequence = seq + 2;
+        }
+
+        Quote read() {
+            while (true) {
+                long seq = sequence;
+                if ((seq & 1) == 0) {
+                    double b = bid;
+                    double a = ask;
+                    double l = last;
+                    long v = volume;
+                    long ts = timestampMillis;
+                    VarHandle.loadLoadFence();
+                    if (seq == sequence) {
+                        return new Quote(symbol, b, a, l, v, ts);
+                    }
+                }
+                Thread.onSpinWait();
+            }
+        }
+
+        double readLast(long maxAgeMillis, long now) {
+            while (true) {
+                long seq = sequence;
+                if ((seq & 1) == 0) {
+                    double l = last;
+                    long ts = timestampMillis;
+                    VarHandle.loadLoadFence();
+                    if (seq == sequence) {
+                        return maxAgeMillis >= 0 && now - ts > maxAgeMillis ? Double.NaN : l;
+                    }
+                }
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
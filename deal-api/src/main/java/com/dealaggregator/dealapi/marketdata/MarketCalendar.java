@@ -0,0 +1,61 @@
+package com.dealaggregator.dealapi.marketdata;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * US equity session times in New York. Weekends are skipped; exchange
+ * holidays are not, so the day after one simply finds no new bar.
+ */
+public final class MarketCalendar {
+
+    /** Zone name, for @Scheduled(zone = ...) */
+    public static final String ZONE_NAME = "America/New_York";
+    public static final ZoneId ZONE = ZoneId.of(ZONE_NAME);
+    public static final LocalTime OPEN = LocalTime.of(9, 30);
+    public static final LocalTime CLOSE = LocalTime.of(16, 0);
+
+    private MarketCalendar() {
+    }
+
+    public static ZonedDateTime now() {
+        return ZonedDateTime.now(ZONE);
+    }
+
+    public static LocalDate today() {
+        return LocalDate.now(ZONE);
+    }
+
+    /** Session date of a bar timestamp (epoch millis) */
+    public static LocalDate tradingDate(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(ZONE).toLocalDate();
+    }
+
+    /** Regular session, 09:30 to the 16:00 close inclusive */
+    public static boolean inSession(LocalTime time) {
+        return !time.isBefore(OPEN) && !time.isAfter(CLOSE);
+    }
+
+    /** Before today's close, so today's daily bar (if any) is still forming */
+    public static boolean beforeClose(ZonedDateTime time) {
+        return time.withZoneSameInstant(ZONE).toLocalTime().isBefore(CLOSE);
+    }
+
+    public static LocalDate lastCompletedSession() {
+        return lastCompletedSession(now());
+    }
+
+    /** Last weekday whose close has passed at {@code time} */
+    public static LocalDate lastCompletedSession(ZonedDateTime time) {
+        ZonedDateTime local = time.withZoneSameInstant(ZONE);
+        LocalDate day = beforeClose(local) ? local.toLocalDate().minusDays(1) : local.toLocalDate();
+        while (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            day = day.minusDays(1);
+        }
+        return day;
+    }
+}
@@ -0,0 +1,217 @@
+package com.dealaggregator.dealapi.marketdata;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Columnar, read-only view of a decoded option chain.
+ *
+ * A chain holds one Expiry per expiration date. Each Expiry keeps its calls
+ * and puts as separate Side objects whose primitive columns (strike, bid,
+ * ask, IV, delta, open interest) are sorted by strike, so any strike can be
+ * located with a binary search instead of scanning the whole chain.
+ *
+ * Missing values reported by the broker (e.g. Schwab's -999.0 placeholder)
+ * are stored as NaN.
+ */
+public class OptionChain {
+
+    private final String symbol;
+    private final double underlyingPrice;
+    private final List<Expiry> expiries;
+
+    public OptionChain(String symbol, double underlyingPrice, List<Expiry> expiries) {
+        this.symbol = symbol;
+        this.underlyingPrice = underlyingPrice;
+        this.expiries = List.copyOf(expiries);
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public double getUnderlyingPrice() {
+        return underlyingPrice;
+    }
+
+    /**
+     * All expirations in the chain, ordered by date (nearest first).
+     */
+    public List<Expiry> getExpiries() {
+        return expiries;
+    }
+
+    public boolean isEmpty() {
+        return expiries.isEmpty();
+    }
+
+    /**
+     * Nearest expiration in the chain, or empty if the chain has none.
+     */
+    public Optional<Expiry> getFirstExpiry() {
+        return expiries.isEmpty() ? Optional.empty() : Optional.of(expiries.get(0));
+    }
+
+    /**
+     * Find an expiration by ISO date (e.g. "2026-01-05").
+     */
+    public Optional<Expiry> getExpiry(String isoDate) {
+        for (Expiry expiry : expiries) {
+            if (expiry.getDate().equals(isoDate)) {
+                return Optional.of(expiry);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * One expiration date with its call and put columns.
+     */
+    public static class Expiry {
+        private final String date;
+        private final int daysToExpiration;
+        private final Side calls;
+        private final Side puts;
+
+        public Expiry(String date, int daysToExpiration, Side calls, Side puts) {
+            this.date = date;
+            this.daysToExpiration = daysToExpiration;
+            this.calls = calls;
+            this.puts = puts;
+        }
+
+        /** Expiration date in ISO format (e.g. "2026-01-05") */
+        public String getDate() {
+            return date;
+        }
+
+        public int getDaysToExpiration() {
+            return daysToExpiration;
+        }
+
+        public Side getCalls() {
+            return calls;
+        }
+
+        public Side getPuts() {
+            return puts;
+        }
+    }
+
+    /**
+     * Strike-sorted primitive columns for one option type at one expiration.
+     * Index i in every column refers to the same contract.
+     */
+    public static class Side {
+        public static final Side EMPTY = new Side(0, new double[0], new double[0], new double[0],
+                new double[0], new double[0], new long[0]);
+
+        private final int size;
+        private final double[] strikes;
+        private final double[] bids;
+        private final double[] asks;
+        private final double[] ivs;
+        private final double[] deltas;
+        private final long[] openInterest;
+
+        /**
+         * Columns must already be sorted ascending by strike and hold at least
+         * {@code size} entries. Arrays are used as-is (not copied).
+         */
+        public Side(int size, double[] strikes, double[] bids, double[] asks, double[] ivs, double[] deltas,
+                long[] openInterest) {
+            this.size = size;
+            this.strikes = strikes;
+            this.bids = bids;
+            this.asks = asks;
+            this.ivs = ivs;
+            this.deltas = deltas;
+            this.openInterest = openInterest;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public double strike(int i) {
+            return strikes[i];
+        }
+
+        public double bid(int i) {
+            return bids[i];
+        }
+
+        public double ask(int i) {
+            return asks[i];
+        }
+
+        public double mid(int i) {
+            return (bids[i] + asks[i]) / 2;
+        }
+
+        /** Implied volatility as an annualized fraction (0.15 = 15%) */
+        public double iv(int i) {
+            return ivs[i];
+        }
+
+        public double delta(int i) {
+            return deltas[i];
+        }
+
+        public long openInterest(int i) {
+            return openInterest[i];
+        }
+
+        /**
+         * Index of the contract with exactly this strike, or -1 if not listed.
+         */
+        public int indexOf(double strike) {
+            int lo = 0;
+            int hi = size - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                double s = strikes[mid];
+                if (s < strike) {
+                    lo = mid + 1;
+                } else if (s > strike) {
+                    hi = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Index of the strike closest to the target (lower strike wins ties),
+         * or -1 if this side is empty.
+         */
+        public int nearestIndex(double target) {
+            if (size == 0) {
+                return -1;
+            }
+            // First strike >= target
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (strikes[mid] < target) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            if (lo == 0) {
+                return 0;
+            }
+            if (lo == size) {
+                return size - 1;
+            }
+            return (strikes[lo] - target) < (target - strikes[lo - 1]) ? lo : lo - 1;
+        }
+    }
+}
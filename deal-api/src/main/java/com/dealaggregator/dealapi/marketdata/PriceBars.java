@@ -0,0 +1,90 @@
+package com.dealaggregator.dealapi.marketdata;
+
+import java.util.Arrays;
+
+/**
+ * OHLCV bar history as parallel primitive columns, oldest first.
+ * Timestamps are bar open times in epoch milliseconds.
+ */
+public class PriceBars {
+
+    private final String symbol;
+    private final long[] timestamps;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final long[] volume;
+
+    public PriceBars(String symbol, long[] timestamps, double[] open, double[] high, double[] low,
+            double[] close, long[] volume) {
+        this.symbol = symbol;
+        this.timestamps = timestamps;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public int size() {
+        return timestamps.length;
+    }
+
+    public boolean isEmpty() {
+        return timestamps.length == 0;
+    }
+
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    public double[] getOpen() {
+        return open;
+    }
+
+    public double[] getHigh() {
+        return high;
+    }
+
+    public double[] getLow() {
+        return low;
+    }
+
+    public double[] getClose() {
+        return close;
+    }
+
+    public long[] getVolume() {
+        return volume;
+    }
+
+    /**
+     * Copy of bars [from, to).
+     */
+    public PriceBars slice(int from, int to) {
+        return new PriceBars(symbol, Arrays.copyOfRange(timestamps, from, to), Arrays.copyOfRange(open, from, to),
+                Arrays.copyOfRange(high, from, to), Arrays.copyOfRange(low, from, to),
+                Arrays.copyOfRange(close, from, to), Arrays.copyOfRange(volume, from, to));
+    }
+
+    public long getLastTimestamp() {
+        return timestamps.length > 0 ? timestamps[timestamps.length - 1] : Long.MIN_VALUE;
+    }
+
+    /**
+     * Whether these bars are on the same adjustment basis as bars fetched
+     * earlier: the bar at {@code timestamp} is here and still has the
+     * (adjusted) close seen then. A dividend or split rescales every close
+     * before it, so a changed overlap close means earlier bars are stale.
+     * False if no bar has that timestamp (the overlap can't be checked).
+     */
+    public boolean hasClose(long timestamp, double expectedClose) {
+        int i = Arrays.binarySearch(timestamps, timestamp);
+        return i >= 0 && Math.abs(close[i] - expectedClose) <= 1e-6 * Math.abs(expectedClose);
+    }
+}
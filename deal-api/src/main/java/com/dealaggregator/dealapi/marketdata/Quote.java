@@ -0,0 +1,51 @@
+package com.dealaggregator.dealapi.marketdata;
+
+/**
+ * Immutable snapshot of the latest top-of-book quote for a symbol.
+ */
+public class Quote {
+    private final String symbol;
+    private final double bid;
+    private final double ask;
+    private final double last;
+    private final long volume;
+    private final long timestampMillis;
+
+    public Quote(String symbol, double bid, double ask, double last, long volume, long timestampMillis) {
+        this.symbol = symbol;
+        this.bid = bid;
+        this.ask = ask;
+        this.last = last;
+        this.volume = volume;
+        this.timestampMillis = timestampMillis;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public double getBid() {
+        return bid;
+    }
+
+    public double getAsk() {
+        return ask;
+    }
+
+    public double getLast() {
+        return last;
+    }
+
+    public double getMid() {
+        return (bid + ask) / 2;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    /** Exchange/source time of the most recent update (epoch millis) */
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+}
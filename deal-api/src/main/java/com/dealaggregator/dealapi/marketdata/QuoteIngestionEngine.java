@@ -0,0 +1,145 @@
+package com.dealaggregator.dealapi.marketdata;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Push-based quote ingestion pipeline.
+ *
+ * Flow:
+ * 1. Each registered QuoteTransport writes into its own QuoteRingBuffer
+ *    (so every ring has exactly one producer).
+ * 2. A single drain thread round-robins the rings and applies updates to
+ *    the LatestQuoteTable (so the table has exactly one writer).
+ * 3. Any thread can read the table at any time without locking.
+ *
+ * When every ring is empty the drain thread backs off with short parks
+ * instead of spinning a core.
+ */
+public class QuoteIngestionEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuoteIngestionEngine.class);
+
+    /** Max updates taken from one ring before moving to the next */
+    private static final int DRAIN_BATCH = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final int ringCapacity;
+    private final LatestQuoteTable table = new LatestQuoteTable();
+    private final List<QuoteTransport> transports = new ArrayList<>();
+    private final List<QuoteRingBuffer> rings = new ArrayList<>();
+
+    private volatile boolean running;
+    private Thread drainThread;
+
+    public QuoteIngestionEngine(int ringCapacity) {
+        this.ringCapacity = ringCapacity;
+    }
+
+    /**
+     * Add a transport. Must be called before {@link #start()}.
+     */
+    public synchronized void register(QuoteTransport transport) {
+        if (running) {
+            throw new IllegalStateException("Cannot register transports while running");
+        }
+        transports.add(transport);
+        rings.add(new QuoteRingBuffer(ringCapacity));
+    }
+
+    /**
+     * Start the drain thread and then every transport. A transport that
+     * fails to start is logged and skipped; the others keep running.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+
+        drainThread = new Thread(this::drainLoop, "quote-ingestion-drain");
+        drainThread.setDaemon(true);
+        drainThread.start();
+
+        for (int i = 0; i < transports.size(); i++) {
+            QuoteTransport transport = transports.get(i);
+            try {
+                transport.start(rings.get(i));
+                logger.info("Quote transport started: {}", transport.getName());
+            } catch (Exception e) {
+                logger.error("Failed to start quote transport {}", transport.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Stop all transports, then drain whatever is left and stop the drain thread.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        for (QuoteTransport transport : transports) {
+            try {
+                transport.stop();
+            } catch (Exception e) {
+                logger.warn("Error stopping quote transport {}", transport.getName(), e);
+            }
+        }
+
+        running = false;
+        LockSupport.unpark(drainThread);
+        try {
+            drainThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        int idleRounds = 0;
+        while (running) {
+            if (drainOnce() > 0) {
+                idleRounds = 0;
+            } else if (++idleRounds > 100) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        // Flush anything published before the transports stopped
+        while (drainOnce() > 0) {
+            // keep draining
+        }
+    }
+
+    private int drainOnce() {
+        int drained = 0;
+        for (int i = 0; i < rings.size(); i++) {
+            drained += rings.get(i).drain(table, DRAIN_BATCH);
+        }
+        return drained;
+    }
+
+    public LatestQuoteTable getTable() {
+        return table;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** Total updates dropped across all rings because the drain fell behind */
+    public long getDroppedCount() {
+        long dropped = 0;
+        for (QuoteRingBuffer ring : rings) {
+            dropped += ring.getDroppedCount();
+        }
+        return dropped;
+    }
+}
@@ -0,0 +1,131 @@
+package com.dealaggregator.dealapi.marketdata;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded single-producer / single-consumer ring of quote updates.
+ *
+ * Each slot is a row across preallocated primitive columns, so publishing a
+ * quote never allocates. The producer (one transport thread) writes a row
+ * and then advances {@code tail} with release semantics; the consumer (the
+ * ingestion drain thread) reads rows up to {@code tail} and advances
+ * {@code head}. No locks or CAS loops are involved.
+ *
+ * When the consumer falls behind and the ring is full, new updates are
+ * dropped and counted rather than blocking the transport's socket thread.
+ */
+public class QuoteRingBuffer implements QuoteSink {
+
+    private final int capacity;
+    private final int mask;
+
+    private final String[] symbols;
+    private final double[] bids;
+    private final double[] asks;
+    private final double[] lasts;
+    private final long[] volumes;
+    private final long[] timestamps;
+
+    /** Next slot the consumer will read */
+    private final AtomicLong head = new AtomicLong();
+    /** Next slot the producer will write */
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /** Producer-local copy of head, refreshed only when the ring looks full */
+    private long cachedHead;
+
+    /**
+     * @param capacity Number of slots; rounded up to a power of two
+     */
+    public QuoteRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = roundUpToPowerOfTwo(capacity);
+        this.mask = this.capacity - 1;
+        this.symbols = new String[this.capacity];
+        this.bids = new double[this.capacity];
+        this.asks = new double[this.capacity];
+        this.lasts = new double[this.capacity];
+        this.volumes = new long[this.capacity];
+        this.timestamps = new long[this.capacity];
+    }
+
+    private static int roundUpToPowerOfTwo(int value) {
+        int highest = Integer.highestOneBit(value);
+        return highest == value ? value : highest << 1;
+    }
+
+    /**
+     * Producer side. Must only be called from a single thread.
+     */
+    @Override
+    public void onQuote(String symbol, double bid, double ask, double last, long volume, long timestampMillis) {
+        offer(symbol, bid, ask, last, volume, timestampMillis);
+    }
+
+    /**
+     * Publish one update.
+     *
+     * @return false if the ring was full and the update was dropped
+     */
+    public boolean offer(String symbol, double bid, double ask, double last, long volume, long timestampMillis) {
+        long t = tail.getPlain();
+        if (t - cachedHead >= capacity) {
+            cachedHead = head.getAcquire();
+            if (t - cachedHead >= capacity) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        }
+
+        int i = (int) t & mask;
+        symbols[i] = symbol;
+        bids[i] = bid;
+        asks[i] = ask;
+        lasts[i] = last;
+        volumes[i] = volume;
+        timestamps[i] = timestampMillis;
+
+        // Publish the row: everything written above is visible before the new tail
+        tail.setRelease(t + 1);
+        return true;
+    }
+
+    /**
+     * Consumer side. Hands up to {@code max} pending updates to the sink in
+     * publish order. Must only be called from a single thread.
+     *
+     * @return number of updates drained
+     */
+    public int drain(QuoteSink sink, int max) {
+        long h = head.getPlain();
+        long available = tail.getAcquire() - h;
+        int n = (int) Math.min(available, max);
+
+        for (int k = 0; k < n; k++) {
+            int i = (int) (h + k) & mask;
+            sink.onQuote(symbols[i], bids[i], asks[i], lasts[i], volumes[i], timestamps[i]);
+        }
+
+        if (n > 0) {
+            head.setRelease(h + n);
+        }
+        return n;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** Updates waiting to be drained */
+    public long size() {
+        return tail.getAcquire() - head.getAcquire();
+    }
+
+    /** Updates discarded because the ring was full */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,14 @@
+package com.dealaggregator.dealapi.marketdata;
+
+/**
+ * Receiver of top-of-book quote updates.
+ *
+ * Updates are passed as primitives so producers never allocate per tick.
+ * Fields a source did not send in this update are passed as NaN (prices)
+ * or a negative value (volume, timestamp) and mean "unchanged".
+ */
+@FunctionalInterface
+public interface QuoteSink {
+
+    void onQuote(String symbol, double bid, double ask, double last, long volume, long timestampMillis);
+}
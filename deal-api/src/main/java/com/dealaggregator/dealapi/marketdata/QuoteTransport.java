@@ -0,0 +1,23 @@
+package com.dealaggregator.dealapi.marketdata;
+
+/**
+ * SPI for push-based quote sources (broker streaming APIs, replay files, ...).
+ *
+ * A transport owns its own I/O thread and pushes every update it receives
+ * into the sink handed to {@link #start(QuoteSink)}. The sink is
+ * single-writer: a transport must only call it from one thread.
+ */
+public interface QuoteTransport {
+
+    /** Short name used in logs (e.g. "schwab-stream", "replay") */
+    String getName();
+
+    /**
+     * Connect and begin pushing quotes into the sink. Must not block the
+     * caller for the lifetime of the stream.
+     */
+    void start(QuoteSink sink) throws Exception;
+
+    /** Disconnect and release the transport's thread. */
+    void stop();
+}
@@ -0,0 +1,216 @@
+package com.dealaggregator.dealapi.marketdata;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Replays recorded quotes from a CSV file or a TCP socket.
+ *
+ * Line format (header and '#' comment lines are skipped):
+ *
+ * <pre>
+ * timestampMillis,symbol,bid,ask,last,volume
+ * 1767623400000,SPY,581.20,581.22,581.21,1032000
+ * </pre>
+ *
+ * Empty numeric fields mean "unchanged", like a streaming delta. Lines
+ * with too few fields or unparseable numbers are skipped and counted.
+ *
+ * With {@code speed = 0} lines are pushed as fast as they are read. With
+ * {@code speed > 0} the gaps between timestamps are replayed in scaled real
+ * time (1.0 = original pace, 10.0 = ten times faster).
+ */
+public class ReplayQuoteTransport implements QuoteTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplayQuoteTransport.class);
+
+    private final String description;
+    private final ReaderFactory readerFactory;
+    private final double speed;
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    private volatile boolean running;
+    private volatile Reader activeReader;
+    private Thread thread;
+    private long linesPublished;
+    private long linesSkipped;
+
+    @FunctionalInterface
+    private interface ReaderFactory {
+        Reader open() throws IOException;
+    }
+
+    private ReplayQuoteTransport(String description, ReaderFactory readerFactory, double speed) {
+        this.description = description;
+        this.readerFactory = readerFactory;
+        this.speed = speed;
+    }
+
+    public static ReplayQuoteTransport fromFile(Path path, double speed) {
+        return new ReplayQuoteTransport("file " + path,
+                () -> Files.newBufferedReader(path, StandardCharsets.UTF_8), speed);
+    }
+
+    public static ReplayQuoteTransport fromSocket(String host, int port) {
+        return new ReplayQuoteTransport("tcp " + host + ":" + port, () -> {
+            Socket socket = new Socket(host, port);
+            return new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8);
+        }, 0);
+    }
+
+    /**
+     * Build from a config string: "tcp://host:port" or a file path.
+     */
+    public static ReplayQuoteTransport fromSource(String source, double speed) {
+        if (source.startsWith("tcp://")) {
+            String hostPort = source.substring("tcp://".length());
+            int colon = hostPort.lastIndexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Replay socket source must be tcp://host:port: " + source);
+            }
+            return fromSocket(hostPort.substring(0, colon), Integer.parseInt(hostPort.substring(colon + 1)));
+        }
+        return fromFile(Path.of(source), speed);
+    }
+
+    @Override
+    public String getName() {
+        return "replay(" + description + ")";
+    }
+
+    @Override
+    public void start(QuoteSink sink) {
+        running = true;
+        thread = new Thread(() -> replay(sink), "quote-replay");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Reader reader = activeReader;
+        if (reader != null) {
+            try {
+                reader.close(); // Unblocks a socket read
+            } catch (IOException e) {
+                // Already closing
+            }
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Block until the source is exhausted or the transport is stopped.
+     *
+     * @return true if replay finished within the timeout
+     */
+    public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        return finished.await(timeout, unit);
+    }
+
+    public long getLinesPublished() {
+        return linesPublished;
+    }
+
+    /** Malformed lines dropped so far */
+    public long getLinesSkipped() {
+        return linesSkipped;
+    }
+
+    private void replay(QuoteSink sink) {
+        long firstTimestamp = -1;
+        long startNanos = System.nanoTime();
+
+        try (BufferedReader reader = new BufferedReader(readerFactory.open())) {
+            activeReader = reader;
+            String line;
+            while (running && (line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#") || line.startsWith("timestamp")) {
+                    continue;
+                }
+
+                String[] parts = line.split(",", -1);
+                if (parts.length < 6) {
+                    linesSkipped++;
+                    logger.warn("Skipping malformed replay line: {}", line);
+                    continue;
+                }
+
+                long timestamp;
+                double bid;
+                double ask;
+                double last;
+                long volume;
+                try {
+                    timestamp = parseLong(parts[0]);
+                    bid = parseDouble(parts[2]);
+                    ask = parseDouble(parts[3]);
+                    last = parseDouble(parts[4]);
+                    volume = parseLong(parts[5]);
+                } catch (NumberFormatException e) {
+                    linesSkipped++;
+                    logger.warn("Skipping replay line with a bad number ({}): {}", e.getMessage(), line);
+                    continue;
+                }
+
+                if (speed > 0 && timestamp >= 0) {
+                    if (firstTimestamp < 0) {
+                        firstTimestamp = timestamp;
+                    }
+                    pace(startNanos, timestamp - firstTimestamp);
+                }
+
+                sink.onQuote(parts[1].trim(), bid, ask, last, volume, timestamp);
+                linesPublished++;
+            }
+        } catch (IOException e) {
+            if (running) {
+                logger.error("Quote replay from {} failed", description, e);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.error("Quote replay from {} stopped on an unexpected error", description, e);
+        } finally {
+            activeReader = null;
+            finished.countDown();
+            logger.info("Quote replay from {} finished after {} updates ({} malformed lines skipped)", description,
+                    linesPublished, linesSkipped);
+        }
+    }
+
+    /**
+     * Sleep until {@code elapsedMillis} of recorded time has passed in scaled wall time.
+     */
+    private void pace(long startNanos, long elapsedMillis) throws InterruptedException {
+        long targetNanos = startNanos + (long) (TimeUnit.MILLISECONDS.toNanos(elapsedMillis) / speed);
+        long waitNanos = targetNanos - System.nanoTime();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private static double parseDouble(String value) {
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? Double.NaN : Double.parseDouble(trimmed);
+    }
+
+    private static long parseLong(String value) {
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? -1 : Long.parseLong(trimmed);
+    }
+}
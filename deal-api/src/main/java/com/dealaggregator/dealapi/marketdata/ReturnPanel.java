@@ -0,0 +1,86 @@
+package com.dealaggregator.dealapi.marketdata;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Daily log returns for several symbols aligned on the trading dates they
+ * all share, as symbol x time primitive arrays.
+ */
+public class ReturnPanel {
+
+    private final List<String> symbols;
+    private final List<LocalDate> dates; // Date of each return's closing bar
+    private final double[][] returns;
+
+    private ReturnPanel(List<String> symbols, List<LocalDate> dates, double[][] returns) {
+        this.symbols = symbols;
+        this.dates = dates;
+        this.returns = returns;
+    }
+
+    /**
+     * Align daily bars on common trading dates and take log returns
+     * between consecutive common dates. Symbols without bars are left out.
+     */
+    public static ReturnPanel align(Map<String, PriceBars> history) {
+        List<String> symbols = new ArrayList<>();
+        List<Map<LocalDate, Double>> closes = new ArrayList<>();
+        Set<LocalDate> common = null;
+        for (Map.Entry<String, PriceBars> entry : history.entrySet()) {
+            PriceBars bars = entry.getValue();
+            if (bars == null || bars.isEmpty()) {
+                continue;
+            }
+            Map<LocalDate, Double> byDate = new HashMap<>();
+            for (int i = 0; i < bars.size(); i++) {
+                if (bars.getClose()[i] > 0) {
+                    byDate.put(MarketCalendar.tradingDate(bars.getTimestamps()[i]), bars.getClose()[i]);
+                }
+            }
+            if (common == null) {
+                common = new HashSet<>(byDate.keySet());
+            } else {
+                common.retainAll(byDate.keySet());
+            }
+            symbols.add(entry.getKey());
+            closes.add(byDate);
+        }
+
+        List<LocalDate> days = common == null ? new ArrayList<>() : new ArrayList<>(common);
+        Collections.sort(days);
+        int length = Math.max(0, days.size() - 1);
+        double[][] returns = new double[symbols.size()][length];
+        for (int s = 0; s < symbols.size(); s++) {
+            Map<LocalDate, Double> byDate = closes.get(s);
+            for (int t = 0; t < length; t++) {
+                returns[s][t] = Math.log(byDate.get(days.get(t + 1)) / byDate.get(days.get(t)));
+            }
+        }
+        List<LocalDate> returnDates = length == 0 ? new ArrayList<>() : days.subList(1, days.size());
+        return new ReturnPanel(symbols, returnDates, returns);
+    }
+
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    public List<LocalDate> getDates() {
+        return dates;
+    }
+
+    /** returns[symbol][t], oldest first */
+    public double[][] getReturns() {
+        return returns;
+    }
+
+    public int length() {
+        return dates.size();
+    }
+}
@@ -0,0 +1,276 @@
+package com.dealaggregator.dealapi.marketdata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Streaming decoder for Schwab's /marketdata/v1/chains response.
+ *
+ * Instead of building a full JsonNode tree, the response is read token by
+ * token and each contract's bid/ask/IV/delta/open interest is written
+ * straight into growable primitive columns. Each strike key is parsed once,
+ * and only the first contract listed at a strike is kept (matching how the
+ * chain was read before).
+ *
+ * Response layout (only the fields we use):
+ *
+ * <pre>
+ * {
+ *   "symbol": "$SPX",
+ *   "underlyingPrice": 5812.4,
+ *   "callExpDateMap": { "2026-01-05:3": { "5800.0": [ { "bid": .., "ask": .., ... } ] } },
+ *   "putExpDateMap":  { ... same shape ... }
+ * }
+ * </pre>
+ *
+ * Instances hold no per-call state and are safe to share between threads.
+ */
+public class SchwabChainDecoder {
+
+    /** Schwab uses -999 for "not available" on volatility and greeks */
+    private static final double SCHWAB_MISSING = -999.0;
+
+    private final JsonFactory jsonFactory;
+
+    public SchwabChainDecoder() {
+        this(new JsonFactory());
+    }
+
+    public SchwabChainDecoder(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    public OptionChain decode(String json) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            return decode(parser);
+        }
+    }
+
+    public OptionChain decode(InputStream in) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            return decode(parser);
+        }
+    }
+
+    private OptionChain decode(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected JSON object at start of option chain");
+        }
+
+        String symbol = null;
+        double underlyingPrice = Double.NaN;
+        // Keyed by Schwab's "yyyy-MM-dd:dte" so expiries come out in date order
+        Map<String, ExpiryBuilder> expiries = new TreeMap<>();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+
+            switch (field) {
+                case "symbol":
+                    symbol = parser.getValueAsString();
+                    break;
+                case "underlyingPrice":
+                    underlyingPrice = parser.getValueAsDouble(Double.NaN);
+                    break;
+                case "callExpDateMap":
+                    readExpDateMap(parser, value, expiries, true);
+                    break;
+                case "putExpDateMap":
+                    readExpDateMap(parser, value, expiries, false);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        List<OptionChain.Expiry> result = new ArrayList<>(expiries.size());
+        for (Map.Entry<String, ExpiryBuilder> entry : expiries.entrySet()) {
+            result.add(entry.getValue().build(entry.getKey()));
+        }
+        return new OptionChain(symbol, underlyingPrice, result);
+    }
+
+    /**
+     * Read { "expKey": { "strike": [contract, ...], ... }, ... } into columns.
+     */
+    private void readExpDateMap(JsonParser parser, JsonToken start, Map<String, ExpiryBuilder> expiries,
+            boolean calls) throws IOException {
+        if (start != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String expKey = parser.getCurrentName();
+            ExpiryBuilder expiry = expiries.computeIfAbsent(expKey, k -> new ExpiryBuilder());
+            Columns columns = calls ? expiry.calls : expiry.puts;
+
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                double strike = Double.parseDouble(parser.getCurrentName());
+
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                boolean first = true;
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    if (first) {
+                        readContract(parser, columns, strike);
+                        first = false;
+                    } else {
+                        parser.skipChildren(); // Keep only the first contract at a strike
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Read one contract object (parser positioned on its START_OBJECT).
+     */
+    private void readContract(JsonParser parser, Columns columns, double strike) throws IOException {
+        double bid = Double.NaN;
+        double ask = Double.NaN;
+        double iv = Double.NaN;
+        double delta = Double.NaN;
+        long openInterest = 0;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+
+            switch (field) {
+                case "bid":
+                    bid = parser.getValueAsDouble(Double.NaN);
+                    break;
+                case "ask":
+                    ask = parser.getValueAsDouble(Double.NaN);
+                    break;
+                case "volatility":
+                    // Schwab reports IV in percent
+                    iv = orNaN(parser.getValueAsDouble(Double.NaN)) / 100.0;
+                    break;
+                case "delta":
+                    delta = orNaN(parser.getValueAsDouble(Double.NaN));
+                    break;
+                case "openInterest":
+                    openInterest = parser.getValueAsLong(0L);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        columns.add(strike, bid, ask, iv, delta, openInterest);
+    }
+
+    private static double orNaN(double value) {
+        return value == SCHWAB_MISSING ? Double.NaN : value;
+    }
+
+    /**
+     * Accumulates call and put columns for one expiration key.
+     */
+    private static class ExpiryBuilder {
+        final Columns calls = new Columns();
+        final Columns puts = new Columns();
+
+        OptionChain.Expiry build(String expKey) {
+            // Key format: "2026-01-05:3" (date:daysToExpiration)
+            int colon = expKey.indexOf(':');
+            String date = colon >= 0 ? expKey.substring(0, colon) : expKey;
+            int dte = colon >= 0 ? Integer.parseInt(expKey.substring(colon + 1)) : 0;
+            return new OptionChain.Expiry(date, dte, calls.build(), puts.build());
+        }
+    }
+
+    /**
+     * Growable primitive columns for one side of one expiration.
+     */
+    private static class Columns {
+        int size;
+        double[] strikes = new double[16];
+        double[] bids = new double[16];
+        double[] asks = new double[16];
+        double[] ivs = new double[16];
+        double[] deltas = new double[16];
+        long[] openInterest = new long[16];
+
+        void add(double strike, double bid, double ask, double iv, double delta, long oi) {
+            if (size == strikes.length) {
+                int capacity = size * 2;
+                strikes = Arrays.copyOf(strikes, capacity);
+                bids = Arrays.copyOf(bids, capacity);
+                asks = Arrays.copyOf(asks, capacity);
+                ivs = Arrays.copyOf(ivs, capacity);
+                deltas = Arrays.copyOf(deltas, capacity);
+                openInterest = Arrays.copyOf(openInterest, capacity);
+            }
+            strikes[size] = strike;
+            bids[size] = bid;
+            asks[size] = ask;
+            ivs[size] = iv;
+            deltas[size] = delta;
+            openInterest[size] = oi;
+            size++;
+        }
+
+        OptionChain.Side build() {
+            if (size == 0) {
+                return OptionChain.Side.EMPTY;
+            }
+            sortByStrike();
+            return new OptionChain.Side(size, strikes, bids, asks, ivs, deltas, openInterest);
+        }
+
+        /**
+         * Insertion sort across all columns. Schwab already returns strikes in
+         * ascending order, so this is a single linear pass in practice.
+         */
+        private void sortByStrike() {
+            for (int i = 1; i < size; i++) {
+                if (strikes[i - 1] <= strikes[i]) {
+                    continue;
+                }
+                double strike = strikes[i];
+                double bid = bids[i];
+                double ask = asks[i];
+                double iv = ivs[i];
+                double delta = deltas[i];
+                long oi = openInterest[i];
+                int j = i - 1;
+                while (j >= 0 && strikes[j] > strike) {
+                    strikes[j + 1] = strikes[j];
+                    bids[j + 1] = bids[j];
+                    asks[j + 1] = asks[j];
+                    ivs[j + 1] = ivs[j];
+                    deltas[j + 1] = deltas[j];
+                    openInterest[j + 1] = openInterest[j];
+                    j--;
+                }
+                strikes[j + 1] = strike;
+                bids[j + 1] = bid;
+                asks[j + 1] = ask;
+                ivs[j + 1] = iv;
+                deltas[j + 1] = delta;
+                openInterest[j + 1] = oi;
+            }
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.dealaggregator.dealapi.marketdata;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Schwab Streamer (WebSocket) adapter for LEVELONE_EQUITIES quotes.
+ *
+ * Logic:
+ * 1. Get streamer connection info (socket URL, customer/correl IDs and a
+ *    fresh access token) from the supplier.
+ * 2. Open the WebSocket and send an ADMIN/LOGIN request.
+ * 3. Once login succeeds, SUBS to LEVELONE_EQUITIES for the configured symbols.
+ * 4. Push every "data" content entry into the sink. Schwab only sends the
+ *    fields that changed, so missing fields are passed through as NaN / -1.
+ *
+ * All callbacks from java.net.http.WebSocket are delivered sequentially, so
+ * the sink sees a single writer.
+ *
+ * If the socket closes or fails while the transport is running, it
+ * reconnects (fresh streamer info and token, LOGIN, SUBS) with exponential
+ * backoff from 1s up to 60s. The backoff resets once a login succeeds.
+ * Only one socket is open at a time, so the sink stays single-writer.
+ */
+public class SchwabStreamingTransport implements QuoteTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchwabStreamingTransport.class);
+
+    private static final String SERVICE = "LEVELONE_EQUITIES";
+    // 0 symbol, 1 bid, 2 ask, 3 last, 8 total volume, 34 quote time (epoch millis)
+    private static final String FIELDS = "0,1,2,3,8,34";
+    private static final long INITIAL_BACKOFF_MILLIS = 1_000;
+    private static final long MAX_BACKOFF_MILLIS = 60_000;
+
+    private final Supplier<Optional<StreamerInfo>> streamerInfoSupplier;
+    private final List<String> symbols;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService reconnector = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "schwab-stream-reconnect");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger requestId = new AtomicInteger();
+
+    private volatile boolean running;
+    private volatile WebSocket webSocket;
+    private volatile Listener listener;
+    private volatile StreamerInfo info;
+    private QuoteSink sink;
+    private long backoffMillis = INITIAL_BACKOFF_MILLIS;
+    private ScheduledFuture<?> pendingReconnect;
+
+    public SchwabStreamingTransport(Supplier<Optional<StreamerInfo>> streamerInfoSupplier, List<String> symbols) {
+        this.streamerInfoSupplier = streamerInfoSupplier;
+        this.symbols = List.copyOf(symbols);
+        this.httpClient = HttpClient.newHttpClient();
+    }
+
+    @Override
+    public String getName() {
+        return "schwab-stream";
+    }
+
+    @Override
+    public void start(QuoteSink sink) throws Exception {
+        this.sink = sink;
+        running = true;
+        connect();
+    }
+
+    /**
+     * Open a socket with fresh streamer info and log in; SUBS follows the
+     * login response.
+     */
+    private void connect() throws Exception {
+        this.info = streamerInfoSupplier.get()
+                .orElseThrow(() -> new IllegalStateException("Schwab streamer info unavailable"));
+
+        Listener current = new Listener();
+        this.listener = current;
+        this.webSocket = httpClient.newWebSocketBuilder()
+                .buildAsync(URI.create(info.getSocketUrl()), current)
+                .get(30, TimeUnit.SECONDS);
+
+        send(request("ADMIN", "LOGIN", objectMapper.createObjectNode()
+                .put("Authorization", info.getAccessToken())
+                .put("SchwabClientChannel", info.getChannel())
+                .put("SchwabClientFunctionId", info.getFunctionId())));
+    }
+
+    /**
+     * Try to connect again after the current backoff, doubling it for next time.
+     */
+    private synchronized void scheduleReconnect() {
+        if (!running || (pendingReconnect != null && !pendingReconnect.isDone())) {
+            return;
+        }
+        long delay = backoffMillis;
+        backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+        logger.warn("Reconnecting to the Schwab streamer in {} ms", delay);
+        pendingReconnect = reconnector.schedule(() -> {
+            synchronized (this) {
+                pendingReconnect = null; // A failed attempt must be able to schedule the next one
+            }
+            if (!running) {
+                return;
+            }
+            try {
+                connect();
+            } catch (Exception e) {
+                logger.warn("Schwab streamer reconnect failed: {}", e.getMessage());
+                scheduleReconnect();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void resetBackoff() {
+        backoffMillis = INITIAL_BACKOFF_MILLIS;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        synchronized (this) {
+            if (pendingReconnect != null) {
+                pendingReconnect.cancel(true);
+            }
+        }
+        WebSocket ws = webSocket;
+        if (ws != null && info != null) {
+            try {
+                send(request("ADMIN", "LOGOUT", objectMapper.createObjectNode()));
+                ws.sendClose(WebSocket.NORMAL_CLOSURE, "bye");
+            } catch (Exception e) {
+                ws.abort();
+            }
+        }
+        webSocket = null;
+    }
+
+    private ObjectNode request(String service, String command, ObjectNode parameters) {
+        ObjectNode req = objectMapper.createObjectNode();
+        req.put("service", service);
+        req.put("requestid", String.valueOf(requestId.getAndIncrement()));
+        req.put("command", command);
+        req.put("SchwabClientCustomerId", info.getCustomerId());
+        req.put("SchwabClientCorrelId", info.getCorrelId());
+        req.set("parameters", parameters);
+
+        ObjectNode envelope = objectMapper.createObjectNode();
+        envelope.putArray("requests").add(req);
+        return envelope;
+    }
+
+    private void send(ObjectNode message) {
+        WebSocket ws = webSocket;
+        if (ws != null) {
+            ws.sendText(message.toString(), true);
+        }
+    }
+
+    private void subscribe() {
+        send(request(SERVICE, "SUBS", objectMapper.createObjectNode()
+                .put("keys", String.join(",", symbols))
+                .put("fields", FIELDS)));
+        logger.info("Subscribed to Schwab {} for {}", SERVICE, symbols);
+    }
+
+    /**
+     * Handle one complete text frame from the streamer.
+     */
+    void handleMessage(String text) throws Exception {
+        JsonNode root = objectMapper.readTree(text);
+
+        for (JsonNode response : root.path("response")) {
+            if ("LOGIN".equals(response.path("command").asText())) {
+                int code = response.path("content").path("code").asInt(-1);
+                if (code == 0) {
+                    logger.info("Schwab streamer login succeeded");
+                    resetBackoff();
+                    subscribe();
+                } else {
+                    logger.error("Schwab streamer login failed: {}", response.path("content"));
+                }
+            }
+        }
+
+        for (JsonNode data : root.path("data")) {
+            if (!SERVICE.equals(data.path("service").asText())) {
+                continue;
+            }
+            long frameTime = data.path("timestamp").asLong(-1);
+            for (JsonNode content : data.path("content")) {
+                String symbol = content.path("key").asText(null);
+                if (symbol == null) {
+                    continue;
+                }
+                sink.onQuote(symbol,
+                        content.path("1").asDouble(Double.NaN),
+                        content.path("2").asDouble(Double.NaN),
+                        content.path("3").asDouble(Double.NaN),
+                        content.path("8").asLong(-1),
+                        content.has("34") ? content.get("34").asLong() : frameTime);
+            }
+        }
+    }
+
+    /**
+     * Reassembles fragmented frames and forwards them to handleMessage.
+     */
+    private class Listener implements WebSocket.Listener {
+        private final StringBuilder buffer = new StringBuilder();
+
+        @Override
+        public CompletionStage<?> onText(WebSocket ws, CharSequence data, boolean last) {
+            buffer.append(data);
+            if (last) {
+                String message = buffer.toString();
+                buffer.setLength(0);
+                try {
+                    handleMessage(message);
+                } catch (Exception e) {
+                    logger.warn("Could not handle Schwab streamer message: {}", message, e);
+                }
+            }
+            ws.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket ws, int statusCode, String reason) {
+            logger.warn("Schwab streamer closed: {} {}", statusCode, reason);
+            connectionLost();
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket ws, Throwable error) {
+            logger.error("Schwab streamer error", error);
+            connectionLost();
+        }
+
+        /** Reconnect, unless this is an old socket already replaced */
+        private void connectionLost() {
+            if (listener == this) {
+                webSocket = null;
+                scheduleReconnect();
+            }
+        }
+    }
+
+    /**
+     * Connection details from Schwab's userPreference.streamerInfo plus the
+     * OAuth access token used to log in.
+     */
+    public static class StreamerInfo {
+        private final String socketUrl;
+        private final String customerId;
+        private final String correlId;
+        private final String channel;
+        private final String functionId;
+        private final String accessToken;
+
+        public StreamerInfo(String socketUrl, String customerId, String correlId, String channel,
+                String functionId, String accessToken) {
+            this.socketUrl = socketUrl;
+            this.customerId = customerId;
+            this.correlId = correlId;
+            this.channel = channel;
+            this.functionId = functionId;
+            this.accessToken = accessToken;
+        }
+
+        public String getSocketUrl() {
+            return socketUrl;
+        }
+
+        public String getCustomerId() {
+            return customerId;
+        }
+
+        public String getCorrelId() {
+            return correlId;
+        }
+
+        public String getChannel() {
+            return channel;
+        }
+
+        public String getFunctionId() {
+            return functionId;
+        }
+
+        public String getAccessToken() {
+            return accessToken;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.dealaggregator.dealapi.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import com.dealaggregator.dealapi.entity.IndicatorSnapshot;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for precomputed end-of-day indicators.
+ */
+public interface IndicatorSnapshotRepository extends JpaRepository<IndicatorSnapshot, Long> {
+
+    /** Existing rows for one session, to update instead of duplicating */
+    List<IndicatorSnapshot> findByBarDateAndTickerIn(LocalDate barDate, Collection<String> tickers);
+
+    /** Most recent row for every ticker (startup warm-up) */
+    @Query("SELECT s FROM IndicatorSnapshot s WHERE s.barDate = "
+            + "(SELECT MAX(s2.barDate) FROM IndicatorSnapshot s2 WHERE s2.ticker = s.ticker)")
+    List<IndicatorSnapshot> findLatestPerTicker();
+}
@@ -1,12 +1,90 @@
 package com.dealaggregator.dealapi.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import com.dealaggregator.dealapi.entity.Strategy;
 import com.dealaggregator.dealapi.entity.StrategyStatus;
 
 public interface StrategyRepository extends JpaRepository<Strategy, Long> {
+    /** Full entities with legs in the same query (legs are LAZY); prefer findPositionRows for reads */
+    @EntityGraph(attributePaths = "legs")
     List<Strategy> findByUserId(String userId);
 
-    List<Strategy> findByUserIdAndStatus(String userId, StrategyStatus status);
+    /**
+     * One row per leg (or per strategy without legs) of a Strategy-Leg
+     * join; StrategyView.fromRows groups them.
+     */
+    interface PositionRow {
+        Long getStrategyId();
+
+        String getUserId();
+
+        String getStrategyType();
+
+        String getTicker();
+
+        LocalDateTime getOpenedAt();
+
+        Double getNetCost();
+
+        Long getLegId();
+
+        String getOptionType();
+
+        Double getStrikePrice();
+
+        LocalDate getExpiration();
+
+        Double getEntryPrice();
+
+        Integer getQuantity();
+    }
+
+    String POSITION_ROW_SELECT = "SELECT s.id AS strategyId, s.userId AS userId, s.strategy AS strategyType, "
+            + "s.ticker AS ticker, s.openedAt AS openedAt, s.netCost AS netCost, l.id AS legId, "
+            + "l.optionType AS optionType, l.strikePrice AS strikePrice, l.expiration AS expiration, "
+            + "l.entryPrice AS entryPrice, l.quantity AS quantity FROM Strategy s LEFT JOIN s.legs l ";
+
+    /** A user's strategies and legs as flat rows in a single query, nothing managed */
+    @Query(POSITION_ROW_SELECT + "WHERE s.userId = :userId AND s.status = :status ORDER BY s.id, l.id")
+    List<PositionRow> findPositionRows(String userId, StrategyStatus status);
+
+    /** Every user's strategies and legs in one query (startup warm-up) */
+    @Query(POSITION_ROW_SELECT + "WHERE s.status = :status ORDER BY s.id, l.id")
+    List<PositionRow> findAllPositionRows(StrategyStatus status);
+
+    /**
+     * A strategy closed by a bulk update, as returned by its RETURNING clause.
+     */
+    interface ClosedStrategy {
+        Long getId();
+
+        String getTicker();
+
+        Double getNetCost();
+    }
+
+    /**
+     * Close every open strategy a user holds on a ticker in one statement.
+     * Not @Modifying: that would run executeUpdate, which rejects the
+     * RETURNING rows; @Transactional overrides the read-only default.
+     */
+    @Transactional
+    @Query(value = "UPDATE strategies SET status = 'CLOSED' "
+            + "WHERE user_id = :userId AND UPPER(ticker) = UPPER(:ticker) AND status = 'OPEN' "
+            + "RETURNING id, ticker, net_cost AS netCost", nativeQuery = true)
+    List<ClosedStrategy> closeOpenByTicker(String userId, String ticker);
+
+    /** Close the given strategies if they are open and owned by the user, in one statement */
+    @Transactional
+    @Query(value = "UPDATE strategies SET status = 'CLOSED' "
+            + "WHERE user_id = :userId AND id IN (:ids) AND status = 'OPEN' "
+            + "RETURNING id, ticker, net_cost AS netCost", nativeQuery = true)
+    List<ClosedStrategy> closeOpenByIds(String userId, Collection<Long> ids);
 }
@@ -0,0 +1,154 @@
+package com.dealaggregator.dealapi.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import com.dealaggregator.dealapi.entity.Leg;
+import com.dealaggregator.dealapi.entity.Strategy;
+
+/**
+ * Read-only strategy with its legs, for portfolio rendering and analysis.
+ *
+ * Built from the flat rows of one Strategy-Leg join (see
+ * StrategyRepository.findPositionRows) or from a just-saved entity, so
+ * reading a book never goes through managed entities. Getter names match
+ * the entities'.
+ */
+public final class StrategyView {
+
+    private final Long id;
+    private final String userId;
+    private final String strategy;
+    private final String ticker;
+    private final LocalDateTime openedAt;
+    private final Double netCost;
+    private final List<LegView> legs;
+
+    public StrategyView(Long id, String userId, String strategy, String ticker, LocalDateTime openedAt,
+            Double netCost, List<LegView> legs) {
+        this.id = id;
+        this.userId = userId;
+        this.strategy = strategy;
+        this.ticker = ticker;
+        this.openedAt = openedAt;
+        this.netCost = netCost;
+        this.legs = List.copyOf(legs);
+    }
+
+    /**
+     * View of an entity whose legs are already loaded (e.g. just saved).
+     */
+    public static StrategyView of(Strategy entity) {
+        List<LegView> legs = new ArrayList<>(entity.getLegs().size());
+        for (Leg leg : entity.getLegs()) {
+            legs.add(new LegView(leg.getId(), leg.getOptionType(), leg.getStrikePrice(), leg.getExpiration(),
+                    leg.getEntryPrice(), leg.getQuantity()));
+        }
+        return new StrategyView(entity.getId(), entity.getUserId(), entity.getStrategy(), entity.getTicker(),
+                entity.getOpenedAt(), entity.getNetCost(), legs);
+    }
+
+    /**
+     * Group join rows, ordered by strategy ID, into one view per strategy.
+     * A strategy without legs comes back as a single row with a null leg ID.
+     */
+    public static List<StrategyView> fromRows(List<StrategyRepository.PositionRow> rows) {
+        List<StrategyView> views = new ArrayList<>();
+        int i = 0;
+        while (i < rows.size()) {
+            StrategyRepository.PositionRow first = rows.get(i);
+            List<LegView> legs = new ArrayList<>();
+            for (; i < rows.size() && Objects.equals(rows.get(i).getStrategyId(), first.getStrategyId()); i++) {
+                StrategyRepository.PositionRow row = rows.get(i);
+                if (row.getLegId() != null) {
+                    legs.add(new LegView(row.getLegId(), row.getOptionType(), row.getStrikePrice(),
+                            row.getExpiration(), row.getEntryPrice(), row.getQuantity()));
+                }
+            }
+            views.add(new StrategyView(first.getStrategyId(), first.getUserId(), first.getStrategyType(),
+                    first.getTicker(), first.getOpenedAt(), first.getNetCost(), legs));
+        }
+        return views;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    /** Strategy type: SINGLE, VERTICAL, IRON_CONDOR, STRADDLE, CUSTOM */
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public String getTicker() {
+        return ticker;
+    }
+
+    public LocalDateTime getOpenedAt() {
+        return openedAt;
+    }
+
+    public Double getNetCost() {
+        return netCost;
+    }
+
+    /** Legs in ID order; unmodifiable */
+    public List<LegView> getLegs() {
+        return legs;
+    }
+
+    /**
+     * Read-only option leg.
+     */
+    public static final class LegView {
+        private final Long id;
+        private final String optionType;
+        private final Double strikePrice;
+        private final LocalDate expiration;
+        private final Double entryPrice;
+        private final Integer quantity;
+
+        public LegView(Long id, String optionType, Double strikePrice, LocalDate expiration, Double entryPrice,
+                Integer quantity) {
+            this.id = id;
+            this.optionType = optionType;
+            this.strikePrice = strikePrice;
+            this.expiration = expiration;
+            this.entryPrice = entryPrice;
+            this.quantity = quantity;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        /** "call" or "put" */
+        public String getOptionType() {
+            return optionType;
+        }
+
+        public Double getStrikePrice() {
+            return strikePrice;
+        }
+
+        public LocalDate getExpiration() {
+            return expiration;
+        }
+
+        public Double getEntryPrice() {
+            return entryPrice;
+        }
+
+        /** Positive = long, negative = short */
+        public Integer getQuantity() {
+            return quantity;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.dealaggregator.dealapi.service;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.dealaggregator.dealapi.backtest.BacktestParams;
+import com.dealaggregator.dealapi.backtest.BacktestResult;
+import com.dealaggregator.dealapi.backtest.MeanReversionBacktester;
+import com.dealaggregator.dealapi.backtest.OptionStructure;
+import com.dealaggregator.dealapi.backtest.OptionsBacktestParams;
+import com.dealaggregator.dealapi.backtest.OptionsBacktestResult;
+import com.dealaggregator.dealapi.backtest.OptionsBacktester;
+import com.dealaggregator.dealapi.backtest.ParameterGrid;
+import com.dealaggregator.dealapi.backtest.ParameterSweep;
+import com.dealaggregator.dealapi.marketdata.MarketCalendar;
+import com.dealaggregator.dealapi.marketdata.PriceBars;
+
+/**
+ * Mean reversion backtests on daily closes: single runs with the Python
+ * defaults, parameter sweeps over ParameterGrid.defaults(), and
+ * walk-forward optimization. Options structures are backtested against
+ * the SPX chain snapshots recorded by ChainSnapshotService.
+ */
+@Service
+public class BacktestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BacktestService.class);
+    /** Configurations kept per sweep */
+    private static final int TOP_K = 5;
+    private static final String CHAIN_SYMBOL = "$SPX";
+
+    /** backtester.py default period */
+    @Value("${backtest.range:2y}")
+    private String range;
+
+    @Value("${backtest.walk-forward.range:5y}")
+    private String walkForwardRange;
+
+    @Value("${backtest.walk-forward.train-bars:252}")
+    private int trainBars;
+
+    @Value("${backtest.walk-forward.test-bars:63}")
+    private int testBars;
+
+    /** Sweeps ignore configurations that trade less than this */
+    @Value("${backtest.min-trades:5}")
+    private int minTrades;
+
+    private final PriceHistoryService priceHistoryService;
+    private final ChainSnapshotService chainSnapshotService;
+
+    public BacktestService(PriceHistoryService priceHistoryService, ChainSnapshotService chainSnapshotService) {
+        this.priceHistoryService = priceHistoryService;
+        this.chainSnapshotService = chainSnapshotService;
+    }
+
+    /**
+     * One backtest over the configured range.
+     */
+    public BacktestResult backtest(String ticker, BacktestParams params) throws Exception {
+        return MeanReversionBacktester.run(priceHistoryService.getCompletedDailyBars(ticker, range), params);
+    }
+
+    /**
+     * Sweep the default grid, or {@code samples} random configurations
+     * from it if given, ranked by Sharpe ratio.
+     *
+     * @param listener Optional; receives each new best as it is found
+     */
+    public ParameterSweep.SweepResult optimize(String ticker, Integer samples, ParameterSweep.Listener listener)
+            throws Exception {
+        PriceBars bars = priceHistoryService.getCompletedDailyBars(ticker, range);
+        double[] prices = bars.getClose();
+        ParameterSweep.SweepResult result = ParameterSweep.sweep(bars.getTimestamps(), prices,
+                new ParameterSweep.ZScores(prices), 0, prices.length, configs(samples),
+                ParameterSweep.Objective.SHARPE, minTrades, TOP_K, listener);
+        logger.info("Backtest sweep: ticker={}, configs={}, millis={}", ticker, result.getEvaluated(),
+                result.getElapsedMillis());
+        return result;
+    }
+
+    /**
+     * Walk-forward optimization over the longer walk-forward range.
+     *
+     * @param onFold Optional; receives each fold as it completes
+     */
+    public ParameterSweep.WalkForwardResult walkForward(String ticker, Integer samples,
+            Consumer<ParameterSweep.Fold> onFold) throws Exception {
+        PriceBars bars = priceHistoryService.getCompletedDailyBars(ticker, walkForwardRange);
+        if (bars.size() < trainBars + testBars) {
+            throw new IllegalStateException("Not enough history for walk-forward on " + ticker);
+        }
+        long start = System.nanoTime();
+        ParameterSweep.WalkForwardResult result = ParameterSweep.walkForward(bars.getTimestamps(),
+                bars.getClose(), configs(samples), trainBars, testBars, ParameterSweep.Objective.SHARPE,
+                minTrades, onFold);
+        logger.info("Walk-forward: ticker={}, folds={}, millis={}", ticker, result.getFolds().size(),
+                (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * Replay an options structure over every recorded SPX chain day in
+     * [from, to].
+     */
+    public OptionsBacktestResult backtestOptions(OptionStructure structure, OptionsBacktestParams params,
+            LocalDate from, LocalDate to) throws IOException {
+        OptionsBacktester backtester = new OptionsBacktester(chainSnapshotService.getStore(), CHAIN_SYMBOL,
+                MarketCalendar.ZONE);
+        long start = System.nanoTime();
+        OptionsBacktestResult result = backtester.run(structure, params, from, to);
+        logger.info("Options backtest: structure={}, days={}, skipped={}, millis={}", structure.getType(),
+                result.getTrades(), result.getSkippedDays(), (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    public int getTrainBars() {
+        return trainBars;
+    }
+
+    public int getTestBars() {
+        return testBars;
+    }
+
+    private static List<BacktestParams> configs(Integer samples) {
+        ParameterGrid grid = ParameterGrid.defaults();
+        return samples != null ? grid.sample(samples, System.nanoTime()) : grid.expand();
+    }
+}
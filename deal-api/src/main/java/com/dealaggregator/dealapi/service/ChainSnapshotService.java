@@ -0,0 +1,154 @@
+package com.dealaggregator.dealapi.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.dealaggregator.dealapi.marketdata.ChainSnapshotStore;
+import com.dealaggregator.dealapi.marketdata.MarketCalendar;
+import com.dealaggregator.dealapi.marketdata.OptionChain;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Records SPX option chain snapshots during the session and answers
+ * historical straddle/skew queries from the local snapshot store.
+ *
+ * Snapshots are appended to per-day memory-mapped segment files (see
+ * ChainSnapshotStore), so intraday history never touches Postgres.
+ */
+@Service
+public class ChainSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChainSnapshotService.class);
+    private static final String SYMBOL = "$SPX";
+
+    @Value("${chain.snapshot.enabled:false}")
+    private boolean enabled;
+
+    @Value("${chain.snapshot.dir:data/chains}")
+    private String directory;
+
+    /** Expiration to record, as days from today (0 = 0DTE) */
+    @Value("${chain.snapshot.dte:0}")
+    private int dte;
+
+    private final SchwabApiService schwabService;
+
+    private ChainSnapshotStore store;
+
+    public ChainSnapshotService(SchwabApiService schwabService) {
+        this.schwabService = schwabService;
+    }
+
+    @PostConstruct
+    public void init() {
+        store = new ChainSnapshotStore(Path.of(directory), MarketCalendar.ZONE);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        store.close();
+    }
+
+    /**
+     * Snapshot the SPX chain every 5 minutes through the regular session.
+     * Cron hours can't express 09:30-16:00, so ticks outside it are skipped.
+     */
+    @Scheduled(cron = "${chain.snapshot.cron:0 */5 9-16 * * MON-FRI}", zone = MarketCalendar.ZONE_NAME)
+    public void recordScheduledSnapshot() {
+        if (enabled && MarketCalendar.inSession(MarketCalendar.now().toLocalTime())) {
+            recordSnapshot();
+        }
+    }
+
+    /**
+     * Fetch the full chain now and append it to today's segment.
+     *
+     * @return true if a snapshot was written
+     */
+    public boolean recordSnapshot() {
+        Optional<OptionChain> chain = schwabService.getOptionChain(SYMBOL, dte);
+        if (chain.isEmpty() || chain.get().isEmpty()) {
+            logger.warn("Skipping chain snapshot: no chain returned for {}", SYMBOL);
+            return false;
+        }
+
+        try {
+            store.append(SYMBOL, System.currentTimeMillis(), chain.get());
+            return true;
+        } catch (IOException e) {
+            logger.error("Failed to record chain snapshot", e);
+            return false;
+        }
+    }
+
+    /**
+     * ATM straddle and skew for every snapshot on a trading day.
+     *
+     * @param day       Trading day (New York time)
+     * @param moneyness Distance from spot for the skew wings (0.05 = 5% OTM)
+     */
+    public List<SnapshotStats> getDayStats(LocalDate day, double moneyness) throws IOException {
+        List<SnapshotStats> stats = new ArrayList<>();
+        for (ChainSnapshotStore.ChainSnapshotView view : store.readDay(SYMBOL, day)) {
+            stats.add(new SnapshotStats(view.getTimestampMillis(), view.getExpiration(),
+                    view.getUnderlyingPrice(), view.atmStraddleMid(), view.skew(moneyness)));
+        }
+        return stats;
+    }
+
+    public ChainSnapshotStore getStore() {
+        return store;
+    }
+
+    /**
+     * Derived metrics for one stored snapshot.
+     */
+    public static class SnapshotStats {
+        private final long timestampMillis;
+        private final LocalDate expiration;
+        private final double underlyingPrice;
+        private final double straddleMid;
+        private final double skew;
+
+        public SnapshotStats(long timestampMillis, LocalDate expiration, double underlyingPrice,
+                double straddleMid, double skew) {
+            this.timestampMillis = timestampMillis;
+            this.expiration = expiration;
+            this.underlyingPrice = underlyingPrice;
+            this.straddleMid = straddleMid;
+            this.skew = skew;
+        }
+
+        public long getTimestampMillis() {
+            return timestampMillis;
+        }
+
+        public LocalDate getExpiration() {
+            return expiration;
+        }
+
+        public double getUnderlyingPrice() {
+            return underlyingPrice;
+        }
+
+        public double getStraddleMid() {
+            return straddleMid;
+        }
+
+        public double getSkew() {
+            return skew;
+        }
+    }
+}
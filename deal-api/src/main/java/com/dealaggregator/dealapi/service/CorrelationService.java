@@ -0,0 +1,134 @@
+package com.dealaggregator.dealapi.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.dealaggregator.dealapi.analytics.CovarianceMatrix;
+import com.dealaggregator.dealapi.marketdata.ReturnPanel;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Correlation matrices for sets of tickers (e.g. everything in a user's
+ * book), over aligned daily log returns.
+ *
+ * Each distinct ticker set keeps a sliding CovarianceMatrix: the first
+ * request loads a year of history, later ones only push the returns for
+ * sessions added since. Every book is its own set, so the tracked sets are
+ * capped (correlation.max-sets) and dropped after correlation.idle-hours
+ * without a request.
+ */
+@Service
+public class CorrelationService {
+
+    @Value("${correlation.lookback:252}")
+    private int lookback;
+
+    @Value("${correlation.shrink:true}")
+    private boolean shrink;
+
+    @Value("${correlation.max-sets:500}")
+    private long maxSets;
+
+    @Value("${correlation.idle-hours:24}")
+    private long idleHours;
+
+    private final PriceHistoryService priceHistoryService;
+    private Cache<String, TrackedMatrix> matrices;
+
+    public CorrelationService(PriceHistoryService priceHistoryService) {
+        this.priceHistoryService = priceHistoryService;
+    }
+
+    @PostConstruct
+    public void init() {
+        matrices = Caffeine.newBuilder()
+                .maximumSize(maxSets)
+                .expireAfterAccess(idleHours, TimeUnit.HOURS)
+                .build();
+    }
+
+    /**
+     * Correlation of the given tickers' daily returns. Tickers without
+     * history are dropped; needs at least two that have it.
+     */
+    public PortfolioCorrelation correlate(Collection<String> tickers) {
+        TreeSet<String> unique = new TreeSet<>();
+        for (String ticker : tickers) {
+            unique.add(ticker.toUpperCase());
+        }
+        if (unique.size() < 2) {
+            throw new IllegalArgumentException("Need at least two tickers to correlate");
+        }
+        String key = String.join(",", unique);
+        TrackedMatrix tracked = matrices.get(key, k -> new TrackedMatrix(new ArrayList<>(unique)));
+        return tracked.refreshAndSnapshot();
+    }
+
+    /**
+     * One ticker set's engine and the returns feeding it.
+     */
+    private class TrackedMatrix {
+        private final List<String> requested;
+        private final RefreshingReturnPanel returns = new RefreshingReturnPanel(priceHistoryService, "Correlation");
+        private CovarianceMatrix matrix;
+
+        TrackedMatrix(List<String> requested) {
+            this.requested = requested;
+        }
+
+        synchronized PortfolioCorrelation refreshAndSnapshot() {
+            if (matrix == null) {
+                ReturnPanel panel = returns.load(requested, "1y");
+                if (panel.getSymbols().size() < 2 || panel.length() < 2) {
+                    throw new IllegalStateException("Not enough overlapping history for " + requested);
+                }
+                matrix = new CovarianceMatrix(panel.getSymbols().size(), lookback);
+                matrix.load(panel.getReturns());
+            } else {
+                returns.refreshIfDue(matrix::onBar);
+            }
+            return new PortfolioCorrelation(returns.getSymbols(), matrix.snapshot(shrink), returns.getLastDate());
+        }
+    }
+
+    /**
+     * Correlation matrix with its tickers, in matrix order.
+     */
+    public static class PortfolioCorrelation {
+        private final List<String> symbols;
+        private final CovarianceMatrix.Result matrix;
+        private final LocalDate asOf;
+
+        public PortfolioCorrelation(List<String> symbols, CovarianceMatrix.Result matrix, LocalDate asOf) {
+            this.symbols = symbols;
+            this.matrix = matrix;
+            this.asOf = asOf;
+        }
+
+        public List<String> getSymbols() {
+            return symbols;
+        }
+
+        public CovarianceMatrix.Result getMatrix() {
+            return matrix;
+        }
+
+        public LocalDate getAsOf() {
+            return asOf;
+        }
+
+        public double getCorrelation(String a, String b) {
+            return matrix.getCorrelation(symbols.indexOf(a), symbols.indexOf(b));
+        }
+    }
+}
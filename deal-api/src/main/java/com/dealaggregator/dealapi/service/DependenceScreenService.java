@@ -0,0 +1,192 @@
+package com.dealaggregator.dealapi.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.dealaggregator.dealapi.analytics.DependenceScreen;
+import com.dealaggregator.dealapi.marketdata.MarketCalendar;
+import com.dealaggregator.dealapi.marketdata.PriceBars;
+
+/**
+ * Screens the regime-screen universe against an index (SPX by default)
+ * with Hoeffding's D, Pearson and Spearman correlation.
+ *
+ * Daily log returns are aligned on the index's trading dates. Results only
+ * change once per session, so the last screen is kept until the next
+ * session completes.
+ */
+@Service
+public class DependenceScreenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DependenceScreenService.class);
+
+    /** Sort orders for the ranked screen */
+    public enum SortBy {
+        HOEFFDING, PEARSON, SPEARMAN
+    }
+
+    @Value("${screen.index:^GSPC}")
+    private String indexSymbol;
+
+    @Value("${screen.dependence.length:60}")
+    private int length;
+
+    private final PriceHistoryService priceHistoryService;
+    private final RegimeScreenService regimeScreenService;
+
+    private volatile CachedScreen cached;
+
+    public DependenceScreenService(PriceHistoryService priceHistoryService,
+            RegimeScreenService regimeScreenService) {
+        this.priceHistoryService = priceHistoryService;
+        this.regimeScreenService = regimeScreenService;
+    }
+
+    /**
+     * Today's screen of the configured universe, strongest dependence
+     * first for the chosen measure. Undefined values (a flat series has no
+     * correlation) sort last.
+     */
+    public List<DependenceScreen.DependenceResult> screen(SortBy sortBy) {
+        List<DependenceScreen.DependenceResult> results = new ArrayList<>(screenForTradingDay());
+        switch (sortBy) {
+            case PEARSON:
+                results.sort(strongestFirst(r -> Math.abs(r.getPearson().getCoefficient())));
+                break;
+            case SPEARMAN:
+                results.sort(strongestFirst(r -> Math.abs(r.getSpearman().getCoefficient())));
+                break;
+            default:
+                results.sort(strongestFirst(DependenceScreen.DependenceResult::getHoeffdingD));
+                break;
+        }
+        return results;
+    }
+
+    /** Descending, NaN last (Double.compare ranks NaN above everything, so reversed it would come first) */
+    static Comparator<DependenceScreen.DependenceResult> strongestFirst(
+            ToDoubleFunction<DependenceScreen.DependenceResult> measure) {
+        return Comparator.comparingDouble((DependenceScreen.DependenceResult r) -> {
+            double value = measure.applyAsDouble(r);
+            return Double.isNaN(value) ? Double.NEGATIVE_INFINITY : value;
+        }).reversed();
+    }
+
+    public String getIndexSymbol() {
+        return indexSymbol;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    private List<DependenceScreen.DependenceResult> screenForTradingDay() {
+        LocalDate session = MarketCalendar.lastCompletedSession();
+        CachedScreen current = cached;
+        if (current != null && current.session.equals(session)) {
+            return current.results;
+        }
+        synchronized (this) {
+            // Another caller may have filled it while we waited
+            current = cached;
+            if (current != null && current.session.equals(session)) {
+                return current.results;
+            }
+            List<DependenceScreen.DependenceResult> results = compute();
+            cached = new CachedScreen(session, results);
+            return results;
+        }
+    }
+
+    private List<DependenceScreen.DependenceResult> compute() {
+        long start = System.nanoTime();
+        List<String> tickers = new ArrayList<>(regimeScreenService.getUniverse());
+        tickers.add(indexSymbol);
+        Map<String, PriceBars> history = priceHistoryService.getCompletedDailyBarsForUniverse(tickers, "1y");
+
+        // Index calendar: the last length + 1 sessions (completed bars only, so none is still forming)
+        PriceBars index = history.get(indexSymbol);
+        List<LocalDate> days = new ArrayList<>();
+        List<Double> indexCloses = new ArrayList<>();
+        if (index != null) {
+            for (int i = 0; i < index.size(); i++) {
+                if (index.getClose()[i] > 0) {
+                    days.add(MarketCalendar.tradingDate(index.getTimestamps()[i]));
+                    indexCloses.add(index.getClose()[i]);
+                }
+            }
+        }
+        if (days.size() <= length) {
+            throw new IllegalStateException("Not enough price history for index " + indexSymbol);
+        }
+        int first = days.size() - length - 1;
+        double[] indexReturns = logReturns(indexCloses.subList(first, days.size()));
+
+        List<String> symbols = new ArrayList<>();
+        List<double[]> symbolReturns = new ArrayList<>();
+        for (String ticker : tickers) {
+            PriceBars bars = history.get(ticker);
+            if (ticker.equals(indexSymbol) || bars == null) {
+                continue;
+            }
+            Map<LocalDate, Double> closes = new HashMap<>();
+            for (int i = 0; i < bars.size(); i++) {
+                closes.put(MarketCalendar.tradingDate(bars.getTimestamps()[i]), bars.getClose()[i]);
+            }
+            List<Double> aligned = new ArrayList<>();
+            for (LocalDate day : days.subList(first, days.size())) {
+                Double close = closes.get(day);
+                if (close == null || close <= 0) {
+                    break;
+                }
+                aligned.add(close);
+            }
+            if (aligned.size() == length + 1) {
+                symbols.add(ticker);
+                symbolReturns.add(logReturns(aligned));
+            } else {
+                logger.debug("Dependence screen: {} is missing sessions, skipped", ticker);
+            }
+        }
+
+        List<DependenceScreen.DependenceResult> results = new ArrayList<>();
+        Arrays.stream(DependenceScreen.screen(symbols, symbolReturns, indexReturns, length,
+                DependenceScreen.DEFAULT_CONFIDENCE_MULTIPLIER))
+                .filter(Objects::nonNull)
+                .forEach(results::add);
+
+        logger.info("Dependence screen vs {}: requested={}, screened={}, millis={}", indexSymbol,
+                tickers.size() - 1, results.size(), (System.nanoTime() - start) / 1_000_000);
+        return results;
+    }
+
+    private static double[] logReturns(List<Double> closes) {
+        double[] returns = new double[closes.size() - 1];
+        for (int i = 1; i < closes.size(); i++) {
+            returns[i - 1] = Math.log(closes.get(i) / closes.get(i - 1));
+        }
+        return returns;
+    }
+
+    private static class CachedScreen {
+        private final LocalDate session;
+        private final List<DependenceScreen.DependenceResult> results;
+
+        CachedScreen(LocalDate session, List<DependenceScreen.DependenceResult> results) {
+            this.session = session;
+            this.results = results;
+        }
+    }
+}
@@ -1,18 +1,42 @@
 package com.dealaggregator.dealapi.service;
 
 import java.awt.Color;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import com.dealaggregator.dealapi.analytics.DependenceScreen;
+import com.dealaggregator.dealapi.analytics.HalfLifeDiagnostics;
+import com.dealaggregator.dealapi.analytics.MeanReversionIndicators;
+import com.dealaggregator.dealapi.analytics.PairsScanner;
+import com.dealaggregator.dealapi.analytics.PerformanceMetrics;
+import com.dealaggregator.dealapi.analytics.RegimeTests;
+import com.dealaggregator.dealapi.backtest.BacktestParams;
+import com.dealaggregator.dealapi.backtest.BacktestResult;
+import com.dealaggregator.dealapi.backtest.OptionStructure;
+import com.dealaggregator.dealapi.backtest.OptionsBacktestParams;
+import com.dealaggregator.dealapi.backtest.OptionsBacktestResult;
+import com.dealaggregator.dealapi.backtest.ParameterSweep;
 import com.dealaggregator.dealapi.entity.Strategy;
 import com.dealaggregator.dealapi.entity.StrategyType;
 import com.dealaggregator.dealapi.entity.Leg;
 import com.dealaggregator.dealapi.entity.CommandLog;
+import com.dealaggregator.dealapi.marketdata.MarketCalendar;
 import com.dealaggregator.dealapi.repository.CommandLogRepository;
+import com.dealaggregator.dealapi.repository.StrategyRepository;
+import com.dealaggregator.dealapi.repository.StrategyView;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.stereotype.Service;
 import org.springframework.scheduling.annotation.Scheduled;
 import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
@@ -22,6 +46,7 @@ import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.entities.Activity;
+import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
@@ -42,6 +67,7 @@ import net.dv8tion.jda.api.requests.GatewayIntent;
  * via the @PostConstruct annotation.
  */
 @Service
+@DependsOn("sequenceAlignmentService") // ID sequences must be aligned before the first insert
 public class DiscordBotService extends ListenerAdapter {
     /**
      * Discord bot token loaded from application.properties.
@@ -60,14 +86,27 @@ public class DiscordBotService extends ListenerAdapter {
     @Value("${discord.bot.guild}")
     private String guildId;
 
+    /** Fallback Black-Scholes volatility when no history is available */
+    private static final double DEFAULT_VOLATILITY = 0.4;
+    /** /import attachment limit (about 10,000 lines) */
+    private static final int MAX_IMPORT_BYTES = 512 * 1024;
+
     private final BlackScholesService bsService;
     private final CommandParserService parserService;
     private final MarketDataService marketService;
     private final MassiveDataService massiveService;
     private final StrategyService strategyService;
     private final CommandLogRepository commandLogRepo;
-    private final IndicatorService indicatorService;
+    private final IndicatorSnapshotService indicatorSnapshotService;
     private final SchwabApiService schwabService;
+    private final VolatilityService volatilityService;
+    private final DependenceScreenService dependenceScreenService;
+    private final CorrelationService correlationService;
+    private final PerformanceService performanceService;
+    private final BacktestService backtestService;
+    private final PairsService pairsService;
+    private final KalmanFilterService kalmanFilterService;
+    private final RegimeScreenService regimeScreenService;
 
     private JDA jda; // Add class field
 
@@ -77,15 +116,27 @@ public class DiscordBotService extends ListenerAdapter {
     public DiscordBotService(BlackScholesService bsService, CommandParserService parserService,
             MarketDataService marketDataService, MassiveDataService massiveService,
             StrategyService strategyService, CommandLogRepository commandLogRepo,
-            IndicatorService indicatorService, SchwabApiService schwabService) {
+            IndicatorSnapshotService indicatorSnapshotService, SchwabApiService schwabService,
+            VolatilityService volatilityService, DependenceScreenService dependenceScreenService,
+            CorrelationService correlationService, PerformanceService performanceService,
+            BacktestService backtestService, PairsService pairsService, KalmanFilterService kalmanFilterService,
+            RegimeScreenService regimeScreenService) {
         this.bsService = bsService;
         this.parserService = parserService;
         this.marketService = marketDataService;
         this.massiveService = massiveService;
         this.strategyService = strategyService;
         this.commandLogRepo = commandLogRepo;
-        this.indicatorService = indicatorService;
+        this.indicatorSnapshotService = indicatorSnapshotService;
         this.schwabService = schwabService;
+        this.volatilityService = volatilityService;
+        this.dependenceScreenService = dependenceScreenService;
+        this.correlationService = correlationService;
+        this.performanceService = performanceService;
+        this.backtestService = backtestService;
+        this.pairsService = pairsService;
+        this.kalmanFilterService = kalmanFilterService;
+        this.regimeScreenService = regimeScreenService;
     }
 
     /**
@@ -136,6 +187,9 @@ public class DiscordBotService extends ListenerAdapter {
                         .addOption(OptionType.STRING, "contract",
                                 "Format: Ticker Strike+Type Days (e.g. NVDA 150c 30d)", true)
                         .addOption(OptionType.NUMBER, "price", "The price you paid (e.g. 1.50)", true),
+                // 4b. Bulk import: one "/buy" line per row, saved in a single transaction
+                Commands.slash("import", "Import many contracts from a text file (one per line: NVDA 150c 30d 1.50)")
+                        .addOption(OptionType.ATTACHMENT, "file", "Text file, one contract and price per line", true),
                 // 5. Portfolio View (REQUIRED for Sell)
                 Commands.slash("portfolio", "View your active positions"),
 
@@ -151,7 +205,7 @@ public class DiscordBotService extends ListenerAdapter {
                 Commands.slash("analyze", "Analyze your portfolio or a specific contract")
                         .addOption(OptionType.STRING, "query",
                                 "Optional: Contract (e.g. NVDA 150c 30d). Leave empty to analyze portfolio", false)
-                        .addOption(OptionType.NUMBER, "volatility", "Optional: Custom volatility (default 0.4)", false),
+                        .addOption(OptionType.NUMBER, "volatility", "Optional: Custom volatility (default: 30-day historical vol)", false),
 
                 // 9. View Another User's Portfolio
                 Commands.slash("view", "View another user's portfolio")
@@ -219,7 +273,44 @@ public class DiscordBotService extends ListenerAdapter {
                         .addOption(OptionType.INTEGER, "mid", "Middle strike (SELL x2)", true)
                         .addOption(OptionType.INTEGER, "high", "Upper wing strike (BUY)", true)
                         .addOption(OptionType.INTEGER, "dte", "Days to expiration", true)
-                        .addOption(OptionType.NUMBER, "cost", "Net debit paid (optional)", false))
+                        .addOption(OptionType.NUMBER, "cost", "Net debit paid (optional)", false),
+
+                // 18. Dependence Screen - Universe vs SPX
+                Commands.slash("screen", "Rank the screen universe by dependence on SPX")
+                        .addOption(OptionType.STRING, "sort", "HOEFFDING, PEARSON or SPEARMAN (default HOEFFDING)",
+                                false),
+
+                // 19. Backtest Optimizer - Z-Score mean reversion sweep
+                Commands.slash("backtest", "Optimize the z-score mean reversion backtest for a ticker")
+                        .addOption(OptionType.STRING, "ticker", "Stock symbol (e.g. SPY)", true)
+                        .addOption(OptionType.INTEGER, "samples", "Random configurations instead of the full grid",
+                                false)
+                        .addOption(OptionType.BOOLEAN, "walkforward", "Walk-forward out-of-sample test", false),
+
+                // 20. Options Backtest - Replay recorded SPX chains
+                // Example: /optbacktest IC 20 10
+                Commands.slash("optbacktest", "Backtest an SPX options structure on recorded chains")
+                        .addOption(OptionType.STRING, "structure", "STRADDLE, VERTICAL, FLY or IC", true)
+                        .addOption(OptionType.INTEGER, "width", "Spread/wing width or IC short distance (default 10)",
+                                false)
+                        .addOption(OptionType.INTEGER, "wing", "IC wing width (default 10)", false)
+                        .addOption(OptionType.BOOLEAN, "short", "Sell the structure instead of buying it", false)
+                        .addOption(OptionType.STRING, "fill", "BIDASK or MID (default BIDASK)", false)
+                        .addOption(OptionType.INTEGER, "days", "Calendar days of history (default 90)", false),
+
+                // 21. Pairs - Cointegrated pairs in the screen universe
+                // Example: /pairs
+                Commands.slash("pairs", "Cointegrated pairs with Kalman hedge ratios and spread z-scores"),
+
+                // 22. Regime Screen - DFA Hurst and variance ratios for the screen universe
+                // Example: /regime
+                Commands.slash("regime", "Rank the screen universe by Hurst exponent (most mean-reverting first)"),
+
+                // 23. Half-Life Screen - OU half-life diagnostics for the screen universe
+                // Example: /halflife 60
+                Commands.slash("halflife", "Rank the screen universe by mean reversion half-life")
+                        .addOption(OptionType.INTEGER, "lookback", "Daily bars in the regression (default 100)",
+                                false))
                 .queue();
 
     }
@@ -237,6 +328,8 @@ public class DiscordBotService extends ListenerAdapter {
             optionPriceSlash(event);
         } else if (event.getName().equals("buy")) {
             buySlash(event);
+        } else if (event.getName().equals("import")) {
+            importSlash(event);
         } else if (event.getName().equals("portfolio")) {
             portfolioSlash(event);
         } else if (event.getName().equals("sell")) {
@@ -263,6 +356,18 @@ public class DiscordBotService extends ListenerAdapter {
             verticalSlash(event);
         } else if (event.getName().equals("fly")) {
             flySlash(event);
+        } else if (event.getName().equals("screen")) {
+            screenSlash(event);
+        } else if (event.getName().equals("backtest")) {
+            backtestSlash(event);
+        } else if (event.getName().equals("optbacktest")) {
+            optionsBacktestSlash(event);
+        } else if (event.getName().equals("pairs")) {
+            pairsSlash(event);
+        } else if (event.getName().equals("regime")) {
+            regimeSlash(event);
+        } else if (event.getName().equals("halflife")) {
+            halfLifeSlash(event);
         }
     }
 
@@ -274,7 +379,7 @@ public class DiscordBotService extends ListenerAdapter {
      * Pre-market alert at 9:29 AM EST.
      * Gives users a 1-minute heads up on the 0DTE pricing before the bell.
      */
-    @Scheduled(cron = "0 29 9 * * MON-FRI", zone = "America/New_York")
+    @Scheduled(cron = "0 29 9 * * MON-FRI", zone = MarketCalendar.ZONE_NAME)
     public void alertPreMarket() {
         sendStraddleAlert(0); // 0 DTE
     }
@@ -283,7 +388,7 @@ public class DiscordBotService extends ListenerAdapter {
      * Market Open alert at 9:30 AM EST.
      * Captures the straddle price exactly at the opening bell.
      */
-    @Scheduled(cron = "0 30 9 * * MON-FRI", zone = "America/New_York")
+    @Scheduled(cron = "0 30 9 * * MON-FRI", zone = MarketCalendar.ZONE_NAME)
     public void alertMarketOpen() {
         sendStraddleAlert(0); // 0 DTE
     }
@@ -379,6 +484,394 @@ public class DiscordBotService extends ListenerAdapter {
         }
     }
 
+    /**
+     * Handle /screen command - Rank the universe by dependence on the index.
+     */
+    private void screenSlash(SlashCommandInteractionEvent event) {
+        DependenceScreenService.SortBy sortBy = DependenceScreenService.SortBy.HOEFFDING;
+        if (event.getOption("sort") != null) {
+            try {
+                sortBy = DependenceScreenService.SortBy.valueOf(event.getOption("sort").getAsString().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                event.reply("❌ Sort must be HOEFFDING, PEARSON or SPEARMAN").setEphemeral(true).queue();
+                return;
+            }
+        }
+
+        event.deferReply().queue();
+
+        try {
+            List<DependenceScreen.DependenceResult> results = dependenceScreenService.screen(sortBy);
+            if (results.isEmpty()) {
+                event.getHook().sendMessage("❌ No symbols had enough history to screen.").queue();
+                return;
+            }
+
+            StringBuilder sb = new StringBuilder("```\n");
+            sb.append(String.format("%-6s %6s %6s %6s %6s%n", "Ticker", "D", "p(D)", "r", "rho"));
+            int shown = 0;
+            for (DependenceScreen.DependenceResult r : results) {
+                if (shown++ >= 20) {
+                    break;
+                }
+                sb.append(String.format("%-6s %6.3f %6.3f %6.2f %6.2f%n", r.getSymbol(), r.getHoeffdingD(),
+                        r.getHoeffdingPValue(), r.getPearson().getCoefficient(),
+                        r.getSpearman().getCoefficient()));
+            }
+            sb.append("```");
+
+            DependenceScreen.DependenceResult top = results.get(0);
+            EmbedBuilder eb = new EmbedBuilder();
+            eb.setTitle("🔗 Dependence on " + dependenceScreenService.getIndexSymbol() + " (sorted by " + sortBy + ")");
+            eb.setColor(Color.decode("#3498db"));
+            eb.setDescription(sb.toString());
+            eb.addField("Top Pearson 95% CI",
+                    top.getSymbol() + ": " + String.format("%.2f to %.2f (p=%.4f)", top.getPearson().getLower(),
+                            top.getPearson().getUpper(), top.getPearson().getPValue()),
+                    false);
+            eb.setFooter(dependenceScreenService.getLength() + " daily log returns • refreshed once per session");
+            event.getHook().sendMessageEmbeds(eb.build()).queue();
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            String errMsg = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            event.getHook().sendMessage("❌ Error running screen: " + errMsg).queue();
+        }
+    }
+
+    /**
+     * Handle /regime command - DFA Hurst and variance ratio screen of the
+     * universe, lowest Hurst first.
+     */
+    private void regimeSlash(SlashCommandInteractionEvent event) {
+        event.deferReply().queue();
+
+        try {
+            List<RegimeTests.RegimeResult> results = regimeScreenService.screenUniverse();
+            if (results.isEmpty()) {
+                event.getHook().sendMessage("❌ No symbols had enough history to screen.").queue();
+                return;
+            }
+
+            StringBuilder sb = new StringBuilder("```\n");
+            sb.append(String.format("%-6s %6s %13s %7s %3s%n", "Ticker", "H", "Band", "min VRz", "MR"));
+            int meanReverting = 0;
+            int shown = 0;
+            for (RegimeTests.RegimeResult r : results) {
+                if (r.isMeanReverting()) {
+                    meanReverting++;
+                }
+                if (shown++ >= 20) {
+                    continue;
+                }
+                RegimeTests.HurstResult h = r.getHurst();
+                sb.append(String.format("%-6s %6.3f %6.3f-%-6.3f %7.2f %3s%n", r.getSymbol(), h.getHurst(),
+                        h.getLowerBand(), h.getUpperBand(), r.getMinVarianceRatioZ(),
+                        r.isMeanReverting() ? "✓" : ""));
+            }
+            sb.append("```");
+
+            EmbedBuilder eb = new EmbedBuilder();
+            eb.setTitle("🌀 Regime Screen (" + meanReverting + "/" + results.size() + " mean-reverting)");
+            eb.setColor(Color.decode("#9b59b6"));
+            eb.setDescription(sb.toString());
+            eb.setFooter("DFA Hurst below its band or a variance ratio z-score below the critical value • 2y daily");
+            event.getHook().sendMessageEmbeds(eb.build()).queue();
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            String errMsg = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            event.getHook().sendMessage("❌ Error running regime screen: " + errMsg).queue();
+        }
+    }
+
+    /**
+     * Handle /halflife command - Half-life regression diagnostics for the
+     * universe, shortest half-life first.
+     */
+    private void halfLifeSlash(SlashCommandInteractionEvent event) {
+        int lookback = event.getOption("lookback") != null ? event.getOption("lookback").getAsInt()
+                : MeanReversionIndicators.DEFAULT_HALF_LIFE_LOOKBACK;
+        if (lookback < 20 || lookback > 500) {
+            event.reply("❌ Lookback must be between 20 and 500").setEphemeral(true).queue();
+            return;
+        }
+
+        event.deferReply().queue();
+
+        try {
+            Map<String, HalfLifeDiagnostics.Diagnostics> results = regimeScreenService
+                    .screenHalfLife(regimeScreenService.getUniverse(), lookback);
+            if (results.isEmpty()) {
+                event.getHook().sendMessage("❌ No symbols had enough history to screen.").queue();
+                return;
+            }
+
+            StringBuilder sb = new StringBuilder("```\n");
+            sb.append(String.format("%-6s %8s %7s %6s %5s%n", "Ticker", "HL", "±SE", "t", "DW"));
+            int shown = 0;
+            for (Map.Entry<String, HalfLifeDiagnostics.Diagnostics> entry : results.entrySet()) {
+                if (shown++ >= 20) {
+                    break;
+                }
+                HalfLifeDiagnostics.Diagnostics d = entry.getValue();
+                sb.append(String.format("%-6s %8.1f %7.1f %6.2f %5.2f%n", entry.getKey(), d.getHalfLife(),
+                        d.getHalfLifeStdError(), d.getBetaTStat(), d.getDurbinWatson()));
+            }
+            sb.append("```");
+
+            EmbedBuilder eb = new EmbedBuilder();
+            eb.setTitle("⏳ Half-Life Screen (" + lookback + " bars)");
+            eb.setColor(Color.decode("#1abc9c"));
+            eb.setDescription(sb.toString());
+            eb.setFooter("Half-life in sessions • t = Dickey-Fuller t without lags • DW near 2 = uncorrelated residuals");
+            event.getHook().sendMessageEmbeds(eb.build()).queue();
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            String errMsg = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            event.getHook().sendMessage("❌ Error running half-life screen: " + errMsg).queue();
+        }
+    }
+
+    /**
+     * Handle /backtest command - Sweep the z-score strategy's parameters,
+     * editing the reply with the best configuration as the sweep finds it.
+     */
+    private void backtestSlash(SlashCommandInteractionEvent event) {
+        String ticker = event.getOption("ticker").getAsString().toUpperCase();
+        Integer samples = event.getOption("samples") != null ? event.getOption("samples").getAsInt() : null;
+        boolean walkForward = event.getOption("walkforward") != null && event.getOption("walkforward").getAsBoolean();
+        if (samples != null && (samples < 1 || samples > 100_000)) {
+            event.reply("❌ Samples must be between 1 and 100000").setEphemeral(true).queue();
+            return;
+        }
+
+        event.deferReply().queue();
+
+        try {
+            EmbedBuilder eb = new EmbedBuilder();
+            eb.setColor(Color.decode("#9b59b6"));
+            String summary;
+
+            if (walkForward) {
+                AtomicInteger folds = new AtomicInteger();
+                ParameterSweep.WalkForwardResult result = backtestService.walkForward(ticker, samples,
+                        fold -> event.getHook().editOriginal(String.format("⏳ Fold %d done: OOS %+.2f%%",
+                                folds.incrementAndGet(), 100 * fold.getTestReturn()))
+                                .queue());
+                eb.setTitle("🔁 Walk-Forward: " + ticker);
+                StringBuilder sb = new StringBuilder("```\n");
+                sb.append(String.format("%-5s %5s %4s %5s %6s %6s%n", "Fold", "z", "LB", "Train", "OOS%", "Trades"));
+                int n = 1;
+                for (ParameterSweep.Fold fold : result.getFolds()) {
+                    BacktestParams p = fold.getTrain().getParams();
+                    sb.append(String.format("%-5d %5.2f %4d %5.2f %+6.2f %6d%n", n++, p.getZscoreThreshold(),
+                            p.getZscoreLookback(), fold.getTrain().getScore(),
+                            100 * fold.getTestReturn(), fold.getTest().getTotalTrades()));
+                }
+                sb.append("```");
+                eb.setDescription(sb.toString());
+                eb.addField("Out-of-Sample Return", String.format("%+.2f%%", 100 * result.getOutOfSampleReturn()),
+                        true);
+                eb.addField("OOS Trades", result.getOutOfSampleTrades() + String.format(" (%.0f%% win)",
+                        100 * result.getOutOfSampleWinRate()), true);
+                eb.addField("Mean Train Sharpe", String.format("%.2f", result.getMeanTrainScore()), true);
+                eb.setFooter("Train " + backtestService.getTrainBars() + " bars • test "
+                        + backtestService.getTestBars() + " bars • rolling");
+                summary = "✅ " + result.getFolds().size() + " folds";
+            } else {
+                AtomicLong lastEdit = new AtomicLong();
+                ParameterSweep.SweepResult result = backtestService.optimize(ticker, samples, (best, evaluated) -> {
+                    long now = System.currentTimeMillis();
+                    long previous = lastEdit.get();
+                    // Discord rate-limits edits; one per second is plenty
+                    if (now - previous > 1000 && lastEdit.compareAndSet(previous, now)) {
+                        event.getHook().editOriginal(String.format("⏳ %d tested • best Sharpe %.2f (%s)", evaluated,
+                                best.getScore(), describe(best.getParams()))).queue();
+                    }
+                });
+                if (result.getBest() == null) {
+                    event.getHook().editOriginal("❌ No configuration traded often enough on " + ticker).queue();
+                    return;
+                }
+                BacktestResult best = result.getBest().getResult();
+                eb.setTitle("🧪 Backtest Optimizer: " + ticker);
+                StringBuilder sb = new StringBuilder("```\n");
+                sb.append(String.format("%-28s %6s %6s %5s%n", "Config", "Sharpe", "Ret%", "Trd"));
+                for (ParameterSweep.Ranked r : result.getTop()) {
+                    sb.append(String.format("%-28s %6.2f %+6.1f %5d%n", describe(r.getParams()), r.getScore(),
+                            100 * (last(r.getResult().getEquityCurve()) - 1), r.getResult().getTotalTrades()));
+                }
+                sb.append("```");
+                eb.setDescription(sb.toString());
+                eb.addField("Win Rate", String.format("%.1f%%", 100 * best.getWinRate()), true);
+                eb.addField("Max Drawdown", String.format("%.2f%%", 100 * best.getMaxDrawdown()), true);
+                eb.addField("Profit Factor", String.format("%.2f", best.getProfitFactor()), true);
+                eb.setFooter("In-sample only • use walkforward:true for out-of-sample");
+                summary = String.format("✅ %d configurations in %d ms", result.getEvaluated(),
+                        result.getElapsedMillis());
+            }
+
+            event.getHook().editOriginal(summary).setEmbeds(eb.build()).queue();
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            String errMsg = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            event.getHook().editOriginal("❌ Error running backtest: " + errMsg).queue();
+        }
+    }
+
+    /**
+     * Handle /optbacktest - replay an ATM-anchored structure over recorded
+     * SPX chain snapshots with the default 0DTE entry/exit rules.
+     */
+    private void optionsBacktestSlash(SlashCommandInteractionEvent event) {
+        String structureName = event.getOption("structure").getAsString().toUpperCase();
+        int width = event.getOption("width") != null ? event.getOption("width").getAsInt() : 10;
+        int wing = event.getOption("wing") != null ? event.getOption("wing").getAsInt() : 10;
+        int direction = event.getOption("short") != null && event.getOption("short").getAsBoolean() ? -1 : 1;
+        String fillName = event.getOption("fill") != null ? event.getOption("fill").getAsString().toUpperCase()
+                : "BIDASK";
+        int days = event.getOption("days") != null ? event.getOption("days").getAsInt() : 90;
+
+        StrategyType type;
+        try {
+            type = StrategyType.fromString(structureName);
+        } catch (IllegalArgumentException e) {
+            type = StrategyType.CUSTOM;
+        }
+
+        OptionStructure structure;
+        switch (type) {
+            case STRADDLE:
+                structure = OptionStructure.straddle(direction);
+                break;
+            case VERTICAL:
+                structure = OptionStructure.vertical(true, width, direction);
+                break;
+            case FLY:
+                structure = OptionStructure.fly(true, width, direction);
+                break;
+            case IRON_CONDOR:
+                structure = OptionStructure.ironCondor(width, wing, direction);
+                break;
+            default:
+                event.reply("❌ Structure must be STRADDLE, VERTICAL, FLY or IC").setEphemeral(true).queue();
+                return;
+        }
+
+        event.deferReply().queue();
+
+        try {
+            OptionsBacktestParams defaults = OptionsBacktestParams.defaults();
+            OptionsBacktestParams params = new OptionsBacktestParams(defaults.getEntryTime(),
+                    defaults.getExitTime(), defaults.getProfitTarget(), defaults.getStopLoss(),
+                    "MID".equals(fillName) ? OptionsBacktestParams.Fill.MID : OptionsBacktestParams.Fill.BID_ASK,
+                    defaults.getDte());
+            LocalDate to = MarketCalendar.today();
+            OptionsBacktestResult result = backtestService.backtestOptions(structure, params, to.minusDays(days),
+                    to);
+            if (result.getTrades() == 0) {
+                event.getHook().editOriginal("❌ No recorded chain days to backtest in the last " + days + " days")
+                        .queue();
+                return;
+            }
+
+            EmbedBuilder eb = new EmbedBuilder();
+            eb.setColor(result.getTotalPnl() >= 0 ? Color.GREEN : Color.RED);
+            eb.setTitle("🧾 Options Backtest: SPX " + (direction < 0 ? "short " : "") + structure.getType());
+
+            StringBuilder sb = new StringBuilder("```\n");
+            int[] histogram = result.histogram(8);
+            double lo = result.getWorstPnl();
+            double step = (result.getBestPnl() - lo) / histogram.length;
+            int peak = 1;
+            for (int count : histogram) {
+                peak = Math.max(peak, count);
+            }
+            for (int i = 0; i < histogram.length; i++) {
+                sb.append(String.format("%+8.0f %s %d%n", lo + i * step, "█".repeat(20 * histogram[i] / peak),
+                        histogram[i]));
+            }
+            sb.append("```");
+            eb.setDescription(sb.toString());
+
+            eb.addField("Total P&L", String.format("$%,.0f", result.getTotalPnl()), true);
+            eb.addField("Mean / Std", String.format("$%,.0f / $%,.0f", result.getMeanPnl(), result.getStdPnl()),
+                    true);
+            eb.addField("Win Rate", String.format("%.1f%% of %d", 100 * result.getWinRate(), result.getTrades()),
+                    true);
+            eb.addField("5th / 50th / 95th", String.format("$%,.0f / $%,.0f / $%,.0f", result.percentile(0.05),
+                    result.percentile(0.5), result.percentile(0.95)), true);
+            eb.addField("5% Tail Mean", String.format("$%,.0f", result.tailMean(0.05)), true);
+            eb.addField("Max Drawdown", String.format("$%,.0f", result.getMaxDrawdown()), true);
+            eb.setFooter(String.format("Entry %s • target %.0f%% • stop %.0f%% • %s fills • %d days skipped",
+                    params.getEntryTime(), 100 * params.getProfitTarget(), 100 * params.getStopLoss(), fillName,
+                    result.getSkippedDays()));
+
+            event.getHook().editOriginalEmbeds(eb.build()).queue();
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            String errMsg = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            event.getHook().editOriginal("❌ Error running options backtest: " + errMsg).queue();
+        }
+    }
+
+    /**
+     * Handle /pairs - Engle-Granger cointegrated pairs in the screen
+     * universe, widest Kalman spread z-score first.
+     */
+    private void pairsSlash(SlashCommandInteractionEvent event) {
+        event.deferReply().queue();
+
+        try {
+            PairsService.PairsReport report = pairsService.getPairs();
+            if (report.getPairs().isEmpty()) {
+                event.getHook().sendMessage("❌ No cointegrated pairs among " + report.getCandidates()
+                        + " correlated candidates.").queue();
+                return;
+            }
+
+            StringBuilder sb = new StringBuilder("```\n");
+            sb.append(String.format("%-11s %6s %6s %6s %5s%n", "Pair", "Beta", "z", "ADF", "HL"));
+            int shown = 0;
+            for (PairsScanner.PairSnapshot p : report.getPairs()) {
+                if (shown++ >= 15) {
+                    break;
+                }
+                sb.append(String.format("%-11s %6.2f %6.2f %6.2f %5.1f%n", p.getY() + "/" + p.getX(),
+                        p.getHedgeRatio(), p.getZscore(), p.getTest().getAdfStatistic(), p.getTest().getHalfLife()));
+            }
+            sb.append("```");
+
+            EmbedBuilder eb = new EmbedBuilder();
+            eb.setTitle("🔀 Cointegrated Pairs (" + report.getPairs().size() + ")");
+            eb.setColor(Color.decode("#9b59b6"));
+            eb.setDescription(sb.toString());
+            eb.addField("How to read", "Long Y / short Beta × X when z < -2, the reverse when z > 2", false);
+            eb.setFooter(report.getUniverseSize() + " symbols • " + report.getCandidates()
+                    + " correlated candidates • as of " + report.getAsOf());
+            event.getHook().sendMessageEmbeds(eb.build()).queue();
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            String errMsg = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            event.getHook().sendMessage("❌ Error scanning pairs: " + errMsg).queue();
+        }
+    }
+
+    /** "z2.00 lb50 sl5.0% tp10.0% 20b" */
+    private static String describe(BacktestParams p) {
+        return String.format("z%.2f lb%d sl%.1f%% tp%.1f%% %db", p.getZscoreThreshold(), p.getZscoreLookback(),
+                100 * p.getStopLossPct(), 100 * p.getTakeProfitPct(), p.getMaxHoldingBars());
+    }
+
+    private static double last(double[] values) {
+        return values[values.length - 1];
+    }
+
     /**
      * Handle /indicator command - Get mean reversion indicators from Python API.
      */
@@ -388,8 +881,8 @@ public class DiscordBotService extends ListenerAdapter {
         event.deferReply().queue();
 
         try {
-            // Call the Flask Python API
-            java.util.Map<String, Object> data = indicatorService.getAllIndicators(ticker);
+            // Watchlist tickers come from last night's precompute, others are computed now
+            java.util.Map<String, Object> data = indicatorSnapshotService.getIndicators(ticker);
 
             // Extract values from the response
             Double zscore = (Double) data.get("zscore");
@@ -424,14 +917,67 @@ public class DiscordBotService extends ListenerAdapter {
             String acfEmoji = acf < -0.05 ? "📉 Mean Reverting" : (acf > 0.05 ? "📈 Trending" : "➡️ Neutral");
             eb.addField("ACF Lag-1", String.format("%.4f", acf) + " " + acfEmoji, false);
 
-            eb.setFooter("Powered by Python Indicators API");
+            // DFA Hurst (precomputed watchlist tickers only)
+            Double hurst = (Double) data.get("hurst");
+            if (hurst != null && !hurst.isNaN()) {
+                String hurstLabel = hurst < 0.45 ? "Anti-persistent" : (hurst > 0.55 ? "Persistent" : "Random walk");
+                eb.addField("Hurst (DFA)", String.format("%.3f %s", hurst, hurstLabel), true);
+            }
+
+            // Log-return moments over the z-score window (watchlist tickers, from the streaming state)
+            Double returnStd = (Double) data.get("return_std");
+            if (returnStd != null && !returnStd.isNaN()) {
+                eb.addField("Daily Log-Return Moments",
+                        String.format("mean %+.3f%% | std %.3f%% | skew %.2f | ex-kurt %.2f",
+                                100 * (Double) data.get("return_mean"), 100 * returnStd,
+                                (Double) data.get("return_skew"), (Double) data.get("return_kurtosis")),
+                        false);
+            }
+
+            // Kalman filter on streamed quotes (tracked symbols only, when kalman.enabled)
+            Optional<KalmanFilterService.KalmanReading> kalman = kalmanFilterService.getReading(ticker);
+            if (kalman.isPresent()) {
+                KalmanFilterService.KalmanReading reading = kalman.get();
+                eb.addField("Kalman Filter",
+                        String.format("Est %.2f [%.2f, %.2f] | %+.2fσ (%s) | gain %.3f", reading.getEstimate(),
+                                reading.getLowerBand(), reading.getUpperBand(), reading.getDeviation(),
+                                reading.getSignal(), reading.getKalmanGain()),
+                        false);
+            }
+
+            // HV percentile / rank (low = volatility is cheap relative to its past year)
+            Optional<VolatilityService.HvReading> hv = volatilityService.getPercentileRank(ticker);
+            if (hv.isPresent()) {
+                VolatilityService.HvReading reading = hv.get();
+                eb.addField("HV Percentile / Rank",
+                        String.format("%.0f%% / %.0f%% (HV %.1f%%, %d-day lookback)", reading.getPercentile(),
+                                reading.getRank(), reading.getAnnualizedHv() * 100, reading.getLookback()),
+                        false);
+            }
+
+            // Return shape: L-moments (tails/asymmetry) and Omega at a zero threshold
+            try {
+                PerformanceService.ReturnProfile profile = performanceService.getReturnProfile(ticker);
+                PerformanceMetrics.LMoments lm = profile.getLMoments();
+                eb.addField("Return Shape",
+                        String.format("L-skew %.3f | L-kurt %.3f (normal %.3f) | Ω(0) %.2f", lm.getLSkewness(),
+                                lm.getLKurtosis(), PerformanceMetrics.NORMAL_L_KURTOSIS,
+                                profile.getOmega().getOmegaAtZero()),
+                        false);
+            } catch (Exception e) {
+                // Optional field; the core indicators above already succeeded
+                e.printStackTrace();
+            }
+
+            eb.setFooter(data.containsKey("bar_date") ? "Precomputed at the " + data.get("bar_date") + " close"
+                    : "Powered by in-process Java indicators");
             event.getHook().sendMessageEmbeds(eb.build()).queue();
 
         } catch (Exception e) {
             e.printStackTrace();
             String errMsg = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
             event.getHook().sendMessage("❌ Error: " + errMsg +
-                    "\n⚠️ Lambda API may be initializing. Try again in a few seconds.").queue();
+                    "\n⚠️ Price history may be unavailable. Try again in a few seconds.").queue();
         }
     }
 
@@ -507,10 +1053,10 @@ public class DiscordBotService extends ListenerAdapter {
 
         try {
             // Get the strategy to verify ownership and show details
-            List<Strategy> userStrategies = strategyService.getOpenStrategies(userId);
-            Strategy target = null;
+            List<StrategyView> userStrategies = strategyService.getOpenStrategies(userId);
+            StrategyView target = null;
 
-            for (Strategy s : userStrategies) {
+            for (StrategyView s : userStrategies) {
                 if (s.getId() == id) {
                     target = s;
                     break;
@@ -568,6 +1114,64 @@ public class DiscordBotService extends ListenerAdapter {
         }
     }
 
+    /**
+     * Handle /import command - Parse every line of the attached file as a
+     * /buy contract plus price, then save them all in one batched
+     * transaction. Nothing is saved if any line fails to parse.
+     */
+    private void importSlash(SlashCommandInteractionEvent event) {
+        Message.Attachment file = event.getOption("file").getAsAttachment();
+        String userId = event.getUser().getName();
+        if (file.getSize() > MAX_IMPORT_BYTES) {
+            event.reply("❌ Import files are limited to " + MAX_IMPORT_BYTES / 1024 + " KB").setEphemeral(true).queue();
+            return;
+        }
+
+        event.deferReply().queue();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(file.getProxy().download().join(), StandardCharsets.UTF_8))) {
+            List<Strategy> strategies = new ArrayList<>();
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int split = line.lastIndexOf(' ');
+                try {
+                    if (split < 0) {
+                        throw new IllegalArgumentException("missing price");
+                    }
+                    CommandParserService.ParsedOption opt = parserService.parse(line.substring(0, split));
+                    double price = Double.parseDouble(line.substring(split + 1));
+                    Strategy strategy = new Strategy(userId, "SINGLE", opt.ticker, null);
+                    strategy.getLegs().add(new Leg(opt.type, opt.strike, LocalDate.now().plusDays(opt.days), price, 1));
+                    strategies.add(strategy);
+                } catch (Exception e) {
+                    event.getHook().sendMessage("❌ Line " + lineNumber + " (`" + line + "`): " + e.getMessage()
+                            + "\nNothing was imported. Format: `NVDA 150c 30d 1.50`").queue();
+                    return;
+                }
+            }
+            if (strategies.isEmpty()) {
+                event.getHook().sendMessage("❌ No contracts found in " + file.getFileName()).queue();
+                return;
+            }
+
+            List<Strategy> saved = strategyService.importStrategies(strategies);
+            event.getHook().sendMessage("✅ **Imported " + saved.size() + " positions** from " + file.getFileName()
+                    + "\n📋 Strategy IDs: " + saved.get(0).getId() + " - " + saved.get(saved.size() - 1).getId())
+                    .queue();
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            event.getHook().sendMessage("❌ Error importing: " + e.getMessage()).queue();
+        }
+    }
+
     /**
      * Handle /spread command with smart templates.
      * Auto-generates legs based on strategy type.
@@ -861,19 +1465,20 @@ public class DiscordBotService extends ListenerAdapter {
         event.deferReply().queue();
 
         try {
-            List<Strategy> strategies = strategyService.getOpenStrategies(userId);
-            int closedCount = 0;
-
-            for (Strategy s : strategies) {
-                if (s.getTicker().equalsIgnoreCase(ticker)) {
-                    strategyService.closeStrategy(s.getId());
-                    closedCount++;
+            // One UPDATE ... RETURNING, however many strategies are open
+            List<StrategyRepository.ClosedStrategy> closed = strategyService.closeStrategies(userId, ticker);
+
+            if (!closed.isEmpty()) {
+                double netCost = 0;
+                List<String> ids = new ArrayList<>();
+                for (StrategyRepository.ClosedStrategy c : closed) {
+                    netCost += c.getNetCost() != null ? c.getNetCost() : 0;
+                    ids.add("#" + c.getId());
                 }
-            }
-
-            if (closedCount > 0) {
                 event.getHook().sendMessage(
-                        "✅ Closed all positions for **" + ticker + "** (" + closedCount + " strategies)").queue();
+                        "✅ Closed all positions for **" + ticker + "** (" + closed.size() + " strategies: "
+                                + String.join(", ", ids) + ", net cost $" + String.format("%.2f", netCost) + ")")
+                        .queue();
             } else {
                 event.getHook().sendMessage("❌ No positions found for **" + ticker + "**").queue();
             }
@@ -889,7 +1494,7 @@ public class DiscordBotService extends ListenerAdapter {
         // Defer in case database is slow
         event.deferReply().queue();
 
-        List<Strategy> strategies = strategyService.getOpenStrategies(userId);
+        List<StrategyView> strategies = strategyService.getOpenStrategies(userId);
         EmbedBuilder eb = new EmbedBuilder();
         eb.setTitle("💼 " + userId + "'s Portfolio");
         eb.setColor(Color.decode("#2ecc71")); // Green
@@ -900,14 +1505,14 @@ public class DiscordBotService extends ListenerAdapter {
             StringBuilder sb = new StringBuilder();
             double totalValue = 0;
 
-            for (Strategy s : strategies) {
+            for (StrategyView s : strategies) {
                 // Strategy header
                 sb.append("**#" + s.getId() + " " + s.getTicker() + "** (" + s.getStrategy() + ")\n");
 
                 boolean isMultiLeg = s.getLegs().size() > 1;
 
                 // List each leg
-                for (Leg leg : s.getLegs()) {
+                for (StrategyView.LegView leg : s.getLegs()) {
                     String legDir = leg.getQuantity() > 0 ? "📈" : "📉";
                     int qty = Math.abs(leg.getQuantity());
                     String qtyStr = qty > 1 ? " x" + qty : "";
@@ -973,10 +1578,10 @@ public class DiscordBotService extends ListenerAdapter {
 
     private void analyzerSlash(SlashCommandInteractionEvent event) {
         String userId = event.getUser().getName();
-        double volatility = 0.4; // Default volatility
-        if (event.getOption("volatility") != null) {
-            volatility = event.getOption("volatility").getAsDouble();
-        }
+        // Explicit volatility overrides the per-ticker historical estimate
+        Double customVolatility = event.getOption("volatility") != null
+                ? event.getOption("volatility").getAsDouble()
+                : null;
 
         // Check if query parameter is provided
         if (event.getOption("query") == null) {
@@ -984,7 +1589,7 @@ public class DiscordBotService extends ListenerAdapter {
             event.deferReply().queue();
 
             try {
-                List<Strategy> strategies = strategyService.getOpenStrategies(userId);
+                List<StrategyView> strategies = strategyService.getOpenStrategies(userId);
 
                 if (strategies.isEmpty()) {
                     event.getHook().sendMessage("❌ You have no positions to analyze. Use `/buy` to add contracts!")
@@ -997,10 +1602,10 @@ public class DiscordBotService extends ListenerAdapter {
                 eb.setColor(Color.decode("#9b59b6")); // Purple
 
                 StringBuilder analysis = new StringBuilder();
-                final double vol = volatility; // For lambda
 
-                for (Strategy s : strategies) {
-                    for (Leg leg : s.getLegs()) {
+                for (StrategyView s : strategies) {
+                    double vol = resolveVolatility(s.getTicker(), customVolatility);
+                    for (StrategyView.LegView leg : s.getLegs()) {
                         try {
                             double currentPrice = marketService.getPrice(s.getTicker());
                             if (currentPrice > 0) {
@@ -1046,7 +1651,10 @@ public class DiscordBotService extends ListenerAdapter {
                 }
 
                 eb.setDescription(analysis.toString());
-                eb.setFooter("Analysis uses Black-Scholes with IV=" + (volatility * 100) + "%");
+                addCorrelationField(eb, strategies);
+                eb.setFooter(customVolatility != null
+                        ? "Analysis uses Black-Scholes with IV=" + (customVolatility * 100) + "%"
+                        : "Analysis uses Black-Scholes with " + volatilityService.describe() + " per ticker");
                 event.getHook().sendMessageEmbeds(eb.build()).queue();
             } catch (Exception e) {
                 e.printStackTrace();
@@ -1065,6 +1673,7 @@ public class DiscordBotService extends ListenerAdapter {
                     event.getHook().sendMessage("❌ Could not fetch price for **" + opt.ticker + "**.").queue();
                     return;
                 }
+                double volatility = resolveVolatility(opt.ticker, customVolatility);
                 double fairValue = bsService.blackScholes(currentPrice, opt.strike, opt.days / 365.0, volatility,
                         0.05, opt.type);
 
@@ -1073,7 +1682,8 @@ public class DiscordBotService extends ListenerAdapter {
                 eb.setColor(Color.MAGENTA);
                 eb.addField("Live Stock Price", "$" + currentPrice, true);
                 eb.addField("Fair Value", "$" + String.format("%.2f", fairValue), true);
-                eb.setFooter("Using volatility: " + (volatility * 100) + "%");
+                eb.setFooter("Using volatility: " + String.format("%.1f", volatility * 100) + "%" +
+                        (customVolatility == null ? " (" + volatilityService.describe() + ")" : ""));
                 event.getHook().sendMessageEmbeds(eb.build()).queue();
             } catch (Exception e) {
                 event.getHook().sendMessage("❌ Error: " + e.getMessage() + "\nTry format: `NVDA 150c 30d`").queue();
@@ -1081,6 +1691,55 @@ public class DiscordBotService extends ListenerAdapter {
         }
     }
 
+    /**
+     * Add the most correlated ticker pairs in the book, if it holds more
+     * than one ticker. Analysis still goes out if this fails.
+     */
+    private void addCorrelationField(EmbedBuilder eb, List<StrategyView> strategies) {
+        Set<String> tickers = new TreeSet<>();
+        for (StrategyView s : strategies) {
+            tickers.add(s.getTicker().toUpperCase());
+        }
+        if (tickers.size() < 2) {
+            return;
+        }
+        try {
+            CorrelationService.PortfolioCorrelation correlation = correlationService.correlate(tickers);
+            List<String> symbols = correlation.getSymbols();
+            List<int[]> pairs = new ArrayList<>();
+            for (int i = 0; i < symbols.size(); i++) {
+                for (int j = i + 1; j < symbols.size(); j++) {
+                    pairs.add(new int[] { i, j });
+                }
+            }
+            pairs.sort((a, b) -> Double.compare(
+                    Math.abs(correlation.getMatrix().getCorrelation(b[0], b[1])),
+                    Math.abs(correlation.getMatrix().getCorrelation(a[0], a[1]))));
+
+            StringBuilder sb = new StringBuilder();
+            for (int k = 0; k < Math.min(5, pairs.size()); k++) {
+                int[] p = pairs.get(k);
+                sb.append(String.format("%s / %s: %.2f\n", symbols.get(p[0]), symbols.get(p[1]),
+                        correlation.getMatrix().getCorrelation(p[0], p[1])));
+            }
+            eb.addField("🔗 Most Correlated Holdings (1y daily)", sb.toString(), false);
+        } catch (Exception e) {
+            // Correlation is a nice-to-have here; never fail the analysis over it
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Volatility for pricing: the user's value if given, else the ticker's
+     * historical volatility, else the old 40% fallback.
+     */
+    private double resolveVolatility(String ticker, Double customVolatility) {
+        if (customVolatility != null) {
+            return customVolatility;
+        }
+        return volatilityService.getVolatility(ticker).orElse(DEFAULT_VOLATILITY);
+    }
+
     private void viewSlash(SlashCommandInteractionEvent event) {
         // Change "username" to "user" (matching the updated command)
         String username = event.getOption("user").getAsUser().getName();
@@ -1088,7 +1747,7 @@ public class DiscordBotService extends ListenerAdapter {
         event.deferReply().queue();
 
         try {
-            List<Strategy> strategies = strategyService.getOpenStrategies(username);
+            List<StrategyView> strategies = strategyService.getOpenStrategies(username);
             EmbedBuilder eb = new EmbedBuilder();
             eb.setTitle("💼 " + username + "'s Portfolio");
             eb.setColor(Color.decode("#3498db")); // Blue
@@ -1097,14 +1756,14 @@ public class DiscordBotService extends ListenerAdapter {
                 eb.setDescription("No active positions.");
             } else {
                 StringBuilder sb = new StringBuilder();
-                for (Strategy s : strategies) {
+                for (StrategyView s : strategies) {
                     // Strategy header
                     sb.append("**#" + s.getId() + " " + s.getTicker() + "** (" + s.getStrategy() + ")\n");
 
                     boolean isMultiLeg = s.getLegs().size() > 1;
 
                     // List each leg
-                    for (Leg leg : s.getLegs()) {
+                    for (StrategyView.LegView leg : s.getLegs()) {
                         String legDir = leg.getQuantity() > 0 ? "📈" : "📉";
                         int qty = Math.abs(leg.getQuantity());
                         String qtyStr = qty > 1 ? " x" + qty : "";
@@ -1,22 +1,50 @@
 package com.dealaggregator.dealapi.service;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.dealaggregator.dealapi.analytics.MeanReversionIndicators;
+import com.dealaggregator.dealapi.marketdata.CoalescingCache;
+import com.dealaggregator.dealapi.marketdata.MarketCalendar;
+import com.dealaggregator.dealapi.marketdata.PriceBars;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
 /**
- * Service for calling the Python Indicators Lambda API.
- * Implements secure API key authentication and structured logging.
+ * Service for mean reversion indicators (Z-Score, Half-Life, ACF).
+ *
+ * Indicators are computed in-process by MeanReversionIndicators, a Java
+ * port of python/mean_reversion/indicators.py, so /indicator no longer
+ * waits on a Lambda cold start. The Python Lambda API is kept as a
+ * fallback (and can be forced with indicators.engine=lambda).
+ *
+ * Results are cached per ticker and daily bar date for
+ * indicators.cache.ttl-seconds. Concurrent requests for the same ticker
+ * share one computation, and once an entry expires a slow refresh (e.g. a
+ * Lambda cold start) serves the previous value rather than making the
+ * caller wait.
  */
 @Service
 public class IndicatorService {
@@ -28,21 +56,212 @@ public class IndicatorService {
 
     private final HttpClient httpClient = HttpClient.newHttpClient();
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PriceHistoryService priceHistoryService;
 
     // API Key loaded from environment variable (set in Railway)
     @Value("${LAMBDA_API_KEY:}")
     private String apiKey;
 
+    /** "local" (default) computes in-process; "lambda" always calls the Python API */
+    @Value("${indicators.engine:local}")
+    private String engine;
+
+    /** Identical requests within this window share one result */
+    @Value("${indicators.cache.ttl-seconds:60}")
+    private long cacheTtlSeconds;
+
+    /** Expired results this young may be served while a refresh runs */
+    @Value("${indicators.cache.max-stale-minutes:30}")
+    private long cacheMaxStaleMinutes;
+
+    /** How long to wait on a refresh before falling back to the stale result */
+    @Value("${indicators.cache.stale-wait-ms:1500}")
+    private long cacheStaleWaitMillis;
+
+    private ExecutorService refreshExecutor;
+    private CoalescingCache<String, Map<String, Object>> cache;
+
+    public IndicatorService(PriceHistoryService priceHistoryService) {
+        this.priceHistoryService = priceHistoryService;
+    }
+
+    @PostConstruct
+    public void init() {
+        refreshExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "indicator-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        cache = new CoalescingCache<>(cacheTtlSeconds * 1000, cacheMaxStaleMinutes * 60_000,
+                cacheStaleWaitMillis, refreshExecutor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
     /**
      * Get all mean reversion indicators for a ticker.
-     * 
+     *
      * @param ticker Stock symbol (e.g., "SPY")
-     * @return Map containing zscore, half_life, acf, signal
+     * @return Map containing zscore, half_life, acf, signal (read-only, shared with other callers)
      */
     public Map<String, Object> getAllIndicators(String ticker) throws Exception {
-        String url = API_URL + "/all?ticker=" + ticker;
+        return cache.get(ticker.toUpperCase(), barDate(), this::loadIndicators);
+    }
 
-        logger.info("Calling Lambda API: ticker={}", ticker);
+    /**
+     * Indicators for many tickers at once. Cached tickers are answered
+     * immediately; the rest are fetched together (price history requests
+     * in parallel, or concurrent Lambda calls). Tickers that fail are
+     * logged and left out.
+     *
+     * @return Indicators by upper-case ticker, in request order
+     */
+    public Map<String, Map<String, Object>> getAllIndicators(Collection<String> tickers) {
+        List<String> keys = new ArrayList<>();
+        for (String ticker : tickers) {
+            keys.add(ticker.toUpperCase());
+        }
+        return cache.getAll(keys, barDate(), this::loadIndicators);
+    }
+
+    /**
+     * Drop a ticker's cached indicators so the next request recomputes them.
+     */
+    public void invalidate(String ticker) {
+        cache.invalidate(ticker.toUpperCase());
+    }
+
+    /**
+     * Cache version: the date of the latest daily bar, i.e. today in New
+     * York. Yesterday's results are never fresh, only servable as stale.
+     */
+    private static String barDate() {
+        return MarketCalendar.today().toString();
+    }
+
+    /**
+     * Cache loader: compute locally from one batched history fetch, sending
+     * only the tickers that fail to the Lambda.
+     * The Lambda's /all takes one ticker, so its share goes out as
+     * concurrent requests.
+     */
+    private Map<String, Map<String, Object>> loadIndicators(List<String> tickers) throws Exception {
+        Map<String, Map<String, Object>> results = new LinkedHashMap<>();
+        List<String> remote = new ArrayList<>();
+
+        if ("lambda".equalsIgnoreCase(engine)) {
+            remote.addAll(tickers);
+        } else {
+            long start = System.nanoTime();
+            // Same inputs as the Lambda's /all handler: 1 year of daily closes
+            Map<String, PriceBars> history = tickers.size() == 1 ? singleHistory(tickers.get(0))
+                    : priceHistoryService.getBarsForUniverse(tickers, "1y", "1d");
+            for (String ticker : tickers) {
+                PriceBars bars = history.get(ticker);
+                try {
+                    if (bars == null) {
+                        throw new IllegalStateException("no price history");
+                    }
+                    results.put(ticker, Collections.unmodifiableMap(computeIndicators(ticker, bars.getClose())));
+                } catch (Exception e) {
+                    logger.warn("Local indicator computation failed for {}, falling back to Lambda: {}",
+                            ticker, e.getMessage());
+                    remote.add(ticker);
+                }
+            }
+            logger.info("Computed indicators locally: tickers={}, micros={}", results.size(),
+                    (System.nanoTime() - start) / 1000);
+        }
+
+        if (!remote.isEmpty()) {
+            results.putAll(getAllIndicatorsRemote(remote));
+        }
+        return results;
+    }
+
+    private Map<String, PriceBars> singleHistory(String ticker) {
+        Map<String, PriceBars> history = new LinkedHashMap<>();
+        try {
+            history.put(ticker, priceHistoryService.getBars(ticker, "1y", "1d"));
+        } catch (Exception e) {
+            logger.warn("Price history unavailable for {}: {}", ticker, e.getMessage());
+        }
+        return history;
+    }
+
+    /**
+     * Compute the /all indicator bundle from a price series (oldest first).
+     * Mirrors lambda_handler.get_all: zscore(50), half_life(100), acf(10),
+     * with the same rounding.
+     */
+    public Map<String, Object> computeIndicators(String ticker, double[] prices) {
+        if (prices.length < MeanReversionIndicators.DEFAULT_ZSCORE_LOOKBACK) {
+            throw new IllegalArgumentException("Not enough price history for " + ticker +
+                    " (" + prices.length + " bars)");
+        }
+
+        MeanReversionIndicators.ZScoreResult z = MeanReversionIndicators.zscore(prices,
+                MeanReversionIndicators.DEFAULT_ZSCORE_LOOKBACK);
+        MeanReversionIndicators.HalfLifeResult hl = MeanReversionIndicators.halfLife(prices,
+                MeanReversionIndicators.DEFAULT_HALF_LIFE_LOOKBACK);
+        MeanReversionIndicators.AcfResult acf = MeanReversionIndicators.acf(prices,
+                MeanReversionIndicators.DEFAULT_ACF_MAX_LAG);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("ticker", ticker);
+        result.put("zscore", round(z.getZscore(), 4));
+        result.put("signal", z.getSignal());
+        result.put("half_life", round(hl.getHalfLife(), 2));
+        result.put("acf", round(acf.getLag1(), 6));
+        return result;
+    }
+
+    /**
+     * Round like Python's round(): half-even on the exact binary value, so
+     * 2.675 (really 2.67499999...) rounds to 2.67 and only true ties such
+     * as 0.125 go to the even digit.
+     */
+    static double round(double value, int places) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return value;
+        }
+        return new BigDecimal(value).setScale(places, RoundingMode.HALF_EVEN).doubleValue();
+    }
+
+    /**
+     * Get indicators for several tickers from the Python Lambda API, with
+     * all requests in flight at once. Tickers that fail are logged and
+     * left out; if every one fails, the first failure is thrown.
+     */
+    private Map<String, Map<String, Object>> getAllIndicatorsRemote(List<String> tickers) throws Exception {
+        List<CompletableFuture<HttpResponse<String>>> futures = new ArrayList<>();
+        for (String ticker : tickers) {
+            logger.info("Calling Lambda API: ticker={}", ticker);
+            futures.add(httpClient.sendAsync(remoteRequest(ticker), HttpResponse.BodyHandlers.ofString()));
+        }
+
+        Map<String, Map<String, Object>> results = new LinkedHashMap<>();
+        Exception firstFailure = null;
+        for (int i = 0; i < tickers.size(); i++) {
+            String ticker = tickers.get(i);
+            try {
+                results.put(ticker, Collections.unmodifiableMap(parseRemote(ticker, futures.get(i).join())));
+            } catch (Exception e) {
+                logger.warn("Lambda indicators failed for {}: {}", ticker, e.getMessage());
+                firstFailure = firstFailure != null ? firstFailure : e;
+            }
+        }
+        if (results.isEmpty() && firstFailure != null) {
+            throw firstFailure;
+        }
+        return results;
+    }
+
+    private HttpRequest remoteRequest(String ticker) {
+        String url = API_URL + "/all?ticker=" + ticker;
 
         // Build request with API key header for authentication
         HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
@@ -55,9 +274,10 @@ public class IndicatorService {
             requestBuilder.header("X-API-Key", apiKey);
         }
 
-        HttpRequest request = requestBuilder.build();
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        return requestBuilder.build();
+    }
 
+    private Map<String, Object> parseRemote(String ticker, HttpResponse<String> response) throws Exception {
         // Log response for observability
         logger.info("Lambda response: ticker={}, status={}", ticker, response.statusCode());
 
@@ -0,0 +1,250 @@
+package com.dealaggregator.dealapi.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.dealaggregator.dealapi.analytics.RegimeTests;
+import com.dealaggregator.dealapi.analytics.RollingVolatility;
+import com.dealaggregator.dealapi.entity.IndicatorSnapshot;
+import com.dealaggregator.dealapi.marketdata.IndicatorSnapshotTable;
+import com.dealaggregator.dealapi.marketdata.MarketCalendar;
+import com.dealaggregator.dealapi.marketdata.PriceBars;
+import com.dealaggregator.dealapi.repository.IndicatorSnapshotRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Nightly precomputed indicators for the watchlist (indicators.watchlist).
+ *
+ * After the close, z-score, half-life, ACF, historical volatility and the
+ * DFA Hurst exponent are computed for every watchlist ticker from one
+ * batched history fetch, swapped into an in-memory IndicatorSnapshotTable
+ * and upserted into Postgres. On startup the table is reloaded from the
+ * latest stored rows, so until the next close /indicator for a watchlist
+ * ticker is a memory lookup; other tickers go to IndicatorService.
+ */
+@Service
+public class IndicatorSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndicatorSnapshotService.class);
+    /** DFA Hurst settings, as in RegimeTests.ScreenParams.defaults() */
+    private static final int HURST_LENGTH = 100;
+    private static final int HURST_BASE_SCALE = 8;
+    private static final int HURST_MAX_SCALE = 2;
+    /** Keys copied from WatchlistIndicatorService's streaming state */
+    private static final List<String> RETURN_MOMENTS = List.of("return_mean", "return_std", "return_skew",
+            "return_kurtosis");
+
+    @Value("${indicators.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${volatility.estimator:YANG_ZHANG}")
+    private RollingVolatility.Estimator estimator;
+
+    @Value("${volatility.period:30}")
+    private int hvPeriod;
+
+    private final IndicatorService indicatorService;
+    private final WatchlistIndicatorService watchlistIndicatorService;
+    private final PriceHistoryService priceHistoryService;
+    private final IndicatorSnapshotRepository repository;
+
+    private volatile IndicatorSnapshotTable table = IndicatorSnapshotTable.EMPTY;
+
+    public IndicatorSnapshotService(IndicatorService indicatorService,
+            WatchlistIndicatorService watchlistIndicatorService, PriceHistoryService priceHistoryService,
+            IndicatorSnapshotRepository repository) {
+        this.indicatorService = indicatorService;
+        this.watchlistIndicatorService = watchlistIndicatorService;
+        this.priceHistoryService = priceHistoryService;
+        this.repository = repository;
+    }
+
+    /**
+     * Load the latest stored snapshot of every ticker.
+     */
+    @PostConstruct
+    public void warmUp() {
+        try {
+            IndicatorSnapshotTable.Builder builder = new IndicatorSnapshotTable.Builder();
+            for (IndicatorSnapshot snapshot : repository.findLatestPerTicker()) {
+                builder.put(toRow(snapshot));
+            }
+            table = builder.build();
+            logger.info("Indicator snapshots loaded: tickers={}", table.size());
+        } catch (Exception e) {
+            logger.warn("Indicator snapshot warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Precompute the watchlist after the close, once the daily bar is final.
+     */
+    @Scheduled(cron = "${indicators.snapshot.cron:0 20 16 * * MON-FRI}", zone = MarketCalendar.ZONE_NAME)
+    public void precomputeScheduled() {
+        if (enabled) {
+            precompute();
+        }
+    }
+
+    /**
+     * Compute, publish and store indicators for every watchlist ticker.
+     * Tickers that fail keep their previous row.
+     *
+     * @return Number of tickers updated
+     */
+    public int precompute() {
+        long start = System.nanoTime();
+        List<String> tickers = watchlistIndicatorService.getWatchlist();
+        // Same 1y window as /indicator, so precomputed and on-demand values agree
+        Map<String, PriceBars> history = priceHistoryService.getCompletedDailyBarsForUniverse(tickers, "1y");
+
+        IndicatorSnapshotTable.Builder builder = table.toBuilder();
+        List<IndicatorSnapshotTable.Row> computed = new ArrayList<>();
+        for (Map.Entry<String, PriceBars> entry : history.entrySet()) {
+            try {
+                IndicatorSnapshotTable.Row row = compute(entry.getKey(), entry.getValue());
+                builder.put(row);
+                computed.add(row);
+            } catch (Exception e) {
+                logger.warn("Indicator precompute failed for {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        table = builder.build();
+
+        try {
+            persist(computed);
+        } catch (Exception e) {
+            logger.error("Failed to store indicator snapshots", e);
+        }
+        logger.info("Indicator precompute: requested={}, updated={}, millis={}", tickers.size(), computed.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        return computed.size();
+    }
+
+    /**
+     * Indicators for a ticker in IndicatorService.getAllIndicators shape
+     * (plus "hv", "hurst" and "bar_date" when precomputed, and the
+     * streaming "return_*" moments once WatchlistIndicatorService has
+     * warmed the ticker up). Watchlist tickers with a snapshot from the last
+     * completed session are served from memory; anything else is computed
+     * on demand.
+     */
+    public Map<String, Object> getIndicators(String ticker) throws Exception {
+        Optional<Map<String, Object>> snapshot = getSnapshot(ticker);
+        Map<String, Object> result = new LinkedHashMap<>(
+                snapshot.isPresent() ? snapshot.get() : indicatorService.getAllIndicators(ticker));
+        Optional<Map<String, Object>> streaming = watchlistIndicatorService.getIndicators(ticker);
+        if (streaming.isPresent()) {
+            for (String key : RETURN_MOMENTS) {
+                result.put(key, streaming.get().get(key));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The precomputed row for a ticker if it is from the last completed session.
+     */
+    public Optional<Map<String, Object>> getSnapshot(String ticker) {
+        Optional<IndicatorSnapshotTable.Row> row = table.get(ticker.toUpperCase());
+        if (row.isEmpty() || row.get().getBarDate().isBefore(MarketCalendar.lastCompletedSession())) {
+            return Optional.empty();
+        }
+        return Optional.of(toMap(row.get()));
+    }
+
+    public IndicatorSnapshotTable getTable() {
+        return table;
+    }
+
+    private IndicatorSnapshotTable.Row compute(String ticker, PriceBars bars) {
+        double[] closes = bars.getClose();
+        Map<String, Object> core = indicatorService.computeIndicators(ticker, closes);
+
+        RollingVolatility volatility = new RollingVolatility(hvPeriod, RollingVolatility.EQUITY_ANNUAL_PERIODS,
+                RollingVolatility.DEFAULT_YZ_ALPHA);
+        volatility.onBars(bars.getOpen(), bars.getHigh(), bars.getLow(), closes);
+        double hv = volatility.isReady() ? volatility.get(estimator) : Double.NaN;
+        double hurst = RegimeTests.dfaHurst(closes, HURST_LENGTH, HURST_BASE_SCALE, HURST_MAX_SCALE).getHurst();
+
+        long[] times = bars.getTimestamps();
+        LocalDate barDate = MarketCalendar.tradingDate(times[times.length - 1]);
+        return new IndicatorSnapshotTable.Row(ticker, barDate, (Double) core.get("zscore"),
+                (String) core.get("signal"), (Double) core.get("half_life"), (Double) core.get("acf"), hv, hurst);
+    }
+
+    /**
+     * Upsert by (ticker, bar date) so a rerun on the same session updates
+     * its rows instead of adding new ones.
+     */
+    private void persist(List<IndicatorSnapshotTable.Row> rows) {
+        Map<LocalDate, List<IndicatorSnapshotTable.Row>> byDate = new LinkedHashMap<>();
+        for (IndicatorSnapshotTable.Row row : rows) {
+            byDate.computeIfAbsent(row.getBarDate(), d -> new ArrayList<>()).add(row);
+        }
+
+        List<IndicatorSnapshot> entities = new ArrayList<>();
+        for (Map.Entry<LocalDate, List<IndicatorSnapshotTable.Row>> entry : byDate.entrySet()) {
+            List<String> tickers = new ArrayList<>();
+            for (IndicatorSnapshotTable.Row row : entry.getValue()) {
+                tickers.add(row.getTicker());
+            }
+            Map<String, IndicatorSnapshot> existing = new HashMap<>();
+            for (IndicatorSnapshot snapshot : repository.findByBarDateAndTickerIn(entry.getKey(), tickers)) {
+                existing.put(snapshot.getTicker(), snapshot);
+            }
+            for (IndicatorSnapshotTable.Row row : entry.getValue()) {
+                IndicatorSnapshot snapshot = existing.getOrDefault(row.getTicker(),
+                        new IndicatorSnapshot(row.getTicker(), row.getBarDate()));
+                snapshot.setZscore(row.getZscore());
+                snapshot.setSignal(row.getSignal());
+                snapshot.setHalfLife(row.getHalfLife());
+                snapshot.setAcf(row.getAcf());
+                snapshot.setHv(nullIfNaN(row.getHv()));
+                snapshot.setHurst(nullIfNaN(row.getHurst()));
+                snapshot.setComputedAt(LocalDateTime.now());
+                entities.add(snapshot);
+            }
+        }
+        repository.saveAll(entities);
+    }
+
+    private static IndicatorSnapshotTable.Row toRow(IndicatorSnapshot s) {
+        return new IndicatorSnapshotTable.Row(s.getTicker(), s.getBarDate(), s.getZscore(), s.getSignal(),
+                s.getHalfLife(), s.getAcf(), nanIfNull(s.getHv()), nanIfNull(s.getHurst()));
+    }
+
+    private static Map<String, Object> toMap(IndicatorSnapshotTable.Row row) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("ticker", row.getTicker());
+        result.put("zscore", row.getZscore());
+        result.put("signal", row.getSignal());
+        result.put("half_life", row.getHalfLife());
+        result.put("acf", row.getAcf());
+        result.put("hv", row.getHv());
+        result.put("hurst", row.getHurst());
+        result.put("bar_date", row.getBarDate().toString());
+        return result;
+    }
+
+    private static Double nullIfNaN(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static double nanIfNull(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+}
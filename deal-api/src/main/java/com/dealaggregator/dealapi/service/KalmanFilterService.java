@@ -0,0 +1,227 @@
+package com.dealaggregator.dealapi.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.dealaggregator.dealapi.analytics.KalmanFilterEngine;
+import com.dealaggregator.dealapi.marketdata.Quote;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs the Kalman filter engine over streamed quotes.
+ *
+ * Every kalman.sample-ms the latest quote of each tracked symbol is read
+ * from the ingestion table; symbols with a new trade since the last sample
+ * are updated in one batch. Filter state is snapshotted to disk on
+ * shutdown and restored on startup so the filters don't have to re-warm.
+ */
+@Service
+public class KalmanFilterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KalmanFilterService.class);
+
+    @Value("${kalman.enabled:false}")
+    private boolean enabled;
+
+    @Value("${kalman.symbols:${quotes.symbols:$SPX,SPY,QQQ}}")
+    private String symbols;
+
+    @Value("${kalman.process-noise:0.01}")
+    private double processNoise;
+
+    @Value("${kalman.measurement-noise:1.0}")
+    private double measurementNoise;
+
+    @Value("${kalman.velocity-gain:0.1}")
+    private double velocityGain;
+
+    @Value("${kalman.band-width:2.0}")
+    private double bandWidth;
+
+    @Value("${kalman.signal-threshold:1.5}")
+    private double signalThreshold;
+
+    @Value("${kalman.snapshot.file:data/kalman.snapshot}")
+    private String snapshotFile;
+
+    private final QuoteIngestionService quoteService;
+
+    private KalmanFilterEngine engine;
+    private int[] batchSlots;
+    private double[] batchPrices;
+    private long[] lastQuoteTime;
+
+    public KalmanFilterService(QuoteIngestionService quoteService) {
+        this.quoteService = quoteService;
+    }
+
+    @PostConstruct
+    public synchronized void init() {
+        KalmanFilterEngine.Config config = new KalmanFilterEngine.Config(processNoise, measurementNoise,
+                velocityGain, bandWidth, signalThreshold, 14);
+        engine = new KalmanFilterEngine(config, 64);
+
+        Path path = Path.of(snapshotFile);
+        if (enabled && Files.exists(path)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                engine.restore(KalmanFilterEngine.Snapshot.readFrom(in));
+                logger.info("Restored Kalman state for {} symbols", engine.size());
+            } catch (IOException e) {
+                logger.warn("Ignoring unreadable Kalman snapshot {}: {}", path, e.getMessage());
+            }
+        }
+
+        for (String symbol : symbols.split(",")) {
+            if (!symbol.isBlank()) {
+                engine.slotOf(symbol.trim().toUpperCase());
+            }
+        }
+        batchSlots = new int[engine.size()];
+        batchPrices = new double[engine.size()];
+        lastQuoteTime = new long[engine.size()];
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (!enabled || engine.size() == 0) {
+            return;
+        }
+        try {
+            Path path = Path.of(snapshotFile);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+                engine.snapshot().writeTo(out);
+            }
+        } catch (IOException e) {
+            logger.error("Failed to write Kalman snapshot", e);
+        }
+    }
+
+    /**
+     * Batch-update every symbol that traded since the previous sample.
+     */
+    @Scheduled(fixedDelayString = "${kalman.sample-ms:1000}")
+    public synchronized void sample() {
+        if (!enabled) {
+            return;
+        }
+        int count = 0;
+        for (int slot = 0; slot < lastQuoteTime.length; slot++) {
+            Optional<Quote> quote = quoteService.getLatestQuote(engine.getSymbol(slot));
+            if (quote.isEmpty() || quote.get().getTimestampMillis() <= lastQuoteTime[slot]) {
+                continue;
+            }
+            double last = quote.get().getLast();
+            if (last > 0) {
+                batchSlots[count] = slot;
+                batchPrices[count] = last;
+                count++;
+            }
+            lastQuoteTime[slot] = quote.get().getTimestampMillis();
+        }
+        engine.update(batchSlots, batchPrices, count);
+    }
+
+    /**
+     * Feed a price directly (e.g. bar closes from a backfill).
+     */
+    public synchronized void update(String symbol, double price) {
+        int slot = engine.slotOf(symbol.toUpperCase());
+        if (slot >= lastQuoteTime.length) {
+            batchSlots = Arrays.copyOf(batchSlots, engine.size());
+            batchPrices = Arrays.copyOf(batchPrices, engine.size());
+            lastQuoteTime = Arrays.copyOf(lastQuoteTime, engine.size());
+        }
+        engine.update(slot, price);
+    }
+
+    /**
+     * Current filter output for a symbol, if it is tracked and has data.
+     */
+    public synchronized Optional<KalmanReading> getReading(String symbol) {
+        int slot = engine.findSlot(symbol.toUpperCase());
+        if (slot < 0 || Double.isNaN(engine.getEstimate(slot))) {
+            return Optional.empty();
+        }
+        return Optional.of(new KalmanReading(engine.getSymbol(slot), engine.getLastPrice(slot),
+                engine.getEstimate(slot), engine.getUpperBand(slot), engine.getLowerBand(slot),
+                engine.getDeviation(slot), engine.getKalmanGain(slot),
+                KalmanFilterEngine.signalName(engine.getSignal(slot))));
+    }
+
+    /**
+     * Filter output for one symbol.
+     */
+    public static class KalmanReading {
+        private final String symbol;
+        private final double price;
+        private final double estimate;
+        private final double upperBand;
+        private final double lowerBand;
+        private final double deviation;
+        private final double kalmanGain;
+        private final String signal;
+
+        public KalmanReading(String symbol, double price, double estimate, double upperBand, double lowerBand,
+                double deviation, double kalmanGain, String signal) {
+            this.symbol = symbol;
+            this.price = price;
+            this.estimate = estimate;
+            this.upperBand = upperBand;
+            this.lowerBand = lowerBand;
+            this.deviation = deviation;
+            this.kalmanGain = kalmanGain;
+            this.signal = signal;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public double getEstimate() {
+            return estimate;
+        }
+
+        public double getUpperBand() {
+            return upperBand;
+        }
+
+        public double getLowerBand() {
+            return lowerBand;
+        }
+
+        /** Distance from the estimate in band sigmas */
+        public double getDeviation() {
+            return deviation;
+        }
+
+        public double getKalmanGain() {
+            return kalmanGain;
+        }
+
+        public String getSignal() {
+            return signal;
+        }
+    }
+}
@@ -8,15 +8,28 @@ import org.springframework.stereotype.Service;
 @Service
 public class MarketDataService {
 
+    private final QuoteIngestionService quoteService;
+
+    public MarketDataService(QuoteIngestionService quoteService) {
+        this.quoteService = quoteService;
+    }
+
     /**
-     * Scrapes the current price of a stock/ticker from CNBC.
-     * Results are cached for 5 minutes to reduce external API calls.
-     * 
+     * Gets the current price of a stock/ticker.
+     * Uses the streaming quote table when it has a fresh price; otherwise
+     * scrapes CNBC. Scraped results are cached for 5 minutes to reduce
+     * external API calls (streamed prices bypass the cache so they stay live).
+     *
      * @param ticker The stock symbol (e.g. "NVDA")
      * @return The current price, or 0.0 if not found/error
      */
-    @Cacheable(value = "stockPrices", key = "#ticker")
+    @Cacheable(value = "stockPrices", key = "#ticker", condition = "!@quoteIngestionService.hasFreshQuote(#ticker)")
     public double getPrice(String ticker) {
+        double streamed = quoteService.getFreshLast(ticker);
+        if (!Double.isNaN(streamed) && streamed > 0) {
+            return streamed;
+        }
+
         try {
             // URL for CNBC Quote Page (e.g. https://www.cnbc.com/quotes/NVDA)
             String url = "https://www.cnbc.com/quotes/" + ticker.toUpperCase();
@@ -46,4 +59,4 @@ public class MarketDataService {
 
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,154 @@
+package com.dealaggregator.dealapi.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.dealaggregator.dealapi.analytics.PairsScanner;
+import com.dealaggregator.dealapi.marketdata.ReturnPanel;
+
+/**
+ * Cointegrated pairs in the screen universe (screen.universe), with
+ * Kalman-filtered hedge ratios and spread z-scores.
+ *
+ * The first request loads two years of completed daily bars and runs the
+ * full scan; later requests only push the sessions added since, which
+ * steps each tracked pair's filter and rescans every
+ * {@code pairs.rescan-interval} bars (see PairsScanner).
+ */
+@Service
+public class PairsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PairsService.class);
+
+    @Value("${pairs.window:252}")
+    private int window;
+
+    @Value("${pairs.min-correlation:0.6}")
+    private double minCorrelation;
+
+    @Value("${pairs.adf-lags:1}")
+    private int adfLags;
+
+    @Value("${pairs.significance:0.05}")
+    private double significance;
+
+    @Value("${pairs.kalman-delta:0.0001}")
+    private double kalmanDelta;
+
+    @Value("${pairs.kalman-observation-variance:0.0001}")
+    private double kalmanObservationVariance;
+
+    @Value("${pairs.rescan-interval:21}")
+    private int rescanInterval;
+
+    private final PriceHistoryService priceHistoryService;
+    private final RegimeScreenService regimeScreenService;
+
+    private RefreshingReturnPanel returns;
+    private PairsScanner scanner;
+    private double[] lastLogPrices;
+
+    public PairsService(PriceHistoryService priceHistoryService, RegimeScreenService regimeScreenService) {
+        this.priceHistoryService = priceHistoryService;
+        this.regimeScreenService = regimeScreenService;
+    }
+
+    /**
+     * Tracked pairs as of the last completed session, widest spread first.
+     */
+    public synchronized PairsReport getPairs() {
+        if (scanner == null) {
+            load();
+        } else {
+            returns.refreshIfDue(this::onSession);
+        }
+        return new PairsReport(scanner.getPairs(), returns.getSymbols().size(), scanner.getCandidatesLastScan(),
+                returns.getLastDate());
+    }
+
+    private void load() {
+        long start = System.nanoTime();
+        List<String> universe = regimeScreenService.getUniverse();
+        RefreshingReturnPanel history = new RefreshingReturnPanel(priceHistoryService, "Pairs");
+        ReturnPanel panel = history.load(universe, "2y");
+        PairsScanner.Params params = new PairsScanner.Params(window, minCorrelation, adfLags, significance,
+                kalmanDelta, kalmanObservationVariance, rescanInterval);
+        if (panel.getSymbols().size() < 2 || panel.length() < params.getWindow()) {
+            throw new IllegalStateException("Not enough overlapping history for " + universe);
+        }
+
+        // Cumulative log returns: log prices up to a per-symbol constant, which the intercept absorbs
+        double[][] returns = panel.getReturns();
+        int n = panel.getSymbols().size();
+        double[][] logPrices = new double[n][panel.length()];
+        for (int s = 0; s < n; s++) {
+            double level = 0;
+            for (int t = 0; t < panel.length(); t++) {
+                level += returns[s][t];
+                logPrices[s][t] = level;
+            }
+        }
+
+        PairsScanner next = new PairsScanner(panel.getSymbols().toArray(new String[0]), params);
+        next.load(logPrices);
+        lastLogPrices = new double[n];
+        for (int s = 0; s < n; s++) {
+            lastLogPrices[s] = logPrices[s][panel.length() - 1];
+        }
+        this.returns = history;
+        scanner = next;
+        logger.info("Pairs scan: symbols={}, candidates={}, cointegrated={}, millis={}", n,
+                next.getCandidatesLastScan(), next.getPairs().size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** Step the scanner with one session's cumulative log prices */
+    private void onSession(double[] sessionReturns) {
+        double[] bar = new double[lastLogPrices.length];
+        for (int s = 0; s < bar.length; s++) {
+            lastLogPrices[s] += sessionReturns[s];
+            bar[s] = lastLogPrices[s];
+        }
+        scanner.onBar(bar);
+    }
+
+    /**
+     * Scan output with the universe and prefilter counts behind it.
+     */
+    public static class PairsReport {
+        private final List<PairsScanner.PairSnapshot> pairs;
+        private final int universeSize;
+        private final int candidates;
+        private final LocalDate asOf;
+
+        public PairsReport(List<PairsScanner.PairSnapshot> pairs, int universeSize, int candidates,
+                LocalDate asOf) {
+            this.pairs = new ArrayList<>(pairs);
+            this.universeSize = universeSize;
+            this.candidates = candidates;
+            this.asOf = asOf;
+        }
+
+        public List<PairsScanner.PairSnapshot> getPairs() {
+            return pairs;
+        }
+
+        public int getUniverseSize() {
+            return universeSize;
+        }
+
+        /** Pairs that cleared the correlation prefilter on the last scan */
+        public int getCandidates() {
+            return candidates;
+        }
+
+        public LocalDate getAsOf() {
+            return asOf;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.dealaggregator.dealapi.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.dealaggregator.dealapi.analytics.PerformanceMetrics;
+import com.dealaggregator.dealapi.marketdata.MarketCalendar;
+import com.dealaggregator.dealapi.marketdata.ReturnPanel;
+
+/**
+ * Return-distribution risk metrics for a ticker: Omega ratio curve against
+ * a low-risk benchmark and L-moments of daily log returns.
+ *
+ * A ticker's profile only changes once per session, so it is kept until
+ * the next session completes (or its history is reseeded).
+ */
+@Service
+public class PerformanceService {
+
+    @Value("${performance.benchmark:^GSPC}")
+    private String benchmark;
+
+    /** Pine "Omega Period" */
+    @Value("${performance.omega-period:252}")
+    private int omegaPeriod;
+
+    private final PriceHistoryService priceHistoryService;
+    private final Map<String, CachedProfile> cache = new ConcurrentHashMap<>();
+
+    public PerformanceService(PriceHistoryService priceHistoryService) {
+        this.priceHistoryService = priceHistoryService;
+    }
+
+    /**
+     * Omega curve (thresholds in % per day, 0 up to 3 benchmark standard
+     * deviations) and L-moments for a ticker's completed daily returns.
+     */
+    public ReturnProfile getReturnProfile(String ticker) {
+        String symbol = ticker.toUpperCase();
+        LocalDate session = MarketCalendar.lastCompletedSession();
+        CachedProfile cached = cache.get(symbol);
+        if (cached != null && cached.session.equals(session)) {
+            return cached.profile;
+        }
+        ReturnProfile profile = compute(symbol);
+        cache.put(symbol, new CachedProfile(session, profile));
+        return profile;
+    }
+
+    @EventListener
+    public void onHistoryReseeded(PriceHistoryReseededEvent event) {
+        String ticker = event.getTicker().toUpperCase();
+        if (ticker.equals(benchmark)) {
+            cache.clear();
+        } else {
+            cache.remove(ticker);
+        }
+    }
+
+    /**
+     * Omega curve and L-moments for any return series, e.g. a strategy's
+     * daily P&L as a fraction of capital. Both series are daily returns,
+     * oldest first, and must hold at least omega-period values.
+     *
+     * @param name             Label for the profile
+     * @param returns          Daily returns of the series
+     * @param benchmarkReturns Daily returns of the benchmark over the same days
+     */
+    public ReturnProfile getSeriesProfile(String name, double[] returns, double[] benchmarkReturns) {
+        if (returns.length < omegaPeriod || benchmarkReturns.length < omegaPeriod) {
+            throw new IllegalArgumentException("Need at least " + omegaPeriod + " returns for " + name);
+        }
+        double[] returnsPct = tailPercent(returns, omegaPeriod);
+        double[] benchmarkPct = tailPercent(benchmarkReturns, omegaPeriod);
+
+        PerformanceMetrics.OmegaCurve omega = PerformanceMetrics.omegaCurve(
+                PerformanceMetrics.sort(returnsPct),
+                PerformanceMetrics.maxAcceptableReturn(benchmarkPct),
+                PerformanceMetrics.DEFAULT_OMEGA_INCREMENTS);
+        PerformanceMetrics.LMoments moments = PerformanceMetrics.lMoments(
+                PerformanceMetrics.sort(returns, PerformanceMetrics.DEFAULT_LMOMENT_LOOKBACK));
+        return new ReturnProfile(name, omega, moments);
+    }
+
+    private ReturnProfile compute(String symbol) {
+        ReturnPanel panel = ReturnPanel.align(
+                priceHistoryService.getCompletedDailyBarsForUniverse(List.of(symbol, benchmark), "2y"));
+        int own = panel.getSymbols().indexOf(symbol);
+        int bench = panel.getSymbols().indexOf(benchmark);
+        if (own < 0 || bench < 0 || panel.length() < omegaPeriod) {
+            throw new IllegalStateException("Not enough price history for " + symbol);
+        }
+        return getSeriesProfile(symbol, panel.getReturns()[own], panel.getReturns()[bench]);
+    }
+
+    /** Last n values scaled to percent, as the Omega script does */
+    private static double[] tailPercent(double[] values, int n) {
+        double[] tail = Arrays.copyOfRange(values, values.length - n, values.length);
+        for (int i = 0; i < tail.length; i++) {
+            tail[i] *= 100;
+        }
+        return tail;
+    }
+
+    private static class CachedProfile {
+        private final LocalDate session;
+        private final ReturnProfile profile;
+
+        CachedProfile(LocalDate session, ReturnProfile profile) {
+            this.session = session;
+            this.profile = profile;
+        }
+    }
+
+    /**
+     * Omega curve and L-moments for one ticker or return series.
+     */
+    public static class ReturnProfile {
+        private final String ticker;
+        private final PerformanceMetrics.OmegaCurve omega;
+        private final PerformanceMetrics.LMoments lMoments;
+
+        public ReturnProfile(String ticker, PerformanceMetrics.OmegaCurve omega,
+                PerformanceMetrics.LMoments lMoments) {
+            this.ticker = ticker;
+            this.omega = omega;
+            this.lMoments = lMoments;
+        }
+
+        public String getTicker() {
+            return ticker;
+        }
+
+        public PerformanceMetrics.OmegaCurve getOmega() {
+            return omega;
+        }
+
+        public PerformanceMetrics.LMoments getLMoments() {
+            return lMoments;
+        }
+    }
+}
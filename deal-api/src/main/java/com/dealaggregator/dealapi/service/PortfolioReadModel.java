@@ -0,0 +1,159 @@
+package com.dealaggregator.dealapi.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.dealaggregator.dealapi.repository.StrategyView;
+
+/**
+ * In-memory open portfolio per user.
+ *
+ * Each user maps to an immutable snapshot: an unmodifiable list, in ID
+ * order, of StrategyViews of their OPEN strategies. Readers get the
+ * snapshot itself with no copying or locking. Writers build a new snapshot
+ * and swap it in, so a reader never sees a half-applied change.
+ *
+ * A cold load runs outside the map, so a slow query never holds a map
+ * bin. Every write-through bumps its user's version first, and a load is
+ * cached only if that version (and the epoch, bumped by load() and
+ * invalidateAll()) is unchanged when it lands. A load that raced a write
+ * is still returned to its caller, but not cached, so the next read loads
+ * again. Upserts and removals go by strategy ID, so replaying a write the
+ * load already saw is harmless.
+ */
+public class PortfolioReadModel {
+
+    private static final Comparator<StrategyView> BY_ID = Comparator.comparing(StrategyView::getId,
+            Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final Map<String, List<StrategyView>> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+
+    /**
+     * The user's snapshot, loading it with {@code loader} on a miss.
+     */
+    public List<StrategyView> get(String userId, Function<String, List<StrategyView>> loader) {
+        List<StrategyView> snapshot = snapshots.get(userId);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        long epochBefore = epoch.get();
+        long versionBefore = version(userId).get();
+        List<StrategyView> loaded = snapshotOf(loader.apply(userId));
+        List<StrategyView> cached = snapshots.compute(userId, (id, current) -> {
+            if (current != null) {
+                return current;
+            }
+            boolean unchanged = epoch.get() == epochBefore && version(id).get() == versionBefore;
+            return unchanged ? loaded : null;
+        });
+        return cached != null ? cached : loaded;
+    }
+
+    /**
+     * Replace every snapshot with the given open strategies.
+     */
+    public void load(Collection<StrategyView> openStrategies) {
+        Map<String, List<StrategyView>> byUser = new LinkedHashMap<>();
+        for (StrategyView strategy : openStrategies) {
+            byUser.computeIfAbsent(strategy.getUserId(), id -> new ArrayList<>()).add(strategy);
+        }
+        epoch.incrementAndGet();
+        snapshots.clear();
+        for (Map.Entry<String, List<StrategyView>> entry : byUser.entrySet()) {
+            snapshots.put(entry.getKey(), snapshotOf(entry.getValue()));
+        }
+    }
+
+    /**
+     * Add or replace a saved strategy in its owner's snapshot. Users
+     * without a snapshot are left to load on their next read.
+     */
+    public void upsert(StrategyView strategy) {
+        upsertAll(List.of(strategy));
+    }
+
+    /**
+     * Upsert many saved strategies with one snapshot swap per owner.
+     */
+    public void upsertAll(Collection<StrategyView> strategies) {
+        Map<String, Map<Long, StrategyView>> byUser = new LinkedHashMap<>();
+        for (StrategyView strategy : strategies) {
+            byUser.computeIfAbsent(strategy.getUserId(), id -> new LinkedHashMap<>()).put(strategy.getId(), strategy);
+        }
+        for (Map.Entry<String, Map<Long, StrategyView>> entry : byUser.entrySet()) {
+            Map<Long, StrategyView> updates = entry.getValue();
+            version(entry.getKey()).incrementAndGet();
+            snapshots.computeIfPresent(entry.getKey(), (id, snapshot) -> {
+                List<StrategyView> next = new ArrayList<>(snapshot.size() + updates.size());
+                for (StrategyView s : snapshot) {
+                    if (!updates.containsKey(s.getId())) {
+                        next.add(s);
+                    }
+                }
+                next.addAll(updates.values());
+                next.sort(BY_ID);
+                return List.copyOf(next);
+            });
+        }
+    }
+
+    /**
+     * Drop a strategy (e.g. just closed) from its owner's snapshot.
+     */
+    public void remove(String userId, Long strategyId) {
+        removeAll(userId, Set.of(strategyId));
+    }
+
+    /**
+     * Drop several strategies from one owner's snapshot in a single swap.
+     */
+    public void removeAll(String userId, Collection<Long> strategyIds) {
+        version(userId).incrementAndGet();
+        snapshots.computeIfPresent(userId, (id, snapshot) -> {
+            List<StrategyView> next = new ArrayList<>(snapshot.size());
+            for (StrategyView s : snapshot) {
+                if (!strategyIds.contains(s.getId())) {
+                    next.add(s);
+                }
+            }
+            return next.size() == snapshot.size() ? snapshot : List.copyOf(next);
+        });
+    }
+
+    /**
+     * Forget a user's snapshot so the next read reloads it.
+     */
+    public void invalidate(String userId) {
+        version(userId).incrementAndGet();
+        snapshots.remove(userId);
+    }
+
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+        snapshots.clear();
+    }
+
+    public int size() {
+        return snapshots.size();
+    }
+
+    private AtomicLong version(String userId) {
+        return versions.computeIfAbsent(userId, id -> new AtomicLong());
+    }
+
+    private static List<StrategyView> snapshotOf(List<StrategyView> strategies) {
+        List<StrategyView> sorted = new ArrayList<>(strategies);
+        sorted.sort(BY_ID);
+        return List.copyOf(sorted);
+    }
+}
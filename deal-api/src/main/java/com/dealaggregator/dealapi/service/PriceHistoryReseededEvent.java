@@ -0,0 +1,19 @@
+package com.dealaggregator.dealapi.service;
+
+/**
+ * Published by PriceHistoryService after a ticker's stored daily history was
+ * replaced with a fresh seed because Yahoo's adjusted closes changed. Anything
+ * holding rolling state built from the old bars should rebuild it.
+ */
+public final class PriceHistoryReseededEvent {
+
+    private final String ticker;
+
+    public PriceHistoryReseededEvent(String ticker) {
+        this.ticker = ticker;
+    }
+
+    public String getTicker() {
+        return ticker;
+    }
+}
@@ -0,0 +1,424 @@
+package com.dealaggregator.dealapi.service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import com.dealaggregator.dealapi.marketdata.BarStore;
+import com.dealaggregator.dealapi.marketdata.MarketCalendar;
+import com.dealaggregator.dealapi.marketdata.PriceBars;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Fetches price history from Yahoo Finance's chart API.
+ *
+ * Returns the same adjusted closes that yfinance's
+ * {@code Ticker.history(period, interval)} gives the Python Lambda, so the
+ * in-process indicator engine sees identical inputs.
+ *
+ * With {@code bars.store.enabled}, completed daily bars are kept in a local
+ * memory-mapped BarStore: the first request for a ticker seeds ten years of
+ * history, later ones only fetch the sessions added since. A ticker whose
+ * adjusted closes changed is reseeded and a PriceHistoryReseededEvent is
+ * published.
+ */
+@Service
+public class PriceHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceHistoryService.class);
+    private static final String CHART_URL = "https://query1.finance.yahoo.com/v8/finance/chart/";
+    /** Parallel requests for universe fetches (Yahoo throttles bursts) */
+    private static final int MAX_CONCURRENT = 8;
+    private static final String DAILY = "1d";
+    /** History loaded the first time the bar store sees a ticker */
+    private static final String STORE_SEED_RANGE = "10y";
+    /** Gap fetch for a stored ticker; longer gaps reseed */
+    private static final String STORE_GAP_RANGE = "1mo";
+    private static final int STORE_GAP_DAYS = 25;
+    /** Don't ask Yahoo for new sessions more often than this per ticker */
+    private static final long STORE_SYNC_MINUTES = 60;
+
+    @Value("${bars.store.enabled:false}")
+    private boolean storeEnabled;
+
+    @Value("${bars.store.dir:data/bars}")
+    private String storeDirectory;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Long> lastSyncNanos = new ConcurrentHashMap<>();
+    private final Map<String, ReentrantLock> syncLocks = new ConcurrentHashMap<>();
+    private final ApplicationEventPublisher eventPublisher;
+
+    private BarStore barStore;
+
+    public PriceHistoryService(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (storeEnabled) {
+            barStore = new BarStore(Path.of(storeDirectory), MarketCalendar.ZONE);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (barStore != null) {
+            barStore.close();
+        }
+    }
+
+    /**
+     * Get adjusted closes, oldest first.
+     *
+     * @param ticker   Stock symbol (e.g. "SPY")
+     * @param range    Yahoo range (e.g. "1y", "2y", "5d")
+     * @param interval Bar size (e.g. "1d", "15m")
+     * @return Close prices with missing bars dropped
+     */
+    public double[] getCloses(String ticker, String range, String interval) throws Exception {
+        return getBars(ticker, range, interval).getClose();
+    }
+
+    /**
+     * Get OHLCV bars, oldest first. Like yfinance's auto_adjust, open/high/low
+     * are scaled by the same factor as the adjusted close.
+     *
+     * @param ticker   Stock symbol (e.g. "SPY")
+     * @param range    Yahoo range (e.g. "1y", "2y", "5d")
+     * @param interval Bar size (e.g. "1d", "15m")
+     * @return Bars with missing closes dropped
+     */
+    public PriceBars getBars(String ticker, String range, String interval) throws Exception {
+        HttpResponse<String> response = httpClient.send(chartRequest(ticker, range, interval),
+                HttpResponse.BodyHandlers.ofString());
+        return parseBars(ticker, response);
+    }
+
+    /**
+     * Daily bars for completed sessions only. During market hours Yahoo's
+     * last daily bar is still forming; incremental consumers (rolling
+     * windows can't revise a bar) must not see it.
+     */
+    public PriceBars getCompletedDailyBars(String ticker, String range) throws Exception {
+        if (barStore != null) {
+            syncStore(List.of(ticker));
+            PriceBars bars = storedDailyBars(ticker, range);
+            if (bars.isEmpty()) {
+                throw new RuntimeException("No price data found for " + ticker);
+            }
+            return bars;
+        }
+        return completedOnly(getBars(ticker, range, DAILY));
+    }
+
+    /**
+     * getBarsForUniverse for daily bars of completed sessions only.
+     */
+    public Map<String, PriceBars> getCompletedDailyBarsForUniverse(List<String> tickers, String range) {
+        if (barStore != null) {
+            syncStore(tickers);
+            Map<String, PriceBars> stored = new LinkedHashMap<>();
+            for (String ticker : tickers) {
+                try {
+                    PriceBars bars = storedDailyBars(ticker, range);
+                    if (!bars.isEmpty()) {
+                        stored.put(ticker, bars);
+                    }
+                } catch (IOException e) {
+                    logger.warn("Skipping {} in universe read: {}", ticker, e.getMessage());
+                }
+            }
+            return stored;
+        }
+        Map<String, PriceBars> bars = getBarsForUniverse(tickers, range, DAILY);
+        bars.replaceAll((ticker, history) -> completedOnly(history));
+        return bars;
+    }
+
+    private static PriceBars completedOnly(PriceBars bars) {
+        ZonedDateTime now = MarketCalendar.now();
+        if (bars.isEmpty() || !MarketCalendar.beforeClose(now)) {
+            return bars;
+        }
+        long todayStart = now.toLocalDate().atStartOfDay(MarketCalendar.ZONE).toInstant().toEpochMilli();
+        return bars.getLastTimestamp() >= todayStart ? bars.slice(0, bars.size() - 1) : bars;
+    }
+
+    /**
+     * Bring the stored daily history of each ticker up to the last completed
+     * session: new tickers (or long gaps) are seeded in full, others only
+     * fetch the recent range. If Yahoo's adjusted close for the last stored
+     * bar has changed (dividend or split), the ticker is reseeded so the
+     * stored history stays on one adjustment basis. The reseed is written
+     * to a separate file and swapped in, so readers never see an empty store.
+     *
+     * Tickers due for a sync are locked (in sorted order, so overlapping
+     * universes can't deadlock) for the whole check-fetch-append, so two
+     * callers never both append or both reseed the same ticker.
+     */
+    private void syncStore(List<String> tickers) {
+        List<String> due = new ArrayList<>();
+        for (String ticker : new TreeSet<>(tickers)) {
+            if (!recentlySynced(ticker, System.nanoTime())) {
+                due.add(ticker);
+            }
+        }
+        List<ReentrantLock> held = new ArrayList<>();
+        try {
+            for (String ticker : due) {
+                ReentrantLock lock = syncLocks.computeIfAbsent(ticker, t -> new ReentrantLock());
+                lock.lock();
+                held.add(lock);
+            }
+            syncLocked(due);
+        } finally {
+            for (ReentrantLock lock : held) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private boolean recentlySynced(String ticker, long now) {
+        Long synced = lastSyncNanos.get(ticker);
+        return synced != null && now - synced < TimeUnit.MINUTES.toNanos(STORE_SYNC_MINUTES);
+    }
+
+    /** syncStore with every ticker's lock held */
+    private void syncLocked(List<String> tickers) {
+        long now = System.nanoTime();
+        LocalDate session = MarketCalendar.lastCompletedSession();
+        List<String> seed = new ArrayList<>();
+        List<String> gap = new ArrayList<>();
+        List<String> adjusted = new ArrayList<>();
+        List<String> reseeded = new ArrayList<>();
+        for (String ticker : tickers) {
+            // Another caller may have synced it while we waited for the lock
+            if (recentlySynced(ticker, now)) {
+                continue;
+            }
+            try {
+                LocalDate last = barStore.lastDate(ticker, DAILY);
+                if (last == null || last.isBefore(session.minusDays(STORE_GAP_DAYS))) {
+                    seed.add(ticker);
+                } else if (last.isBefore(session)) {
+                    gap.add(ticker);
+                } else {
+                    lastSyncNanos.put(ticker, now);
+                }
+            } catch (IOException e) {
+                logger.warn("Bar store unreadable for {}: {}", ticker, e.getMessage());
+            }
+        }
+
+        for (Map.Entry<String, PriceBars> entry : getBarsForUniverse(gap, STORE_GAP_RANGE, DAILY).entrySet()) {
+            PriceBars recent = completedOnly(entry.getValue());
+            try {
+                if (adjustmentChanged(entry.getKey(), recent)) {
+                    // The stored history stays readable until the reseed replaces it
+                    logger.info("Adjusted history changed for {}, reseeding bar store", entry.getKey());
+                    seed.add(entry.getKey());
+                    adjusted.add(entry.getKey());
+                } else {
+                    barStore.append(recent, DAILY);
+                    lastSyncNanos.put(entry.getKey(), now);
+                }
+            } catch (IOException e) {
+                logger.warn("Bar store append failed for {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        for (Map.Entry<String, PriceBars> entry : getBarsForUniverse(seed, STORE_SEED_RANGE, DAILY).entrySet()) {
+            try {
+                if (adjusted.contains(entry.getKey())) {
+                    barStore.replace(completedOnly(entry.getValue()), DAILY);
+                    reseeded.add(entry.getKey());
+                } else {
+                    barStore.append(completedOnly(entry.getValue()), DAILY);
+                }
+                lastSyncNanos.put(entry.getKey(), now);
+            } catch (IOException e) {
+                logger.warn("Bar store seed failed for {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        for (String ticker : reseeded) {
+            eventPublisher.publishEvent(new PriceHistoryReseededEvent(ticker));
+        }
+    }
+
+    /** The fetched close for the last stored session no longer matches the stored one */
+    private boolean adjustmentChanged(String ticker, PriceBars recent) throws IOException {
+        BarStore.BarWindow last = barStore.last(ticker, DAILY, 1);
+        if (last.isEmpty()) {
+            return false;
+        }
+        long timestamp = last.timestamps().get(0);
+        double stored = last.close().get(0);
+        for (int i = 0; i < recent.size(); i++) {
+            if (recent.getTimestamps()[i] == timestamp) {
+                return Math.abs(recent.getClose()[i] - stored) > 1e-6 * Math.abs(stored);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stored daily bars for a Yahoo range: "Nd" is the last N bars, other
+     * ranges are calendar periods back from today.
+     */
+    private PriceBars storedDailyBars(String ticker, String range) throws IOException {
+        if (range.endsWith("d")) {
+            int bars = Integer.parseInt(range.substring(0, range.length() - 1));
+            return barStore.last(ticker, DAILY, bars).toPriceBars();
+        }
+        return barStore.window(ticker, DAILY, rangeStart(range), LocalDate.MAX).toPriceBars();
+    }
+
+    private static LocalDate rangeStart(String range) {
+        LocalDate today = MarketCalendar.today();
+        if (range.equals("max")) {
+            return LocalDate.MIN;
+        }
+        if (range.equals("ytd")) {
+            return today.withDayOfYear(1);
+        }
+        if (range.endsWith("mo")) {
+            return today.minusMonths(Integer.parseInt(range.substring(0, range.length() - 2)));
+        }
+        if (range.endsWith("wk")) {
+            return today.minusWeeks(Integer.parseInt(range.substring(0, range.length() - 2)));
+        }
+        if (range.endsWith("y")) {
+            return today.minusYears(Integer.parseInt(range.substring(0, range.length() - 1)));
+        }
+        throw new IllegalArgumentException("Unsupported range: " + range);
+    }
+
+    /**
+     * Get bars for many tickers, at most MAX_CONCURRENT requests in flight.
+     * Tickers that fail are logged and left out of the result.
+     *
+     * @return Bars by ticker, in request order
+     */
+    public Map<String, PriceBars> getBarsForUniverse(List<String> tickers, String range, String interval) {
+        Map<String, PriceBars> result = new LinkedHashMap<>();
+        for (int start = 0; start < tickers.size(); start += MAX_CONCURRENT) {
+            List<String> chunk = tickers.subList(start, Math.min(start + MAX_CONCURRENT, tickers.size()));
+            List<CompletableFuture<HttpResponse<String>>> futures = new ArrayList<>();
+            for (String ticker : chunk) {
+                futures.add(httpClient.sendAsync(chartRequest(ticker, range, interval),
+                        HttpResponse.BodyHandlers.ofString()));
+            }
+            for (int i = 0; i < chunk.size(); i++) {
+                String ticker = chunk.get(i);
+                try {
+                    result.put(ticker, parseBars(ticker, futures.get(i).join()));
+                } catch (Exception e) {
+                    logger.warn("Skipping {} in universe fetch: {}", ticker, e.getMessage());
+                }
+            }
+        }
+        return result;
+    }
+
+    private HttpRequest chartRequest(String ticker, String range, String interval) {
+        String url = CHART_URL + URLEncoder.encode(ticker, StandardCharsets.UTF_8) +
+                "?range=" + range + "&interval=" + interval;
+
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64)")
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+    }
+
+    private PriceBars parseBars(String ticker, HttpResponse<String> response) throws Exception {
+        if (response.statusCode() != 200) {
+            logger.error("Yahoo chart error: ticker={}, status={}", ticker, response.statusCode());
+            throw new RuntimeException("Price history unavailable for " + ticker);
+        }
+
+        JsonNode result = objectMapper.readTree(response.body()).path("chart").path("result").path(0);
+        JsonNode times = result.path("timestamp");
+        JsonNode quote = result.path("indicators").path("quote").path(0);
+        JsonNode closes = quote.path("close");
+        if (!times.isArray() || !closes.isArray() || closes.isEmpty()) {
+            throw new RuntimeException("No price data found for " + ticker);
+        }
+        // yfinance auto-adjusts by default, so prefer adjclose when Yahoo provides it
+        JsonNode adjCloses = result.path("indicators").path("adjclose").path(0).path("adjclose");
+        boolean adjusted = adjCloses.isArray() && adjCloses.size() == closes.size();
+
+        int size = Math.min(times.size(), closes.size());
+        long[] timestamps = new long[size];
+        double[] open = new double[size];
+        double[] high = new double[size];
+        double[] low = new double[size];
+        double[] close = new double[size];
+        long[] volume = new long[size];
+
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            JsonNode c = closes.get(i);
+            if (c.isNull() || (adjusted && adjCloses.get(i).isNull())) {
+                continue;
+            }
+            double raw = c.asDouble();
+            double factor = adjusted && raw != 0 ? adjCloses.get(i).asDouble() / raw : 1.0;
+            timestamps[n] = times.get(i).asLong() * 1000;
+            close[n] = raw * factor;
+            open[n] = valueOr(quote.path("open").get(i), raw) * factor;
+            high[n] = valueOr(quote.path("high").get(i), raw) * factor;
+            low[n] = valueOr(quote.path("low").get(i), raw) * factor;
+            JsonNode v = quote.path("volume").get(i);
+            volume[n] = v == null || v.isNull() ? 0 : v.asLong();
+            n++;
+        }
+
+        if (n < size) {
+            timestamps = Arrays.copyOf(timestamps, n);
+            open = Arrays.copyOf(open, n);
+            high = Arrays.copyOf(high, n);
+            low = Arrays.copyOf(low, n);
+            close = Arrays.copyOf(close, n);
+            volume = Arrays.copyOf(volume, n);
+        }
+        return new PriceBars(ticker, timestamps, open, high, low, close, volume);
+    }
+
+    private static double valueOr(JsonNode node, double fallback) {
+        return node == null || node.isNull() ? fallback : node.asDouble();
+    }
+}
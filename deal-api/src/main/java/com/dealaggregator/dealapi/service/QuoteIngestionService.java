@@ -0,0 +1,117 @@
+package com.dealaggregator.dealapi.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.dealaggregator.dealapi.marketdata.QuoteIngestionEngine;
+import com.dealaggregator.dealapi.marketdata.Quote;
+import com.dealaggregator.dealapi.marketdata.ReplayQuoteTransport;
+import com.dealaggregator.dealapi.marketdata.SchwabStreamingTransport;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Spring wiring for the push-based quote ingestion engine.
+ *
+ * Transports are enabled from application properties:
+ * - quotes.schwab.streaming.enabled=true : live Schwab LEVELONE_EQUITIES stream
+ * - quotes.replay.source=path/to/quotes.csv or tcp://host:port : offline replay
+ *
+ * Consumers (MarketDataService, alerts) read the latest quote from memory
+ * instead of issuing an HTTP request. When ingestion is disabled every
+ * lookup simply misses and callers fall back to their existing pull path.
+ */
+@Service
+public class QuoteIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuoteIngestionService.class);
+
+    @Value("${quotes.ingestion.enabled:false}")
+    private boolean enabled;
+
+    @Value("${quotes.symbols:$SPX,SPY,QQQ}")
+    private String symbols;
+
+    @Value("${quotes.ring.capacity:65536}")
+    private int ringCapacity;
+
+    /** Quotes older than this are treated as stale by getFreshLast */
+    @Value("${quotes.max-age-ms:15000}")
+    private long maxAgeMillis;
+
+    @Value("${quotes.schwab.streaming.enabled:false}")
+    private boolean schwabStreamingEnabled;
+
+    @Value("${quotes.replay.source:}")
+    private String replaySource;
+
+    @Value("${quotes.replay.speed:0}")
+    private double replaySpeed;
+
+    private final SchwabApiService schwabService;
+
+    private QuoteIngestionEngine engine;
+
+    public QuoteIngestionService(SchwabApiService schwabService) {
+        this.schwabService = schwabService;
+    }
+
+    @PostConstruct
+    public void start() {
+        engine = new QuoteIngestionEngine(ringCapacity);
+        if (!enabled) {
+            logger.info("Quote ingestion disabled (quotes.ingestion.enabled=false)");
+            return;
+        }
+
+        if (schwabStreamingEnabled) {
+            List<String> symbolList = Arrays.stream(symbols.split(","))
+                    .map(String::trim)
+                    .filter(s -> !s.isEmpty())
+                    .toList();
+            engine.register(new SchwabStreamingTransport(schwabService::getStreamerInfo, symbolList));
+        }
+        if (replaySource != null && !replaySource.isBlank()) {
+            engine.register(ReplayQuoteTransport.fromSource(replaySource.trim(), replaySpeed));
+        }
+
+        engine.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (engine != null) {
+            engine.stop();
+        }
+    }
+
+    /**
+     * Latest quote for a symbol, regardless of age.
+     */
+    public Optional<Quote> getLatestQuote(String symbol) {
+        return engine.getTable().get(symbol.toUpperCase());
+    }
+
+    /**
+     * Latest traded price if one arrived within quotes.max-age-ms, otherwise NaN.
+     */
+    public double getFreshLast(String symbol) {
+        return engine.getTable().getLast(symbol.toUpperCase(), maxAgeMillis);
+    }
+
+    /**
+     * Whether a usable streaming price exists for the symbol.
+     * Referenced from MarketDataService's cache condition.
+     */
+    public boolean hasFreshQuote(String symbol) {
+        double last = getFreshLast(symbol);
+        return !Double.isNaN(last) && last > 0;
+    }
+}
@@ -0,0 +1,103 @@
+package com.dealaggregator.dealapi.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.dealaggregator.dealapi.marketdata.ReturnPanel;
+
+/**
+ * Aligned daily log returns for a fixed set of tickers, kept current for a
+ * streaming consumer: load() fetches a history range once, then
+ * refreshIfDue() fetches the last month (at most every REFRESH_MINUTES)
+ * and passes on each session newer than the last one seen.
+ *
+ * Not thread-safe; the owner synchronizes.
+ */
+class RefreshingReturnPanel {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshingReturnPanel.class);
+    /** New daily bars appear once per session; don't refetch more often than this */
+    private static final long REFRESH_MINUTES = 60;
+    private static final String REFRESH_RANGE = "1mo";
+
+    private final PriceHistoryService priceHistoryService;
+    private final String name;
+    private List<String> symbols;
+    private LocalDate lastDate;
+    private long lastRefreshNanos;
+
+    /**
+     * @param name Label for log messages (e.g. "Correlation")
+     */
+    RefreshingReturnPanel(PriceHistoryService priceHistoryService, String name) {
+        this.priceHistoryService = priceHistoryService;
+        this.name = name;
+    }
+
+    /**
+     * Load the full history; tickers without bars are left out of
+     * getSymbols() from here on.
+     */
+    ReturnPanel load(List<String> tickers, String range) {
+        ReturnPanel panel = ReturnPanel.align(priceHistoryService.getCompletedDailyBarsForUniverse(tickers, range));
+        symbols = panel.getSymbols();
+        lastDate = panel.length() == 0 ? null : panel.getDates().get(panel.length() - 1);
+        lastRefreshNanos = System.nanoTime();
+        return panel;
+    }
+
+    /**
+     * Pass each session added since the last one seen to {@code onSession},
+     * as returns in getSymbols() order. The array is reused between calls.
+     * A refresh missing any symbol is skipped, keeping the previous window.
+     *
+     * @return Sessions passed on
+     */
+    int refreshIfDue(Consumer<double[]> onSession) {
+        long now = System.nanoTime();
+        if (now - lastRefreshNanos <= TimeUnit.MINUTES.toNanos(REFRESH_MINUTES)) {
+            return 0;
+        }
+        lastRefreshNanos = now;
+        ReturnPanel panel = ReturnPanel.align(
+                priceHistoryService.getCompletedDailyBarsForUniverse(symbols, REFRESH_RANGE));
+        if (!panel.getSymbols().containsAll(symbols)) {
+            logger.warn("{} refresh missing symbols for {}, keeping previous window", name, symbols);
+            return 0;
+        }
+        double[][] returns = panel.getReturns();
+        int[] columns = new int[symbols.size()];
+        for (int s = 0; s < symbols.size(); s++) {
+            columns[s] = panel.getSymbols().indexOf(symbols.get(s));
+        }
+        double[] session = new double[symbols.size()];
+        int added = 0;
+        for (int t = 0; t < panel.length(); t++) {
+            if (!panel.getDates().get(t).isAfter(lastDate)) {
+                continue;
+            }
+            for (int s = 0; s < symbols.size(); s++) {
+                session[s] = returns[columns[s]][t];
+            }
+            onSession.accept(session);
+            lastDate = panel.getDates().get(t);
+            added++;
+        }
+        logger.debug("{} {}: appended {} sessions", name, symbols, added);
+        return added;
+    }
+
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    /** Date of the last session passed on (or loaded) */
+    public LocalDate getLastDate() {
+        return lastDate;
+    }
+}
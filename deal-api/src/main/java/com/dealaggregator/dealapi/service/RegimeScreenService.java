@@ -0,0 +1,119 @@
+package com.dealaggregator.dealapi.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.dealaggregator.dealapi.analytics.HalfLifeDiagnostics;
+import com.dealaggregator.dealapi.analytics.RegimeTests;
+import com.dealaggregator.dealapi.marketdata.PriceBars;
+
+/**
+ * Universe-wide "is it mean-reverting?" screen using the DFA Hurst exponent
+ * and variance ratio tests.
+ *
+ * History for the whole universe is fetched concurrently, then every
+ * symbol is evaluated on the fork-join pool (see RegimeTests.screen).
+ */
+@Service
+public class RegimeScreenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegimeScreenService.class);
+
+    @Value("${screen.universe:SPY,QQQ,IWM,DIA,XLF,XLE,XLK,XLV,XLY,XLP,XLU,XLI,XLB,GLD,TLT}")
+    private String universe;
+
+    private final PriceHistoryService priceHistoryService;
+
+    public RegimeScreenService(PriceHistoryService priceHistoryService) {
+        this.priceHistoryService = priceHistoryService;
+    }
+
+    /**
+     * Screen the configured universe with default settings.
+     */
+    public List<RegimeTests.RegimeResult> screenUniverse() {
+        return screen(getUniverse(), RegimeTests.ScreenParams.defaults());
+    }
+
+    /**
+     * Screen the given tickers, most anti-persistent (lowest Hurst) first.
+     * Tickers without enough history are left out.
+     */
+    public List<RegimeTests.RegimeResult> screen(List<String> tickers, RegimeTests.ScreenParams params) {
+        long start = System.nanoTime();
+        Map<String, PriceBars> history = priceHistoryService.getBarsForUniverse(tickers, "2y", "1d");
+
+        List<String> symbols = new ArrayList<>();
+        List<double[]> prices = new ArrayList<>();
+        for (Map.Entry<String, PriceBars> entry : history.entrySet()) {
+            double[] closes = entry.getValue().getClose();
+            if (closes.length >= params.getRequiredBars()) {
+                symbols.add(entry.getKey());
+                prices.add(closes);
+            }
+        }
+
+        List<RegimeTests.RegimeResult> results = new ArrayList<>(
+                Arrays.asList(RegimeTests.screen(symbols, prices, params)));
+        results.removeIf(r -> Double.isNaN(r.getHurst().getHurst()));
+        results.sort(Comparator.comparingDouble(r -> r.getHurst().getHurst()));
+
+        logger.info("Regime screen: requested={}, screened={}, millis={}",
+                tickers.size(), results.size(), (System.nanoTime() - start) / 1_000_000);
+        return results;
+    }
+
+    /**
+     * Half-life regression with Durbin-Watson and standard errors for every
+     * ticker in one batch, shortest half-life first. Uses completed daily
+     * closes; tickers with too little history are left out.
+     */
+    public Map<String, HalfLifeDiagnostics.Diagnostics> screenHalfLife(List<String> tickers, int lookback) {
+        long start = System.nanoTime();
+        Map<String, PriceBars> history = priceHistoryService.getCompletedDailyBarsForUniverse(tickers, "2y");
+
+        List<String> symbols = new ArrayList<>();
+        List<double[]> prices = new ArrayList<>();
+        for (Map.Entry<String, PriceBars> entry : history.entrySet()) {
+            double[] closes = entry.getValue().getClose();
+            if (closes.length > lookback) {
+                symbols.add(entry.getKey());
+                prices.add(closes);
+            }
+        }
+
+        HalfLifeDiagnostics.Diagnostics[] fits = HalfLifeDiagnostics.batch(prices.toArray(new double[0][]), lookback);
+        Integer[] order = new Integer[fits.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> fits[i].getHalfLife()));
+        Map<String, HalfLifeDiagnostics.Diagnostics> results = new LinkedHashMap<>();
+        for (int i : order) {
+            results.put(symbols.get(i), fits[i]);
+        }
+
+        logger.info("Half-life screen: requested={}, screened={}, micros={}",
+                tickers.size(), results.size(), (System.nanoTime() - start) / 1_000);
+        return results;
+    }
+
+    public List<String> getUniverse() {
+        List<String> tickers = new ArrayList<>();
+        for (String ticker : universe.split(",")) {
+            if (!ticker.isBlank()) {
+                tickers.add(ticker.trim().toUpperCase());
+            }
+        }
+        return tickers;
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
@@ -16,6 +17,9 @@ import java.time.format.DateTimeFormatter;
 import java.util.Base64;
 import java.util.Optional;
 
+import com.dealaggregator.dealapi.marketdata.OptionChain;
+import com.dealaggregator.dealapi.marketdata.SchwabChainDecoder;
+import com.dealaggregator.dealapi.marketdata.SchwabStreamingTransport;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -29,6 +33,7 @@ public class SchwabApiService {
     private static final Logger logger = LoggerFactory.getLogger(SchwabApiService.class);
     private static final String BASE_URL = "https://api.schwabapi.com/marketdata/v1";
     private static final String TOKEN_URL = "https://api.schwabapi.com/v1/oauth/token";
+    private static final String USER_PREFERENCE_URL = "https://api.schwabapi.com/trader/v1/userPreference";
 
     @Value("${schwab.client.id:}")
     private String clientId;
@@ -39,8 +44,16 @@ public class SchwabApiService {
     @Value("${schwab.refresh.token:}")
     private String refreshToken;
 
+    /**
+     * Strikes to request around ATM. 0 (default) fetches the full chain,
+     * which the streaming decoder handles without building a JSON tree.
+     */
+    @Value("${schwab.chain.strike-count:0}")
+    private int strikeCount;
+
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final SchwabChainDecoder chainDecoder;
 
     private String accessToken;
     private long tokenExpiresAt = 0;
@@ -48,6 +61,7 @@ public class SchwabApiService {
     public SchwabApiService() {
         this.httpClient = HttpClient.newHttpClient();
         this.objectMapper = new ObjectMapper();
+        this.chainDecoder = new SchwabChainDecoder(objectMapper.getFactory());
     }
 
     /**
@@ -109,6 +123,54 @@ public class SchwabApiService {
         }
     }
 
+    /**
+     * Fetch streamer connection details for the Schwab WebSocket API.
+     * Used by SchwabStreamingTransport to log in with the current access token.
+     *
+     * @return Optional containing streamer info, or empty if unavailable
+     */
+    public Optional<SchwabStreamingTransport.StreamerInfo> getStreamerInfo() {
+        refreshAccessToken();
+
+        if (accessToken == null) {
+            logger.error("No valid Schwab access token available for streamer login");
+            return Optional.empty();
+        }
+
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(USER_PREFERENCE_URL))
+                    .header("Authorization", "Bearer " + accessToken)
+                    .header("Accept", "application/json")
+                    .GET()
+                    .build();
+
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+
+            if (response.statusCode() != 200) {
+                logger.error("Schwab userPreference error: {} - {}", response.statusCode(), response.body());
+                return Optional.empty();
+            }
+
+            JsonNode streamer = objectMapper.readTree(response.body()).path("streamerInfo").path(0);
+            if (streamer.isMissingNode()) {
+                logger.error("No streamerInfo in Schwab userPreference response");
+                return Optional.empty();
+            }
+
+            return Optional.of(new SchwabStreamingTransport.StreamerInfo(
+                    streamer.path("streamerSocketUrl").asText(),
+                    streamer.path("schwabClientCustomerId").asText(),
+                    streamer.path("schwabClientCorrelId").asText(),
+                    streamer.path("schwabClientChannel").asText(),
+                    streamer.path("schwabClientFunctionId").asText(),
+                    accessToken));
+        } catch (Exception e) {
+            logger.error("Error fetching Schwab streamer info", e);
+            return Optional.empty();
+        }
+    }
+
     /**
      * Get ATM option quotes for SPX at a specific expiration
      * 
@@ -116,6 +178,17 @@ public class SchwabApiService {
      * @return Optional containing call and put quotes, or empty if failed
      */
     public Optional<SPXStraddle> getSpxStraddle(int dte) {
+        return getOptionChain("$SPX", dte).flatMap(this::findAtmStraddle);
+    }
+
+    /**
+     * Fetch and decode the option chain for one expiration date.
+     *
+     * @param symbol Underlying symbol as Schwab expects it (e.g. "$SPX", "SPY")
+     * @param dte    Days to expiration
+     * @return Optional containing the decoded chain, or empty if failed
+     */
+    public Optional<OptionChain> getOptionChain(String symbol, int dte) {
         refreshAccessToken();
 
         if (accessToken == null) {
@@ -128,10 +201,10 @@ public class SchwabApiService {
             LocalDate expDate = LocalDate.now().plusDays(dte);
             String expDateStr = expDate.format(DateTimeFormatter.ISO_LOCAL_DATE);
 
-            // Build request URL for SPX option chain
-            String url = BASE_URL + "/chains?symbol=$SPX" +
+            // Build request URL for the option chain
+            String url = BASE_URL + "/chains?symbol=" + URLEncoder.encode(symbol, StandardCharsets.UTF_8) +
                     "&contractType=ALL" +
-                    "&strikeCount=5" + // Get 5 strikes around ATM
+                    (strikeCount > 0 ? "&strikeCount=" + strikeCount : "") +
                     "&fromDate=" + expDateStr +
                     "&toDate=" + expDateStr;
 
@@ -142,92 +215,55 @@ public class SchwabApiService {
                     .GET()
                     .build();
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                return parseOptionChain(response.body());
-            } else {
-                logger.error("Schwab API error: {} - {}", response.statusCode(), response.body());
-                return Optional.empty();
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+            try (InputStream body = response.body()) {
+                if (response.statusCode() == 200) {
+                    // Decode straight from the socket stream, no intermediate String or tree
+                    return Optional.of(chainDecoder.decode(body));
+                } else {
+                    logger.error("Schwab API error: {} - {}", response.statusCode(),
+                            new String(body.readAllBytes(), StandardCharsets.UTF_8));
+                    return Optional.empty();
+                }
             }
         } catch (Exception e) {
-            logger.error("Error fetching SPX options from Schwab", e);
+            logger.error("Error fetching {} options from Schwab", symbol, e);
             return Optional.empty();
         }
     }
 
     /**
-     * Parse the option chain response and find ATM straddle
+     * Find the ATM straddle in the nearest expiration of a decoded chain.
+     * Strikes are located by binary search on the sorted strike columns.
      */
-    private Optional<SPXStraddle> parseOptionChain(String jsonResponse) {
-        try {
-            JsonNode root = objectMapper.readTree(jsonResponse);
-
-            double underlyingPrice = root.path("underlyingPrice").asDouble();
-
-            // Find the closest strike to underlying price
-            JsonNode callExpDateMap = root.path("callExpDateMap");
-            JsonNode putExpDateMap = root.path("putExpDateMap");
-
-            if (callExpDateMap.isMissingNode() || putExpDateMap.isMissingNode()) {
-                logger.warn("No option data found in Schwab response");
-                return Optional.empty();
-            }
-
-            // Get the first expiration date's strikes
-            String firstExpKey = callExpDateMap.fieldNames().next();
-            JsonNode callStrikes = callExpDateMap.path(firstExpKey);
-            JsonNode putStrikes = putExpDateMap.path(firstExpKey);
-
-            // Find ATM strike (closest to underlying)
-            double atmStrike = Math.round(underlyingPrice / 5.0) * 5.0;
-
-            // Get call and put at ATM strike
-            JsonNode callOption = findStrike(callStrikes, atmStrike);
-            JsonNode putOption = findStrike(putStrikes, atmStrike);
-
-            if (callOption == null || putOption == null) {
-                logger.warn("Could not find ATM strike {} in option chain", atmStrike);
-                return Optional.empty();
-            }
+    private Optional<SPXStraddle> findAtmStraddle(OptionChain chain) {
+        Optional<OptionChain.Expiry> firstExpiry = chain.getFirstExpiry();
+        if (firstExpiry.isEmpty()) {
+            logger.warn("No option data found in Schwab response");
+            return Optional.empty();
+        }
 
-            double callBid = callOption.path("bid").asDouble();
-            double callAsk = callOption.path("ask").asDouble();
-            double putBid = putOption.path("bid").asDouble();
-            double putAsk = putOption.path("ask").asDouble();
+        OptionChain.Expiry expiry = firstExpiry.get();
+        OptionChain.Side calls = expiry.getCalls();
+        OptionChain.Side puts = expiry.getPuts();
+        double underlyingPrice = chain.getUnderlyingPrice();
 
-            // Parse actual expiration date from the key (format: "2026-01-05:3")
-            String actualExpDate = firstExpKey.split(":")[0];
+        // Find ATM strike (closest to underlying)
+        double atmStrike = Math.round(underlyingPrice / 5.0) * 5.0;
 
-            return Optional.of(new SPXStraddle(
-                    callBid, callAsk, putBid, putAsk,
-                    underlyingPrice, atmStrike, actualExpDate));
+        // Get call and put at ATM strike
+        int callIdx = calls.nearestIndex(atmStrike);
+        int putIdx = puts.nearestIndex(atmStrike);
 
-        } catch (Exception e) {
-            logger.error("Error parsing Schwab option chain", e);
+        if (callIdx < 0 || putIdx < 0) {
+            logger.warn("Could not find ATM strike {} in option chain", atmStrike);
             return Optional.empty();
         }
-    }
 
-    /**
-     * Find the option at a specific strike price
-     */
-    private JsonNode findStrike(JsonNode strikes, double targetStrike) {
-        var fields = strikes.fields();
-        double minDiff = Double.MAX_VALUE;
-        JsonNode closest = null;
-
-        while (fields.hasNext()) {
-            var entry = fields.next();
-            double strike = Double.parseDouble(entry.getKey());
-            double diff = Math.abs(strike - targetStrike);
-
-            if (diff < minDiff) {
-                minDiff = diff;
-                closest = entry.getValue().get(0); // First contract at this strike
-            }
-        }
-        return closest;
+        return Optional.of(new SPXStraddle(
+                calls.bid(callIdx), calls.ask(callIdx), puts.bid(putIdx), puts.ask(putIdx),
+                underlyingPrice, atmStrike, expiry.getDate()));
     }
 
     /**
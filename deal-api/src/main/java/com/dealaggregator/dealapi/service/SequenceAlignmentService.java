@@ -0,0 +1,62 @@
+package com.dealaggregator.dealapi.service;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Moves the entity ID sequences past rows inserted before the switch from
+ * IDENTITY columns.
+ *
+ * ddl-auto creates strategies_seq, legs_seq and command_logs_seq starting
+ * at 1, while existing tables already hold IDENTITY-assigned IDs. A pooled
+ * sequence hands out (value - 50, value], so every sequence whose value is
+ * below its table's MAX(id) is set to that maximum on startup. Once aligned
+ * this is a no-op. The bean depends on entityManagerFactory, whose
+ * ddl-auto pass creates the tables and sequences, and writers
+ * (DiscordBotService) depend on this bean so it runs before the first
+ * insert. A sequence that can't be aligned fails startup: handing out IDs
+ * from 1 would collide with existing rows.
+ */
+@Service
+@DependsOn("entityManagerFactory")
+public class SequenceAlignmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SequenceAlignmentService.class);
+
+    /** Sequence name to table, for every entity with a pooled sequence ID */
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "strategies_seq", "strategies",
+            "legs_seq", "legs",
+            "command_logs_seq", "command_logs");
+
+    private final JdbcTemplate jdbc;
+
+    public SequenceAlignmentService(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @PostConstruct
+    public void align() {
+        for (Map.Entry<String, String> entry : SEQUENCES.entrySet()) {
+            String sequence = entry.getKey();
+            String table = entry.getValue();
+            try {
+                Long maxId = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+                Long lastValue = jdbc.queryForObject("SELECT last_value FROM " + sequence, Long.class);
+                if (maxId != null && lastValue != null && lastValue < maxId) {
+                    jdbc.queryForObject("SELECT setval(?, ?)", Long.class, sequence, maxId);
+                    logger.info("Sequence {} moved from {} to {} (max id of {})", sequence, lastValue, maxId, table);
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not align sequence " + sequence + " with " + table, e);
+            }
+        }
+    }
+}
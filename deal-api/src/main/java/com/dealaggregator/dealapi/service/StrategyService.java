@@ -1,11 +1,21 @@
 package com.dealaggregator.dealapi.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import com.dealaggregator.dealapi.entity.Strategy;
 import com.dealaggregator.dealapi.entity.StrategyStatus;
 import com.dealaggregator.dealapi.entity.Leg;
 import com.dealaggregator.dealapi.repository.StrategyRepository;
+import com.dealaggregator.dealapi.repository.StrategyView;
+
+import jakarta.annotation.PostConstruct;
 
 /**
  * Service layer for managing options trading strategies.
@@ -13,18 +23,25 @@ import com.dealaggregator.dealapi.repository.StrategyRepository;
  * Handles the business logic for:
  * - Opening new strategies (single-leg or multi-leg spreads)
  * - Retrieving user portfolios
- * - Closing/selling strategies
+ * - Closing/selling strategies, one at a time or in bulk
  * 
  * A Strategy can contain multiple Legs (e.g., vertical spread has 2 legs,
  * iron condor has 4 legs). Each Leg represents one options contract.
  * 
+ * Open strategies are served from an in-memory PortfolioReadModel: it is
+ * warmed from the database on startup, opens and closes write through to
+ * it, and writes made outside this service must call invalidatePortfolio.
+ * 
  * @see Strategy
  * @see Leg
  */
 @Service
 public class StrategyService {
 
+    private static final Logger logger = LoggerFactory.getLogger(StrategyService.class);
+
     private final StrategyRepository strategyRepo;
+    private final PortfolioReadModel portfolios = new PortfolioReadModel();
 
     /**
      * Constructor with dependency injection.
@@ -34,6 +51,22 @@ public class StrategyService {
         this.strategyRepo = strategyRepo;
     }
 
+    /**
+     * Load every open strategy into the read model.
+     */
+    @PostConstruct
+    public void warmUp() {
+        try {
+            List<StrategyView> open = StrategyView.fromRows(
+                    strategyRepo.findAllPositionRows(StrategyStatus.OPEN));
+            portfolios.load(open);
+            logger.info("Portfolio read model loaded: users={}, strategies={}", portfolios.size(), open.size());
+        } catch (Exception e) {
+            // Users then load on their first read
+            logger.warn("Portfolio warm-up failed: {}", e.getMessage());
+        }
+    }
+
     /**
      * Create and save a new strategy with its legs and net cost.
      * This is the primary method for recording a trade.
@@ -53,7 +86,34 @@ public class StrategyService {
             leg.setStrategy(strategy);
         }
         strategy.getLegs().addAll(legs);
-        return strategyRepo.save(strategy);
+        Strategy saved = strategyRepo.save(strategy);
+        portfolios.upsert(StrategyView.of(saved));
+        return saved;
+    }
+
+    /**
+     * Save many strategies (e.g. an imported book) in one transaction
+     * (saveAll's). With pooled sequence IDs and hibernate.jdbc.batch_size
+     * set, the inserts go out as JDBC batches, ordered so all strategies
+     * precede all legs, instead of one round trip per row. The read model
+     * is updated after the commit.
+     *
+     * @param strategies New strategies with their legs attached
+     * @return The saved strategies
+     */
+    public List<Strategy> importStrategies(List<Strategy> strategies) {
+        for (Strategy strategy : strategies) {
+            for (Leg leg : strategy.getLegs()) {
+                leg.setStrategy(strategy);
+            }
+        }
+        List<Strategy> saved = strategyRepo.saveAll(strategies);
+        List<StrategyView> views = new ArrayList<>(saved.size());
+        for (Strategy strategy : saved) {
+            views.add(StrategyView.of(strategy));
+        }
+        portfolios.upsertAll(views);
+        return saved;
     }
 
     /**
@@ -65,21 +125,76 @@ public class StrategyService {
     }
 
     /**
-     * Get all active (OPEN) strategies for a user.
-     * Used to display the /portfolio view.
+     * Get all active (OPEN) strategies for a user, oldest first, as
+     * read-only views. Used to display the /portfolio view.
+     * 
+     * Served from memory; a user's first read is one Strategy-Leg join
+     * query, with no managed entities.
      */
-    public List<Strategy> getOpenStrategies(String userId) {
-
-        return strategyRepo.findByUserIdAndStatus(userId, StrategyStatus.OPEN);
+    public List<StrategyView> getOpenStrategies(String userId) {
+        return portfolios.get(userId,
+                id -> StrategyView.fromRows(strategyRepo.findPositionRows(id, StrategyStatus.OPEN)));
     }
 
     /**
-     * Close a strategy by ID.
+     * Close a strategy by ID. Loads only the strategy row; legs are lazy.
      */
     public void closeStrategy(Long strategyId) {
 
         Strategy strategy = strategyRepo.findById(strategyId).get();
         strategy.setStatus(StrategyStatus.CLOSED);
         strategyRepo.save(strategy);
+        portfolios.remove(strategy.getUserId(), strategyId);
+    }
+
+    /**
+     * Close all of a user's open strategies on a ticker with one UPDATE,
+     * whatever their number.
+     *
+     * @return The strategies closed, with their net cost
+     */
+    public List<StrategyRepository.ClosedStrategy> closeStrategies(String userId, String ticker) {
+        List<StrategyRepository.ClosedStrategy> closed = strategyRepo.closeOpenByTicker(userId, ticker);
+        removeClosed(userId, closed);
+        return closed;
+    }
+
+    /**
+     * Close the given strategies with one UPDATE. IDs that are not open or
+     * don't belong to the user are skipped.
+     *
+     * @return The strategies closed, with their net cost
+     */
+    public List<StrategyRepository.ClosedStrategy> closeStrategies(String userId, Collection<Long> strategyIds) {
+        if (strategyIds.isEmpty()) {
+            return List.of();
+        }
+        List<StrategyRepository.ClosedStrategy> closed = strategyRepo.closeOpenByIds(userId, strategyIds);
+        removeClosed(userId, closed);
+        return closed;
+    }
+
+    private void removeClosed(String userId, List<StrategyRepository.ClosedStrategy> closed) {
+        Set<Long> ids = new HashSet<>();
+        for (StrategyRepository.ClosedStrategy c : closed) {
+            ids.add(c.getId());
+        }
+        portfolios.removeAll(userId, ids);
+    }
+
+    /**
+     * Drop a user's cached portfolio after strategies were changed outside
+     * this service (e.g. directly in the database).
+     */
+    public void invalidatePortfolio(String userId) {
+        portfolios.invalidate(userId);
+    }
+
+    /**
+     * Drop every cached portfolio and reload from the database.
+     */
+    public void reloadPortfolios() {
+        portfolios.invalidateAll();
+        warmUp();
     }
 }
\ No newline at end of file
@@ -0,0 +1,208 @@
+package com.dealaggregator.dealapi.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.dealaggregator.dealapi.analytics.HvPercentileRank;
+import com.dealaggregator.dealapi.analytics.RollingVolatility;
+import com.dealaggregator.dealapi.marketdata.PriceBars;
+
+/**
+ * Historical volatility per ticker, used as the default volatility for
+ * Black-Scholes pricing in /analyze.
+ *
+ * Each ticker keeps a RollingVolatility and an HV percentile/rank fed from
+ * completed daily bars: two years on first use, then only new bars (at most
+ * one refresh per volatility.refresh-minutes). If a refresh finds the last
+ * applied bar at a different adjusted close (dividend or split), the
+ * windows would mix adjustment bases and see a spurious return, so the
+ * ticker is reloaded from two years instead. The same happens on the next
+ * read after PriceHistoryService reseeds the ticker's stored history.
+ */
+@Service
+public class VolatilityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VolatilityService.class);
+
+    @Value("${volatility.estimator:YANG_ZHANG}")
+    private RollingVolatility.Estimator estimator;
+
+    @Value("${volatility.period:30}")
+    private int period;
+
+    @Value("${volatility.refresh-minutes:60}")
+    private long refreshMinutes;
+
+    @Value("${volatility.percentile-lookback:252}")
+    private int percentileLookback;
+
+    private final PriceHistoryService priceHistoryService;
+    private final Map<String, TickerVolatility> cache = new ConcurrentHashMap<>();
+
+    public VolatilityService(PriceHistoryService priceHistoryService) {
+        this.priceHistoryService = priceHistoryService;
+    }
+
+    /**
+     * Annualized historical volatility with the configured estimator, or
+     * empty if history is unavailable.
+     */
+    public OptionalDouble getVolatility(String ticker) {
+        return getVolatility(ticker, estimator);
+    }
+
+    public OptionalDouble getVolatility(String ticker, RollingVolatility.Estimator which) {
+        double vol = refreshed(ticker).get(which);
+        return Double.isNaN(vol) || vol <= 0 ? OptionalDouble.empty() : OptionalDouble.of(vol);
+    }
+
+    /**
+     * HV percentile and rank over the last volatility.percentile-lookback
+     * sessions, or empty if there is not enough history yet.
+     */
+    public Optional<HvReading> getPercentileRank(String ticker) {
+        return refreshed(ticker).percentileRank();
+    }
+
+    private TickerVolatility refreshed(String ticker) {
+        String key = ticker.toUpperCase();
+        TickerVolatility entry = cache.computeIfAbsent(key, k -> new TickerVolatility());
+        try {
+            entry.refreshIfStale(key);
+        } catch (Exception e) {
+            logger.warn("Volatility refresh failed for {}: {}", key, e.getMessage());
+        }
+        return entry;
+    }
+
+    /**
+     * The stored history was reloaded on a new adjustment basis: rebuild the
+     * windows on the next read instead of waiting for the refresh interval.
+     */
+    @EventListener
+    public void onHistoryReseeded(PriceHistoryReseededEvent event) {
+        TickerVolatility entry = cache.get(event.getTicker().toUpperCase());
+        if (entry != null) {
+            entry.invalidate();
+        }
+    }
+
+    /**
+     * Label for embeds, e.g. "Yang-Zhang 30d HV".
+     */
+    public String describe() {
+        String name = estimator.name().charAt(0) + estimator.name().substring(1).toLowerCase().replace('_', '-');
+        return name + " " + period + "d HV";
+    }
+
+    /**
+     * Rolling estimators plus refresh bookkeeping for one ticker.
+     */
+    private class TickerVolatility {
+        private RollingVolatility volatility;
+        private HvPercentileRank hvRank;
+        private long lastBarTime;
+        private double lastClose;
+        private long lastRefreshNanos;
+        private boolean loaded;
+        /** Set by the reseed listener without the lock (it may run on a thread holding the store's sync lock) */
+        private volatile boolean reseed;
+
+        TickerVolatility() {
+            reset();
+        }
+
+        /** Empty windows; the next refresh loads two years */
+        synchronized void reset() {
+            volatility = new RollingVolatility(period, RollingVolatility.EQUITY_ANNUAL_PERIODS,
+                    RollingVolatility.DEFAULT_YZ_ALPHA);
+            hvRank = new HvPercentileRank(period, percentileLookback);
+            lastBarTime = Long.MIN_VALUE;
+            lastClose = Double.NaN;
+            loaded = false;
+            reseed = false;
+        }
+
+        void invalidate() {
+            reseed = true;
+        }
+
+        synchronized void refreshIfStale(String ticker) throws Exception {
+            long now = System.nanoTime();
+            if (loaded && !reseed && now - lastRefreshNanos < TimeUnit.MINUTES.toNanos(refreshMinutes)) {
+                return;
+            }
+            PriceBars bars = priceHistoryService.getCompletedDailyBars(ticker, loaded ? "5d" : "2y");
+            if (loaded && (reseed || !bars.hasClose(lastBarTime, lastClose))) {
+                logger.info("Adjusted closes changed for {}, reloading volatility history", ticker);
+                reset();
+                bars = priceHistoryService.getCompletedDailyBars(ticker, "2y");
+            }
+            long[] times = bars.getTimestamps();
+            for (int i = 0; i < times.length; i++) {
+                if (times[i] > lastBarTime) {
+                    volatility.onBar(bars.getOpen()[i], bars.getHigh()[i], bars.getLow()[i], bars.getClose()[i]);
+                    hvRank.onClose(bars.getClose()[i]);
+                    lastBarTime = times[i];
+                    lastClose = bars.getClose()[i];
+                }
+            }
+            loaded = true;
+            lastRefreshNanos = now;
+        }
+
+        synchronized double get(RollingVolatility.Estimator which) {
+            return volatility.get(which);
+        }
+
+        synchronized Optional<HvReading> percentileRank() {
+            if (!hvRank.isReady()) {
+                return Optional.empty();
+            }
+            return Optional.of(new HvReading(hvRank.getPercentile(), hvRank.getRank(),
+                    hvRank.getHv() * Math.sqrt(RollingVolatility.EQUITY_ANNUAL_PERIODS), hvRank.getLookback()));
+        }
+    }
+
+    /**
+     * HV percentile/rank snapshot for one ticker.
+     */
+    public static class HvReading {
+        private final double percentile;
+        private final double rank;
+        private final double annualizedHv;
+        private final int lookback;
+
+        public HvReading(double percentile, double rank, double annualizedHv, int lookback) {
+            this.percentile = percentile;
+            this.rank = rank;
+            this.annualizedHv = annualizedHv;
+            this.lookback = lookback;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public double getRank() {
+            return rank;
+        }
+
+        public double getAnnualizedHv() {
+            return annualizedHv;
+        }
+
+        public int getLookback() {
+            return lookback;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.dealaggregator.dealapi.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.dealaggregator.dealapi.analytics.RollingIndicatorSet;
+import com.dealaggregator.dealapi.analytics.RollingMoments;
+import com.dealaggregator.dealapi.marketdata.MarketCalendar;
+import com.dealaggregator.dealapi.marketdata.PriceBars;
+
+/**
+ * Keeps streaming mean reversion indicators for a watchlist.
+ *
+ * Each ticker is warmed up once from a year of daily bars; after that only
+ * new bars are fed in, and every indicator updates in O(1) per bar instead
+ * of rescanning the lookback window. Closes are adjusted, so a dividend or
+ * split rescales history already in the windows: when a refetch no longer
+ * has the last applied bar at the close it was applied with, the ticker is
+ * warmed up again from scratch, as it is after PriceHistoryService reseeds
+ * the ticker's stored history.
+ */
+@Service
+public class WatchlistIndicatorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WatchlistIndicatorService.class);
+
+    @Value("${indicators.watchlist:SPY,QQQ,IWM}")
+    private String watchlist;
+
+    private final PriceHistoryService priceHistoryService;
+    private final Map<String, TickerState> states = new ConcurrentHashMap<>();
+
+    public WatchlistIndicatorService(PriceHistoryService priceHistoryService) {
+        this.priceHistoryService = priceHistoryService;
+    }
+
+    /**
+     * Pull the latest daily bars for every watchlist ticker after the close.
+     */
+    @Scheduled(cron = "${indicators.watchlist.cron:0 10 16 * * MON-FRI}", zone = MarketCalendar.ZONE_NAME)
+    public void updateWatchlist() {
+        for (String ticker : getWatchlist()) {
+            try {
+                refresh(ticker);
+            } catch (Exception e) {
+                logger.warn("Watchlist update failed for {}: {}", ticker, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Bring one ticker up to date: a full year on first use or after an
+     * adjustment change, otherwise just the last few sessions (only bars
+     * newer than the last one seen are applied).
+     */
+    public void refresh(String ticker) throws Exception {
+        String key = ticker.toUpperCase();
+        TickerState state = states.get(key);
+        if (state != null) {
+            PriceBars recent = priceHistoryService.getCompletedDailyBars(key, "5d");
+            if (state.sameBasis(recent)) {
+                int applied = state.apply(recent);
+                logger.info("Watchlist indicators updated: ticker={}, newBars={}", key, applied);
+                return;
+            }
+            logger.info("Adjusted closes changed for {}, reseeding watchlist indicators", key);
+        }
+        TickerState seeded = new TickerState();
+        int applied = seeded.apply(priceHistoryService.getCompletedDailyBars(key, "1y"));
+        states.put(key, seeded);
+        logger.info("Watchlist indicators seeded: ticker={}, bars={}", key, applied);
+    }
+
+    /**
+     * The stored history was reloaded on a new adjustment basis: warm the
+     * ticker up again on its next refresh.
+     */
+    @EventListener
+    public void onHistoryReseeded(PriceHistoryReseededEvent event) {
+        TickerState state = states.get(event.getTicker().toUpperCase());
+        if (state != null) {
+            state.invalidate();
+        }
+    }
+
+    /**
+     * Feed a single completed bar (e.g. from a live bar builder).
+     *
+     * @return false if the bar is not newer than the last one applied
+     */
+    public boolean onBar(String ticker, long barTimeMillis, double close) {
+        return states.computeIfAbsent(ticker.toUpperCase(), k -> new TickerState()).apply(barTimeMillis, close);
+    }
+
+    /**
+     * Current indicators in the same shape as IndicatorService.getAllIndicators,
+     * plus return moments.
+     */
+    public Optional<Map<String, Object>> getIndicators(String ticker) {
+        TickerState state = states.get(ticker.toUpperCase());
+        return state == null ? Optional.empty() : Optional.of(state.toMap(ticker.toUpperCase()));
+    }
+
+    public List<String> getWatchlist() {
+        List<String> tickers = new ArrayList<>();
+        for (String ticker : watchlist.split(",")) {
+            if (!ticker.isBlank()) {
+                tickers.add(ticker.trim().toUpperCase());
+            }
+        }
+        return tickers;
+    }
+
+    /**
+     * Indicator set plus the timestamp and close of the last applied bar.
+     */
+    private static class TickerState {
+        private final RollingIndicatorSet indicators = new RollingIndicatorSet();
+        private long lastBarTime = Long.MIN_VALUE;
+        private double lastClose = Double.NaN;
+        private volatile boolean reseed;
+
+        void invalidate() {
+            reseed = true;
+        }
+
+        /** Fresh bars still agree with the last applied close (nothing applied yet counts as agreeing) */
+        synchronized boolean sameBasis(PriceBars bars) {
+            return !reseed && (lastBarTime == Long.MIN_VALUE || bars.hasClose(lastBarTime, lastClose));
+        }
+
+        synchronized int apply(PriceBars bars) {
+            long[] times = bars.getTimestamps();
+            double[] closes = bars.getClose();
+            int applied = 0;
+            for (int i = 0; i < times.length; i++) {
+                if (apply(times[i], closes[i])) {
+                    applied++;
+                }
+            }
+            return applied;
+        }
+
+        synchronized boolean apply(long barTime, double close) {
+            if (barTime <= lastBarTime) {
+                return false;
+            }
+            indicators.onBar(close);
+            lastBarTime = barTime;
+            lastClose = close;
+            return true;
+        }
+
+        synchronized Map<String, Object> toMap(String ticker) {
+            RollingMoments returns = indicators.getReturnMoments();
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("ticker", ticker);
+            result.put("zscore", indicators.getZscore().getZscore());
+            result.put("signal", indicators.getZscore().getSignal());
+            result.put("half_life", indicators.getHalfLife().getHalfLife());
+            result.put("return_mean", returns.getMean());
+            result.put("return_std", returns.getStd());
+            result.put("return_skew", returns.getSkewness());
+            result.put("return_kurtosis", returns.getExcessKurtosis());
+            result.put("bars", indicators.getBars());
+            result.put("last_bar_time", lastBarTime);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.dealaggregator.dealapi.analytics;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH comparison of FFT vs direct autocovariance.
+ *
+ * Not a unit test (surefire ignores it). Run after test-compile with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=AcfBenchmark
+ *
+ * 98,280 bars = one year of regular-session minute bars; maxLag = n / 4
+ * is the "full-lag" case the direct method struggles with.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AcfBenchmark {
+
+    @Param({ "1000", "10000", "98280" })
+    public int n;
+
+    @Param({ "10", "QUARTER" })
+    public String lags;
+
+    private double[] series;
+    private double[] out;
+    private int maxLag;
+    private final FftAutocorrelation engine = new FftAutocorrelation();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        series = new double[n];
+        for (int i = 1; i < n; i++) {
+            series[i] = 0.1 * series[i - 1] + random.nextGaussian();
+        }
+        maxLag = "QUARTER".equals(lags) ? n / 4 : Integer.parseInt(lags);
+        out = new double[maxLag + 1];
+    }
+
+    @Benchmark
+    public double[] fft() {
+        engine.autocovarianceSums(series, n, maxLag, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] direct() {
+        return FftAutocorrelation.directAutocovarianceSums(series, maxLag);
+    }
+}
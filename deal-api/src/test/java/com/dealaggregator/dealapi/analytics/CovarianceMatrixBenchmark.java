@@ -0,0 +1,78 @@
+package com.dealaggregator.dealapi.analytics;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH timing of full vs incremental covariance matrix updates.
+ *
+ * Not a unit test (surefire ignores it). Run after test-compile with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=CovarianceMatrixBenchmark
+ *
+ * 500 symbols x 252 sessions is the target universe; full recompute
+ * should stay well under a second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CovarianceMatrixBenchmark {
+
+    @Param({ "100", "500" })
+    public int symbols;
+
+    @Param({ "252" })
+    public int window;
+
+    private double[][] returns;
+    private double[] bar;
+    private CovarianceMatrix rolling;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        returns = new double[symbols][window];
+        for (int i = 0; i < symbols; i++) {
+            for (int t = 0; t < window; t++) {
+                returns[i][t] = 0.01 * random.nextGaussian();
+            }
+        }
+        bar = new double[symbols];
+        for (int i = 0; i < symbols; i++) {
+            bar[i] = 0.01 * random.nextGaussian();
+        }
+        rolling = new CovarianceMatrix(symbols, window);
+        rolling.load(returns);
+    }
+
+    @Benchmark
+    public CovarianceMatrix.Result full() {
+        return CovarianceMatrix.compute(returns, false);
+    }
+
+    @Benchmark
+    public CovarianceMatrix.Result fullShrunk() {
+        return CovarianceMatrix.compute(returns, true);
+    }
+
+    @Benchmark
+    public CovarianceMatrix incrementalBar() {
+        rolling.onBar(bar);
+        return rolling;
+    }
+}
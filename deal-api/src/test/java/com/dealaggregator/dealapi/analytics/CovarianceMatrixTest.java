@@ -0,0 +1,145 @@
+package com.dealaggregator.dealapi.analytics;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CovarianceMatrix.
+ */
+class CovarianceMatrixTest {
+
+    /** Returns with a common factor so correlations are non-trivial */
+    private static double[][] factorReturns(int n, int t, long seed) {
+        Random random = new Random(seed);
+        double[][] returns = new double[n][t];
+        for (int k = 0; k < t; k++) {
+            double market = random.nextGaussian();
+            for (int i = 0; i < n; i++) {
+                returns[i][k] = 0.01 * ((i % 4) * 0.3 * market + random.nextGaussian()) + 0.0005 * i;
+            }
+        }
+        return returns;
+    }
+
+    private static double naiveCovariance(double[] x, double[] y) {
+        double mx = 0, my = 0;
+        for (int k = 0; k < x.length; k++) {
+            mx += x[k];
+            my += y[k];
+        }
+        mx /= x.length;
+        my /= y.length;
+        double s = 0;
+        for (int k = 0; k < x.length; k++) {
+            s += (x[k] - mx) * (y[k] - my);
+        }
+        return s / (x.length - 1);
+    }
+
+    @Test
+    @DisplayName("Tiled parallel kernel matches naive pairwise covariance (several tiles)")
+    void testCompute_MatchesNaive() {
+        double[][] returns = factorReturns(75, 103, 1); // Ragged last tile and odd length
+
+        CovarianceMatrix.Result result = CovarianceMatrix.compute(returns, false);
+
+        for (int i = 0; i < 75; i++) {
+            for (int j = 0; j < 75; j++) {
+                double expected = naiveCovariance(returns[i], returns[j]);
+                assertEquals(expected, result.getCovariance(i, j), 1e-15);
+                double corr = expected / Math.sqrt(naiveCovariance(returns[i], returns[i])
+                        * naiveCovariance(returns[j], returns[j]));
+                assertEquals(i == j ? 1.0 : corr, result.getCorrelation(i, j), 1e-10);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Incremental bars match a full recompute of the last window")
+    void testOnBar_MatchesCompute() {
+        int n = 40, window = 30, total = 500;
+        double[][] returns = factorReturns(n, total, 2);
+        CovarianceMatrix rolling = new CovarianceMatrix(n, window);
+        double[] bar = new double[n];
+        for (int t = 0; t < total; t++) {
+            for (int i = 0; i < n; i++) {
+                bar[i] = returns[i][t];
+            }
+            rolling.onBar(bar);
+        }
+
+        double[][] last = new double[n][];
+        for (int i = 0; i < n; i++) {
+            last[i] = Arrays.copyOfRange(returns[i], total - window, total);
+        }
+        CovarianceMatrix.Result expected = CovarianceMatrix.compute(last, false);
+        CovarianceMatrix.Result actual = rolling.snapshot(false);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                assertEquals(expected.getCovariance(i, j), actual.getCovariance(i, j), 1e-12);
+            }
+        }
+        assertEquals(expected.getShrinkage(), actual.getShrinkage(), 0.0);
+        assertEquals(CovarianceMatrix.compute(last, true).getShrinkage(), rolling.snapshot(true).getShrinkage(),
+                1e-12);
+    }
+
+    @Test
+    @DisplayName("Ledoit-Wolf - matches the reference formula and shrinks toward mu * I")
+    void testLedoitWolf_MatchesReference() {
+        int n = 20, t = 25; // Few observations per symbol: heavy shrinkage
+        double[][] returns = factorReturns(n, t, 3);
+
+        CovarianceMatrix.Result shrunk = CovarianceMatrix.compute(returns, true);
+
+        // Reference: Ledoit-Wolf (2004) as in scikit-learn's ledoit_wolf_shrinkage
+        double[][] x = new double[t][n];
+        for (int i = 0; i < n; i++) {
+            double mean = 0;
+            for (int k = 0; k < t; k++) {
+                mean += returns[i][k];
+            }
+            mean /= t;
+            for (int k = 0; k < t; k++) {
+                x[k][i] = returns[i][k] - mean;
+            }
+        }
+        double[][] s = new double[n][n];
+        double trace = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                for (int k = 0; k < t; k++) {
+                    s[i][j] += x[k][i] * x[k][j] / t;
+                }
+            }
+            trace += s[i][i];
+        }
+        double mu = trace / n;
+        double betaSum = 0, deltaSum = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                for (int k = 0; k < t; k++) {
+                    betaSum += x[k][i] * x[k][i] * x[k][j] * x[k][j];
+                }
+                deltaSum += s[i][j] * s[i][j];
+            }
+        }
+        double beta = (betaSum / t - deltaSum) / (n * t);
+        double delta = (deltaSum - 2 * mu * trace + n * mu * mu) / n;
+        double shrinkage = Math.min(beta, delta) / delta;
+
+        assertEquals(shrinkage, shrunk.getShrinkage(), 1e-12);
+        assertTrue(shrinkage > 0 && shrinkage <= 1);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                double expected = (1 - shrinkage) * s[i][j] + (i == j ? shrinkage * mu : 0);
+                assertEquals(expected, shrunk.getCovariance(i, j), 1e-15);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.dealaggregator.dealapi.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DependenceScreen (Hoeffding's D and correlations).
+ */
+class DependenceScreenTest {
+
+    private static double[] gaussian(int n, long seed) {
+        Random random = new Random(seed);
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = random.nextGaussian();
+        }
+        return x;
+    }
+
+    @Test
+    @DisplayName("Hoeffding - Fenwick counts match the Pine O(n^2) loop")
+    void testHoeffding_MatchesPineLoop() {
+        double[] x = gaussian(60, 1);
+        double[] y = gaussian(60, 2);
+        for (int i = 0; i < y.length; i++) {
+            y[i] = 0.5 * y[i] + x[i] * x[i]; // Nonlinear dependence
+        }
+
+        double expected = pineHoeffding(x, y);
+        double actual = DependenceScreen.hoeffdingD(DependenceScreen.rank(x, 60), DependenceScreen.rank(y, 60));
+
+        assertEquals(expected, actual, 1e-12);
+        assertTrue(DependenceScreen.hoeffdingPValue(actual, 60) < 0.05);
+    }
+
+    @Test
+    @DisplayName("Hoeffding - independent series give a large p-value")
+    void testHoeffding_Independent() {
+        double[] x = gaussian(200, 3);
+        double[] y = gaussian(200, 4);
+        double d = DependenceScreen.hoeffdingD(DependenceScreen.rank(x, 200), DependenceScreen.rank(y, 200));
+
+        assertTrue(Math.abs(d) < 0.02, "D = " + d);
+        assertTrue(DependenceScreen.hoeffdingPValue(d, 200) > 0.05);
+    }
+
+    @Test
+    @DisplayName("Correlation - t-test p-value and Fisher-z interval")
+    void testCorrelation_PValueAndInterval() {
+        // t = 2.228139 with 10 dof is the two-sided 5% critical value
+        double t = 2.2281388519649385;
+        int n = 12;
+        double r = t / Math.sqrt(n - 2 + t * t);
+
+        DependenceScreen.CorrelationResult result = DependenceScreen.correlation(r, n, 1.96);
+
+        assertEquals(0.05, result.getPValue(), 1e-9);
+        double z = 0.5 * Math.log((1 + r) / (1 - r));
+        assertEquals(Math.tanh(z - 1.96 / 3), result.getLower(), 1e-12);
+        assertEquals(Math.tanh(z + 1.96 / 3), result.getUpper(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Spearman - mid-ranks handle ties like the textbook definition")
+    void testSpearman_Ties() {
+        double[] x = { 1, 2, 2, 3, 4, 4, 4, 5 };
+        DependenceScreen.RankedSeries ranked = DependenceScreen.rank(x, x.length);
+        DependenceScreen.DependenceResult result = DependenceScreen.evaluate("X", x, ranked, 1.96);
+
+        assertEquals(1.0, result.getSpearman().getCoefficient(), 1e-12);
+        assertEquals(1.0, result.getPearson().getCoefficient(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Screen - fork-join results equal one-by-one evaluation, in input order")
+    void testScreen_MatchesSequential() {
+        double[] index = gaussian(80, 99);
+        List<String> symbols = new ArrayList<>();
+        List<double[]> returns = new ArrayList<>();
+        for (int s = 0; s < 30; s++) {
+            double[] noise = gaussian(80, s);
+            double beta = (s % 6) * 0.3;
+            for (int i = 0; i < noise.length; i++) {
+                noise[i] += beta * index[i];
+            }
+            symbols.add("T" + s);
+            returns.add(noise);
+        }
+
+        DependenceScreen.DependenceResult[] results = DependenceScreen.screen(symbols, returns, index, 60, 1.96);
+
+        DependenceScreen.RankedSeries ranked = DependenceScreen.rank(index, 60);
+        for (int s = 0; s < 30; s++) {
+            DependenceScreen.DependenceResult expected = DependenceScreen.evaluate(symbols.get(s), returns.get(s),
+                    ranked, 1.96);
+            assertEquals(symbols.get(s), results[s].getSymbol());
+            assertEquals(60, results[s].getObservations());
+            assertEquals(expected.getHoeffdingD(), results[s].getHoeffdingD(), 0.0);
+            assertEquals(expected.getPearson().getCoefficient(), results[s].getPearson().getCoefficient(), 0.0);
+        }
+    }
+
+    /** Straight transcription of the Pine HoeffdingD loop (no ties) */
+    private static double pineHoeffding(double[] x, double[] y) {
+        int len = x.length;
+        double q = 0, r = 0, s = 0;
+        for (int i = 0; i < len; i++) {
+            int rankX = 1, rankY = 1, c = 0;
+            for (int j = 0; j < len; j++) {
+                rankX += x[j] < x[i] ? 1 : 0;
+                rankY += y[j] < y[i] ? 1 : 0;
+                c += x[j] < x[i] && y[j] < y[i] ? 1 : 0;
+            }
+            q += (double) (rankX - 1) * (rankX - 2) * (rankY - 1) * (rankY - 2);
+            r += (double) (rankX - 2) * (rankY - 2) * c;
+            s += (double) (c - 1) * c;
+        }
+        return 30 * (q - 2 * (len - 2) * r + (len - 2) * (len - 3) * s)
+                / ((double) len * (len - 1) * (len - 2) * (len - 3) * (len - 4));
+    }
+}
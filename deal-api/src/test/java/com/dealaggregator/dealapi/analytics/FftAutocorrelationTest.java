@@ -0,0 +1,97 @@
+package com.dealaggregator.dealapi.analytics;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FftAutocorrelation.
+ * The FFT path is checked against the direct O(n * k) sums.
+ */
+class FftAutocorrelationTest {
+
+    private static double[] ar1(int n, double phi, long seed) {
+        Random random = new Random(seed);
+        double[] x = new double[n];
+        for (int i = 1; i < n; i++) {
+            x[i] = phi * x[i - 1] + random.nextGaussian();
+        }
+        return x;
+    }
+
+    @Test
+    @DisplayName("Autocovariance - FFT matches direct sums for awkward lengths")
+    void testAutocovariance_MatchesDirect() {
+        FftAutocorrelation fft = new FftAutocorrelation();
+        int[] lengths = { 1, 2, 3, 7, 64, 100, 1025 };
+        for (int n : lengths) {
+            double[] x = ar1(n, 0.3, n);
+            for (int i = 0; i < n; i++) {
+                x[i] += 50; // Non-zero mean
+            }
+            int maxLag = n + 2; // Includes lags past the end
+            double[] expected = FftAutocorrelation.directAutocovarianceSums(x, maxLag);
+            double[] actual = fft.autocovarianceSums(x, maxLag);
+            for (int k = 0; k <= maxLag; k++) {
+                assertEquals(expected[k], actual[k], 1e-9 * Math.max(1, Math.abs(expected[0])));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("ACF/PACF - AR(1) has PACF ~ phi at lag 1 and ~ 0 beyond")
+    void testPacf_Ar1() {
+        FftAutocorrelation fft = new FftAutocorrelation();
+        double[] x = ar1(20000, 0.6, 7);
+
+        double[] acf = fft.acf(x, 5);
+        double[] pacf = fft.pacf(x, 5);
+
+        assertEquals(1.0, acf[0], 1e-12);
+        assertEquals(acf[1], pacf[0], 1e-12);
+        assertEquals(0.6, pacf[0], 0.03);
+        for (int k = 1; k < 5; k++) {
+            assertEquals(0.0, pacf[k], 0.03);
+        }
+    }
+
+    @Test
+    @DisplayName("Ljung-Box - white noise passes, AR(1) is rejected")
+    void testLjungBox() {
+        FftAutocorrelation fft = new FftAutocorrelation();
+
+        FftAutocorrelation.LjungBoxResult noise = fft.ljungBox(ar1(2000, 0.0, 11), 10);
+        assertEquals(10, noise.getLags());
+        assertTrue(noise.getPValue() > 0.01);
+
+        FftAutocorrelation.LjungBoxResult ar = fft.ljungBox(ar1(2000, 0.5, 11), 10);
+        assertTrue(ar.isAutocorrelated());
+        assertTrue(ar.getPValue() < 1e-6);
+    }
+
+    @Test
+    @DisplayName("Chi-square - survival at textbook 5% critical values")
+    void testChiSquareSurvival() {
+        assertEquals(0.05, Distributions.chiSquareSurvival(3.841458820694124, 1), 1e-9);
+        assertEquals(0.05, Distributions.chiSquareSurvival(18.307038053275146, 10), 1e-9);
+        assertEquals(1.0, Distributions.chiSquareSurvival(0, 5), 0.0);
+    }
+
+    @Test
+    @DisplayName("MeanReversionIndicators - FFT path agrees with the lag loop")
+    void testIndicatorAcf_FftPath() {
+        double[] x = ar1(500, -0.2, 3);
+        int maxLag = 40;
+        double[] viaIndicators = MeanReversionIndicators.acfOfSeries(x, maxLag);
+
+        double[] c = FftAutocorrelation.directAutocovarianceSums(x, maxLag);
+        double var = c[0] / x.length;
+        for (int lag = 1; lag <= maxLag; lag++) {
+            double expected = (c[lag] / (x.length - lag)) / var;
+            assertEquals(expected, viaIndicators[lag - 1], 1e-10);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.dealaggregator.dealapi.analytics;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HalfLifeDiagnostics (batch OU regression with Durbin-Watson).
+ */
+class HalfLifeDiagnosticsTest {
+
+    /** OU-like log prices around 100 */
+    private static double[] prices(int n, double theta, long seed) {
+        Random random = new Random(seed);
+        double[] p = new double[n];
+        double x = 0;
+        for (int i = 0; i < n; i++) {
+            x += -theta * x + 0.01 * random.nextGaussian();
+            p[i] = 100 * Math.exp(x);
+        }
+        return p;
+    }
+
+    @Test
+    @DisplayName("Beta and half-life - match MeanReversionIndicators.halfLife")
+    void testBetaMatchesHalfLife() {
+        double[][] batch = { prices(300, 0.1, 1), prices(200, 0.02, 2), prices(150, 0.3, 3) };
+        HalfLifeDiagnostics.Diagnostics[] fits = HalfLifeDiagnostics.batch(batch, 100);
+
+        for (int s = 0; s < batch.length; s++) {
+            MeanReversionIndicators.HalfLifeResult expected = MeanReversionIndicators.halfLife(batch[s], 100);
+            assertEquals(expected.getBeta(), fits[s].getBeta(), 1e-10);
+            assertEquals(expected.getHalfLife(), fits[s].getHalfLife(), 1e-6);
+            assertEquals(expected.isMeanReverting(), fits[s].isMeanReverting());
+            assertEquals(99, fits[s].getObservations());
+        }
+    }
+
+    @Test
+    @DisplayName("Durbin-Watson and standard errors - match explicit residuals")
+    void testDiagnosticsMatchResiduals() {
+        double[] p = prices(260, 0.15, 7);
+        int lookback = 120;
+        HalfLifeDiagnostics.Diagnostics d = HalfLifeDiagnostics.fit(p, lookback);
+
+        int start = p.length - lookback;
+        int m = lookback - 1;
+        double[] x = new double[m];
+        double[] y = new double[m];
+        double mx = 0, my = 0;
+        for (int i = 0; i < m; i++) {
+            x[i] = Math.log(p[start + i]);
+            y[i] = Math.log(p[start + i + 1]) - x[i];
+            mx += x[i] / m;
+            my += y[i] / m;
+        }
+        double sxx = 0, sxy = 0;
+        for (int i = 0; i < m; i++) {
+            sxx += (x[i] - mx) * (x[i] - mx);
+            sxy += (x[i] - mx) * (y[i] - my);
+        }
+        double beta = sxy / sxx;
+        double alpha = my - beta * mx;
+        double sse = 0, num = 0, prev = 0;
+        for (int i = 0; i < m; i++) {
+            double e = y[i] - alpha - beta * x[i];
+            sse += e * e;
+            if (i > 0) {
+                num += (e - prev) * (e - prev);
+            }
+            prev = e;
+        }
+        double sigma2 = sse / (m - 2);
+
+        assertEquals(alpha, d.getAlpha(), 1e-9);
+        assertEquals(num / sse, d.getDurbinWatson(), 1e-9);
+        assertEquals(Math.sqrt(sigma2 / sxx), d.getBetaStdError(), 1e-10);
+        assertEquals(Math.sqrt(sigma2 * (1.0 / m + mx * mx / sxx)), d.getAlphaStdError(), 1e-8);
+        assertEquals(beta / Math.sqrt(sigma2 / sxx), d.getBetaTStat(), 1e-6);
+        assertTrue(d.getHalfLifeStdError() > 0);
+    }
+
+    @Test
+    @DisplayName("Durbin-Watson - lower bounds follow the Pine table")
+    void testDurbinWatsonLower() {
+        assertTrue(Double.isNaN(HalfLifeDiagnostics.durbinWatsonLower(5)));
+        assertEquals(0.61, HalfLifeDiagnostics.durbinWatsonLower(6), 0.0);
+        assertEquals(1.44, HalfLifeDiagnostics.durbinWatsonLower(40), 0.0);
+        assertEquals(1.48, HalfLifeDiagnostics.durbinWatsonLower(41), 0.0);
+        assertEquals(1.65, HalfLifeDiagnostics.durbinWatsonLower(100), 0.0);
+        assertEquals(1.80, HalfLifeDiagnostics.durbinWatsonLower(300), 0.0);
+        assertEquals(1.82, HalfLifeDiagnostics.durbinWatsonLower(301), 0.0);
+    }
+}
@@ -0,0 +1,126 @@
+package com.dealaggregator.dealapi.analytics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for KalmanFilterEngine.
+ */
+class KalmanFilterEngineTest {
+
+    private static double price(int i) {
+        return 100 + 3 * Math.sin(i / 5.0) + ((i * 13) % 7 - 3) * 0.2;
+    }
+
+    @Test
+    @DisplayName("Filter - matches Kalman Filter.pine, including the update on the first bar")
+    void testMatchesPineScript() {
+        KalmanFilterEngine engine = new KalmanFilterEngine(
+                new KalmanFilterEngine.Config(0.01, 1.0, 0.1, 2.0, 1.5, 14), 4);
+        int slot = engine.slotOf("SPY");
+
+        // Straight transcription of the script's state updates
+        double estimate = Double.NaN;
+        double errorCov = 1.0;
+        double velocity = 0.0;
+        double prev = Double.NaN;
+        for (int i = 0; i < 200; i++) {
+            double obs = price(i);
+            if (Double.isNaN(estimate)) {
+                estimate = obs;
+            }
+            double predicted = estimate + velocity;
+            double p = errorCov + 0.01;
+            double k = p / (p + 1.0);
+            estimate = predicted + k * (obs - predicted);
+            errorCov = (1 - k) * p;
+            if (!Double.isNaN(prev)) {
+                velocity += 0.1 * (obs - prev - velocity);
+            }
+            prev = obs;
+            engine.update(slot, obs);
+            assertEquals(estimate, engine.getEstimate(slot), 1e-12);
+            assertEquals(k, engine.getKalmanGain(slot), 1e-12);
+        }
+    }
+
+    @Test
+    @DisplayName("Batch update - same result as updating each slot on its own")
+    void testBatchMatchesSingle() {
+        KalmanFilterEngine batch = new KalmanFilterEngine(KalmanFilterEngine.Config.defaults(), 1);
+        KalmanFilterEngine single = new KalmanFilterEngine(KalmanFilterEngine.Config.defaults(), 1);
+        int symbols = 50;
+        for (int s = 0; s < symbols; s++) {
+            batch.slotOf("S" + s);
+            single.slotOf("S" + s);
+        }
+
+        double[] prices = new double[symbols];
+        for (int t = 0; t < 100; t++) {
+            for (int s = 0; s < symbols; s++) {
+                // Every third symbol skips odd ticks
+                prices[s] = (s % 3 == 0 && t % 2 == 1) ? Double.NaN : price(t + s) * (1 + s);
+                if (!Double.isNaN(prices[s])) {
+                    single.update(s, prices[s]);
+                }
+            }
+            batch.updateAll(prices);
+        }
+
+        for (int s = 0; s < symbols; s++) {
+            assertEquals(single.getEstimate(s), batch.getEstimate(s), 0.0);
+            assertEquals(single.getDeviation(s), batch.getDeviation(s), 0.0);
+        }
+    }
+
+    @Test
+    @DisplayName("Snapshot - round trip through a stream restores identical state")
+    void testSnapshotRoundTrip() throws Exception {
+        KalmanFilterEngine engine = new KalmanFilterEngine(KalmanFilterEngine.Config.defaults(), 2);
+        int a = engine.slotOf("AAA");
+        int b = engine.slotOf("BBB");
+        for (int t = 0; t < 30; t++) {
+            engine.update(a, price(t));
+            engine.update(b, 2 * price(t + 7));
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        engine.snapshot().writeTo(new DataOutputStream(bytes));
+        KalmanFilterEngine restored = new KalmanFilterEngine(KalmanFilterEngine.Config.defaults(), 1);
+        restored.restore(KalmanFilterEngine.Snapshot.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+
+        assertEquals(2, restored.size());
+        assertEquals(b, restored.findSlot("BBB"));
+        engine.update(b, 250);
+        restored.update(b, 250);
+        assertEquals(engine.getEstimate(b), restored.getEstimate(b), 0.0);
+        assertEquals(engine.getUpperBand(b), restored.getUpperBand(b), 0.0);
+    }
+
+    @Test
+    @DisplayName("Signal - a jump above the band is OVERBOUGHT, below is OVERSOLD")
+    void testSignals() {
+        KalmanFilterEngine engine = new KalmanFilterEngine(KalmanFilterEngine.Config.defaults(), 1);
+        int slot = engine.slotOf("SPY");
+        engine.update(slot, price(0));
+        assertEquals(KalmanFilterEngine.SIGNAL_NEUTRAL, engine.getSignal(slot)); // Seed bar
+        for (int t = 1; t < 60; t++) {
+            engine.update(slot, price(t));
+        }
+
+        engine.update(slot, engine.getEstimate(slot) + 10);
+        assertEquals(KalmanFilterEngine.SIGNAL_OVERBOUGHT, engine.getSignal(slot));
+        assertTrue(engine.getLastPrice(slot) > engine.getUpperBand(slot));
+
+        engine.update(slot, engine.getEstimate(slot) - 20);
+        assertEquals("OVERSOLD", KalmanFilterEngine.signalName(engine.getSignal(slot)));
+    }
+}
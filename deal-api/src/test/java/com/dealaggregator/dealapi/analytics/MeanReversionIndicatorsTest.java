@@ -0,0 +1,93 @@
+package com.dealaggregator.dealapi.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MeanReversionIndicators.
+ * Expected values come from the formulas in python/mean_reversion/indicators.py
+ * evaluated on the same deterministic price fixture.
+ */
+class MeanReversionIndicatorsTest {
+
+    private static final double EPS = 1e-9;
+
+    private double[] prices;
+
+    @BeforeEach
+    void setUp() {
+        // Trend + cycle + deterministic noise, 120 bars
+        prices = new double[120];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 100 + 5 * Math.sin(i / 7.0) + 0.1 * i + ((i * 37) % 11 - 5) * 0.3;
+        }
+    }
+
+    @Test
+    @DisplayName("Z-Score - matches pandas rolling mean/std (ddof=1)")
+    void testZScore_MatchesPython() {
+        MeanReversionIndicators.ZScoreResult result = MeanReversionIndicators.zscore(prices, 50);
+
+        assertEquals(-0.576135356434975, result.getZscore(), EPS);
+        assertEquals(109.01066488387012, result.getMean(), EPS);
+        assertEquals(4.369897308241401, result.getStd(), EPS);
+        assertEquals("NEUTRAL", result.getSignal());
+    }
+
+    @Test
+    @DisplayName("Z-Score - NaN when history is shorter than the lookback")
+    void testZScore_ShortHistory() {
+        double[] shortPrices = { 100, 101, 102 };
+        assertTrue(Double.isNaN(MeanReversionIndicators.zscore(shortPrices, 50).getZscore()));
+    }
+
+    @Test
+    @DisplayName("Half-Life - matches the OU regression")
+    void testHalfLife_MatchesPython() {
+        MeanReversionIndicators.HalfLifeResult result = MeanReversionIndicators.halfLife(prices, 100);
+
+        assertEquals(-0.0586894415605233, result.getBeta(), EPS);
+        assertEquals(11.460356889517739, result.getHalfLife(), 1e-7);
+        assertTrue(result.isMeanReverting());
+    }
+
+    @Test
+    @DisplayName("Half-Life - trending series is capped at 500")
+    void testHalfLife_Trending() {
+        double[] trend = new double[100];
+        for (int i = 0; i < trend.length; i++) {
+            trend[i] = 100 * Math.exp(0.001 * i * i);
+        }
+        MeanReversionIndicators.HalfLifeResult result = MeanReversionIndicators.halfLife(trend, 100);
+
+        assertEquals(500.0, result.getHalfLife(), 0.0);
+        assertFalse(result.isMeanReverting());
+    }
+
+    @Test
+    @DisplayName("ACF - log-return autocorrelation at lags 1..10")
+    void testAcf_MatchesPython() {
+        double[] expected = {
+                -0.41000265213595366, -0.09179276620540847, 0.6554280054954674,
+                -0.4265650571405566, 0.23648924585196515, 0.27718841344847045,
+                -0.45845436690299174, 0.5708078690060553, -0.13221850608236532,
+                -0.5004683858532785 };
+
+        MeanReversionIndicators.AcfResult result = MeanReversionIndicators.acf(prices, 10);
+
+        assertArrayEquals(expected, result.getValues(), EPS);
+        assertTrue(result.isMeanReverting());
+        assertFalse(result.isTrending());
+    }
+
+    @Test
+    @DisplayName("Signal - thresholds at +/- 2")
+    void testSignal() {
+        assertEquals("OVERBOUGHT", MeanReversionIndicators.signal(2.01));
+        assertEquals("OVERSOLD", MeanReversionIndicators.signal(-2.01));
+        assertEquals("NEUTRAL", MeanReversionIndicators.signal(2.0));
+    }
+}
@@ -0,0 +1,149 @@
+package com.dealaggregator.dealapi.analytics;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PairsScanner.
+ */
+class PairsScannerTest {
+
+    /**
+     * Log prices: 0 and 1 cointegrated (1 = 0.8 * 0 + AR(1) noise), 2 an
+     * independent walk that shares 0's shocks (correlated returns, no
+     * cointegration), 3 an unrelated walk.
+     */
+    private static double[][] logPrices(int t, long seed) {
+        Random random = new Random(seed);
+        double[][] prices = new double[4][t];
+        double x = 4.0, w = 3.0, u = 5.0, noise = 0;
+        for (int k = 0; k < t; k++) {
+            double shock = 0.01 * random.nextGaussian();
+            x += shock;
+            w += shock + 0.008 * random.nextGaussian();
+            u += 0.01 * random.nextGaussian();
+            noise = 0.7 * noise + 0.004 * random.nextGaussian();
+            prices[0][k] = x;
+            prices[1][k] = 1.0 + 0.8 * x + noise;
+            prices[2][k] = w;
+            prices[3][k] = u;
+        }
+        return prices;
+    }
+
+    @Test
+    @DisplayName("ADF - stationary AR(1) rejects a unit root, a random walk does not")
+    void testAdf() {
+        Random random = new Random(7);
+        double[] ar = new double[500];
+        double[] walk = new double[500];
+        for (int t = 1; t < 500; t++) {
+            ar[t] = 0.5 * ar[t - 1] + random.nextGaussian();
+            walk[t] = walk[t - 1] + random.nextGaussian();
+        }
+
+        double[] stationary = PairsScanner.adf(ar, 1);
+        assertTrue(stationary[0] < PairsScanner.criticalValue(500, 0.01), "t = " + stationary[0]);
+        assertEquals(-0.5, stationary[1], 0.1);
+        assertTrue(PairsScanner.adf(walk, 1)[0] > PairsScanner.criticalValue(500, 0.10));
+
+        // MacKinnon asymptotic values
+        assertEquals(-3.33613, PairsScanner.criticalValue(Integer.MAX_VALUE, 0.05), 1e-6);
+        assertEquals(-3.89644, PairsScanner.criticalValue(Integer.MAX_VALUE, 0.01), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Scan - prefilter drops uncorrelated pairs; only the cointegrated pair passes")
+    void testScan() {
+        double[][] prices = logPrices(400, 11);
+        PairsScanner.Params params = PairsScanner.Params.defaults();
+        int[] candidates = new int[1];
+
+        List<PairsScanner.CointegrationResult> results = PairsScanner.scan(prices, params, candidates);
+
+        // (0,1), (0,2), (1,2) clear the correlation prefilter; pairs with 3 do not
+        assertEquals(3, candidates[0]);
+        assertEquals(3, results.size());
+        int passing = 0;
+        for (PairsScanner.CointegrationResult result : results) {
+            assertNotEquals(3, result.getX());
+            assertNotEquals(3, result.getY());
+            if (result.isCointegrated()) {
+                passing++;
+                assertEquals(1, result.getY());
+                assertEquals(0, result.getX());
+                assertEquals(0.8, result.getBeta(), 0.05);
+                assertTrue(result.getHalfLife() < 10, "half-life " + result.getHalfLife());
+            }
+        }
+        assertEquals(1, passing);
+    }
+
+    @Test
+    @DisplayName("Incremental - onBar steps the Kalman filter exactly as a full pass would")
+    void testIncremental() {
+        double[][] prices = logPrices(300, 3);
+        PairsScanner.Params params = new PairsScanner.Params(250, 0.6, 1, 0.05, 1e-4, 1e-4, 1000);
+        PairsScanner scanner = new PairsScanner(new String[] { "X", "Y", "W", "U" }, params);
+
+        double[][] head = new double[4][250];
+        for (int s = 0; s < 4; s++) {
+            System.arraycopy(prices[s], 0, head[s], 0, 250);
+        }
+        scanner.load(head);
+        assertTrue(scanner.isReady());
+        List<PairsScanner.PairSnapshot> pairs = scanner.getPairs();
+        assertEquals(1, pairs.size());
+        assertEquals("Y", pairs.get(0).getY());
+        assertEquals("X", pairs.get(0).getX());
+
+        double[] bar = new double[4];
+        for (int t = 250; t < 300; t++) {
+            for (int s = 0; s < 4; s++) {
+                bar[s] = prices[s][t];
+            }
+            scanner.onBar(bar);
+        }
+
+        PairsScanner.CointegrationResult ols = pairs.get(0).getTest();
+        PairsScanner.KalmanHedge expected = new PairsScanner.KalmanHedge(ols.getBeta(), ols.getAlpha(), 1e-4, 1e-4);
+        for (int t = 0; t < 300; t++) {
+            expected.update(prices[0][t], prices[1][t]);
+        }
+        PairsScanner.PairSnapshot pair = scanner.getPairs().get(0);
+        assertEquals(expected.hedgeRatio(), pair.getHedgeRatio(), 1e-12);
+        assertEquals(expected.zscore(), pair.getZscore(), 1e-12);
+        assertEquals(0.8, pair.getHedgeRatio(), 0.1);
+    }
+
+    @Test
+    @DisplayName("Rescan - a flipped regression ordering rebuilds the pair's filter")
+    void testOrderingFlip() {
+        double[][] prices = logPrices(250, 3);
+        PairsScanner.Params params = new PairsScanner.Params(250, 0.6, 1, 0.05, 1e-4, 1e-4, 1000);
+        PairsScanner scanner = new PairsScanner(new String[] { "X", "Y", "W", "U" }, params);
+        scanner.load(prices);
+        assertEquals("Y", scanner.getPairs().get(0).getY());
+
+        // Same pair, now regressed the other way round (X on Y)
+        PairsScanner.CointegrationResult flipped = PairsScanner.engleGranger(prices[0], prices[1], 0, 1, params);
+        scanner.reconcile(List.of(flipped), prices);
+
+        PairsScanner.PairSnapshot pair = scanner.getPairs().get(0);
+        assertEquals("X", pair.getY());
+        assertEquals("Y", pair.getX());
+        assertSame(flipped, pair.getTest());
+        PairsScanner.KalmanHedge expected = new PairsScanner.KalmanHedge(flipped.getBeta(), flipped.getAlpha(),
+                1e-4, 1e-4);
+        for (int t = 0; t < 250; t++) {
+            expected.update(prices[1][t], prices[0][t]);
+        }
+        assertEquals(expected.hedgeRatio(), pair.getHedgeRatio(), 1e-12);
+        assertEquals(1.25, pair.getHedgeRatio(), 0.15);
+    }
+}
@@ -0,0 +1,104 @@
+package com.dealaggregator.dealapi.analytics;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PerformanceMetrics (Omega ratio and L-moments).
+ */
+class PerformanceMetricsTest {
+
+    private static double[] returns(int n, long seed) {
+        Random random = new Random(seed);
+        double[] r = new double[n];
+        for (int i = 0; i < n; i++) {
+            r[i] = 0.05 + random.nextGaussian() + (i % 17 == 0 ? 3.0 : 0.0); // Some right skew
+        }
+        return r;
+    }
+
+    @Test
+    @DisplayName("Omega - prefix-sum curve matches the Pine double loop")
+    void testOmegaCurve_MatchesPineLoop() {
+        double[] r = returns(252, 1);
+        r[10] = 0.4; // A value exactly on a threshold
+        int increments = 50;
+        double mar = 2.0;
+
+        PerformanceMetrics.OmegaCurve curve = PerformanceMetrics.omegaCurve(PerformanceMetrics.sort(r), mar,
+                increments);
+
+        for (int i = 0; i <= increments; i++) {
+            double ps = 0, ns = 0;
+            for (double x : r) {
+                double ex = x - mar * i / increments;
+                ps += ex > 0 ? ex : 0.0;
+                ns -= ex < 0 ? ex : 0.0;
+            }
+            assertEquals(mar * i / increments, curve.getThresholds()[i], 0.0);
+            assertEquals(ps / ns, curve.getOmegas()[i], 1e-10, "threshold " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Omega - infinite when nothing is below the threshold")
+    void testOmega_NoShortfall() {
+        PerformanceMetrics.SortedSample sample = PerformanceMetrics.sort(new double[] { 1, 2, 3 });
+        assertTrue(Double.isInfinite(PerformanceMetrics.omega(sample, 0.5)));
+        assertEquals(1.0, PerformanceMetrics.omega(sample, 2.0), 1e-12);
+    }
+
+    @Test
+    @DisplayName("L-moments - match the Pine probability-weighted moment sums")
+    void testLMoments_MatchesPine() {
+        double[] r = returns(400, 2);
+        int len = 300;
+
+        PerformanceMetrics.LMoments lm = PerformanceMetrics.lMoments(PerformanceMetrics.sort(r, len));
+
+        double[] sorted = Arrays.copyOfRange(r, r.length - len, r.length);
+        Arrays.sort(sorted);
+        double b0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        for (double x : sorted) {
+            b0 += x;
+        }
+        b0 /= len;
+        for (int i = 1; i < len; i++) {
+            int j = i + 1;
+            s1 += sorted[i] * (j - 1);
+            s2 += sorted[i] * (j - 1) * (j - 2);
+            s3 += sorted[i] * (j - 1) * (j - 2) * (j - 3);
+        }
+        double b1 = s1 / (len * (len - 1.0));
+        double b2 = s2 / (len * (len - 1.0) * (len - 2));
+        double b3 = s3 / (len * (len - 1.0) * (len - 2) * (len - 3));
+        double l2 = 2 * b1 - b0;
+
+        assertEquals(b0, lm.getMean(), 1e-12);
+        assertEquals(l2, lm.getLScale(), 1e-12);
+        assertEquals((6 * b2 - 6 * b1 + b0) / l2, lm.getLSkewness(), 1e-10);
+        assertEquals((20 * b3 - 30 * b2 + 12 * b1 - b0) / l2, lm.getLKurtosis(), 1e-10);
+        assertTrue(lm.getLSkewness() > 0);
+    }
+
+    @Test
+    @DisplayName("L-moments - a large normal sample is close to the theoretical values")
+    void testLMoments_Normal() {
+        Random random = new Random(3);
+        double[] x = new double[200_000];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = random.nextGaussian();
+        }
+
+        PerformanceMetrics.LMoments lm = PerformanceMetrics.lMoments(PerformanceMetrics.sort(x));
+
+        assertEquals(1 / Math.sqrt(Math.PI), lm.getLScale(), 0.005);
+        assertEquals(0.0, lm.getLSkewness(), 0.01);
+        assertEquals(PerformanceMetrics.NORMAL_L_KURTOSIS, lm.getLKurtosis(), 0.005);
+    }
+}
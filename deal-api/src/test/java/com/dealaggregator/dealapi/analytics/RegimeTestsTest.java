@@ -0,0 +1,150 @@
+package com.dealaggregator.dealapi.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RegimeTests (DFA Hurst and variance ratio).
+ */
+class RegimeTestsTest {
+
+    /** Prices whose log returns follow an AR(1) with coefficient phi */
+    private static double[] pricesWithAr1Returns(int n, double phi, long seed) {
+        Random random = new Random(seed);
+        double[] prices = new double[n];
+        prices[0] = 100;
+        double r = 0;
+        for (int i = 1; i < n; i++) {
+            r = phi * r + 0.01 * random.nextGaussian();
+            prices[i] = prices[i - 1] * Math.exp(r);
+        }
+        return prices;
+    }
+
+    @Test
+    @DisplayName("DFA - closed-form segment fits match an explicit per-segment regression")
+    void testDfa_MatchesBruteForce() {
+        double[] prices = pricesWithAr1Returns(400, 0.1, 1);
+        int len = 300;
+
+        double expected = bruteForceHurst(prices, len, 8, 2);
+        double actual = RegimeTests.dfaHurst(prices, len, 8, 2).getHurst();
+
+        assertEquals(expected, actual, 1e-10);
+    }
+
+    @Test
+    @DisplayName("DFA - anti-persistent returns score below 0.5, persistent above")
+    void testDfa_Regimes() {
+        RegimeTests.HurstResult reverting = RegimeTests.dfaHurst(pricesWithAr1Returns(2001, -0.7, 2), 2000, 8, 2);
+        RegimeTests.HurstResult trending = RegimeTests.dfaHurst(pricesWithAr1Returns(2001, 0.7, 2), 2000, 8, 2);
+
+        assertTrue(reverting.isMeanReverting(), "H = " + reverting.getHurst());
+        assertTrue(trending.isTrending(), "H = " + trending.getHurst());
+    }
+
+    @Test
+    @DisplayName("DFA - NaN when the sample is too short")
+    void testDfa_ShortSample() {
+        assertTrue(Double.isNaN(RegimeTests.dfaHurst(new double[] { 1, 2, 3 }, 100, 8, 2).getHurst()));
+    }
+
+    @Test
+    @DisplayName("Variance ratio - negatively autocorrelated returns give VR < 1 and a significant z")
+    void testVarianceRatio_MeanReverting() {
+        double[] prices = pricesWithAr1Returns(501, -0.6, 3);
+        RegimeTests.VarianceRatioResult vr = RegimeTests.varianceRatio(prices, 500, 2);
+
+        assertEquals(2, vr.getPeriod());
+        assertTrue(vr.getRatio() < 1);
+        assertTrue(vr.getZscore() < -1.959964);
+    }
+
+    @Test
+    @DisplayName("Screen - fork-join results equal one-by-one evaluation, in input order")
+    void testScreen_MatchesSequential() {
+        List<String> symbols = new ArrayList<>();
+        List<double[]> prices = new ArrayList<>();
+        for (int s = 0; s < 40; s++) {
+            symbols.add("T" + s);
+            prices.add(pricesWithAr1Returns(300, (s % 5 - 2) * 0.3, s));
+        }
+        RegimeTests.ScreenParams params = RegimeTests.ScreenParams.defaults();
+
+        RegimeTests.RegimeResult[] results = RegimeTests.screen(symbols, prices, params);
+
+        for (int s = 0; s < 40; s++) {
+            RegimeTests.RegimeResult expected = RegimeTests.evaluate(symbols.get(s), prices.get(s), params);
+            assertEquals(symbols.get(s), results[s].getSymbol());
+            assertEquals(expected.getHurst().getHurst(), results[s].getHurst().getHurst(), 0.0);
+            assertEquals(expected.getMinVarianceRatioZ(), results[s].getMinVarianceRatioZ(), 0.0);
+        }
+    }
+
+    /** Straight transcription of the Pine RMS/Arms loops */
+    private static double bruteForceHurst(double[] prices, int len, int base, int max) {
+        int n = prices.length;
+        double[] r = new double[len];
+        double mean = 0;
+        for (int i = 0; i < len; i++) {
+            r[i] = Math.log(prices[n - 1 - i] / prices[n - 2 - i]);
+            mean += r[i];
+        }
+        mean /= len;
+        double[] csum = new double[len];
+        double sum = 0;
+        for (int i = 0; i < len; i++) {
+            sum += r[i] - mean;
+            csum[i] = sum;
+        }
+
+        double[] scale = new double[10];
+        double[] fluc = new double[10];
+        for (int x = 0; x < 10; x++) {
+            int bar = (int) Math.round(base * Math.pow(Math.pow((double) len / (max * base), 0.1111111111), x));
+            int num = len / bar;
+            double total = 0;
+            for (int s = 0; s < num; s++) {
+                double mx = 0, my = 0;
+                for (int j = 0; j < bar; j++) {
+                    mx += j + 1;
+                    my += csum[s * bar + j];
+                }
+                mx /= bar;
+                my /= bar;
+                double sxx = 0, syy = 0, sxy = 0;
+                for (int j = 0; j < bar; j++) {
+                    double dx = j + 1 - mx;
+                    double dy = csum[s * bar + j] - my;
+                    sxx += dx * dx;
+                    syy += dy * dy;
+                    sxy += dx * dy;
+                }
+                double r2 = sxy * sxy / (sxx * syy);
+                total += Math.sqrt(1 - r2) * Math.sqrt(syy / (bar - 1));
+            }
+            fluc[x] = Math.log10(total / num);
+            scale[x] = Math.log10(bar);
+        }
+
+        double ms = 0, mf = 0;
+        for (int i = 0; i < 10; i++) {
+            ms += scale[i];
+            mf += fluc[i];
+        }
+        ms /= 10;
+        mf /= 10;
+        double cov = 0, var = 0;
+        for (int i = 0; i < 10; i++) {
+            cov += (scale[i] - ms) * (fluc[i] - mf);
+            var += (scale[i] - ms) * (scale[i] - ms);
+        }
+        return cov / var;
+    }
+}
@@ -0,0 +1,112 @@
+package com.dealaggregator.dealapi.analytics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IndexableSkipList, RollingPercentileRank and
+ * HvPercentileRank against brute-force scans.
+ */
+class RollingPercentileRankTest {
+
+    @Test
+    @DisplayName("Skip list - rank/select match a sorted list under random inserts and removes")
+    void testSkipList_MatchesSortedList() {
+        Random random = new Random(11);
+        IndexableSkipList list = new IndexableSkipList(64);
+        List<Double> expected = new ArrayList<>();
+
+        for (int op = 0; op < 5000; op++) {
+            if (expected.size() < 64 && (expected.isEmpty() || random.nextBoolean())) {
+                double v = random.nextInt(20); // Plenty of duplicates
+                list.insert(v);
+                expected.add(v);
+            } else {
+                double v = expected.remove(random.nextInt(expected.size()));
+                assertTrue(list.remove(v));
+            }
+            Collections.sort(expected);
+            assertEquals(expected.size(), list.size());
+            for (int k = 0; k < expected.size(); k++) {
+                assertEquals(expected.get(k), list.get(k), 0.0);
+            }
+            double probe = random.nextInt(22) - 1;
+            long less = expected.stream().filter(x -> x < probe).count();
+            long lessOrEqual = expected.stream().filter(x -> x <= probe).count();
+            assertEquals(less, list.countLess(probe));
+            assertEquals(lessOrEqual, list.countLessOrEqual(probe));
+        }
+        assertFalse(list.remove(1000));
+    }
+
+    @Test
+    @DisplayName("Percentile/rank - match the Pine f_percentile and f_rank scans")
+    void testPercentileRank_MatchesPineScan() {
+        Random random = new Random(5);
+        int n = 50;
+        double[] x = new double[600];
+        RollingPercentileRank pr = new RollingPercentileRank(n);
+
+        for (int t = 0; t < x.length; t++) {
+            x[t] = Math.round(random.nextDouble() * 40) / 4.0; // Ties and repeated extremes
+            pr.update(x[t]);
+            if (t < n) {
+                assertFalse(pr.isReady());
+                continue;
+            }
+            int below = 0;
+            for (int c = 1; c <= n; c++) {
+                if (x[t] > x[t - c]) {
+                    below++;
+                }
+            }
+            double low = x[t], high = x[t];
+            for (int c = 0; c < n; c++) {
+                low = Math.min(low, x[t - c]);
+                high = Math.max(high, x[t - c]);
+            }
+            assertEquals(100.0 * below / n, pr.getPercentile(), 1e-12, "percentile at " + t);
+            assertEquals(low, pr.getMin(), 0.0, "min at " + t);
+            assertEquals(high, pr.getMax(), 0.0, "max at " + t);
+            if (high > low) {
+                assertEquals(100.0 * (x[t] - low) / (high - low), pr.getRank(), 1e-12, "rank at " + t);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("HVP - recursive HV matches the script's f_sd and feeds the percentile")
+    void testHvPercentileRank() {
+        Random random = new Random(9);
+        int len = 10;
+        int lookback = 40;
+        HvPercentileRank hvpr = new HvPercentileRank(len, lookback);
+        RollingPercentileRank reference = new RollingPercentileRank(lookback);
+
+        double close = 100;
+        hvpr.onClose(close);
+        double m = 0, s = 0;
+        for (int t = 0; t < 200; t++) {
+            double next = close * Math.exp((t % 60 < 30 ? 0.005 : 0.02) * random.nextGaussian());
+            hvpr.onClose(next);
+            double r = Math.log(next / close);
+            m = (len - 1.0) / len * m + r / len;
+            s = (len - 1.0) / len * s + r * r / len;
+            double hv = Math.sqrt(s - m * m);
+            reference.update(hv);
+            close = next;
+
+            assertEquals(hv, hvpr.getHv(), 1e-15);
+        }
+        assertTrue(hvpr.isReady());
+        assertEquals(reference.getPercentile(), hvpr.getPercentile(), 0.0);
+        assertEquals(reference.getRank(), hvpr.getRank(), 0.0);
+    }
+}
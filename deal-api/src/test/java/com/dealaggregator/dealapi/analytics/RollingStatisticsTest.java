@@ -0,0 +1,126 @@
+package com.dealaggregator.dealapi.analytics;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the O(1) rolling statistics.
+ * Every incremental value is checked against a from-scratch recompute.
+ */
+class RollingStatisticsTest {
+
+    private double[] prices;
+
+    @BeforeEach
+    void setUp() {
+        // Long enough to cross several resync intervals of a 20-bar window
+        prices = new double[3000];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 100 + 5 * Math.sin(i / 7.0) + 0.01 * i + ((i * 37) % 11 - 5) * 0.3;
+        }
+    }
+
+    @Test
+    @DisplayName("Window - evicts the oldest value once full")
+    void testRollingWindow() {
+        RollingWindow window = new RollingWindow(3);
+        assertTrue(Double.isNaN(window.push(1)));
+        window.push(2);
+        window.push(3);
+        assertEquals(1.0, window.push(4), 0.0);
+        assertEquals(2.0, window.get(0), 0.0);
+        assertEquals(4.0, window.last(), 0.0);
+        assertTrue(window.isFull());
+    }
+
+    @Test
+    @DisplayName("Moments - match a two-pass recompute at every bar")
+    void testMoments_MatchDirect() {
+        int n = 20;
+        RollingMoments moments = new RollingMoments(n);
+        for (int t = 0; t < prices.length; t++) {
+            moments.add(prices[t]);
+            if (t + 1 < n) {
+                continue;
+            }
+            double[] w = Arrays.copyOfRange(prices, t + 1 - n, t + 1);
+            double[] expected = directMoments(w);
+            assertEquals(expected[0], moments.getMean(), 1e-9);
+            assertEquals(expected[1], moments.getVariance(), 1e-8);
+            assertEquals(expected[2], moments.getSkewness(), 1e-7);
+            assertEquals(expected[3], moments.getExcessKurtosis(), 1e-7);
+        }
+    }
+
+    @Test
+    @DisplayName("Z-Score - matches MeanReversionIndicators.zscore at every bar")
+    void testZScore_MatchesBatch() {
+        RollingZScore zscore = new RollingZScore(50);
+        for (int t = 0; t < prices.length; t++) {
+            double z = zscore.update(prices[t]);
+            if (t < 49) {
+                assertTrue(Double.isNaN(z));
+                continue;
+            }
+            double expected = MeanReversionIndicators.zscore(Arrays.copyOf(prices, t + 1), 50).getZscore();
+            assertEquals(expected, z, 1e-8);
+        }
+    }
+
+    @Test
+    @DisplayName("Half-Life - rolling OLS beta matches the batch regression")
+    void testHalfLife_MatchesBatch() {
+        RollingHalfLife halfLife = new RollingHalfLife(100);
+        for (int t = 0; t < prices.length; t++) {
+            halfLife.update(prices[t]);
+            if (t < 1) {
+                continue;
+            }
+            MeanReversionIndicators.HalfLifeResult expected =
+                    MeanReversionIndicators.halfLife(Arrays.copyOf(prices, t + 1), 100);
+            assertEquals(expected.getBeta(), halfLife.getBeta(), 1e-9);
+            assertEquals(expected.getHalfLife(), halfLife.getHalfLife(), 1e-6);
+            assertEquals(expected.isMeanReverting(), halfLife.isMeanReverting());
+        }
+    }
+
+    @Test
+    @DisplayName("Regression - recovers an exact line")
+    void testRegression_ExactLine() {
+        RollingRegression regression = new RollingRegression(10);
+        for (int i = 0; i < 25; i++) {
+            regression.add(i, 3 - 0.5 * i);
+        }
+        assertEquals(-0.5, regression.getBeta(), 1e-12);
+        assertEquals(3.0, regression.getAlpha(), 1e-10);
+        assertEquals(10, regression.getCount());
+    }
+
+    /** Mean, sample variance, skewness, excess kurtosis as in the Moments Pine script */
+    private static double[] directMoments(double[] x) {
+        int n = x.length;
+        double mean = 0;
+        for (double v : x) {
+            mean += v;
+        }
+        mean /= n;
+        double s2 = 0, s3 = 0, s4 = 0;
+        for (double v : x) {
+            double d = v - mean;
+            s2 += d * d;
+            s3 += d * d * d;
+            s4 += d * d * d * d;
+        }
+        double var = s2 / (n - 1);
+        double std = Math.sqrt(var);
+        double skew = s3 * n / ((n - 1.0) * (n - 2.0) * std * std * std);
+        double kurt = n * (n + 1.0) * s4 / ((n - 1.0) * (n - 2.0) * (n - 3.0) * var * var)
+                - 3.0 * (n - 1.0) * (n - 1.0) / ((n - 2.0) * (n - 3.0));
+        return new double[] { mean, var, skew, kurt };
+    }
+}
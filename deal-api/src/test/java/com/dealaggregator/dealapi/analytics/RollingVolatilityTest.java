@@ -0,0 +1,122 @@
+package com.dealaggregator.dealapi.analytics;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RollingVolatility against a direct recompute of the Pine
+ * formulas over each window.
+ */
+class RollingVolatilityTest {
+
+    private static final int N = 400;
+    private static final int PERIOD = 20;
+
+    private final double[] open = new double[N];
+    private final double[] high = new double[N];
+    private final double[] low = new double[N];
+    private final double[] close = new double[N];
+
+    RollingVolatilityTest() {
+        Random random = new Random(7);
+        double prev = 100;
+        for (int i = 0; i < N; i++) {
+            open[i] = prev * Math.exp(0.004 * random.nextGaussian());
+            close[i] = open[i] * Math.exp(0.012 * random.nextGaussian());
+            high[i] = Math.max(open[i], close[i]) * (1 + 0.006 * random.nextDouble());
+            low[i] = Math.min(open[i], close[i]) * (1 - 0.006 * random.nextDouble());
+            prev = close[i];
+        }
+    }
+
+    @Test
+    @DisplayName("Every estimator matches a full-window recompute on every bar")
+    void testMatchesDirectRecompute() {
+        RollingVolatility vol = new RollingVolatility(PERIOD, 252, RollingVolatility.DEFAULT_YZ_ALPHA);
+        for (int t = 0; t < N; t++) {
+            vol.onBar(open[t], high[t], low[t], close[t]);
+            if (t < PERIOD) {
+                assertFalse(vol.isReady());
+                continue;
+            }
+            assertTrue(vol.isReady());
+            for (RollingVolatility.Estimator e : RollingVolatility.Estimator.values()) {
+                assertEquals(direct(e, t), vol.get(e), 1e-12, e + " at bar " + t);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("NaN until the window is full")
+    void testNotReady() {
+        RollingVolatility vol = new RollingVolatility();
+        vol.onBar(100, 101, 99, 100.5);
+        assertTrue(Double.isNaN(vol.getCloseToClose()));
+        assertTrue(Double.isNaN(vol.getParkinson()));
+        assertTrue(Double.isNaN(vol.getYangZhang()));
+    }
+
+    @Test
+    @DisplayName("Flat bars give zero volatility for every estimator")
+    void testFlatBars() {
+        RollingVolatility vol = new RollingVolatility(10, 252, RollingVolatility.DEFAULT_YZ_ALPHA);
+        for (int i = 0; i < 20; i++) {
+            vol.onBar(50, 50, 50, 50);
+        }
+        for (RollingVolatility.Estimator e : RollingVolatility.Estimator.values()) {
+            assertEquals(0.0, vol.get(e), 1e-12, e.name());
+        }
+    }
+
+    /** Pine formulas evaluated over the window ending at bar t */
+    private double direct(RollingVolatility.Estimator e, int t) {
+        double annual = Math.sqrt(252);
+        double[] ret = new double[PERIOD];
+        double[] ov = new double[PERIOD];
+        double[] oc = new double[PERIOD];
+        double pk = 0, gk = 0, rs = 0;
+        for (int j = 0; j < PERIOD; j++) {
+            int i = t - PERIOD + 1 + j;
+            ret[j] = Math.log(close[i] / close[i - 1]);
+            ov[j] = Math.log(open[i] / close[i - 1]);
+            oc[j] = Math.log(close[i] / open[i]);
+            double hl = Math.log(high[i] / low[i]);
+            pk += hl * hl / (4 * Math.log(2));
+            gk += 0.5 * hl * hl - (2 * Math.log(2) - 1) * oc[j] * oc[j];
+            double u = Math.log(high[i] / open[i]);
+            double d = Math.log(low[i] / open[i]);
+            rs += u * (u - oc[j]) + d * (d - oc[j]);
+        }
+        switch (e) {
+            case CLOSE_TO_CLOSE:
+                return annual * Math.sqrt(sampleVariance(ret));
+            case PARKINSON:
+                return annual * Math.sqrt(pk / PERIOD);
+            case GARMAN_KLASS:
+                return annual * Math.sqrt(gk / PERIOD);
+            case ROGERS_SATCHELL:
+                return annual * Math.sqrt(rs / PERIOD);
+            default:
+                double a = RollingVolatility.DEFAULT_YZ_ALPHA;
+                double k = (a - 1) / (a + (PERIOD + 1.0) / (PERIOD - 1.0));
+                return annual * Math.sqrt(sampleVariance(ov) + k * sampleVariance(oc) + (1 - k) * rs / PERIOD);
+        }
+    }
+
+    private static double sampleVariance(double[] x) {
+        double mean = 0;
+        for (double v : x) {
+            mean += v;
+        }
+        mean /= x.length;
+        double ss = 0;
+        for (double v : x) {
+            ss += (v - mean) * (v - mean);
+        }
+        return ss / (x.length - 1);
+    }
+}
@@ -0,0 +1,65 @@
+package com.dealaggregator.dealapi.backtest;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH timing of one backtest over 10 years of daily bars.
+ *
+ * Not a unit test (surefire ignores it). Run after test-compile with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=MeanReversionBacktesterBenchmark
+ *
+ * The bar loop on a shared z-score series should take microseconds.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeanReversionBacktesterBenchmark {
+
+    private static final int BARS = 2520;
+
+    private long[] timestamps;
+    private double[] prices;
+    private double[] zscores;
+    private BacktestParams params;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        timestamps = new long[BARS];
+        prices = new double[BARS];
+        double x = 0;
+        for (int i = 0; i < BARS; i++) {
+            x += -0.05 * x + 0.01 * random.nextGaussian();
+            timestamps[i] = i * 86_400_000L;
+            prices[i] = 100 * Math.exp(x);
+        }
+        params = new BacktestParams(1.5, 50, 0.05, 0.10, 20, false, 50);
+        zscores = MeanReversionBacktester.zscoreSeries(prices, params.getZscoreLookback());
+    }
+
+    @Benchmark
+    public BacktestResult barLoop() {
+        return MeanReversionBacktester.run(timestamps, prices, zscores, true, params);
+    }
+
+    @Benchmark
+    public double[] zscoreSeries() {
+        return MeanReversionBacktester.zscoreSeries(prices, params.getZscoreLookback());
+    }
+}
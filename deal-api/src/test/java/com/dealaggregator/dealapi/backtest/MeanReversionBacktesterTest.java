@@ -0,0 +1,205 @@
+package com.dealaggregator.dealapi.backtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MeanReversionBacktester.
+ * The reference below is a line-by-line transliteration of backtester.py's
+ * run() loop (lists, boxed doubles, explicit window z-scores).
+ */
+class MeanReversionBacktesterTest {
+
+    /** Mean-reverting prices with occasional jumps so every exit rule fires */
+    private static double[] prices(int n, long seed) {
+        Random random = new Random(seed);
+        double[] p = new double[n];
+        double x = 0;
+        for (int i = 0; i < n; i++) {
+            x += -0.08 * x + 0.012 * random.nextGaussian() + (random.nextInt(40) == 0 ? 0.08 * random.nextGaussian() : 0);
+            p[i] = 100 * Math.exp(x);
+        }
+        return p;
+    }
+
+    private static long[] timestamps(int n) {
+        long[] t = new long[n];
+        for (int i = 0; i < n; i++) {
+            t[i] = 1_700_000_000_000L + i * 86_400_000L;
+        }
+        return t;
+    }
+
+    /** Python reference: returns {trades as [entryBar, exitBar, entry, exit, long, reasonOrdinal]}, equity */
+    private static Object[] reference(double[] prices, double[] z, boolean regimeOk, BacktestParams p) {
+        int n = prices.length;
+        List<Double> equity = new ArrayList<>();
+        equity.add(1.0);
+        List<double[]> trades = new ArrayList<>();
+        int position = 0;
+        double entryPrice = 0;
+        int entryBar = 0;
+        int startBar = p.getZscoreLookback() + 10;
+        for (int i = startBar; i < n; i++) {
+            double current = prices[i];
+            if (Double.isNaN(z[i])) {
+                equity.add(equity.get(equity.size() - 1));
+                continue;
+            }
+            if (position != 0) {
+                int held = i - entryBar;
+                double pnlPct = position == 1 ? (current - entryPrice) / entryPrice : (entryPrice - current) / entryPrice;
+                int reason = -1;
+                if (position == 1 && z[i] >= 0) {
+                    reason = 0;
+                } else if (position == -1 && z[i] <= 0) {
+                    reason = 0;
+                } else if (pnlPct <= -p.getStopLossPct()) {
+                    reason = 1;
+                } else if (pnlPct >= p.getTakeProfitPct()) {
+                    reason = 2;
+                } else if (held >= p.getMaxHoldingBars()) {
+                    reason = 3;
+                }
+                if (reason >= 0) {
+                    trades.add(new double[] { entryBar, i, entryPrice, current, position == 1 ? 1 : 0, reason });
+                    equity.add(equity.get(equity.size() - 1) * (1 + pnlPct));
+                    position = 0;
+                    continue;
+                }
+            }
+            if (position == 0 && regimeOk) {
+                if (z[i] < -p.getZscoreThreshold()) {
+                    position = 1;
+                    entryPrice = current;
+                    entryBar = i;
+                } else if (z[i] > p.getZscoreThreshold()) {
+                    position = -1;
+                    entryPrice = current;
+                    entryBar = i;
+                }
+            }
+            if (equity.size() <= i - startBar) {
+                equity.add(equity.get(equity.size() - 1));
+            }
+        }
+        if (position != 0) {
+            trades.add(new double[] { entryBar, n - 1, entryPrice, prices[n - 1], position == 1 ? 1 : 0, 4 });
+        }
+        return new Object[] { trades, equity };
+    }
+
+    /** pandas rolling(lookback).mean()/.std() computed per window */
+    private static double[] windowZscores(double[] prices, int lookback) {
+        double[] z = new double[prices.length];
+        for (int i = 0; i < prices.length; i++) {
+            if (i < lookback - 1) {
+                z[i] = Double.NaN;
+                continue;
+            }
+            double mean = 0;
+            for (int j = i - lookback + 1; j <= i; j++) {
+                mean += prices[j] / lookback;
+            }
+            double ss = 0;
+            for (int j = i - lookback + 1; j <= i; j++) {
+                ss += (prices[j] - mean) * (prices[j] - mean);
+            }
+            z[i] = (prices[i] - mean) / Math.sqrt(ss / (lookback - 1));
+        }
+        return z;
+    }
+
+    @Test
+    @DisplayName("Run - trades and equity match the Python loop")
+    @SuppressWarnings("unchecked")
+    void testRun_MatchesPythonReference() {
+        BacktestParams[] settings = {
+                new BacktestParams(2.0, 50, 0.05, 0.10, 20, false, 50),
+                new BacktestParams(1.5, 20, 0.02, 0.03, 5, false, 50),
+                new BacktestParams(1.0, 30, 0.01, 0.015, 10, false, 50) };
+        double[] p = prices(2520, 11);
+        long[] t = timestamps(p.length);
+
+        for (BacktestParams params : settings) {
+            double[] z = MeanReversionBacktester.zscoreSeries(p, params.getZscoreLookback());
+            double[] reference = windowZscores(p, params.getZscoreLookback());
+            for (int i = 0; i < p.length; i++) {
+                assertEquals(reference[i], z[i], 1e-9);
+            }
+
+            BacktestResult result = MeanReversionBacktester.run(t, p, z, true, params);
+            Object[] expected = reference(p, z, true, params);
+            List<double[]> trades = (List<double[]>) expected[0];
+            List<Double> equity = (List<Double>) expected[1];
+
+            assertTrue(trades.size() > 10);
+            assertEquals(trades.size(), result.getTotalTrades());
+            List<BacktestResult.Trade> actual = result.getTrades();
+            for (int k = 0; k < trades.size(); k++) {
+                double[] e = trades.get(k);
+                BacktestResult.Trade a = actual.get(k);
+                assertEquals((int) e[0], a.getEntryBar());
+                assertEquals((int) e[1], a.getExitBar());
+                assertEquals(e[2], a.getEntryPrice(), 0.0);
+                assertEquals(e[3], a.getExitPrice(), 0.0);
+                assertEquals(e[4] == 1, a.isLong());
+                assertEquals(BacktestResult.ExitReason.values()[(int) e[5]], a.getExitReason());
+                assertEquals(t[(int) e[0]], a.getEntryTime());
+            }
+            double[] curve = result.getEquityCurve();
+            assertEquals(equity.size(), curve.length);
+            for (int i = 0; i < curve.length; i++) {
+                assertEquals(equity.get(i), curve[i], 0.0);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Run - hand-checked stop loss, statistics and half-life filter")
+    void testRun_StopLossAndStats() {
+        // Flat at 100 with small noise, then a drop (long entry) that keeps falling into the stop
+        int n = 80;
+        double[] p = new double[n];
+        for (int i = 0; i < n; i++) {
+            p[i] = 100 + (i % 2 == 0 ? 0.1 : -0.1);
+        }
+        p[70] = 97;
+        p[71] = 94; // -3.1% from entry
+        p[72] = 91; // Still oversold: re-enters long, then exits on the bounce back to 100
+        BacktestParams params = new BacktestParams(2.0, 50, 0.02, 0.10, 20, false, 50);
+
+        BacktestResult result = MeanReversionBacktester.run(timestamps(n), p,
+                MeanReversionBacktester.zscoreSeries(p, 50), true, params);
+        BacktestResult.Trade first = result.getTrades().get(0);
+        assertTrue(first.isLong());
+        assertEquals(70, first.getEntryBar());
+        assertEquals(71, first.getExitBar());
+        assertEquals(BacktestResult.ExitReason.STOP_LOSS, first.getExitReason());
+        assertEquals(-3.0 / 97, first.getPnlPct(), 1e-12);
+        // Start bar 60 appends nothing, 61..70 append one each, the exit on 71 compounds
+        assertEquals(1 - 3.0 / 97, result.getEquityCurve()[11], 1e-12);
+        assertEquals(3.0 / 97, result.getMaxDrawdown(), 1e-12);
+
+        BacktestResult.Trade second = result.getTrades().get(1);
+        assertEquals(72, second.getEntryBar());
+        assertEquals(BacktestResult.ExitReason.Z_CROSSED_ZERO, second.getExitReason());
+        assertEquals(2, result.getTotalTrades());
+        assertEquals(1, result.getWinningTrades());
+        assertEquals(second.getPnl() / 3.0, result.getProfitFactor(), 1e-12);
+
+        // No series here reverts within one bar, so a 1-bar maximum blocks every entry
+        BacktestParams filtered = new BacktestParams(2.0, 50, 0.02, 0.10, 20, true, 1);
+        assertFalse(MeanReversionBacktester.regimeOk(p, filtered));
+        BacktestResult none = MeanReversionBacktester.run(timestamps(n), p,
+                MeanReversionBacktester.zscoreSeries(p, 50), false, filtered);
+        assertEquals(0, none.getTotalTrades());
+        assertEquals(0.0, none.getSharpeRatio(), 0.0);
+    }
+}
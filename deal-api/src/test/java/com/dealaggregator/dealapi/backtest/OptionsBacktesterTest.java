@@ -0,0 +1,137 @@
+package com.dealaggregator.dealapi.backtest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.dealaggregator.dealapi.marketdata.ChainSnapshotStore;
+import com.dealaggregator.dealapi.marketdata.OptionChain;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OptionsBacktester.
+ * Replays small hand-priced 0DTE chains written to a temporary store.
+ */
+class OptionsBacktesterTest {
+
+    private static final ZoneId NY = ZoneId.of("America/New_York");
+    private static final LocalDate DAY1 = LocalDate.of(2026, 1, 5);
+    private static final LocalDate DAY2 = LocalDate.of(2026, 1, 6);
+    private static final LocalDate DAY3 = LocalDate.of(2026, 1, 7);
+    private static final double[] STRIKES = { 5790, 5795, 5800, 5805, 5810 };
+    private static final double[] STRIKES_NO_5810 = { 5790, 5795, 5800, 5805 };
+
+    private ChainSnapshotStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path dir = Files.createTempDirectory("chains");
+        store = new ChainSnapshotStore(dir, NY, 16);
+        // Day 1: rally into the close
+        append(DAY1, 10, 0, 5800, STRIKES);
+        append(DAY1, 11, 0, 5801, STRIKES);
+        append(DAY1, 16, 0, 5812, STRIKES);
+        // Day 2: pinned at 5800
+        append(DAY2, 10, 0, 5800, STRIKES);
+        append(DAY2, 12, 0, 5800, STRIKES);
+        append(DAY2, 15, 59, 5800, STRIKES);
+        // Day 3: one snapshot before the entry time, one without the 5810 call
+        append(DAY3, 9, 30, 5800, STRIKES);
+        append(DAY3, 10, 30, 5800, STRIKES_NO_5810);
+        store.close();
+    }
+
+    /** Mid = intrinsic + max(1, 4 - 0.2 x distance), one point wide */
+    private static double mid(double spot, double strike, boolean call) {
+        double intrinsic = call ? Math.max(0, spot - strike) : Math.max(0, strike - spot);
+        return intrinsic + Math.max(1, 4 - 0.2 * Math.abs(spot - strike));
+    }
+
+    private static OptionChain.Side side(double spot, double[] strikes, boolean call) {
+        int n = strikes.length;
+        double[] bids = new double[n];
+        double[] asks = new double[n];
+        for (int i = 0; i < n; i++) {
+            bids[i] = mid(spot, strikes[i], call) - 0.5;
+            asks[i] = mid(spot, strikes[i], call) + 0.5;
+        }
+        return new OptionChain.Side(n, strikes, bids, asks, new double[n], new double[n], new long[n]);
+    }
+
+    private void append(LocalDate day, int hour, int minute, double spot, double[] callStrikes) throws Exception {
+        long t = ZonedDateTime.of(day.atTime(hour, minute), NY).toInstant().toEpochMilli();
+        store.append("$SPX", t, spot, new OptionChain.Expiry(day.toString(), 0,
+                side(spot, callStrikes, true), side(spot, STRIKES, false)));
+    }
+
+    @Test
+    @DisplayName("Long straddle, bid/ask fills - target, expiration settlement and late entry")
+    void testStraddle_BidAskFills() throws Exception {
+        OptionsBacktester backtester = new OptionsBacktester(store, "$SPX", NY);
+        OptionsBacktestResult result = backtester.run(OptionStructure.straddle(1),
+                OptionsBacktestParams.defaults(), DAY1, DAY3);
+
+        assertEquals(3, result.getTrades());
+        assertEquals(0, result.getSkippedDays());
+
+        // Day 1: pay 4.5 + 4.5, marked at bids 3.5 + 3.5 (-200), then 13.1 + 1.1 at 16:00 (+520 > 450)
+        OptionsBacktestResult.DayResult d1 = result.getDays().get(0);
+        assertEquals(DAY1, d1.getDay());
+        assertEquals(5800, d1.getAtmStrike(), 1e-9);
+        assertEquals(9.0, d1.getEntryPremium(), 1e-9);
+        assertEquals(520, d1.getPnl(), 1e-6);
+        assertEquals(-200, d1.getMaxAdverse(), 1e-6);
+        assertEquals(OptionsBacktestResult.ExitReason.PROFIT_TARGET, d1.getExitReason());
+
+        // Day 2: never moves, so the straddle settles worthless: -900 (the stop needs a mark below -900)
+        OptionsBacktestResult.DayResult d2 = result.getDays().get(1);
+        assertEquals(-900, d2.getPnl(), 1e-6);
+        assertEquals(OptionsBacktestResult.ExitReason.EXPIRATION, d2.getExitReason());
+
+        // Day 3: 9:30 is before the entry time; enters at 10:30 instead
+        OptionsBacktestResult.DayResult d3 = result.getDays().get(2);
+        assertEquals(ZonedDateTime.of(DAY3.atTime(10, 30), NY).toInstant().toEpochMilli(), d3.getEntryTime());
+        assertEquals(-900, d3.getPnl(), 1e-6);
+
+        assertEquals(-1280, result.getTotalPnl(), 1e-6);
+        assertEquals(1.0 / 3, result.getWinRate(), 1e-12);
+        assertEquals(1800, result.getMaxDrawdown(), 1e-6);
+        assertEquals(-900, result.percentile(0.5), 1e-6);
+        assertEquals(-900, result.tailMean(0.05), 1e-6);
+        assertArrayEquals(new int[] { 2, 0, 1 }, result.histogram(3));
+    }
+
+    @Test
+    @DisplayName("Short iron condor, mid fills - stop, time exit and a missing wing")
+    void testIronCondor_MidFills() throws Exception {
+        OptionsBacktester backtester = new OptionsBacktester(store, "$SPX", NY);
+        OptionsBacktestParams params = new OptionsBacktestParams(LocalTime.of(10, 0), LocalTime.of(12, 0), 0.5,
+                1.0, OptionsBacktestParams.Fill.MID, 0);
+        OptionsBacktestResult result = backtester.run(OptionStructure.ironCondor(5, 5, 1), params, DAY1, DAY3);
+
+        // Day 3 never lists the 5810 call after the entry time
+        assertEquals(2, result.getTrades());
+        assertEquals(1, result.getSkippedDays());
+
+        // Credit: 2 - 3 - 3 + 2 = -2. At 16:00 (first snapshot after 12:00) spot is 5812:
+        // 1 - 1 - 9.6 + 5.6 = -4, so P&L -200 hits the 100% stop before the time exit
+        OptionsBacktestResult.DayResult d1 = result.getDays().get(0);
+        assertEquals(-2.0, d1.getEntryPremium(), 1e-9);
+        assertEquals(-200, d1.getPnl(), 1e-6);
+        assertEquals(0, d1.getMaxFavorable(), 1e-6);
+        assertEquals(OptionsBacktestResult.ExitReason.STOP_LOSS, d1.getExitReason());
+
+        OptionsBacktestResult.DayResult d2 = result.getDays().get(1);
+        assertEquals(0, d2.getPnl(), 1e-6);
+        assertEquals(OptionsBacktestResult.ExitReason.TIME, d2.getExitReason());
+        assertEquals(ZonedDateTime.of(DAY2.atTime(12, 0), NY).toInstant().toEpochMilli(), d2.getExitTime());
+    }
+}
@@ -0,0 +1,140 @@
+package com.dealaggregator.dealapi.backtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ParameterSweep and ParameterGrid.
+ */
+class ParameterSweepTest {
+
+    private static double[] prices(int n, long seed) {
+        Random random = new Random(seed);
+        double[] p = new double[n];
+        double x = 0;
+        for (int i = 0; i < n; i++) {
+            x += -0.06 * x + 0.012 * random.nextGaussian();
+            p[i] = 100 * Math.exp(x);
+        }
+        return p;
+    }
+
+    private static long[] timestamps(int n) {
+        long[] t = new long[n];
+        for (int i = 0; i < n; i++) {
+            t[i] = i * 86_400_000L;
+        }
+        return t;
+    }
+
+    private static ParameterGrid smallGrid() {
+        return new ParameterGrid(new double[] { 1.0, 1.5, 2.0 }, new int[] { 10, 20, 30 },
+                new double[] { 0.02, 0.05 }, new double[] { 0.03, 0.10 }, new int[] { 5, 20 }, false, 50);
+    }
+
+    @Test
+    @DisplayName("Sweep - top K matches a sequential brute force, best is streamed")
+    void testSweep_MatchesBruteForce() {
+        double[] p = prices(756, 3);
+        long[] t = timestamps(p.length);
+        List<BacktestParams> configs = smallGrid().expand();
+        assertEquals(smallGrid().size(), configs.size());
+
+        List<Double> streamed = new ArrayList<>();
+        ParameterSweep.SweepResult result = ParameterSweep.sweep(t, p, new ParameterSweep.ZScores(p), 0, p.length,
+                configs, ParameterSweep.Objective.SHARPE, 5, 3, (best, evaluated) -> {
+                    synchronized (streamed) {
+                        streamed.add(best.getScore());
+                    }
+                });
+
+        double[] scores = new double[configs.size()];
+        int k = 0;
+        for (BacktestParams params : configs) {
+            BacktestResult r = MeanReversionBacktester.run(t, p,
+                    MeanReversionBacktester.zscoreSeries(p, params.getZscoreLookback()), true, params);
+            scores[k++] = r.getTotalTrades() >= 5 ? r.getSharpeRatio() : Double.NEGATIVE_INFINITY;
+        }
+        Arrays.sort(scores);
+
+        assertEquals(configs.size(), result.getEvaluated());
+        assertEquals(3, result.getTop().size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(scores[scores.length - 1 - i], result.getTop().get(i).getScore(), 1e-12);
+        }
+        assertFalse(streamed.isEmpty());
+        assertEquals(scores[scores.length - 1], streamed.get(streamed.size() - 1), 1e-12);
+        for (int i = 1; i < streamed.size(); i++) {
+            assertTrue(streamed.get(i) > streamed.get(i - 1));
+        }
+    }
+
+    @Test
+    @DisplayName("Range - backtesting [from, to) equals backtesting a copy of that slice")
+    void testRangeRun_EqualsSlice() {
+        double[] p = prices(600, 5);
+        long[] t = timestamps(p.length);
+        BacktestParams params = new BacktestParams(1.5, 20, 0.03, 0.05, 10, false, 50);
+        int from = 150;
+        int to = 450;
+
+        BacktestResult ranged = MeanReversionBacktester.run(t, p, MeanReversionBacktester.zscoreSeries(p, 20),
+                from, to, true, params);
+        double[] slice = Arrays.copyOfRange(p, from, to);
+        BacktestResult copied = MeanReversionBacktester.run(Arrays.copyOfRange(t, from, to), slice,
+                MeanReversionBacktester.zscoreSeries(slice, 20), true, params);
+
+        assertEquals(copied.getTotalTrades(), ranged.getTotalTrades());
+        assertTrue(ranged.getTotalTrades() > 0);
+        for (int i = 0; i < ranged.getTotalTrades(); i++) {
+            assertEquals(copied.getTrades().get(i).getEntryBar() + from, ranged.getTrades().get(i).getEntryBar());
+            assertEquals(copied.getTrades().get(i).getExitTime(), ranged.getTrades().get(i).getExitTime());
+        }
+        assertArrayEquals(copied.getEquityCurve(), ranged.getEquityCurve(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Walk-forward - test trades stay inside their out-of-sample windows")
+    void testWalkForward_OutOfSample() {
+        double[] p = prices(1000, 9);
+        long[] t = timestamps(p.length);
+        List<ParameterSweep.Fold> streamed = new ArrayList<>();
+
+        ParameterSweep.WalkForwardResult result = ParameterSweep.walkForward(t, p, smallGrid().sample(60, 1),
+                252, 63, ParameterSweep.Objective.TOTAL_RETURN, 3, streamed::add);
+
+        // Training starts at 0, 63, ..., 630: the last one whose test window fits in 1000 bars
+        assertEquals(11, result.getFolds().size());
+        assertEquals(result.getFolds().size(), streamed.size());
+        double growth = 1.0;
+        int openAtBoundary = 0;
+        for (ParameterSweep.Fold fold : result.getFolds()) {
+            assertEquals(fold.getTrainFrom() + 252, fold.getTrainTo());
+            for (BacktestResult.Trade trade : fold.getTest().getTrades()) {
+                assertTrue(trade.getEntryBar() >= fold.getTrainTo());
+                assertTrue(trade.getExitBar() < fold.getTestTo());
+            }
+            // Positions still open at the fold's end count, marked at its last close
+            double[] equity = fold.getTest().getEquityCurve();
+            double foldGrowth = equity[equity.length - 1];
+            for (BacktestResult.Trade trade : fold.getTest().getTrades()) {
+                if (trade.getExitReason() == BacktestResult.ExitReason.END_OF_DATA) {
+                    assertEquals(fold.getTestTo() - 1, trade.getExitBar());
+                    foldGrowth *= 1 + trade.getPnlPct();
+                    openAtBoundary++;
+                }
+            }
+            assertEquals(foldGrowth - 1, fold.getTestReturn(), 1e-12);
+            growth *= foldGrowth;
+        }
+        assertTrue(openAtBoundary > 0);
+        assertEquals(growth - 1, result.getOutOfSampleReturn(), 1e-12);
+    }
+}
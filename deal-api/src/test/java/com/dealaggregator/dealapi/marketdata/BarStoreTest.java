@@ -0,0 +1,136 @@
+package com.dealaggregator.dealapi.marketdata;
+
+import java.nio.DoubleBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BarStore.
+ * Writes real bar files into a temporary directory.
+ */
+class BarStoreTest {
+
+    private static final ZoneId NY = ZoneId.of("America/New_York");
+    private static final LocalDate FIRST = LocalDate.of(2026, 1, 5);
+
+    private Path dir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dir = Files.createTempDirectory("bars");
+    }
+
+    /** Daily bars at 9:30 New York, one per calendar day from FIRST + offset, close = 100 + day */
+    private static PriceBars daily(int offset, int n) {
+        long[] t = new long[n];
+        double[] o = new double[n];
+        double[] h = new double[n];
+        double[] l = new double[n];
+        double[] c = new double[n];
+        long[] v = new long[n];
+        for (int i = 0; i < n; i++) {
+            int day = offset + i;
+            t[i] = FIRST.plusDays(day).atTime(9, 30).atZone(NY).toInstant().toEpochMilli();
+            c[i] = 100 + day;
+            o[i] = c[i] - 0.5;
+            h[i] = c[i] + 1;
+            l[i] = c[i] - 1;
+            v[i] = 1000L * day;
+        }
+        return new PriceBars("SPY", t, o, h, l, c, v);
+    }
+
+    @Test
+    @DisplayName("Append - skips stored bars, grows past capacity and survives reopen")
+    void testAppend_GrowAndReopen() throws Exception {
+        try (BarStore store = new BarStore(dir, NY, 4)) {
+            assertEquals(3, store.append(daily(0, 3), "1d"));
+            assertEquals(8, store.append(daily(0, 10), "1d")); // Overlap: revises day 2, appends 3..9
+            assertEquals(0, store.append(daily(0, 5), "1d"));
+            assertEquals(10, store.all("SPY", "1d").size());
+        }
+
+        try (BarStore store = new BarStore(dir, NY, 4)) {
+            BarStore.BarWindow all = store.all("SPY", "1d");
+            assertEquals(10, all.size());
+            PriceBars bars = all.toPriceBars();
+            for (int i = 0; i < 10; i++) {
+                assertEquals(100 + i, bars.getClose()[i], 0.0);
+                assertEquals(1000L * i, bars.getVolume()[i]);
+            }
+            assertEquals(FIRST.plusDays(9), store.lastDate("spy", "1d"));
+            assertEquals(2, store.append(daily(9, 2), "1d"));
+            assertEquals(11, store.all("SPY", "1d").size());
+        }
+    }
+
+    @Test
+    @DisplayName("Window - date index selects rows and buffers are zero-copy views")
+    void testWindow_ByDate() throws Exception {
+        try (BarStore store = new BarStore(dir, NY)) {
+            store.append(daily(0, 30), "1d");
+
+            BarStore.BarWindow window = store.window("SPY", "1d", FIRST.plusDays(10), FIRST.plusDays(14));
+            assertEquals(5, window.size());
+            DoubleBuffer close = window.close();
+            assertEquals(5, close.remaining());
+            assertEquals(110, close.get(0), 0.0);
+            assertEquals(114, close.get(4), 0.0);
+            assertTrue(close.isReadOnly());
+
+            BarStore.BarWindow last = store.last("SPY", "1d", 3);
+            assertEquals(127, last.close().get(0), 0.0);
+            assertEquals(126, last.low().get(0), 0.0);
+
+            assertTrue(store.window("SPY", "1d", FIRST.minusDays(10), FIRST.minusDays(1)).isEmpty());
+            assertTrue(store.last("QQQ", "1d", 10).isEmpty());
+            assertNull(store.lastDate("QQQ", "1d"));
+        }
+    }
+
+    @Test
+    @DisplayName("Append - a revised last bar is copied, earlier windows keep the old values")
+    void testAppend_RevisionCopies() throws Exception {
+        try (BarStore store = new BarStore(dir, NY, 16)) {
+            store.append(daily(0, 5), "1d");
+            BarStore.BarWindow before = store.all("SPY", "1d");
+
+            PriceBars revised = daily(4, 1);
+            revised.getClose()[0] = 250;
+            assertEquals(1, store.append(revised, "1d"));
+
+            assertEquals(104, before.close().get(4), 0.0);
+            BarStore.BarWindow after = store.all("SPY", "1d");
+            assertEquals(5, after.size());
+            assertEquals(250, after.close().get(4), 0.0);
+            assertEquals(103, after.close().get(3), 0.0);
+        }
+    }
+
+    @Test
+    @DisplayName("Replace - swaps in a new history, earlier windows stay readable")
+    void testReplace_SwapsFile() throws Exception {
+        try (BarStore store = new BarStore(dir, NY)) {
+            store.append(daily(0, 10), "1d");
+            BarStore.BarWindow before = store.all("SPY", "1d");
+
+            assertEquals(3, store.replace(daily(20, 3), "1d"));
+
+            assertEquals(10, before.size());
+            assertEquals(109, before.close().get(9), 0.0);
+            BarStore.BarWindow after = store.all("SPY", "1d");
+            assertEquals(3, after.size());
+            assertEquals(120, after.close().get(0), 0.0);
+            assertEquals(FIRST.plusDays(22), store.lastDate("SPY", "1d"));
+            assertFalse(Files.exists(dir.resolve("SPY-1d.bars.seed")));
+        }
+    }
+}
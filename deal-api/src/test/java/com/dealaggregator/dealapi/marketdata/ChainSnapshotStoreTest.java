@@ -0,0 +1,125 @@
+package com.dealaggregator.dealapi.marketdata;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ChainSnapshotStore.
+ * Writes real segment files into a temporary directory.
+ */
+class ChainSnapshotStoreTest {
+
+    private static final ZoneId NY = ZoneId.of("America/New_York");
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 5);
+
+    private Path dir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dir = Files.createTempDirectory("chains");
+    }
+
+    private static long at(int hour, int minute) {
+        return ZonedDateTime.of(DAY.atTime(hour, minute), NY).toInstant().toEpochMilli();
+    }
+
+    /** Calls at 5800/5805/5810, puts at 5795/5800/5805 */
+    private static OptionChain.Expiry expiry(double shift) {
+        OptionChain.Side calls = new OptionChain.Side(3,
+                new double[] { 5800, 5805, 5810 },
+                new double[] { 9 + shift, 6 + shift, 4 + shift },
+                new double[] { 10 + shift, 7 + shift, 5 + shift },
+                new double[] { 0.14, 0.13, 0.12 },
+                new double[] { 0.6, 0.5, 0.4 },
+                new long[] { 100, 200, 300 });
+        OptionChain.Side puts = new OptionChain.Side(3,
+                new double[] { 5795, 5800, 5805 },
+                new double[] { 3 + shift, 5 + shift, 8 + shift },
+                new double[] { 4 + shift, 6 + shift, 9 + shift },
+                new double[] { 0.18, 0.16, 0.15 },
+                new double[] { -0.3, -0.4, -0.5 },
+                new long[] { 400, 500, 600 });
+        return new OptionChain.Expiry(DAY.toString(), 0, calls, puts);
+    }
+
+    @Test
+    @DisplayName("Append/read - rows are the strike union with NaN for missing sides")
+    void testAppendAndRead_UnionRows() throws Exception {
+        try (ChainSnapshotStore store = new ChainSnapshotStore(dir, NY, 16)) {
+            store.append("$SPX", at(9, 30), 5801.0, expiry(0));
+        }
+
+        List<ChainSnapshotStore.ChainSnapshotView> views =
+                new ChainSnapshotStore(dir, NY, 16).readDay("$SPX", DAY);
+        assertEquals(1, views.size());
+
+        ChainSnapshotStore.ChainSnapshotView view = views.get(0);
+        assertEquals(4, view.getRows());
+        assertEquals(DAY, view.getExpiration());
+        assertEquals(5795.0, view.strikes().get(0), 1e-9);
+        assertEquals(5810.0, view.strikes().get(3), 1e-9);
+        assertTrue(Double.isNaN(view.callBids().get(0))); // No 5795 call
+        assertTrue(Double.isNaN(view.putBids().get(3))); // No 5810 put
+        assertEquals(200, view.callOpenInterest().get(2));
+        assertEquals(0, view.callOpenInterest().get(0));
+
+        // ATM 5800: call mid 9.5 + put mid 5.5
+        assertEquals(15.0, view.atmStraddleMid(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Range read - binary search on timestamps, reopen keeps appending")
+    void testRangeRead_AcrossReopen() throws Exception {
+        try (ChainSnapshotStore store = new ChainSnapshotStore(dir, NY, 16)) {
+            store.append("$SPX", at(9, 30), 5801.0, expiry(0));
+            store.append("$SPX", at(9, 35), 5801.0, expiry(1));
+        }
+        try (ChainSnapshotStore store = new ChainSnapshotStore(dir, NY, 16)) {
+            store.append("$SPX", at(9, 40), 5801.0, expiry(2));
+        }
+
+        ChainSnapshotStore reader = new ChainSnapshotStore(dir, NY, 16);
+        assertEquals(3, reader.readDay("$SPX", DAY).size());
+
+        List<ChainSnapshotStore.ChainSnapshotView> range = reader.read("$SPX", DAY, at(9, 33), at(9, 40));
+        assertEquals(2, range.size());
+        assertEquals(at(9, 35), range.get(0).getTimestampMillis());
+        assertEquals(17.0, range.get(0).atmStraddleMid(), 1e-9);
+        assertEquals(19.0, range.get(1).atmStraddleMid(), 1e-9);
+
+        assertTrue(reader.readDay("$SPX", DAY.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Read bounds - snapshots whose data lies past the reader's mapping are left out")
+    void testRead_BoundedByMapping() throws Exception {
+        try (ChainSnapshotStore store = new ChainSnapshotStore(dir, NY, 16)) {
+            store.append("$SPX", at(9, 30), 5801.0, expiry(0));
+            store.append("$SPX", at(9, 35), 5801.0, expiry(1));
+        }
+        // What a reader sees when it mapped the file before an append grew it: the
+        // count covers both snapshots, the mapping ends after the first block
+        long firstBlockEnd = 16 + 16 * 32 + 4 * 9 * 8;
+        try (FileChannel channel = FileChannel.open(dir.resolve("SPX-" + DAY + ".chain"),
+                StandardOpenOption.WRITE)) {
+            channel.truncate(firstBlockEnd);
+        }
+
+        List<ChainSnapshotStore.ChainSnapshotView> views =
+                new ChainSnapshotStore(dir, NY, 16).readDay("$SPX", DAY);
+        assertEquals(1, views.size());
+        assertEquals(15.0, views.get(0).atmStraddleMid(), 1e-9);
+    }
+}
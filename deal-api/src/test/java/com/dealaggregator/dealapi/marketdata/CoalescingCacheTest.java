@@ -0,0 +1,149 @@
+package com.dealaggregator.dealapi.marketdata;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CoalescingCache.
+ * Uses a manual clock so TTL expiry is deterministic.
+ */
+class CoalescingCacheTest {
+
+    private static final long TTL_MS = 60_000;
+    private static final long MAX_STALE_MS = 600_000;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private CoalescingCache<String, String> cache(long staleWaitMillis) {
+        return new CoalescingCache<>(TTL_MS, MAX_STALE_MS, staleWaitMillis, executor, clock::get);
+    }
+
+    private void advanceMillis(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private static Map<String, String> values(List<String> keys, String suffix) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String key : keys) {
+            values.put(key, key + suffix);
+        }
+        return values;
+    }
+
+    @Test
+    @DisplayName("TTL/version - hits inside the TTL, reloads after it or on a new version")
+    void testTtlAndVersion() throws Exception {
+        CoalescingCache<String, String> cache = cache(1000);
+        AtomicInteger loads = new AtomicInteger();
+        CoalescingCache.BatchLoader<String, String> loader = keys -> values(keys, "#" + loads.incrementAndGet());
+
+        assertEquals("SPY#1", cache.get("SPY", "2026-01-05", loader));
+        advanceMillis(TTL_MS - 1);
+        assertEquals("SPY#1", cache.get("SPY", "2026-01-05", loader));
+        assertEquals(1, loads.get());
+
+        // New bar date: the old entry is only stale, and the quick refresh wins
+        assertEquals("SPY#2", cache.get("SPY", "2026-01-06", loader));
+        advanceMillis(TTL_MS);
+        assertEquals("SPY#3", cache.get("SPY", "2026-01-06", loader));
+    }
+
+    @Test
+    @DisplayName("Version - a caller for a newer version never joins an older in-flight load")
+    void testNewVersionDoesNotJoinOldLoad() throws Exception {
+        CoalescingCache<String, String> cache = cache(1000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> old = executor.submit(() -> cache.get("SPY", "2026-01-05", keys -> {
+            started.countDown();
+            release.await();
+            return values(keys, "@05");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertEquals("SPY@06", cache.get("SPY", "2026-01-06", keys -> values(keys, "@06")));
+        release.countDown();
+        assertEquals("SPY@05", old.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Coalescing - concurrent misses share one load; batches load only the misses")
+    void testCoalescing() throws Exception {
+        CoalescingCache<String, String> cache = cache(1000);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CoalescingCache.BatchLoader<String, String> slow = keys -> {
+            loads.incrementAndGet();
+            release.await();
+            return values(keys, "");
+        };
+
+        List<Future<String>> callers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            callers.add(executor.submit(() -> cache.get("QQQ", "v", slow)));
+        }
+        Thread.sleep(100);
+        release.countDown();
+        for (Future<String> caller : callers) {
+            assertEquals("QQQ", caller.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+
+        List<List<String>> batches = new ArrayList<>();
+        Map<String, String> all = cache.getAll(List.of("IWM", "QQQ", "SPY"), "v", keys -> {
+            batches.add(keys);
+            return values(keys, "");
+        });
+        assertEquals(List.of("IWM", "QQQ", "SPY"), new ArrayList<>(all.keySet()));
+        assertEquals(List.of(List.of("IWM", "SPY")), batches);
+    }
+
+    @Test
+    @DisplayName("Stale-while-revalidate - slow or failed refreshes serve the stale value")
+    void testStaleWhileRevalidate() throws Exception {
+        CoalescingCache<String, String> cache = cache(50);
+        cache.get("SPY", "v", keys -> values(keys, "-old"));
+        advanceMillis(TTL_MS);
+
+        // Refresh blocks past the stale wait: the old value comes back, the new one lands later
+        CountDownLatch release = new CountDownLatch(1);
+        assertEquals("SPY-old", cache.get("SPY", "v", keys -> {
+            release.await();
+            return values(keys, "-new");
+        }));
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String value;
+        do {
+            Thread.sleep(10);
+            value = cache.get("SPY", "v", keys -> values(keys, "-unexpected"));
+        } while (!value.equals("SPY-new") && System.nanoTime() < deadline);
+        assertEquals("SPY-new", value);
+
+        // Failed refresh with a stale entry: stale; without one: the loader's exception
+        advanceMillis(TTL_MS);
+        CoalescingCache.BatchLoader<String, String> failing = keys -> {
+            throw new IllegalStateException("cold start");
+        };
+        assertEquals("SPY-new", cache.get("SPY", "v", failing));
+        advanceMillis(MAX_STALE_MS);
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> cache.get("SPY", "v", failing));
+        assertEquals("cold start", e.getMessage());
+        assertTrue(cache.getAll(List.of("SPY"), "v", failing).isEmpty());
+    }
+}
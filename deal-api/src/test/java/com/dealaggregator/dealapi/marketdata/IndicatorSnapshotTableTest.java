@@ -0,0 +1,46 @@
+package com.dealaggregator.dealapi.marketdata;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IndicatorSnapshotTable.
+ */
+class IndicatorSnapshotTableTest {
+
+    private static final LocalDate FRIDAY = LocalDate.of(2026, 1, 9);
+    private static final LocalDate MONDAY = LocalDate.of(2026, 1, 12);
+
+    @Test
+    @DisplayName("Build/replace - rows round-trip and a rebuilt table replaces only the updated tickers")
+    void testBuildAndReplace() {
+        IndicatorSnapshotTable friday = new IndicatorSnapshotTable.Builder()
+                .put(new IndicatorSnapshotTable.Row("SPY", FRIDAY, -2.31, "OVERSOLD", 12.5, -0.04, 0.14, 0.42))
+                .put(new IndicatorSnapshotTable.Row("QQQ", FRIDAY, 0.5, "NEUTRAL", 40.0, 0.01, 0.19, Double.NaN))
+                .build();
+
+        assertEquals(2, friday.size());
+        IndicatorSnapshotTable.Row spy = friday.get("SPY").orElseThrow();
+        assertEquals(FRIDAY, spy.getBarDate());
+        assertEquals(-2.31, spy.getZscore(), 0);
+        assertEquals("OVERSOLD", spy.getSignal());
+        assertEquals(0.42, spy.getHurst(), 0);
+        assertTrue(Double.isNaN(friday.get("QQQ").orElseThrow().getHurst()));
+        assertTrue(friday.get("IWM").isEmpty());
+
+        IndicatorSnapshotTable monday = friday.toBuilder()
+                .put(new IndicatorSnapshotTable.Row("SPY", MONDAY, 1.1, "NEUTRAL", 11.0, -0.02, 0.13, 0.44))
+                .build();
+        assertEquals(2, monday.size());
+        assertEquals(MONDAY, monday.get("SPY").orElseThrow().getBarDate());
+        assertEquals(FRIDAY, monday.get("QQQ").orElseThrow().getBarDate());
+        assertEquals("SPY", monday.rows().get(0).getTicker());
+        // The old table is untouched
+        assertEquals(FRIDAY, friday.get("SPY").orElseThrow().getBarDate());
+        assertEquals(0, IndicatorSnapshotTable.EMPTY.size());
+    }
+}
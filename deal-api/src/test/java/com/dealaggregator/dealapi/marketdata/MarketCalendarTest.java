@@ -0,0 +1,43 @@
+package com.dealaggregator.dealapi.marketdata;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MarketCalendar.
+ */
+class MarketCalendarTest {
+
+    private static ZonedDateTime at(int year, int month, int day, int hour, int minute) {
+        return ZonedDateTime.of(year, month, day, hour, minute, 0, 0, MarketCalendar.ZONE);
+    }
+
+    @Test
+    @DisplayName("Last completed session - today after the close, yesterday before it, Friday over the weekend")
+    void testLastCompletedSession() {
+        // 2024-03-13 is a Wednesday
+        assertEquals(LocalDate.of(2024, 3, 13), MarketCalendar.lastCompletedSession(at(2024, 3, 13, 16, 0)));
+        assertEquals(LocalDate.of(2024, 3, 12), MarketCalendar.lastCompletedSession(at(2024, 3, 13, 15, 59)));
+        assertEquals(LocalDate.of(2024, 3, 15), MarketCalendar.lastCompletedSession(at(2024, 3, 16, 18, 0)));
+        assertEquals(LocalDate.of(2024, 3, 15), MarketCalendar.lastCompletedSession(at(2024, 3, 18, 9, 0)));
+        // Same instant from UTC (21:30 UTC = 17:30 New York)
+        assertEquals(LocalDate.of(2024, 3, 13), MarketCalendar.lastCompletedSession(
+                at(2024, 3, 13, 17, 30).withZoneSameInstant(ZoneOffset.UTC)));
+    }
+
+    @Test
+    @DisplayName("Session - 09:30 to 16:00 inclusive")
+    void testInSession() {
+        assertFalse(MarketCalendar.inSession(LocalTime.of(9, 29)));
+        assertTrue(MarketCalendar.inSession(LocalTime.of(9, 30)));
+        assertTrue(MarketCalendar.inSession(LocalTime.of(16, 0)));
+        assertFalse(MarketCalendar.inSession(LocalTime.of(16, 5)));
+    }
+}
@@ -0,0 +1,94 @@
+package com.dealaggregator.dealapi.marketdata;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the quote ingestion pipeline.
+ *
+ * Runs fully offline: quotes come from ReplayQuoteTransport reading a
+ * temporary CSV file.
+ */
+class QuoteIngestionEngineTest {
+
+    @Test
+    @DisplayName("Replay - latest quote per symbol lands in the table, malformed lines are skipped")
+    void testReplay_PopulatesLatestQuotes() throws Exception {
+        Path csv = Files.createTempFile("quotes", ".csv");
+        Files.writeString(csv, String.join("\n",
+                "timestampMillis,symbol,bid,ask,last,volume",
+                "# opening prints",
+                "1000,SPY,581.20,581.22,581.21,100",
+                "1001,QQQ,500.00,500.10,500.05,50",
+                "1002,SPY,581.30,581.32,581.31,200",
+                "1002,SPY,581.3O,581.32,581.31,200",
+                "1002,SPY,581.30",
+                "1003,SPY,,,581.40,",
+                ""), StandardCharsets.UTF_8);
+
+        QuoteIngestionEngine engine = new QuoteIngestionEngine(64);
+        ReplayQuoteTransport replay = ReplayQuoteTransport.fromFile(csv, 0);
+        engine.register(replay);
+        engine.start();
+
+        assertTrue(replay.awaitCompletion(5, TimeUnit.SECONDS));
+        engine.stop(); // Drains what is left in the ring
+
+        Quote spy = engine.getTable().get("SPY").get();
+        assertEquals(581.30, spy.getBid(), 1e-9); // Unchanged by the last (delta) line
+        assertEquals(581.32, spy.getAsk(), 1e-9);
+        assertEquals(581.40, spy.getLast(), 1e-9);
+        assertEquals(200, spy.getVolume());
+        assertEquals(1003, spy.getTimestampMillis());
+
+        assertEquals(500.05, engine.getTable().get("QQQ").get().getLast(), 1e-9);
+        assertEquals(4, replay.getLinesPublished());
+        assertEquals(2, replay.getLinesSkipped()); // Typo'd bid and a truncated line
+        assertEquals(0, engine.getDroppedCount());
+
+        Files.deleteIfExists(csv);
+    }
+
+    @Test
+    @DisplayName("Ring buffer - drops when full and drains in publish order")
+    void testRingBuffer_DropsWhenFull() {
+        QuoteRingBuffer ring = new QuoteRingBuffer(3); // Rounded up to 4
+        assertEquals(4, ring.getCapacity());
+
+        for (int i = 0; i < 6; i++) {
+            ring.offer("SPY", i, i, i, i, i);
+        }
+        assertEquals(2, ring.getDroppedCount());
+        assertEquals(4, ring.size());
+
+        LatestQuoteTable table = new LatestQuoteTable();
+        assertEquals(4, ring.drain(table, 10));
+        assertEquals(3.0, table.get("SPY").get().getLast(), 1e-9);
+
+        // Space freed: publishing works again
+        assertTrue(ring.offer("SPY", 9, 9, 9, 9, 9));
+        assertEquals(1, ring.drain(table, 10));
+        assertEquals(9.0, table.get("SPY").get().getLast(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Table - stale quotes are reported as NaN")
+    void testTable_StalenessCheck() {
+        LatestQuoteTable table = new LatestQuoteTable();
+        long now = System.currentTimeMillis();
+        table.onQuote("OLD", 1, 2, 1.5, 10, now - 60_000);
+        table.onQuote("NEW", 1, 2, 1.5, 10, now);
+
+        assertTrue(Double.isNaN(table.getLast("OLD", 15_000)));
+        assertEquals(1.5, table.getLast("OLD", -1), 1e-9);
+        assertEquals(1.5, table.getLast("NEW", 15_000), 1e-9);
+        assertTrue(Double.isNaN(table.getLast("MISSING", -1)));
+    }
+}
@@ -0,0 +1,106 @@
+package com.dealaggregator.dealapi.marketdata;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SchwabChainDecoder.
+ *
+ * Uses a trimmed-down Schwab chain response to verify the streaming decode
+ * and the binary-search strike lookups on the resulting columns.
+ */
+class SchwabChainDecoderTest {
+
+    private static final String CHAIN_JSON = "{"
+            + "\"symbol\":\"$SPX\",\"status\":\"SUCCESS\","
+            + "\"underlying\":{\"symbol\":\"$SPX\",\"last\":5812.4},"
+            + "\"underlyingPrice\":5812.4,"
+            + "\"putExpDateMap\":{\"2026-01-05:0\":{"
+            + "  \"5805.0\":[{\"bid\":4.1,\"ask\":4.3,\"volatility\":14.2,\"delta\":-0.35,\"openInterest\":1200}],"
+            + "  \"5810.0\":[{\"bid\":5.6,\"ask\":5.9,\"volatility\":13.9,\"delta\":-0.45,\"openInterest\":900}],"
+            + "  \"5815.0\":[{\"bid\":7.5,\"ask\":7.8,\"volatility\":13.5,\"delta\":-0.55,\"openInterest\":700}]"
+            + "}},"
+            + "\"callExpDateMap\":{"
+            + " \"2026-01-07:2\":{\"5810.0\":[{\"bid\":20.0,\"ask\":20.5,\"volatility\":-999.0,\"delta\":-999.0}]},"
+            + " \"2026-01-05:0\":{"
+            + "  \"5815.0\":[{\"bid\":4.9,\"ask\":5.1,\"volatility\":13.1,\"delta\":0.45,\"openInterest\":800,"
+            + "               \"optionDeliverablesList\":[{\"symbol\":\"$SPX\",\"assetType\":\"INDEX\"}]}],"
+            + "  \"5805.0\":[{\"bid\":9.0,\"ask\":9.4,\"volatility\":13.8,\"delta\":0.65,\"openInterest\":1500}],"
+            + "  \"5810.0\":[{\"bid\":6.8,\"ask\":7.0,\"volatility\":13.4,\"delta\":0.55,\"openInterest\":1100},"
+            + "              {\"bid\":99.0,\"ask\":99.0}]"
+            + "}}"
+            + "}";
+
+    private SchwabChainDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        decoder = new SchwabChainDecoder();
+    }
+
+    @Test
+    @DisplayName("Decode - reads underlying and orders expiries by date")
+    void testDecode_UnderlyingAndExpiries() throws Exception {
+        OptionChain chain = decoder.decode(CHAIN_JSON);
+
+        assertEquals("$SPX", chain.getSymbol());
+        assertEquals(5812.4, chain.getUnderlyingPrice(), 1e-9);
+        assertEquals(2, chain.getExpiries().size());
+        assertEquals("2026-01-05", chain.getExpiries().get(0).getDate());
+        assertEquals(0, chain.getExpiries().get(0).getDaysToExpiration());
+        assertEquals("2026-01-07", chain.getExpiries().get(1).getDate());
+    }
+
+    @Test
+    @DisplayName("Decode - columns are sorted by strike even if the response is not")
+    void testDecode_ColumnsSortedByStrike() throws Exception {
+        OptionChain.Side calls = decoder.decode(CHAIN_JSON).getFirstExpiry().get().getCalls();
+
+        assertEquals(3, calls.size());
+        assertEquals(5805.0, calls.strike(0), 1e-9);
+        assertEquals(5810.0, calls.strike(1), 1e-9);
+        assertEquals(5815.0, calls.strike(2), 1e-9);
+
+        // Fields travel with their strike
+        assertEquals(9.0, calls.bid(0), 1e-9);
+        assertEquals(0.65, calls.delta(0), 1e-9);
+        assertEquals(1500, calls.openInterest(0));
+        assertEquals(0.138, calls.iv(0), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Decode - keeps only the first contract at a strike")
+    void testDecode_FirstContractPerStrike() throws Exception {
+        OptionChain.Side calls = decoder.decode(CHAIN_JSON).getFirstExpiry().get().getCalls();
+
+        int idx = calls.indexOf(5810.0);
+        assertEquals(6.8, calls.bid(idx), 1e-9);
+        assertEquals(6.9, calls.mid(idx), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Decode - Schwab -999 placeholders become NaN")
+    void testDecode_MissingGreeksAreNaN() throws Exception {
+        OptionChain.Side calls = decoder.decode(CHAIN_JSON).getExpiry("2026-01-07").get().getCalls();
+
+        assertTrue(Double.isNaN(calls.iv(0)));
+        assertTrue(Double.isNaN(calls.delta(0)));
+        assertTrue(decoder.decode(CHAIN_JSON).getExpiry("2026-01-07").get().getPuts().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Nearest strike - binary search picks closest, lower strike on ties")
+    void testNearestIndex() throws Exception {
+        OptionChain.Side puts = decoder.decode(CHAIN_JSON).getFirstExpiry().get().getPuts();
+
+        assertEquals(5810.0, puts.strike(puts.nearestIndex(5811.0)), 1e-9);
+        assertEquals(5805.0, puts.strike(puts.nearestIndex(5807.5)), 1e-9);
+        assertEquals(5805.0, puts.strike(puts.nearestIndex(5000.0)), 1e-9);
+        assertEquals(5815.0, puts.strike(puts.nearestIndex(6000.0)), 1e-9);
+        assertEquals(-1, puts.indexOf(5812.0));
+        assertEquals(-1, OptionChain.Side.EMPTY.nearestIndex(5810.0));
+    }
+}
@@ -0,0 +1,156 @@
+package com.dealaggregator.dealapi.repository;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import com.dealaggregator.dealapi.entity.Leg;
+import com.dealaggregator.dealapi.entity.Strategy;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * JMH insert throughput for the strategy/leg graph against Postgres:
+ * one iron condor (1 strategy + 4 legs) per transaction, and a
+ * 10,000-trade import in one transaction (what /import does through
+ * StrategyService.importStrategies). batchSize 50 matches
+ * application.properties.
+ *
+ * batchSize 1 is row-at-a-time inserts with the current pooled sequence
+ * IDs. It is not the old IDENTITY baseline: IDENTITY also costs a
+ * returned key per row and disables batching, and measuring it would need
+ * the entities remapped. Treat it as a lower bound on that gain.
+ *
+ * Not a unit test (surefire ignores it) and needs a database it may write
+ * to, named explicitly with -Dbench.jdbc.url (plus -Dbench.jdbc.user and
+ * -Dbench.jdbc.password); the app's PG* variables are deliberately not
+ * used, so a benchmark run can't land on the live database by accident.
+ * Rows are written as user __benchmark__ and deleted on teardown. Run
+ * after test-compile with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=StrategyInsertBenchmark
+ *     -Dbench.jdbc.url=jdbc:postgresql://localhost/bench
+ *
+ * Trades per second = trades / average time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StrategyInsertBenchmark {
+
+    private static final String USER = "__benchmark__";
+    private static final int IMPORT_TRADES = 10_000;
+    /** Flush and clear the persistence context this often during an import */
+    private static final int FLUSH_EVERY = 1_000;
+
+    @Param({ "1", "50" })
+    private int batchSize;
+
+    private HikariDataSource dataSource;
+    private EntityManagerFactory emf;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = System.getProperty("bench.jdbc.url");
+        if (url == null || url.isBlank()) {
+            throw new IllegalStateException("Set -Dbench.jdbc.url to a database the benchmark may write to");
+        }
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url);
+        config.setUsername(System.getProperty("bench.jdbc.user"));
+        config.setPassword(System.getProperty("bench.jdbc.password"));
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
+        dataSource = new HikariDataSource(config);
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.hbm2ddl.auto", "update");
+        properties.put("hibernate.jdbc.batch_size", batchSize);
+        properties.put("hibernate.order_inserts", "true");
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("com.dealaggregator.dealapi.entity");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(properties);
+        factory.afterPropertiesSet();
+        emf = factory.getObject();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        em.createNativeQuery("DELETE FROM legs WHERE strategy_id IN (SELECT id FROM strategies WHERE user_id = ?1)")
+                .setParameter(1, USER).executeUpdate();
+        em.createNativeQuery("DELETE FROM strategies WHERE user_id = ?1").setParameter(1, USER).executeUpdate();
+        em.getTransaction().commit();
+        em.close();
+        emf.close();
+        dataSource.close();
+    }
+
+    private static Strategy ironCondor(int i) {
+        Strategy strategy = new Strategy(USER, "IRON_CONDOR", "SPX", -1.5);
+        LocalDate expiration = LocalDate.now().plusDays(i % 30);
+        double center = 5000 + i % 200;
+        addLeg(strategy, new Leg("put", center - 60, expiration, 1.0, 1));
+        addLeg(strategy, new Leg("put", center - 50, expiration, 2.0, -1));
+        addLeg(strategy, new Leg("call", center + 50, expiration, 2.0, -1));
+        addLeg(strategy, new Leg("call", center + 60, expiration, 1.0, 1));
+        return strategy;
+    }
+
+    private static void addLeg(Strategy strategy, Leg leg) {
+        leg.setStrategy(strategy);
+        strategy.getLegs().add(leg);
+    }
+
+    @Benchmark
+    public Long singleTrade() {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        Strategy strategy = ironCondor(0);
+        em.persist(strategy);
+        em.getTransaction().commit();
+        em.close();
+        return strategy.getId();
+    }
+
+    @Benchmark
+    public int import10k() {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < IMPORT_TRADES; i++) {
+            em.persist(ironCondor(i));
+            if ((i + 1) % FLUSH_EVERY == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.getTransaction().commit();
+        em.close();
+        return IMPORT_TRADES;
+    }
+}
@@ -0,0 +1,38 @@
+package com.dealaggregator.dealapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.dealaggregator.dealapi.analytics.DependenceScreen;
+
+/**
+ * Unit tests for DependenceScreenService ordering.
+ */
+class DependenceScreenServiceTest {
+
+    private static DependenceScreen.DependenceResult result(String symbol, double pearson) {
+        DependenceScreen.CorrelationResult correlation = new DependenceScreen.CorrelationResult(pearson, 0.5,
+                pearson, pearson);
+        return new DependenceScreen.DependenceResult(symbol, 60, 0.01, 0.5, correlation, correlation);
+    }
+
+    @Test
+    @DisplayName("Sort - strongest absolute correlation first, undefined (flat series) last")
+    void testStrongestFirst_NaNLast() {
+        List<DependenceScreen.DependenceResult> results = new ArrayList<>(List.of(
+                result("FLAT", Double.NaN), result("WEAK", 0.1), result("NEG", -0.8), result("POS", 0.5)));
+
+        results.sort(DependenceScreenService.strongestFirst(r -> Math.abs(r.getPearson().getCoefficient())));
+
+        List<String> order = new ArrayList<>();
+        for (DependenceScreen.DependenceResult r : results) {
+            order.add(r.getSymbol());
+        }
+        assertEquals(List.of("NEG", "POS", "WEAK", "FLAT"), order);
+    }
+}
@@ -0,0 +1,22 @@
+package com.dealaggregator.dealapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for IndicatorService rounding.
+ */
+class IndicatorServiceTest {
+
+    @Test
+    @DisplayName("Round - matches Python's round() on the binary value, half-even on exact ties")
+    void testRound_MatchesPython() {
+        assertEquals(2.67, IndicatorService.round(2.675, 2)); // Python: round(2.675, 2) == 2.67
+        assertEquals(0.12, IndicatorService.round(0.125, 2)); // Exact tie, even digit
+        assertEquals(0.38, IndicatorService.round(0.375, 2)); // Exact tie, even digit
+        assertEquals(-1.23457, IndicatorService.round(-1.234567, 5));
+        assertTrue(Double.isNaN(IndicatorService.round(Double.NaN, 2)));
+    }
+}
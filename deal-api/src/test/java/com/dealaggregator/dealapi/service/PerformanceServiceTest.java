@@ -0,0 +1,95 @@
+package com.dealaggregator.dealapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.dealaggregator.dealapi.marketdata.PriceBars;
+
+/**
+ * Unit tests for PerformanceService.
+ * Uses Mockito to mock the price history fetches.
+ */
+@ExtendWith(MockitoExtension.class)
+class PerformanceServiceTest {
+
+    private static final long DAY = 86_400_000L;
+    private static final int DAYS = 400;
+
+    @Mock
+    private PriceHistoryService priceHistoryService;
+
+    private PerformanceService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PerformanceService(priceHistoryService);
+        ReflectionTestUtils.setField(service, "benchmark", "^GSPC");
+        ReflectionTestUtils.setField(service, "omegaPeriod", 252);
+    }
+
+    private static PriceBars bars(String symbol, double drift) {
+        long[] times = new long[DAYS];
+        double[] close = new double[DAYS];
+        for (int i = 0; i < DAYS; i++) {
+            times[i] = i * DAY;
+            close[i] = 100 * Math.exp(drift * i + 0.02 * Math.sin(i / 3.0));
+        }
+        return new PriceBars(symbol, times, close, close, close, close, new long[DAYS]);
+    }
+
+    private void stubHistory() {
+        Map<String, PriceBars> history = new LinkedHashMap<>();
+        history.put("SPY", bars("SPY", 0.0005));
+        history.put("^GSPC", bars("^GSPC", 0.0003));
+        when(priceHistoryService.getCompletedDailyBarsForUniverse(anyList(), eq("2y"))).thenReturn(history);
+    }
+
+    @Test
+    @DisplayName("Profile - fetched once per session, refetched after a reseed")
+    void testReturnProfile_CachedPerSession() {
+        stubHistory();
+
+        PerformanceService.ReturnProfile first = service.getReturnProfile("spy");
+        assertSame(first, service.getReturnProfile("SPY"));
+        verify(priceHistoryService, times(1)).getCompletedDailyBarsForUniverse(anyList(), eq("2y"));
+
+        service.onHistoryReseeded(new PriceHistoryReseededEvent("SPY"));
+        assertNotSame(first, service.getReturnProfile("SPY"));
+        verify(priceHistoryService, times(2)).getCompletedDailyBarsForUniverse(anyList(), eq("2y"));
+    }
+
+    @Test
+    @DisplayName("Series - any return series gets the same profile as a ticker")
+    void testSeriesProfile_MatchesTicker() {
+        stubHistory();
+        PerformanceService.ReturnProfile ticker = service.getReturnProfile("SPY");
+
+        double[] returns = new double[DAYS - 1];
+        double[] benchmark = new double[DAYS - 1];
+        double[] own = bars("SPY", 0.0005).getClose();
+        double[] index = bars("^GSPC", 0.0003).getClose();
+        for (int i = 1; i < DAYS; i++) {
+            returns[i - 1] = Math.log(own[i] / own[i - 1]);
+            benchmark[i - 1] = Math.log(index[i] / index[i - 1]);
+        }
+        PerformanceService.ReturnProfile series = service.getSeriesProfile("P&L", returns, benchmark);
+
+        assertEquals("P&L", series.getTicker());
+        assertEquals(ticker.getOmega().getOmegaAtZero(), series.getOmega().getOmegaAtZero(), 1e-9);
+        assertEquals(ticker.getLMoments().getLSkewness(), series.getLMoments().getLSkewness(), 1e-9);
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getSeriesProfile("short", new double[10], benchmark));
+    }
+}
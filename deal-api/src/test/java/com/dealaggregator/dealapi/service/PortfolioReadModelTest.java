@@ -0,0 +1,60 @@
+package com.dealaggregator.dealapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.dealaggregator.dealapi.repository.StrategyView;
+
+/**
+ * Unit tests for PortfolioReadModel.
+ */
+class PortfolioReadModelTest {
+
+    private static StrategyView view(long id, String userId) {
+        return new StrategyView(id, userId, "Iron Condor", "SPY", LocalDateTime.of(2024, 3, 1, 10, 0), 1.25,
+                List.of());
+    }
+
+    @Test
+    @DisplayName("Get - a load that raced a write-through is returned but not cached")
+    void testGet_LoadRacingWriteIsNotCached() {
+        PortfolioReadModel model = new PortfolioReadModel();
+        AtomicInteger loads = new AtomicInteger();
+
+        // Strategy 2 is saved (and written through) after the load's query ran
+        List<StrategyView> first = model.get("user", id -> {
+            loads.incrementAndGet();
+            model.upsert(view(2, id));
+            return List.of(view(1, id));
+        });
+        assertEquals(1, first.size());
+        assertEquals(0, model.size());
+
+        List<StrategyView> second = model.get("user", id -> {
+            loads.incrementAndGet();
+            return List.of(view(1, id), view(2, id));
+        });
+        assertEquals(2, second.size());
+        assertEquals(2, loads.get());
+        assertSame(second, model.get("user", id -> fail("Snapshot should be cached")));
+    }
+
+    @Test
+    @DisplayName("Write-through - updates a cached snapshot in ID order")
+    void testUpsertAndRemove() {
+        PortfolioReadModel model = new PortfolioReadModel();
+        model.get("user", id -> List.of(view(3, id), view(1, id)));
+
+        model.upsert(view(2, "user"));
+        model.remove("user", 3L);
+
+        List<StrategyView> snapshot = model.get("user", id -> fail("Snapshot should be cached"));
+        assertEquals(List.of(1L, 2L), snapshot.stream().map(StrategyView::getId).toList());
+    }
+}
@@ -5,6 +5,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -20,6 +22,7 @@ import com.dealaggregator.dealapi.entity.Leg;
 import com.dealaggregator.dealapi.entity.Strategy;
 import com.dealaggregator.dealapi.entity.StrategyStatus;
 import com.dealaggregator.dealapi.repository.StrategyRepository;
+import com.dealaggregator.dealapi.repository.StrategyView;
 
 /**
  * Unit tests for StrategyService.
@@ -107,30 +110,50 @@ class StrategyServiceTest {
     @DisplayName("Get open strategies - returns only OPEN status")
     void testGetOpenStrategies_ReturnsOnlyOpen() {
         // Arrange
-        Strategy strategy1 = new Strategy("user1", "CALL", "AAPL");
-        Strategy strategy2 = new Strategy("user1", "PUT", "MSFT");
-        List<Strategy> expectedStrategies = Arrays.asList(strategy1, strategy2);
+        Strategy strategy1 = saved(1L, "user1", "AAPL");
+        Strategy strategy2 = saved(2L, "user1", "MSFT");
+        strategy2.getLegs().add(new Leg("put", 300.0, LocalDate.now().plusDays(30), 4.0, -1));
 
-        when(strategyRepo.findByUserIdAndStatus("user1", StrategyStatus.OPEN))
-                .thenReturn(expectedStrategies);
+        when(strategyRepo.findPositionRows("user1", StrategyStatus.OPEN))
+                .thenReturn(rowsOf(strategy1, strategy2));
 
         // Act
-        List<Strategy> result = strategyService.getOpenStrategies("user1");
+        List<StrategyView> result = strategyService.getOpenStrategies("user1");
 
-        // Assert
+        // Assert - one view per strategy, legs grouped under it
         assertEquals(2, result.size());
-        verify(strategyRepo).findByUserIdAndStatus("user1", StrategyStatus.OPEN);
+        assertEquals(1, result.get(0).getLegs().size());
+        assertEquals(2, result.get(1).getLegs().size());
+        assertEquals(-1, result.get(1).getLegs().get(1).getQuantity());
+        verify(strategyRepo).findPositionRows("user1", StrategyStatus.OPEN);
+    }
+
+    @Test
+    @DisplayName("Get open strategies - a strategy without legs (null leg columns) gets an empty leg list")
+    void testGetOpenStrategies_StrategyWithoutLegs() {
+        Strategy noLegs = saved(2L, "user1", "SPY");
+        noLegs.getLegs().clear();
+        when(strategyRepo.findPositionRows("user1", StrategyStatus.OPEN))
+                .thenReturn(rowsOf(saved(1L, "user1", "AAPL"), noLegs, saved(3L, "user1", "MSFT")));
+
+        List<StrategyView> result = strategyService.getOpenStrategies("user1");
+
+        assertEquals(3, result.size());
+        assertEquals("SPY", result.get(1).getTicker());
+        assertTrue(result.get(1).getLegs().isEmpty());
+        assertEquals(1, result.get(0).getLegs().size());
+        assertEquals(1, result.get(2).getLegs().size());
     }
 
     @Test
     @DisplayName("Get open strategies - empty list for new user")
     void testGetOpenStrategies_EmptyForNewUser() {
         // Arrange
-        when(strategyRepo.findByUserIdAndStatus("newuser", StrategyStatus.OPEN))
+        when(strategyRepo.findPositionRows("newuser", StrategyStatus.OPEN))
                 .thenReturn(Arrays.asList());
 
         // Act
-        List<Strategy> result = strategyService.getOpenStrategies("newuser");
+        List<StrategyView> result = strategyService.getOpenStrategies("newuser");
 
         // Assert
         assertTrue(result.isEmpty());
@@ -156,4 +179,234 @@ class StrategyServiceTest {
         assertEquals(StrategyStatus.CLOSED, strategy.getStatus());
         verify(strategyRepo).save(strategy);
     }
+
+    // ==================== READ MODEL TESTS ====================
+
+    private static Strategy saved(Long id, String userId, String ticker) {
+        Strategy strategy = new Strategy(userId, "CALL", ticker);
+        strategy.setId(id);
+        Leg leg = new Leg("call", 100.0, LocalDate.now().plusDays(30), 2.0, 1);
+        leg.setStrategy(strategy);
+        strategy.getLegs().add(leg);
+        return strategy;
+    }
+
+    /**
+     * Join rows the position query would return for these strategies: one
+     * per leg, or one with null leg columns (the LEFT JOIN) if it has none.
+     */
+    private static List<StrategyRepository.PositionRow> rowsOf(Strategy... strategies) {
+        List<StrategyRepository.PositionRow> rows = new ArrayList<>();
+        for (Strategy s : strategies) {
+            if (s.getLegs().isEmpty()) {
+                rows.add(new Row(s, null, null));
+            }
+            long legId = s.getId() * 10;
+            for (Leg leg : s.getLegs()) {
+                rows.add(new Row(s, legId++, leg));
+            }
+        }
+        return rows;
+    }
+
+    private static final class Row implements StrategyRepository.PositionRow {
+        private final Strategy strategy;
+        private final Long legId;
+        private final Leg leg;
+
+        Row(Strategy strategy, Long legId, Leg leg) {
+            this.strategy = strategy;
+            this.legId = legId;
+            this.leg = leg;
+        }
+
+        public Long getStrategyId() {
+            return strategy.getId();
+        }
+
+        public String getUserId() {
+            return strategy.getUserId();
+        }
+
+        public String getStrategyType() {
+            return strategy.getStrategy();
+        }
+
+        public String getTicker() {
+            return strategy.getTicker();
+        }
+
+        public LocalDateTime getOpenedAt() {
+            return strategy.getOpenedAt();
+        }
+
+        public Double getNetCost() {
+            return strategy.getNetCost();
+        }
+
+        public Long getLegId() {
+            return legId;
+        }
+
+        public String getOptionType() {
+            return leg == null ? null : leg.getOptionType();
+        }
+
+        public Double getStrikePrice() {
+            return leg == null ? null : leg.getStrikePrice();
+        }
+
+        public LocalDate getExpiration() {
+            return leg == null ? null : leg.getExpiration();
+        }
+
+        public Double getEntryPrice() {
+            return leg == null ? null : leg.getEntryPrice();
+        }
+
+        public Integer getQuantity() {
+            return leg == null ? null : leg.getQuantity();
+        }
+    }
+
+    @Test
+    @DisplayName("Read model - repeat reads are served from memory")
+    void testGetOpenStrategies_CachesSnapshot() {
+        when(strategyRepo.findPositionRows("user1", StrategyStatus.OPEN))
+                .thenReturn(rowsOf(saved(2L, "user1", "MSFT"), saved(1L, "user1", "AAPL")));
+
+        List<StrategyView> first = strategyService.getOpenStrategies("user1");
+        List<StrategyView> second = strategyService.getOpenStrategies("user1");
+
+        assertSame(first, second);
+        assertEquals(Arrays.asList(1L, 2L), Arrays.asList(first.get(0).getId(), first.get(1).getId()));
+        assertThrows(UnsupportedOperationException.class, () -> first.remove(0));
+        verify(strategyRepo, times(1)).findPositionRows("user1", StrategyStatus.OPEN);
+    }
+
+    @Test
+    @DisplayName("Read model - open and close write through without reloading")
+    void testWriteThrough() {
+        Strategy existing = saved(1L, "user1", "AAPL");
+        when(strategyRepo.findAllPositionRows(StrategyStatus.OPEN)).thenReturn(rowsOf(existing));
+        when(strategyRepo.save(any(Strategy.class))).thenAnswer(i -> {
+            Strategy s = i.getArgument(0);
+            if (s.getId() == null) {
+                s.setId(2L);
+            }
+            return s;
+        });
+        when(strategyRepo.findById(1L)).thenReturn(Optional.of(existing));
+        strategyService.warmUp();
+
+        strategyService.openStrategy("user1", "PUT", "SPY",
+                Arrays.asList(new Leg("put", 400.0, LocalDate.now().plusDays(7), 3.0, 1)));
+        List<StrategyView> afterOpen = strategyService.getOpenStrategies("user1");
+        assertEquals(2, afterOpen.size());
+        assertEquals("SPY", afterOpen.get(1).getTicker());
+        assertEquals(1, afterOpen.get(1).getLegs().size());
+
+        strategyService.closeStrategy(1L);
+        List<StrategyView> afterClose = strategyService.getOpenStrategies("user1");
+        assertEquals(1, afterClose.size());
+        assertEquals(2L, afterClose.get(0).getId());
+        // Snapshots already handed out don't change
+        assertEquals(2, afterOpen.size());
+        verify(strategyRepo, never()).findPositionRows(any(), any());
+    }
+
+    @Test
+    @DisplayName("Read model - invalidation reloads the user from the database")
+    void testInvalidatePortfolio() {
+        when(strategyRepo.findPositionRows("user1", StrategyStatus.OPEN))
+                .thenReturn(rowsOf(saved(1L, "user1", "AAPL")))
+                .thenReturn(rowsOf(saved(1L, "user1", "AAPL"), saved(5L, "user1", "TSLA")));
+
+        assertEquals(1, strategyService.getOpenStrategies("user1").size());
+        strategyService.invalidatePortfolio("user1");
+        assertEquals(2, strategyService.getOpenStrategies("user1").size());
+        verify(strategyRepo, times(2)).findPositionRows("user1", StrategyStatus.OPEN);
+    }
+
+    // ==================== BULK CLOSE TESTS ====================
+
+    private static StrategyRepository.ClosedStrategy closed(Long id, String ticker, Double netCost) {
+        return new StrategyRepository.ClosedStrategy() {
+            public Long getId() {
+                return id;
+            }
+
+            public String getTicker() {
+                return ticker;
+            }
+
+            public Double getNetCost() {
+                return netCost;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Bulk close by ticker - one UPDATE, closed rows leave the read model")
+    void testCloseStrategies_ByTicker() {
+        when(strategyRepo.findAllPositionRows(StrategyStatus.OPEN)).thenReturn(rowsOf(
+                saved(1L, "user1", "AAPL"), saved(2L, "user1", "SPY"), saved(3L, "user1", "AAPL")));
+        when(strategyRepo.closeOpenByTicker("user1", "AAPL"))
+                .thenReturn(Arrays.asList(closed(1L, "AAPL", 2.0), closed(3L, "AAPL", -1.5)));
+        strategyService.warmUp();
+
+        List<StrategyRepository.ClosedStrategy> result = strategyService.closeStrategies("user1", "AAPL");
+
+        assertEquals(2, result.size());
+        List<StrategyView> open = strategyService.getOpenStrategies("user1");
+        assertEquals(1, open.size());
+        assertEquals("SPY", open.get(0).getTicker());
+        verify(strategyRepo, never()).findById(any());
+        verify(strategyRepo, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Bulk close by IDs - empty list skips the database")
+    void testCloseStrategies_ByIds() {
+        when(strategyRepo.closeOpenByIds("user1", Arrays.asList(4L, 9L)))
+                .thenReturn(Arrays.asList(closed(4L, "QQQ", 1.25)));
+
+        List<StrategyRepository.ClosedStrategy> result = strategyService.closeStrategies("user1",
+                Arrays.asList(4L, 9L));
+
+        assertEquals(1, result.size());
+        assertEquals(4L, result.get(0).getId());
+        assertEquals(1.25, result.get(0).getNetCost());
+        assertTrue(strategyService.closeStrategies("user1", List.<Long>of()).isEmpty());
+        verify(strategyRepo, times(1)).closeOpenByIds(any(), any());
+    }
+
+    // ==================== IMPORT TESTS ====================
+
+    @Test
+    @DisplayName("Import - links legs, saves in one saveAll and writes through")
+    void testImportStrategies() {
+        when(strategyRepo.findPositionRows("user1", StrategyStatus.OPEN))
+                .thenReturn(rowsOf(saved(1L, "user1", "AAPL")));
+        when(strategyRepo.saveAll(any())).thenAnswer(i -> {
+            List<Strategy> batch = i.getArgument(0);
+            long id = 10;
+            for (Strategy s : batch) {
+                s.setId(id++);
+            }
+            return batch;
+        });
+        strategyService.getOpenStrategies("user1");
+
+        Strategy first = new Strategy("user1", "CALL", "SPY");
+        first.getLegs().add(new Leg("call", 500.0, LocalDate.now().plusDays(7), 1.0, 1));
+        Strategy second = new Strategy("user1", "PUT", "QQQ");
+        List<Strategy> result = strategyService.importStrategies(Arrays.asList(first, second));
+
+        assertEquals(2, result.size());
+        assertSame(first, first.getLegs().get(0).getStrategy());
+        assertEquals(3, strategyService.getOpenStrategies("user1").size());
+        verify(strategyRepo, times(1)).saveAll(any());
+        verify(strategyRepo, never()).save(any());
+    }
 }
@@ -0,0 +1,97 @@
+package com.dealaggregator.dealapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.dealaggregator.dealapi.marketdata.PriceBars;
+
+/**
+ * Unit tests for WatchlistIndicatorService.
+ * Uses Mockito to mock the price history fetches.
+ */
+@ExtendWith(MockitoExtension.class)
+class WatchlistIndicatorServiceTest {
+
+    private static final long DAY = 86_400_000L;
+
+    @Mock
+    private PriceHistoryService priceHistoryService;
+
+    private WatchlistIndicatorService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new WatchlistIndicatorService(priceHistoryService);
+    }
+
+    /** Bars [from, to) of one synthetic series, every close multiplied by {@code scale} */
+    private static PriceBars bars(int from, int to, double scale) {
+        int n = to - from;
+        long[] times = new long[n];
+        double[] close = new double[n];
+        for (int i = 0; i < n; i++) {
+            times[i] = (from + i) * DAY;
+            close[i] = scale * (100 + 5 * Math.sin((from + i) / 7.0) + (from + i) % 3);
+        }
+        return new PriceBars("SPY", times, close, close, close, close, new long[n]);
+    }
+
+    private long barsSeen() {
+        Map<String, Object> indicators = service.getIndicators("SPY").orElseThrow();
+        return (Long) indicators.get("bars");
+    }
+
+    @Test
+    @DisplayName("Refresh - applies only new bars while the adjustment basis holds")
+    void testRefresh_AppliesNewBars() throws Exception {
+        when(priceHistoryService.getCompletedDailyBars("SPY", "1y")).thenReturn(bars(0, 250, 1.0));
+        when(priceHistoryService.getCompletedDailyBars("SPY", "5d")).thenReturn(bars(246, 251, 1.0));
+
+        service.refresh("SPY");
+        assertEquals(250, barsSeen());
+        service.refresh("SPY");
+        assertEquals(251, barsSeen());
+
+        verify(priceHistoryService, times(1)).getCompletedDailyBars("SPY", "1y");
+    }
+
+    @Test
+    @DisplayName("Refresh - a changed overlap close (dividend/split) reseeds from a full year")
+    void testRefresh_ReseedsOnAdjustmentChange() throws Exception {
+        when(priceHistoryService.getCompletedDailyBars("SPY", "1y"))
+                .thenReturn(bars(0, 250, 1.0))
+                .thenReturn(bars(2, 252, 0.98));
+        // History rescaled by a 2% dividend: bar 249 no longer has the close it was applied with
+        when(priceHistoryService.getCompletedDailyBars("SPY", "5d")).thenReturn(bars(247, 252, 0.98));
+
+        service.refresh("SPY");
+        service.refresh("SPY");
+
+        // A fresh state holding only the reseeded year, not 250 old bars plus 2 new ones
+        assertEquals(250, barsSeen());
+        verify(priceHistoryService, times(2)).getCompletedDailyBars("SPY", "1y");
+        assertEquals(251 * DAY, (long) (Long) service.getIndicators("SPY").orElseThrow().get("last_bar_time"));
+    }
+
+    @Test
+    @DisplayName("Reseed event - the next refresh warms up again even if the overlap close agrees")
+    void testRefresh_ReseedsOnStoreEvent() throws Exception {
+        when(priceHistoryService.getCompletedDailyBars("SPY", "1y")).thenReturn(bars(0, 250, 1.0));
+
+        service.refresh("SPY");
+        service.onHistoryReseeded(new PriceHistoryReseededEvent("spy"));
+        service.refresh("SPY");
+
+        assertEquals(250, barsSeen());
+        verify(priceHistoryService, times(2)).getCompletedDailyBars("SPY", "1y");
+    }
+}